@@ -16,10 +16,14 @@
 
 package io.spring.initializr.actuate.autoconfigure;
 
+import io.spring.initializr.actuate.health.TemplateRendererHealthIndicator;
 import io.spring.initializr.actuate.info.BomRangesInfoContributor;
 import io.spring.initializr.actuate.info.DependencyRangesInfoContributor;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.util.TemplateRenderer;
 
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -30,6 +34,7 @@ import org.springframework.context.annotation.Configuration;
  * @author Stephane Nicoll
  */
 @Configuration
+@AutoConfigureAfter(name = "io.spring.initializr.web.autoconfigure.InitializrAutoConfiguration")
 public class InitializrActuatorEndpointsAutoConfiguration {
 
 	@Bean
@@ -38,6 +43,13 @@ public class InitializrActuatorEndpointsAutoConfiguration {
 		return new BomRangesInfoContributor(metadataProvider);
 	}
 
+	@Bean
+	@ConditionalOnBean(TemplateRenderer.class)
+	public TemplateRendererHealthIndicator templateRendererHealthIndicator(
+			TemplateRenderer templateRenderer) {
+		return new TemplateRendererHealthIndicator(templateRenderer);
+	}
+
 	@Bean
 	public DependencyRangesInfoContributor dependencyRangesInfoContributor(
 			InitializrMetadataProvider metadataProvider) {
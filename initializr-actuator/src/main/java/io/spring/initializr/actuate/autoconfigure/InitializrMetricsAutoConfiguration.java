@@ -17,10 +17,28 @@
 package io.spring.initializr.actuate.autoconfigure;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.actuate.metric.InitializrMetadataRefreshMetrics;
+import io.spring.initializr.actuate.metric.ProjectArchiveCacheMetrics;
+import io.spring.initializr.actuate.metric.ProjectArchiveCoalescerMetrics;
+import io.spring.initializr.actuate.metric.ProjectGenerationLimiterMetrics;
 import io.spring.initializr.actuate.metric.ProjectGenerationMetricsListener;
+import io.spring.initializr.actuate.metric.ProjectGenerationPhaseMetrics;
+import io.spring.initializr.actuate.metric.ProjectGenerationStatPublisherMetrics;
+import io.spring.initializr.actuate.metric.ProjectWorkspaceMetrics;
+import io.spring.initializr.actuate.metric.TemplateRendererMetrics;
+import io.spring.initializr.actuate.stat.ProjectGenerationStatPublisher;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.util.TemplateRenderer;
+import io.spring.initializr.web.project.ProjectGenerationLimiter;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
 import org.springframework.context.annotation.Bean;
@@ -34,13 +52,90 @@ import org.springframework.context.annotation.Configuration;
  */
 @Configuration
 @ConditionalOnClass(MeterRegistry.class)
-@AutoConfigureAfter(CompositeMeterRegistryAutoConfiguration.class)
+@AutoConfigureAfter(value = { CompositeMeterRegistryAutoConfiguration.class,
+		InitializrStatsAutoConfiguration.class }, name = "io.spring.initializr.web.autoconfigure.InitializrAutoConfiguration")
 public class InitializrMetricsAutoConfiguration {
 
 	@Bean
 	@ConditionalOnSingleCandidate(MeterRegistry.class)
-	public ProjectGenerationMetricsListener metricsListener(MeterRegistry meterRegistry) {
-		return new ProjectGenerationMetricsListener(meterRegistry);
+	public ProjectGenerationMetricsListener metricsListener(MeterRegistry meterRegistry,
+			ObjectProvider<InitializrMetadataProvider> metadataProvider) {
+		return new ProjectGenerationMetricsListener(meterRegistry,
+				metadataProvider.getIfAvailable());
+	}
+
+	@Bean
+	@ConditionalOnSingleCandidate(MeterRegistry.class)
+	public ProjectGenerationPhaseMetrics projectGenerationPhaseMetrics(
+			MeterRegistry meterRegistry) {
+		return new ProjectGenerationPhaseMetrics(meterRegistry);
+	}
+
+	@Bean
+	@ConditionalOnBean(ProjectArchiveCache.class)
+	public ProjectArchiveCacheMetrics projectArchiveCacheMetrics(
+			ProjectArchiveCache archiveCache) {
+		return new ProjectArchiveCacheMetrics(archiveCache);
+	}
+
+	@Bean
+	@ConditionalOnBean(ProjectArchiveCoalescer.class)
+	public ProjectArchiveCoalescerMetrics projectArchiveCoalescerMetrics(
+			ProjectArchiveCoalescer coalescer) {
+		return new ProjectArchiveCoalescerMetrics(coalescer);
+	}
+
+	@Bean
+	@ConditionalOnBean(ProjectWorkspaceManager.class)
+	public ProjectWorkspaceMetrics projectWorkspaceMetrics(
+			ProjectWorkspaceManager workspaceManager) {
+		return new ProjectWorkspaceMetrics(workspaceManager);
+	}
+
+	@Bean
+	@ConditionalOnBean(ProjectGenerationStatPublisher.class)
+	public ProjectGenerationStatPublisherMetrics projectGenerationStatPublisherMetrics(
+			ProjectGenerationStatPublisher statPublisher) {
+		return new ProjectGenerationStatPublisherMetrics(statPublisher);
+	}
+
+	@Bean
+	@ConditionalOnBean(TemplateRenderer.class)
+	public TemplateRendererMetrics templateRendererMetrics(
+			TemplateRenderer templateRenderer) {
+		return new TemplateRendererMetrics(templateRenderer);
+	}
+
+	/**
+	 * Metadata refresh metrics configuration.
+	 */
+	@Configuration
+	@ConditionalOnClass(InitializrMetadataRefresher.class)
+	static class InitializrMetadataRefreshMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnBean(InitializrMetadataRefresher.class)
+		public InitializrMetadataRefreshMetrics initializrMetadataRefreshMetrics(
+				InitializrMetadataRefresher refresher) {
+			return new InitializrMetadataRefreshMetrics(refresher);
+		}
+
+	}
+
+	/**
+	 * Project generation limiter metrics configuration.
+	 */
+	@Configuration
+	@ConditionalOnClass(ProjectGenerationLimiter.class)
+	static class ProjectGenerationLimiterMetricsConfiguration {
+
+		@Bean
+		@ConditionalOnBean(ProjectGenerationLimiter.class)
+		public ProjectGenerationLimiterMetrics projectGenerationLimiterMetrics(
+				ProjectGenerationLimiter limiter) {
+			return new ProjectGenerationLimiterMetrics(limiter);
+		}
+
 	}
 
 }
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.health;
+
+import io.spring.initializr.util.TemplateRenderer;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * A {@link org.springframework.boot.actuate.health.HealthIndicator} that reports the
+ * instance as out of service until the templates of the {@link TemplateRenderer} have
+ * been precompiled, so that traffic is only routed to a warm instance.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererHealthIndicator extends AbstractHealthIndicator {
+
+	private final TemplateRenderer templateRenderer;
+
+	public TemplateRendererHealthIndicator(TemplateRenderer templateRenderer) {
+		super("Template renderer health check failed");
+		this.templateRenderer = templateRenderer;
+	}
+
+	@Override
+	protected void doHealthCheck(Health.Builder builder) {
+		if (this.templateRenderer.isCache() && !this.templateRenderer.isPrecompiled()) {
+			builder.outOfService();
+		}
+		else {
+			builder.up();
+		}
+		builder.withDetail("templates", this.templateRenderer.getStatistics().size());
+	}
+
+}
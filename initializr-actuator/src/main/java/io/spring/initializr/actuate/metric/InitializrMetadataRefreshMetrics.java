@@ -0,0 +1,73 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
+
+/**
+ * Expose the state of an {@link InitializrMetadataRefresher}: the time of the last
+ * successful refresh, the age of the metadata and the number of failed refreshes.
+ *
+ * @author Julien Marchand
+ */
+public class InitializrMetadataRefreshMetrics implements MeterBinder {
+
+	private final InitializrMetadataRefresher refresher;
+
+	public InitializrMetadataRefreshMetrics(InitializrMetadataRefresher refresher) {
+		this.refresher = refresher;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("initializr.metadata.refresh.last", this.refresher,
+				(refresher) -> toSeconds(refresher.getLastRefreshTime()))
+				.baseUnit("seconds")
+				.description("The time of the last refresh of the metadata, "
+						+ "in seconds since the epoch")
+				.register(registry);
+		Gauge.builder("initializr.metadata.refresh.age", this.refresher,
+				InitializrMetadataRefreshMetrics::age).baseUnit("seconds")
+				.description("The time elapsed since the last refresh of the metadata")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.metadata.refresh.failures", this.refresher,
+						InitializrMetadataRefresher::getFailureCount)
+				.description("The number of failed refreshes of the metadata")
+				.register(registry);
+	}
+
+	private static double toSeconds(Instant instant) {
+		return (instant != null) ? instant.toEpochMilli() / 1000.0 : Double.NaN;
+	}
+
+	private static double age(InitializrMetadataRefresher refresher) {
+		Instant lastRefreshTime = refresher.getLastRefreshTime();
+		if (lastRefreshTime == null) {
+			return Double.NaN;
+		}
+		return Duration.between(lastRefreshTime, Instant.now()).toMillis() / 1000.0;
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.Collections;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+
+/**
+ * Expose the metrics of a {@link ProjectArchiveCache} using the standard cache meters.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCacheMetrics extends CacheMeterBinder {
+
+	/**
+	 * The name of the cache used to tag its meters.
+	 */
+	public static final String CACHE_NAME = "initializr.archive";
+
+	private final ProjectArchiveCache cache;
+
+	public ProjectArchiveCacheMetrics(ProjectArchiveCache cache) {
+		super(cache, CACHE_NAME, Collections.emptyList());
+		this.cache = cache;
+	}
+
+	@Override
+	protected Long size() {
+		return (long) this.cache.getEntryCount();
+	}
+
+	@Override
+	protected long hitCount() {
+		return this.cache.getHitCount();
+	}
+
+	@Override
+	protected Long missCount() {
+		return this.cache.getMissCount();
+	}
+
+	@Override
+	protected Long evictionCount() {
+		return this.cache.getEvictionCount();
+	}
+
+	@Override
+	protected long putCount() {
+		return this.cache.getPutCount();
+	}
+
+	@Override
+	protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+		Gauge.builder("cache.archive.size", this.cache, ProjectArchiveCache::getSize)
+				.tags(getTagsWithCacheName()).baseUnit("bytes")
+				.description("The size of the cached archives").register(registry);
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+
+/**
+ * Expose the state of a {@link ProjectArchiveCoalescer}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCoalescerMetrics implements MeterBinder {
+
+	private final ProjectArchiveCoalescer coalescer;
+
+	public ProjectArchiveCoalescerMetrics(ProjectArchiveCoalescer coalescer) {
+		this.coalescer = coalescer;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("initializr.generation.coalescer.in.flight", this.coalescer,
+				ProjectArchiveCoalescer::getInFlightCount)
+				.description("The number of archives being generated").register(registry);
+		FunctionCounter
+				.builder("initializr.generation.coalescer.generated", this.coalescer,
+						ProjectArchiveCoalescer::getGeneratedCount)
+				.description("The number of generated archives").register(registry);
+		FunctionCounter
+				.builder("initializr.generation.coalescer.shared", this.coalescer,
+						ProjectArchiveCoalescer::getSharedCount)
+				.description(
+						"The number of requests served with an archive generated for an identical request")
+				.register(registry);
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.web.project.ProjectGenerationLimiter;
+
+/**
+ * Expose the state of a {@link ProjectGenerationLimiter}: its limits, the number of
+ * active and queued generations and the number of rejected requests.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationLimiterMetrics implements MeterBinder {
+
+	private final ProjectGenerationLimiter limiter;
+
+	public ProjectGenerationLimiterMetrics(ProjectGenerationLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("initializr.generation.limiter.concurrency", this.limiter,
+				ProjectGenerationLimiter::getConcurrency)
+				.description("The maximum number of concurrent generations")
+				.register(registry);
+		Gauge.builder("initializr.generation.limiter.queue.capacity", this.limiter,
+				ProjectGenerationLimiter::getQueueCapacity)
+				.description("The maximum number of queued generation requests")
+				.register(registry);
+		Gauge.builder("initializr.generation.limiter.active", this.limiter,
+				ProjectGenerationLimiter::getActiveCount)
+				.description("The number of projects being generated").register(registry);
+		Gauge.builder("initializr.generation.limiter.queued", this.limiter,
+				ProjectGenerationLimiter::getQueuedCount)
+				.description("The number of generation requests waiting for a slot")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.generation.limiter.rejected", this.limiter,
+						ProjectGenerationLimiter::getRejectedCount)
+				.description("The number of rejected generation requests")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.generation.limiter.completed", this.limiter,
+						ProjectGenerationLimiter::getCompletedCount)
+				.description("The number of completed generations").register(registry);
+	}
+
+}
@@ -16,14 +16,26 @@
 
 package io.spring.initializr.actuate.metric;
 
+import java.time.Duration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.spring.initializr.generator.ProjectFailedEvent;
 import io.spring.initializr.generator.ProjectGeneratedEvent;
+import io.spring.initializr.generator.ProjectGenerationSource;
 import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectRequestEvent;
 import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.metadata.InitializrMetadataRefreshedEvent;
+import io.spring.initializr.metadata.MetadataElement;
 import io.spring.initializr.util.Agent;
+import io.spring.initializr.util.Agent.AgentId;
 
 import org.springframework.context.event.EventListener;
 import org.springframework.util.StringUtils;
@@ -31,6 +43,21 @@ import org.springframework.util.StringUtils;
 /**
  * A {@link ProjectGeneratedEvent} listener that uses a {@link MeterRegistry} to update
  * various project related metrics.
+ * <p>
+ * Every counter is updated by {@link #increment(String)}, which can be overridden to
+ * customize how a key is counted. The counters of the dependencies, types, Java versions,
+ * packagings, languages and Spring Boot versions of the metadata are registered upfront
+ * so that handling an event does not look them up in the registry: the metadata is
+ * requested from the {@link InitializrMetadataProvider}, if any, when the first event is
+ * handled and the counters are registered again when an
+ * {@link InitializrMetadataRefreshedEvent} is received. Values that are not part of the
+ * metadata are counted using a counter that is looked up on demand.
+ * <p>
+ * The time it took to generate a project is recorded by the {@code initializr.generation}
+ * timer, tagged with the outcome of the generation and the
+ * {@link ProjectGenerationSource source} of the project so that projects served from a
+ * cache or shared with an identical request do not skew the time of actual
+ * generations.
  *
  * @author Stephane Nicoll
  */
@@ -38,22 +65,64 @@ public class ProjectGenerationMetricsListener {
 
 	private final MeterRegistry meterRegistry;
 
+	private final InitializrMetadataProvider metadataProvider;
+
+	private final Timer[] successfulGenerations;
+
+	private final Timer[] failedGenerations;
+
+	private final Object monitor = new Object();
+
+	private volatile MetadataCounters counters;
+
 	public ProjectGenerationMetricsListener(MeterRegistry meterRegistry) {
+		this(meterRegistry, null);
+	}
+
+	public ProjectGenerationMetricsListener(MeterRegistry meterRegistry,
+			InitializrMetadataProvider metadataProvider) {
 		this.meterRegistry = meterRegistry;
+		this.metadataProvider = metadataProvider;
+		this.counters = new MetadataCounters(null, registerCounters(null));
+		this.successfulGenerations = createGenerationTimers("success");
+		this.failedGenerations = createGenerationTimers("failure");
+	}
+
+	private Timer[] createGenerationTimers(String outcome) {
+		ProjectGenerationSource[] sources = ProjectGenerationSource.values();
+		Timer[] timers = new Timer[sources.length];
+		for (ProjectGenerationSource source : sources) {
+			timers[source.ordinal()] = Timer.builder(key("generation"))
+					.description("Time taken to generate a project")
+					.tag("outcome", outcome).tag("source", source.getId())
+					.publishPercentiles(0.5, 0.95, 0.99).publishPercentileHistogram()
+					.register(this.meterRegistry);
+		}
+		return timers;
 	}
 
 	@EventListener
 	public void onGeneratedProject(ProjectGeneratedEvent event) {
 		handleProjectRequest(event.getProjectRequest());
+		record(this.successfulGenerations, event);
 	}
 
 	@EventListener
 	public void onFailedProject(ProjectFailedEvent event) {
 		handleProjectRequest(event.getProjectRequest());
 		increment(key("failures"));
+		record(this.failedGenerations, event);
+	}
+
+	@EventListener
+	public void onMetadataRefreshed(InitializrMetadataRefreshedEvent event) {
+		updateCounters(event.getMetadata());
 	}
 
 	protected void handleProjectRequest(ProjectRequest request) {
+		if (this.counters.metadata == null && this.metadataProvider != null) {
+			updateCounters(this.metadataProvider.get());
+		}
 		increment(key("requests")); // Total number of requests
 		handleDependencies(request);
 		handleType(request);
@@ -112,17 +181,18 @@ public class ProjectGenerationMetricsListener {
 	}
 
 	protected void handleUserAgent(ProjectRequest request) {
-		String userAgent = (String) request.getParameters().get("user-agent");
-		if (userAgent != null) {
-			Agent agent = Agent.fromUserAgent(userAgent);
-			if (agent != null) {
-				increment(key("client_id." + agent.getId().getId()));
-			}
+		Agent agent = request.getAgent();
+		if (agent != null) {
+			increment(key("client_id." + agent.getId().getId()));
 		}
 	}
 
 	protected void increment(String key) {
-		this.meterRegistry.counter(key).increment();
+		Counter counter = this.counters.counters.get(key);
+		if (counter == null) {
+			counter = this.meterRegistry.counter(key);
+		}
+		counter.increment();
 	}
 
 	protected String key(String part) {
@@ -133,4 +203,79 @@ public class ProjectGenerationMetricsListener {
 		return s.replace(".", "_");
 	}
 
+	private void record(Timer[] timers, ProjectRequestEvent event) {
+		Duration duration = event.getDuration();
+		if (duration != null) {
+			timers[event.getSource().ordinal()].record(duration);
+		}
+	}
+
+	/**
+	 * Register the counters of the specified metadata, unless the current counters
+	 * already match a more recent metadata.
+	 * @param metadata the metadata to use
+	 */
+	private void updateCounters(InitializrMetadata metadata) {
+		synchronized (this.monitor) {
+			InitializrMetadata current = this.counters.metadata;
+			if (current == null || metadata.isNewerThan(current)) {
+				this.counters = new MetadataCounters(metadata,
+						registerCounters(metadata));
+			}
+		}
+	}
+
+	private Map<String, Counter> registerCounters(InitializrMetadata metadata) {
+		Map<String, Counter> counters = new HashMap<>();
+		registerCounter(counters, key("requests"));
+		registerCounter(counters, key("failures"));
+		for (AgentId agentId : AgentId.values()) {
+			registerCounter(counters, key("client_id." + agentId.getId()));
+		}
+		if (metadata != null) {
+			registerCounters(counters, "dependency.",
+					metadata.getDependencies().getAll());
+			registerCounters(counters, "type.", metadata.getTypes().getContent());
+			registerCounters(counters, "java_version.",
+					metadata.getJavaVersions().getContent());
+			registerCounters(counters, "packaging.",
+					metadata.getPackagings().getContent());
+			registerCounters(counters, "language.",
+					metadata.getLanguages().getContent());
+			registerCounters(counters, "boot_version.",
+					metadata.getBootVersions().getContent());
+		}
+		return counters;
+	}
+
+	private void registerCounters(Map<String, Counter> counters, String prefix,
+			Iterable<? extends MetadataElement> elements) {
+		for (MetadataElement element : elements) {
+			String id = element.getId();
+			if (id != null && !ProjectRequest.DEFAULT_STARTER.equals(id)) {
+				registerCounter(counters, key(prefix + sanitize(id)));
+			}
+		}
+	}
+
+	private void registerCounter(Map<String, Counter> counters, String key) {
+		counters.put(key, this.meterRegistry.counter(key));
+	}
+
+	/**
+	 * The counters registered for a metadata snapshot, indexed by key.
+	 */
+	private static final class MetadataCounters {
+
+		private final InitializrMetadata metadata;
+
+		private final Map<String, Counter> counters;
+
+		MetadataCounters(InitializrMetadata metadata, Map<String, Counter> counters) {
+			this.metadata = metadata;
+			this.counters = counters;
+		}
+
+	}
+
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.spring.initializr.generator.ProjectGenerationPhaseListener;
+import io.spring.initializr.generator.ProjectGenerationTimings;
+import io.spring.initializr.generator.ProjectRequest;
+
+/**
+ * A {@link ProjectGenerationPhaseListener} that records the time spent in each phase of
+ * the generation of a project using the {@code initializr.generation.phase} timer, tagged
+ * with the phase, the type and the language of the project.
+ *
+ * @author Julien Marchand
+ * @see ProjectGenerationTimings
+ */
+public class ProjectGenerationPhaseMetrics implements ProjectGenerationPhaseListener {
+
+	private static final String UNKNOWN = "unknown";
+
+	private final MeterRegistry meterRegistry;
+
+	private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+	public ProjectGenerationPhaseMetrics(MeterRegistry meterRegistry) {
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public void onPhaseCompleted(ProjectRequest request, String phase, long nanos) {
+		TimerKey key = new TimerKey(phase, tagValue(request.getType()),
+				tagValue(request.getLanguage()));
+		this.timers.computeIfAbsent(key, this::createTimer).record(nanos,
+				TimeUnit.NANOSECONDS);
+	}
+
+	private Timer createTimer(TimerKey key) {
+		return Timer.builder("initializr.generation.phase")
+				.description("Time spent in a phase of the generation of a project")
+				.tag("phase", key.phase).tag("type", key.type)
+				.tag("language", key.language).publishPercentileHistogram()
+				.register(this.meterRegistry);
+	}
+
+	private static String tagValue(String value) {
+		return (value != null) ? value : UNKNOWN;
+	}
+
+	/**
+	 * The key of a phase timer.
+	 */
+	private static final class TimerKey {
+
+		private final String phase;
+
+		private final String type;
+
+		private final String language;
+
+		TimerKey(String phase, String type, String language) {
+			this.phase = phase;
+			this.type = type;
+			this.language = language;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			TimerKey other = (TimerKey) obj;
+			return this.phase.equals(other.phase) && this.type.equals(other.type)
+					&& this.language.equals(other.language);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.phase, this.type, this.language);
+		}
+
+	}
+
+}
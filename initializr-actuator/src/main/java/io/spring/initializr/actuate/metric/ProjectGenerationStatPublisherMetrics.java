@@ -0,0 +1,91 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.actuate.stat.ProjectGenerationStatPublisher;
+
+/**
+ * Expose the state of a {@link ProjectGenerationStatPublisher}: the size of its queue,
+ * the number of documents that have been published, dropped or that failed to be
+ * published, the state of its spool, and the size and latency of its bulk requests.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationStatPublisherMetrics implements MeterBinder {
+
+	private final ProjectGenerationStatPublisher publisher;
+
+	public ProjectGenerationStatPublisherMetrics(
+			ProjectGenerationStatPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("initializr.stats.queue.size", this.publisher,
+				ProjectGenerationStatPublisher::getQueueSize)
+				.description("The number of documents waiting to be published")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.stats.published", this.publisher,
+						ProjectGenerationStatPublisher::getPublishedCount)
+				.description("The number of documents that have been published")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.stats.dropped", this.publisher,
+						ProjectGenerationStatPublisher::getDroppedCount)
+				.description("The number of documents dropped as the queue was full")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.stats.failed", this.publisher,
+						ProjectGenerationStatPublisher::getFailedCount)
+				.description("The number of documents that could not be published")
+				.register(registry);
+		Gauge.builder("initializr.stats.spool.size", this.publisher,
+				ProjectGenerationStatPublisher::getSpoolSize).baseUnit("bytes")
+				.description("The size of the documents spooled on disk")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.stats.spooled", this.publisher,
+						ProjectGenerationStatPublisher::getSpooledCount)
+				.description("The number of documents that have been spooled")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.stats.replayed", this.publisher,
+						ProjectGenerationStatPublisher::getReplayedCount)
+				.description("The number of spooled documents that have been published")
+				.register(registry);
+		Gauge.builder("initializr.stats.batch.size", this.publisher,
+				ProjectGenerationStatPublisher::getLastBatchSize)
+				.description("The number of documents in the last bulk request")
+				.register(registry);
+		FunctionTimer
+				.builder("initializr.stats.flush", this.publisher,
+						ProjectGenerationStatPublisher::getFlushCount,
+						(publisher) -> publisher.getTotalFlushTime(TimeUnit.NANOSECONDS),
+						TimeUnit.NANOSECONDS)
+				.description("The time spent sending bulk requests").register(registry);
+	}
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+
+/**
+ * Expose the state of the temporary files managed by a {@link ProjectWorkspaceManager}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceMetrics implements MeterBinder {
+
+	private final ProjectWorkspaceManager workspaceManager;
+
+	public ProjectWorkspaceMetrics(ProjectWorkspaceManager workspaceManager) {
+		this.workspaceManager = workspaceManager;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("initializr.generation.workspace.active", this.workspaceManager,
+				ProjectWorkspaceManager::getActiveCount)
+				.description("The number of live project workspaces").register(registry);
+		Gauge.builder("initializr.generation.workspace.disk.usage", this.workspaceManager,
+				ProjectWorkspaceManager::getDiskUsage).baseUnit("bytes")
+				.description("The disk usage of the temporary files").register(registry);
+		FunctionCounter
+				.builder("initializr.generation.workspace.rejected",
+						this.workspaceManager, ProjectWorkspaceManager::getRejectedCount)
+				.description("The number of workspaces refused because of the quota")
+				.register(registry);
+		FunctionCounter
+				.builder("initializr.generation.workspace.swept", this.workspaceManager,
+						ProjectWorkspaceManager::getSweptCount)
+				.description("The number of orphan temporary files removed")
+				.register(registry);
+	}
+
+}
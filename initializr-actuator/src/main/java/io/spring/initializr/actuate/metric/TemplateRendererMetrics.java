@@ -0,0 +1,62 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.spring.initializr.util.TemplateRenderer;
+import io.spring.initializr.util.TemplateRenderer.TemplateStatistics;
+
+/**
+ * Expose the compilation time and the render time of each template available to a
+ * {@link TemplateRenderer}.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererMetrics implements MeterBinder {
+
+	private final TemplateRenderer templateRenderer;
+
+	public TemplateRendererMetrics(TemplateRenderer templateRenderer) {
+		this.templateRenderer = templateRenderer;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (String name : this.templateRenderer.getTemplateNames()) {
+			TemplateStatistics statistics = this.templateRenderer.getStatistics(name);
+			Gauge.builder("initializr.template.compilation", statistics,
+					(stats) -> stats.getCompilationTime(TimeUnit.SECONDS))
+					.tag("template", name).baseUnit("seconds")
+					.description("The time it took to compile the template")
+					.register(registry);
+			FunctionTimer
+					.builder("initializr.template.render", statistics,
+							TemplateStatistics::getRenderCount,
+							(stats) -> stats.getTotalRenderTime(TimeUnit.NANOSECONDS),
+							TimeUnit.NANOSECONDS)
+					.tag("template", name)
+					.description("The time spent rendering the template")
+					.register(registry);
+		}
+	}
+
+}
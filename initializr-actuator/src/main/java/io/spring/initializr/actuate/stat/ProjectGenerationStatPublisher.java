@@ -16,48 +16,126 @@
 
 package io.spring.initializr.actuate.stat;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
 import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.spring.initializr.generator.ProjectRequestEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.SmartLifecycle;
 import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.RequestEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
 import org.springframework.retry.support.RetryTemplate;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * Publish stats for each project generated to an Elastic index.
+ * <p>
+ * Documents are added to a bounded queue and published in batches using the bulk API by a
+ * single background thread. A batch is published once it is full or when its oldest
+ * document has waited for the flush interval. When the queue is full, the oldest document
+ * is dropped so that generating a project never waits for Elastic.
+ * <p>
+ * If a {@link StatsSpool} is enabled, documents that could not be published are written
+ * to disk and are published again, a bounded number at a time, once the index is
+ * available. While the index is unavailable, publishing spooled documents is attempted
+ * with an exponential backoff, based on the flush interval, even if no new document is
+ * published.
  *
  * @author Stephane Nicoll
  */
-public class ProjectGenerationStatPublisher {
+public class ProjectGenerationStatPublisher implements SmartLifecycle {
 
 	private static final Logger log = LoggerFactory
 			.getLogger(ProjectGenerationStatPublisher.class);
 
+	private static final MediaType APPLICATION_NDJSON = MediaType
+			.parseMediaType("application/x-ndjson");
+
+	private static final int MAX_REPLAY_BACKOFF_SHIFT = 6;
+
+	private static final byte[] INDEX_ACTION = "{\"index\":{}}\n"
+			.getBytes(StandardCharsets.UTF_8);
+
 	private final ProjectRequestDocumentFactory documentFactory;
 
 	private final StatsProperties statsProperties;
 
 	private final ObjectMapper objectMapper;
 
+	private final ObjectWriter documentWriter;
+
 	private final RestTemplate restTemplate;
 
 	private final RetryTemplate retryTemplate;
 
+	private final BlockingQueue<ProjectRequestDocument> queue;
+
+	private final int batchSize;
+
+	private final long flushIntervalNanos;
+
+	private final List<ProjectRequestDocument> batch;
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(16384);
+
+	private final LongAdder droppedCount = new LongAdder();
+
+	private final LongAdder publishedCount = new LongAdder();
+
+	private final LongAdder failedCount = new LongAdder();
+
+	private final LongAdder flushCount = new LongAdder();
+
+	private final LongAdder flushTime = new LongAdder();
+
+	private volatile int lastBatchSize;
+
+	private final StatsSpool spool;
+
+	private final int replayBatchSize;
+
+	private final LongAdder spooledCount = new LongAdder();
+
+	private final LongAdder replayedCount = new LongAdder();
+
+	private volatile boolean available = true;
+
+	private int consecutiveFailures;
+
+	private long nextReplayTime = System.nanoTime();
+
+	private final Object monitor = new Object();
+
+	private volatile Thread drainer;
+
 	public ProjectGenerationStatPublisher(ProjectRequestDocumentFactory documentFactory,
 			StatsProperties statsProperties, RestTemplateBuilder restTemplateBuilder,
 			RetryTemplate retryTemplate) {
 		this.documentFactory = documentFactory;
 		this.statsProperties = statsProperties;
 		this.objectMapper = createObjectMapper();
+		this.documentWriter = this.objectMapper.writerFor(ProjectRequestDocument.class);
 		StatsProperties.Elastic elastic = statsProperties.getElastic();
 		if (StringUtils.hasText(elastic.getUsername())) {
 			this.restTemplate = restTemplateBuilder
@@ -68,47 +146,315 @@ public class ProjectGenerationStatPublisher {
 			this.restTemplate = restTemplateBuilder.build();
 		}
 		this.retryTemplate = retryTemplate;
+		this.queue = new ArrayBlockingQueue<>(elastic.getQueueCapacity());
+		this.batchSize = elastic.getBatchSize();
+		this.flushIntervalNanos = elastic.getFlushInterval().toNanos();
+		this.batch = new ArrayList<>(this.batchSize);
+		StatsProperties.Spool spool = statsProperties.getSpool();
+		this.spool = (spool.isEnabled())
+				? new StatsSpool(Paths.get(spool.getDirectory()),
+						spool.getMaxSize().toBytes(), spool.getSegmentSize().toBytes())
+				: null;
+		this.replayBatchSize = spool.getReplayBatchSize();
 	}
 
 	@EventListener
-	@Async
 	public void handleEvent(ProjectRequestEvent event) {
-		String json = null;
+		ProjectRequestDocument document;
 		try {
-			ProjectRequestDocument document = this.documentFactory.createDocument(event);
-			if (log.isDebugEnabled()) {
-				log.debug("Publishing " + document);
+			document = this.documentFactory.createDocument(event);
+		}
+		catch (Exception ex) {
+			log.warn("Failed to create stat document", ex);
+			return;
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Queuing " + document);
+		}
+		while (!this.queue.offer(document)) {
+			if (this.queue.poll() != null) {
+				this.droppedCount.increment();
 			}
-			json = toJson(document);
+		}
+		Thread drainer = this.drainer;
+		if (drainer != null && this.queue.size() >= this.batchSize) {
+			LockSupport.unpark(drainer);
+		}
+	}
+
+	/**
+	 * Return the number of documents waiting to be published.
+	 * @return the queue size
+	 */
+	public int getQueueSize() {
+		return this.queue.size();
+	}
+
+	/**
+	 * Return the number of documents that have been dropped because the queue was full.
+	 * @return the number of dropped documents
+	 */
+	public long getDroppedCount() {
+		return this.droppedCount.sum();
+	}
+
+	/**
+	 * Return the number of documents that have been published.
+	 * @return the number of published documents
+	 */
+	public long getPublishedCount() {
+		return this.publishedCount.sum();
+	}
+
+	/**
+	 * Return the number of documents that could not be published.
+	 * @return the number of failed documents
+	 */
+	public long getFailedCount() {
+		return this.failedCount.sum();
+	}
+
+	/**
+	 * Return the number of documents that have been written to the spool.
+	 * @return the number of spooled documents
+	 */
+	public long getSpooledCount() {
+		return this.spooledCount.sum();
+	}
+
+	/**
+	 * Return the number of spooled documents that have been published.
+	 * @return the number of replayed documents
+	 */
+	public long getReplayedCount() {
+		return this.replayedCount.sum();
+	}
+
+	/**
+	 * Return the size of the spool on disk, in bytes.
+	 * @return the size of the spool or {@code 0} if no spool is used
+	 */
+	public long getSpoolSize() {
+		return (this.spool != null) ? this.spool.getSize() : 0;
+	}
 
-			RequestEntity<String> request = RequestEntity
-					.post(this.statsProperties.getElastic().getEntityUrl())
-					.contentType(MediaType.APPLICATION_JSON).body(json);
+	/**
+	 * Return the number of bulk requests that have been sent.
+	 * @return the number of flushes
+	 */
+	public long getFlushCount() {
+		return this.flushCount.sum();
+	}
+
+	/**
+	 * Return the total time spent sending bulk requests, including retries.
+	 * @param unit the time unit to use
+	 * @return the total flush time
+	 */
+	public double getTotalFlushTime(TimeUnit unit) {
+		return (double) this.flushTime.sum() / unit.toNanos(1);
+	}
 
-			this.retryTemplate.execute((context) -> {
-				this.restTemplate.exchange(request, String.class);
-				return null;
-			});
+	/**
+	 * Return the number of documents in the last bulk request.
+	 * @return the size of the last batch
+	 */
+	public int getLastBatchSize() {
+		return this.lastBatchSize;
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.drainer == null) {
+				Thread drainer = new Thread(this::drain, "initializr-stats-publisher");
+				drainer.setDaemon(true);
+				this.drainer = drainer;
+				drainer.start();
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		Thread drainer;
+		synchronized (this.monitor) {
+			drainer = this.drainer;
+			this.drainer = null;
+		}
+		if (drainer != null) {
+			LockSupport.unpark(drainer);
+			try {
+				drainer.join(
+						TimeUnit.NANOSECONDS.toMillis(this.flushIntervalNanos) + 10000);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		return this.drainer != null;
+	}
+
+	/**
+	 * Publish the next batch of documents, if any.
+	 * @return the number of documents in the batch
+	 */
+	synchronized int flush() {
+		this.queue.drainTo(this.batch, this.batchSize);
+		int size = this.batch.size();
+		if (size == 0) {
+			return 0;
+		}
+		long start = System.nanoTime();
+		try {
+			writeBulkRequest(this.batch);
+			Integer failed = this.retryTemplate.execute(
+					(context) -> sendBulkRequest((out) -> this.buffer.writeTo(out)));
+			int failedItems = (failed != null) ? failed : 0;
+			this.publishedCount.add(size - failedItems);
+			this.failedCount.add(failedItems);
+			markAvailable();
 		}
 		catch (Exception ex) {
-			log.warn(String.format(
-					"Failed to publish stat to index, document follows %n%n%s%n", json),
-					ex);
+			markUnavailable();
+			handleFailedBatch(size, ex);
+		}
+		finally {
+			this.lastBatchSize = size;
+			this.flushCount.increment();
+			this.flushTime.add(System.nanoTime() - start);
+			this.batch.clear();
 		}
+		return size;
 	}
 
-	private String toJson(ProjectRequestDocument stats) {
+	/**
+	 * Publish the next batch of spooled documents, if any.
+	 * @return the number of documents that have been published
+	 */
+	synchronized int replay() {
+		if (this.spool == null || this.spool.isEmpty()) {
+			return 0;
+		}
 		try {
-			return this.objectMapper.writeValueAsString(stats);
+			int replayed = this.spool.replay(this.replayBatchSize,
+					(content, offset, length) -> {
+						Integer failed = sendBulkRequest(
+								(out) -> out.write(content, offset, length));
+						this.failedCount.add((failed != null) ? failed : 0);
+					});
+			this.replayedCount.add(replayed);
+			markAvailable();
+			return replayed;
+		}
+		catch (Exception ex) {
+			markUnavailable();
+			log.debug("Failed to publish spooled stats", ex);
+			return 0;
+		}
+	}
+
+	/**
+	 * Publish the next batch of spooled documents if the index is available or if the
+	 * backoff delay since the last failure has elapsed.
+	 * @return the number of documents that have been published
+	 */
+	synchronized int replayIfDue() {
+		if (!this.available && System.nanoTime() - this.nextReplayTime < 0) {
+			return 0;
+		}
+		return replay();
+	}
+
+	private void markAvailable() {
+		this.available = true;
+		this.consecutiveFailures = 0;
+	}
+
+	private void markUnavailable() {
+		this.available = false;
+		this.consecutiveFailures++;
+		long delay = this.flushIntervalNanos << Math
+				.min(this.consecutiveFailures - 1, MAX_REPLAY_BACKOFF_SHIFT);
+		this.nextReplayTime = System.nanoTime() + delay;
+	}
+
+	private Integer sendBulkRequest(StreamingHttpOutputMessage.Body body) {
+		return this.restTemplate.execute(this.statsProperties.getElastic().getBulkUrl(),
+				HttpMethod.POST, (request) -> {
+					request.getHeaders().setContentType(APPLICATION_NDJSON);
+					body.writeTo(request.getBody());
+				}, (response) -> countFailedItems(response.getBody()));
+	}
+
+	private void handleFailedBatch(int size, Exception ex) {
+		if (this.spool != null) {
+			try {
+				this.spool.append(this.buffer);
+				this.spooledCount.add(size);
+				log.warn("Failed to publish " + size + " stat(s) to index ("
+						+ ex.getMessage() + "), stats have been spooled");
+				return;
+			}
+			catch (IOException spoolEx) {
+				log.warn("Failed to spool stats", spoolEx);
+			}
+		}
+		this.failedCount.add(size);
+		log.warn("Failed to publish " + size + " stat(s) to index", ex);
+	}
+
+	private void drain() {
+		while (this.drainer == Thread.currentThread()) {
+			if (this.queue.size() < this.batchSize) {
+				LockSupport.parkNanos(this, this.flushIntervalNanos);
+			}
+			try {
+				flush();
+				replayIfDue();
+			}
+			catch (RuntimeException ex) {
+				log.warn("Failed to publish stats", ex);
+			}
+		}
+		while (flush() > 0) {
+			// Publish pending documents before stopping
+		}
+	}
+
+	private void writeBulkRequest(List<ProjectRequestDocument> documents)
+			throws IOException {
+		this.buffer.reset();
+		for (ProjectRequestDocument document : documents) {
+			this.buffer.write(INDEX_ACTION);
+			this.documentWriter.writeValue(this.buffer, document);
+			this.buffer.write('\n');
+		}
+	}
+
+	private int countFailedItems(InputStream body) throws IOException {
+		JsonNode response = this.objectMapper.readTree(body);
+		if (response == null || !response.path("errors").asBoolean()) {
+			return 0;
 		}
-		catch (JsonProcessingException ex) {
-			throw new IllegalStateException("Cannot convert to JSON", ex);
+		int failed = 0;
+		for (JsonNode item : response.path("items")) {
+			if (item.path("index").has("error")) {
+				failed++;
+			}
 		}
+		log.warn("Failed to index " + failed + " stat(s), response follows " + response);
+		return failed;
 	}
 
 	private static ObjectMapper createObjectMapper() {
 		ObjectMapper mapper = new ObjectMapper();
 		mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+		mapper.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
 		return mapper;
 	}
 
@@ -60,7 +60,7 @@ public class ProjectRequestDocumentFactory {
 			document.setRequestIpv4(extractIpv4(candidate));
 		}
 
-		Agent agent = extractAgentInformation(request);
+		Agent agent = request.getAgent();
 		if (agent != null) {
 			document.setClientId(agent.getId().getId());
 			document.setClientVersion(agent.getVersion());
@@ -138,14 +138,6 @@ public class ProjectRequestDocumentFactory {
 		}
 	}
 
-	private static Agent extractAgentInformation(ProjectRequest request) {
-		String userAgent = (String) request.getParameters().get("user-agent");
-		if (StringUtils.hasText(userAgent)) {
-			return Agent.fromUserAgent(userAgent);
-		}
-		return null;
-	}
-
 	private static String extractIpv4(String candidate) {
 		if (StringUtils.hasText(candidate)) {
 			Matcher matcher = IP_PATTERN.matcher(candidate);
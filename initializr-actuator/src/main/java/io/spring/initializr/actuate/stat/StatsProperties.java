@@ -18,10 +18,12 @@ package io.spring.initializr.actuate.stat;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Statistics-related properties.
@@ -34,10 +36,17 @@ public class StatsProperties {
 	@NestedConfigurationProperty
 	private final Elastic elastic = new Elastic();
 
+	@NestedConfigurationProperty
+	private final Spool spool = new Spool();
+
 	public Elastic getElastic() {
 		return this.elastic;
 	}
 
+	public Spool getSpool() {
+		return this.spool;
+	}
+
 	/**
 	 * Elasicsearch configuration.
 	 */
@@ -73,6 +82,22 @@ public class StatsProperties {
 		 */
 		private int maxAttempts = 3;
 
+		/**
+		 * Maximum number of documents to publish in a single bulk request.
+		 */
+		private int batchSize = 100;
+
+		/**
+		 * Maximum time a document waits before being published.
+		 */
+		private Duration flushInterval = Duration.ofSeconds(5);
+
+		/**
+		 * Maximum number of documents waiting to be published. When the queue is full,
+		 * the oldest document is dropped.
+		 */
+		private int queueCapacity = 10000;
+
 		public String getUsername() {
 			return this.username;
 		}
@@ -113,6 +138,30 @@ public class StatsProperties {
 			this.maxAttempts = maxAttempts;
 		}
 
+		public int getBatchSize() {
+			return this.batchSize;
+		}
+
+		public void setBatchSize(int batchSize) {
+			this.batchSize = batchSize;
+		}
+
+		public Duration getFlushInterval() {
+			return this.flushInterval;
+		}
+
+		public void setFlushInterval(Duration flushInterval) {
+			this.flushInterval = flushInterval;
+		}
+
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
 		public String getUri() {
 			return this.uri;
 		}
@@ -132,6 +181,16 @@ public class StatsProperties {
 			}
 		}
 
+		public URI getBulkUrl() {
+			String string = getEntityUrl() + "/_bulk";
+			try {
+				return new URI(string);
+			}
+			catch (URISyntaxException ex) {
+				throw new IllegalStateException("Cannot create bulk URL: " + string, ex);
+			}
+		}
+
 		private static String cleanUri(String contextPath) {
 			if (StringUtils.hasText(contextPath) && contextPath.endsWith("/")) {
 				return contextPath.substring(0, contextPath.length() - 1);
@@ -141,4 +200,79 @@ public class StatsProperties {
 
 	}
 
+	/**
+	 * Spool configuration, used to keep stats on disk while the index is unavailable.
+	 */
+	public static final class Spool {
+
+		/**
+		 * Whether to write stats that could not be published to disk and to publish them
+		 * once the index is available again.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Directory of the spool.
+		 */
+		private String directory = System.getProperty("java.io.tmpdir")
+				+ "/initializr-stats";
+
+		/**
+		 * Maximum size of the spool on disk. The oldest stats are discarded when this
+		 * size is exceeded.
+		 */
+		private DataSize maxSize = DataSize.ofMegabytes(100);
+
+		/**
+		 * Maximum size of a spool file.
+		 */
+		private DataSize segmentSize = DataSize.ofMegabytes(1);
+
+		/**
+		 * Maximum number of spooled documents to publish each flush interval.
+		 */
+		private int replayBatchSize = 500;
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public String getDirectory() {
+			return this.directory;
+		}
+
+		public void setDirectory(String directory) {
+			this.directory = directory;
+		}
+
+		public DataSize getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+		public DataSize getSegmentSize() {
+			return this.segmentSize;
+		}
+
+		public void setSegmentSize(DataSize segmentSize) {
+			this.segmentSize = segmentSize;
+		}
+
+		public int getReplayBatchSize() {
+			return this.replayBatchSize;
+		}
+
+		public void setReplayBatchSize(int replayBatchSize) {
+			this.replayBatchSize = replayBatchSize;
+		}
+
+	}
+
 }
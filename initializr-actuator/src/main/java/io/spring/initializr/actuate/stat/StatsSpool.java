@@ -0,0 +1,241 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.stat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only spool of bulk request bodies on disk. Content is appended to segment
+ * files that are replayed, oldest first, in chunks of a given number of documents. Each
+ * append is written sequentially and synced to disk once.
+ * <p>
+ * The size of the spool is capped: when appending would exceed the maximum size, the
+ * oldest segments are deleted. Spooled documents are published at least once: a segment
+ * that was partially replayed before a restart is replayed from the start.
+ *
+ * @author Julien Marchand
+ */
+public class StatsSpool {
+
+	private static final Logger log = LoggerFactory.getLogger(StatsSpool.class);
+
+	private static final String SEGMENT_PREFIX = "stats-";
+
+	private static final String SEGMENT_SUFFIX = ".ndjson";
+
+	private final Path directory;
+
+	private final long maxSize;
+
+	private final long segmentSize;
+
+	private final Deque<Path> segments = new ArrayDeque<>();
+
+	private long size;
+
+	private long nextSequence;
+
+	private FileChannel current;
+
+	private long currentSize;
+
+	private byte[] replayContent;
+
+	private int replayOffset;
+
+	public StatsSpool(Path directory, long maxSize, long segmentSize) {
+		this.directory = directory;
+		this.maxSize = maxSize;
+		this.segmentSize = segmentSize;
+		try {
+			Files.createDirectories(directory);
+			for (Path segment : listSegments(directory)) {
+				this.segments.add(segment);
+				this.size += Files.size(segment);
+				this.nextSequence = Math.max(this.nextSequence, getSequence(segment) + 1);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot initialize spool in " + directory,
+					ex);
+		}
+	}
+
+	/**
+	 * Append the specified bulk request body to the spool.
+	 * @param content the content to append, one or several complete lines
+	 * @throws IOException if the content cannot be written
+	 */
+	public synchronized void append(ByteArrayOutputStream content) throws IOException {
+		long length = content.size();
+		if (length > this.maxSize) {
+			log.warn("Discarding " + length + " bytes larger than the spool");
+			return;
+		}
+		while (this.size + length > this.maxSize && !this.segments.isEmpty()) {
+			discardOldestSegment();
+		}
+		if (this.current == null || this.currentSize + length > this.segmentSize) {
+			openSegment();
+		}
+		OutputStream out = Channels.newOutputStream(this.current);
+		content.writeTo(out);
+		this.current.force(false);
+		this.currentSize += length;
+		this.size += length;
+	}
+
+	/**
+	 * Replay up to the specified number of documents, using the specified
+	 * {@link ReplayCallback}. Documents are only removed from the spool if the callback
+	 * completes successfully.
+	 * @param maxDocuments the maximum number of documents to replay
+	 * @param callback the callback that publishes the documents
+	 * @return the number of documents that have been replayed
+	 * @throws Exception if the callback failed
+	 */
+	public synchronized int replay(int maxDocuments, ReplayCallback callback)
+			throws Exception {
+		if (this.segments.isEmpty()) {
+			return 0;
+		}
+		Path segment = this.segments.peekFirst();
+		if (this.replayContent == null) {
+			if (this.segments.size() == 1) {
+				closeSegment();
+			}
+			this.replayContent = Files.readAllBytes(segment);
+			this.replayOffset = 0;
+		}
+		int end = this.replayOffset;
+		int lines = 0;
+		int maxLines = maxDocuments * 2;
+		while (end < this.replayContent.length && lines < maxLines) {
+			if (this.replayContent[end++] == '\n') {
+				lines++;
+			}
+		}
+		if (end > this.replayOffset) {
+			callback.replay(this.replayContent, this.replayOffset,
+					end - this.replayOffset);
+			this.replayOffset = end;
+		}
+		if (this.replayOffset >= this.replayContent.length) {
+			deleteOldestSegment();
+		}
+		return lines / 2;
+	}
+
+	/**
+	 * Specify if the spool has content to replay.
+	 * @return {@code true} if the spool is empty
+	 */
+	public synchronized boolean isEmpty() {
+		return this.segments.isEmpty();
+	}
+
+	/**
+	 * Return the size of the spool on disk, in bytes.
+	 * @return the size of the spool
+	 */
+	public synchronized long getSize() {
+		return this.size;
+	}
+
+	private void openSegment() throws IOException {
+		closeSegment();
+		Path segment = this.directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX,
+				this.nextSequence++, SEGMENT_SUFFIX));
+		this.current = FileChannel.open(segment, StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		this.currentSize = 0;
+		this.segments.addLast(segment);
+	}
+
+	private void closeSegment() throws IOException {
+		if (this.current != null) {
+			this.current.close();
+			this.current = null;
+		}
+	}
+
+	private void discardOldestSegment() throws IOException {
+		log.warn("Spool is full, discarding " + this.segments.peekFirst());
+		deleteOldestSegment();
+	}
+
+	private void deleteOldestSegment() throws IOException {
+		if (this.segments.size() == 1) {
+			closeSegment();
+		}
+		Path segment = this.segments.removeFirst();
+		this.size -= Files.size(segment);
+		Files.delete(segment);
+		this.replayContent = null;
+		this.replayOffset = 0;
+	}
+
+	private static List<Path> listSegments(Path directory) throws IOException {
+		List<Path> segments = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory,
+				SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			stream.forEach(segments::add);
+		}
+		Collections.sort(segments);
+		return segments;
+	}
+
+	private static long getSequence(Path segment) {
+		String name = segment.getFileName().toString();
+		return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+				name.length() - SEGMENT_SUFFIX.length()));
+	}
+
+	/**
+	 * Callback used to replay spooled documents.
+	 */
+	@FunctionalInterface
+	public interface ReplayCallback {
+
+		/**
+		 * Publish the specified bulk request body.
+		 * @param content the content
+		 * @param offset the offset of the bulk request body in the content
+		 * @param length the length of the bulk request body
+		 * @throws Exception if the documents cannot be published
+		 */
+		void replay(byte[] content, int offset, int length) throws Exception;
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package io.spring.initializr.actuate.autoconfigure;
 
+import io.spring.initializr.actuate.health.TemplateRendererHealthIndicator;
 import io.spring.initializr.actuate.info.BomRangesInfoContributor;
 import io.spring.initializr.actuate.info.DependencyRangesInfoContributor;
 import io.spring.initializr.web.autoconfigure.InitializrAutoConfiguration;
@@ -47,6 +48,12 @@ public class InitializrActuatorEndpointsAutoConfigurationTests {
 				.hasSingleBean(BomRangesInfoContributor.class));
 	}
 
+	@Test
+	public void autoConfigRegistersTemplateRendererHealthIndicator() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.hasSingleBean(TemplateRendererHealthIndicator.class));
+	}
+
 	@Test
 	public void autoConfigRegistersDependencyRangesInfoContributor() {
 		this.contextRunner.run((context) -> assertThat(context)
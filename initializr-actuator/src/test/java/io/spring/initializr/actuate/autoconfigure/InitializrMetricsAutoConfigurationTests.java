@@ -17,7 +17,22 @@
 package io.spring.initializr.actuate.autoconfigure;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.spring.initializr.actuate.metric.InitializrMetadataRefreshMetrics;
+import io.spring.initializr.actuate.metric.ProjectArchiveCacheMetrics;
+import io.spring.initializr.actuate.metric.ProjectArchiveCoalescerMetrics;
+import io.spring.initializr.actuate.metric.ProjectGenerationLimiterMetrics;
 import io.spring.initializr.actuate.metric.ProjectGenerationMetricsListener;
+import io.spring.initializr.actuate.metric.ProjectGenerationPhaseMetrics;
+import io.spring.initializr.actuate.metric.ProjectGenerationStatPublisherMetrics;
+import io.spring.initializr.actuate.metric.ProjectWorkspaceMetrics;
+import io.spring.initializr.actuate.metric.TemplateRendererMetrics;
+import io.spring.initializr.actuate.stat.ProjectGenerationStatPublisher;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+import io.spring.initializr.util.TemplateRenderer;
+import io.spring.initializr.web.project.ProjectGenerationLimiter;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
 import org.junit.Test;
 
 import org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration;
@@ -25,8 +40,11 @@ import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfigu
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 
 /**
  * Tests for {@link InitializrMetricsAutoConfiguration}.
@@ -46,6 +64,103 @@ public class InitializrMetricsAutoConfigurationTests {
 				.hasSingleBean(ProjectGenerationMetricsListener.class));
 	}
 
+	@Test
+	public void autoConfigRegistersProjectGenerationPhaseMetricsBean() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.hasSingleBean(ProjectGenerationPhaseMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterArchiveCacheMetricsWithoutCache() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ProjectArchiveCacheMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersArchiveCacheMetricsWithCache() {
+		this.contextRunner.withUserConfiguration(ArchiveCacheConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(ProjectArchiveCacheMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterMetadataRefreshMetricsWithoutRefresher() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(InitializrMetadataRefreshMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersMetadataRefreshMetricsWithRefresher() {
+		this.contextRunner.withUserConfiguration(MetadataRefresherConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(InitializrMetadataRefreshMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterStatPublisherMetricsWithoutPublisher() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ProjectGenerationStatPublisherMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersStatPublisherMetricsWithPublisher() {
+		this.contextRunner.withUserConfiguration(StatPublisherConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(ProjectGenerationStatPublisherMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterTemplateRendererMetricsWithoutRenderer() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(TemplateRendererMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersTemplateRendererMetricsWithRenderer() {
+		this.contextRunner.withUserConfiguration(TemplateRendererConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(TemplateRendererMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterLimiterMetricsWithoutLimiter() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ProjectGenerationLimiterMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersLimiterMetricsWithLimiter() {
+		this.contextRunner.withUserConfiguration(LimiterConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(ProjectGenerationLimiterMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterWorkspaceMetricsWithoutWorkspaceManager() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ProjectWorkspaceMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersWorkspaceMetricsWithWorkspaceManager() {
+		this.contextRunner.withUserConfiguration(WorkspaceManagerConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(ProjectWorkspaceMetrics.class));
+	}
+
+	@Test
+	public void autoConfigDoesNotRegisterCoalescerMetricsWithoutCoalescer() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.doesNotHaveBean(ProjectArchiveCoalescerMetrics.class));
+	}
+
+	@Test
+	public void autoConfigRegistersCoalescerMetricsWithCoalescer() {
+		this.contextRunner.withUserConfiguration(CoalescerConfiguration.class)
+				.run((context) -> assertThat(context)
+						.hasSingleBean(ProjectArchiveCoalescerMetrics.class));
+	}
+
 	@Test
 	public void autoConfigConditionalOnMeterRegistryClass() {
 		this.contextRunner.withClassLoader(new FilteredClassLoader(MeterRegistry.class))
@@ -53,4 +168,74 @@ public class InitializrMetricsAutoConfigurationTests {
 						.doesNotHaveBean(ProjectGenerationMetricsListener.class));
 	}
 
+	@Configuration
+	static class ArchiveCacheConfiguration {
+
+		@Bean
+		public ProjectArchiveCache projectArchiveCache() {
+			return new ProjectArchiveCache(1024);
+		}
+
+	}
+
+	@Configuration
+	static class StatPublisherConfiguration {
+
+		@Bean
+		public ProjectGenerationStatPublisher projectGenerationStatPublisher() {
+			return mock(ProjectGenerationStatPublisher.class);
+		}
+
+	}
+
+	@Configuration
+	static class TemplateRendererConfiguration {
+
+		@Bean
+		public TemplateRenderer templateRenderer() {
+			return new TemplateRenderer();
+		}
+
+	}
+
+	@Configuration
+	static class MetadataRefresherConfiguration {
+
+		@Bean
+		public InitializrMetadataRefresher initializrMetadataRefresher() {
+			return mock(InitializrMetadataRefresher.class);
+		}
+
+	}
+
+	@Configuration
+	static class LimiterConfiguration {
+
+		@Bean
+		public ProjectGenerationLimiter projectGenerationLimiter() {
+			return mock(ProjectGenerationLimiter.class);
+		}
+
+	}
+
+	@Configuration
+	static class WorkspaceManagerConfiguration {
+
+		@Bean
+		public ProjectWorkspaceManager projectWorkspaceManager() {
+			return mock(ProjectWorkspaceManager.class);
+		}
+
+	}
+
+	@Configuration
+	static class CoalescerConfiguration {
+
+		@Bean
+		public ProjectArchiveCoalescer projectArchiveCoalescer() {
+			return new ProjectArchiveCoalescer();
+		}
+
+	}
+
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.health;
+
+import io.spring.initializr.util.TemplateRenderer;
+import org.junit.Test;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TemplateRendererHealthIndicator}.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererHealthIndicatorTests {
+
+	private final TemplateRenderer templateRenderer = new TemplateRenderer();
+
+	private final TemplateRendererHealthIndicator healthIndicator = new TemplateRendererHealthIndicator(
+			this.templateRenderer);
+
+	@Test
+	public void outOfServiceBeforePrecompilation() {
+		Health health = this.healthIndicator.health();
+		assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+	}
+
+	@Test
+	public void upAfterPrecompilation() {
+		this.templateRenderer.precompile();
+		Health health = this.healthIndicator.health();
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+		assertThat((int) health.getDetails().get("templates")).isGreaterThan(0);
+	}
+
+	@Test
+	public void upWhenCacheIsDisabled() {
+		this.templateRenderer.setCache(false);
+		Health health = this.healthIndicator.health();
+		assertThat(health.getStatus()).isEqualTo(Status.UP);
+	}
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.time.Instant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link InitializrMetadataRefreshMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class InitializrMetadataRefreshMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final InitializrMetadataRefresher refresher = mock(
+			InitializrMetadataRefresher.class);
+
+	@Test
+	public void metricsBeforeFirstRefresh() {
+		new InitializrMetadataRefreshMetrics(this.refresher).bindTo(this.registry);
+		assertThat(this.registry.get("initializr.metadata.refresh.last").gauge().value())
+				.isNaN();
+		assertThat(this.registry.get("initializr.metadata.refresh.age").gauge().value())
+				.isNaN();
+		assertThat(this.registry.get("initializr.metadata.refresh.failures")
+				.functionCounter().count()).isEqualTo(0);
+	}
+
+	@Test
+	public void metricsAfterRefresh() {
+		Instant lastRefreshTime = Instant.now().minusSeconds(120);
+		given(this.refresher.getLastRefreshTime()).willReturn(lastRefreshTime);
+		given(this.refresher.getFailureCount()).willReturn(3L);
+		new InitializrMetadataRefreshMetrics(this.refresher).bindTo(this.registry);
+		assertThat(this.registry.get("initializr.metadata.refresh.last").gauge().value())
+				.isEqualTo(lastRefreshTime.toEpochMilli() / 1000.0);
+		assertThat(this.registry.get("initializr.metadata.refresh.age").gauge().value())
+				.isBetween(120.0, 180.0);
+		assertThat(this.registry.get("initializr.metadata.refresh.failures")
+				.functionCounter().count()).isEqualTo(3);
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.archive.ArchiveFormat;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.generator.archive.ProjectArchiveCache.Key;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectArchiveCacheMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCacheMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectArchiveCache cache = new ProjectArchiveCache(1024);
+
+	@Test
+	public void cacheMetrics() {
+		new ProjectArchiveCacheMetrics(this.cache).bindTo(this.registry);
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(metadata);
+		Key key = this.cache.createKey(request, ArchiveFormat.ZIP, metadata);
+		this.cache.get(key);
+		this.cache.put(key, new byte[] { 1, 2, 3 });
+		this.cache.get(key);
+		this.cache.get(key);
+		assertThat(this.registry.get("cache.gets").tag("result", "hit")
+				.tag("cache", "initializr.archive").functionCounter().count())
+						.isEqualTo(2);
+		assertThat(this.registry.get("cache.gets").tag("result", "miss").functionCounter()
+				.count()).isEqualTo(1);
+		assertThat(this.registry.get("cache.puts").functionCounter().count())
+				.isEqualTo(1);
+		assertThat(this.registry.get("cache.size").gauge().value()).isEqualTo(1);
+		assertThat(this.registry.get("cache.archive.size").gauge().value()).isEqualTo(3);
+	}
+
+}
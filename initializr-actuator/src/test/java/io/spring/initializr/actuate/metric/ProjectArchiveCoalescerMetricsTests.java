@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ProjectArchiveCoalescerMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCoalescerMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectArchiveCoalescer coalescer = mock(ProjectArchiveCoalescer.class);
+
+	@Test
+	public void metricsReflectCoalescerState() {
+		given(this.coalescer.getInFlightCount()).willReturn(3);
+		given(this.coalescer.getGeneratedCount()).willReturn(120L);
+		given(this.coalescer.getSharedCount()).willReturn(42L);
+		new ProjectArchiveCoalescerMetrics(this.coalescer).bindTo(this.registry);
+		assertThat(this.registry.get("initializr.generation.coalescer.in.flight").gauge()
+				.value()).isEqualTo(3);
+		assertThat(this.registry.get("initializr.generation.coalescer.generated")
+				.functionCounter().count()).isEqualTo(120);
+		assertThat(this.registry.get("initializr.generation.coalescer.shared")
+				.functionCounter().count()).isEqualTo(42);
+	}
+
+}
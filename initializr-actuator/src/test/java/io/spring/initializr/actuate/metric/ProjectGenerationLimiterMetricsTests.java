@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.web.project.ProjectGenerationLimiter;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ProjectGenerationLimiterMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationLimiterMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectGenerationLimiter limiter = mock(ProjectGenerationLimiter.class);
+
+	@Test
+	public void metricsReflectLimiterState() {
+		given(this.limiter.getConcurrency()).willReturn(8);
+		given(this.limiter.getQueueCapacity()).willReturn(100);
+		given(this.limiter.getActiveCount()).willReturn(6);
+		given(this.limiter.getQueuedCount()).willReturn(12);
+		given(this.limiter.getRejectedCount()).willReturn(3L);
+		given(this.limiter.getCompletedCount()).willReturn(250L);
+		new ProjectGenerationLimiterMetrics(this.limiter).bindTo(this.registry);
+		assertThat(gauge("initializr.generation.limiter.concurrency")).isEqualTo(8);
+		assertThat(gauge("initializr.generation.limiter.queue.capacity")).isEqualTo(100);
+		assertThat(gauge("initializr.generation.limiter.active")).isEqualTo(6);
+		assertThat(gauge("initializr.generation.limiter.queued")).isEqualTo(12);
+		assertThat(this.registry.get("initializr.generation.limiter.rejected")
+				.functionCounter().count()).isEqualTo(3);
+		assertThat(this.registry.get("initializr.generation.limiter.completed")
+				.functionCounter().count()).isEqualTo(250);
+	}
+
+	private double gauge(String name) {
+		return this.registry.get(name).gauge().value();
+	}
+
+}
@@ -16,19 +16,30 @@
 
 package io.spring.initializr.actuate.metric;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.spring.initializr.actuate.test.MetricsAssert;
 import io.spring.initializr.generator.ProjectFailedEvent;
 import io.spring.initializr.generator.ProjectGeneratedEvent;
+import io.spring.initializr.generator.ProjectGenerationSource;
 import io.spring.initializr.generator.ProjectRequest;
 import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataRefreshedEvent;
 import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 /**
  * @author Stephane Nicoll
  */
@@ -37,15 +48,17 @@ public class ProjectGenerationMetricsListenerTests {
 	private InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
 			.addDependencyGroup("core", "web", "security", "spring-data").build();
 
+	private SimpleMeterRegistry meterRegistry;
+
 	private ProjectGenerationMetricsListener listener;
 
 	private MetricsAssert metricsAssert;
 
 	@Before
 	public void setup() {
-		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
-		this.listener = new ProjectGenerationMetricsListener(meterRegistry);
-		this.metricsAssert = new MetricsAssert(meterRegistry);
+		this.meterRegistry = new SimpleMeterRegistry();
+		this.listener = new ProjectGenerationMetricsListener(this.meterRegistry);
+		this.metricsAssert = new MetricsAssert(this.meterRegistry);
 	}
 
 	@Test
@@ -230,7 +243,150 @@ public class ProjectGenerationMetricsListenerTests {
 				"initializr.dependency.security", "initializr.type.gradle-project",
 				"initializr.packaging.jar", "initializr.java_version.1_6",
 				"initializr.language.groovy", "initializr.boot_version.1_5_17_RELEASE",
-				"initializr.client_id.spring").metricsCount(9);
+				"initializr.client_id.spring");
+		assertThat(Search.in(this.meterRegistry).counters().stream()
+				.filter((counter) -> counter.count() > 0)).hasSize(9);
+	}
+
+	@Test
+	public void generationTimeIsRecordedByOutcome() {
+		ProjectRequest request = initialize();
+		request.resolve(this.metadata);
+		this.listener.onGeneratedProject(
+				new ProjectGeneratedEvent(request, Duration.ofMillis(20)));
+		this.listener.onGeneratedProject(
+				new ProjectGeneratedEvent(request, Duration.ofMillis(40)));
+		this.listener.onFailedProject(
+				new ProjectFailedEvent(request, null, Duration.ofMillis(10)));
+		Timer success = this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "success").tag("source", "generated").timer();
+		assertThat(success.count()).isEqualTo(2);
+		assertThat(success.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(60);
+		Timer failure = this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "failure").tag("source", "generated").timer();
+		assertThat(failure.count()).isEqualTo(1);
+		assertThat(failure.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(10);
+	}
+
+	@Test
+	public void generationTimeIsRecordedBySource() {
+		ProjectRequest request = initialize();
+		request.resolve(this.metadata);
+		this.listener.onGeneratedProject(new ProjectGeneratedEvent(request,
+				Duration.ofMillis(20), ProjectGenerationSource.GENERATED));
+		this.listener.onGeneratedProject(new ProjectGeneratedEvent(request,
+				Duration.ofMillis(1), ProjectGenerationSource.CACHE));
+		this.listener.onGeneratedProject(new ProjectGeneratedEvent(request,
+				Duration.ofMillis(2), ProjectGenerationSource.COALESCED));
+		assertThat(this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "success").tag("source", "generated").timer()
+				.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(20);
+		assertThat(this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "success").tag("source", "cache").timer()
+				.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(1);
+		assertThat(this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "success").tag("source", "coalesced").timer()
+				.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+		this.metricsAssert.hasValue(3, "initializr.requests");
+	}
+
+	@Test
+	public void generationTimeIsNotRecordedWithoutDuration() {
+		ProjectRequest request = initialize();
+		request.resolve(this.metadata);
+		fireProjectGeneratedEvent(request);
+		assertThat(this.meterRegistry.get("initializr.generation")
+				.tag("outcome", "success").tag("source", "generated").timer().count())
+						.isEqualTo(0);
+	}
+
+	@Test
+	public void countersAreRegisteredForMetadata() {
+		useMetadataProvider();
+		ProjectRequest request = initialize();
+		request.getStyle().add("security");
+		request.resolve(this.metadata);
+		fireProjectGeneratedEvent(request);
+		this.metricsAssert.hasValue(1, "initializr.dependency.security",
+				"initializr.type.maven-project", "initializr.packaging.jar",
+				"initializr.java_version.1_8", "initializr.language.java",
+				"initializr.boot_version.2_1_1_RELEASE");
+		this.metricsAssert.hasValue(0, "initializr.dependency.web",
+				"initializr.dependency.spring-data", "initializr.packaging.war",
+				"initializr.language.groovy", "initializr.java_version.1_7");
+	}
+
+	@Test
+	public void valueNotInMetadataIsCounted() {
+		useMetadataProvider();
+		ProjectRequest request = initialize();
+		request.setBootVersion("1.0.0.RELEASE");
+		request.resolve(this.metadata);
+		fireProjectGeneratedEvent(request);
+		this.metricsAssert.hasValue(1, "initializr.boot_version.1_0_0_RELEASE");
+	}
+
+	@Test
+	public void countersAreRegisteredForRefreshedMetadata() {
+		useMetadataProvider();
+		fireProjectGeneratedEvent(initialize());
+		this.metricsAssert.hasNoValue("initializr.dependency.foo");
+		this.metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("core", "foo").build();
+		fireProjectGeneratedEvent(initialize());
+		this.metricsAssert.hasNoValue("initializr.dependency.foo");
+		this.listener
+				.onMetadataRefreshed(new InitializrMetadataRefreshedEvent(this.metadata));
+		this.metricsAssert.hasValue(0, "initializr.dependency.foo");
+	}
+
+	@Test
+	public void olderMetadataIsIgnored() {
+		InitializrMetadata olderMetadata = this.metadata;
+		this.metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("core", "foo").build();
+		this.listener
+				.onMetadataRefreshed(new InitializrMetadataRefreshedEvent(this.metadata));
+		this.listener
+				.onMetadataRefreshed(new InitializrMetadataRefreshedEvent(olderMetadata));
+		this.metricsAssert.hasValue(0, "initializr.dependency.foo");
+		this.metricsAssert.hasNoValue("initializr.dependency.security");
+	}
+
+	@Test
+	public void metadataIsRequestedOnce() {
+		AtomicInteger invocations = new AtomicInteger();
+		this.listener = new ProjectGenerationMetricsListener(this.meterRegistry, () -> {
+			invocations.incrementAndGet();
+			return this.metadata;
+		});
+		fireProjectGeneratedEvent(initialize());
+		fireProjectGeneratedEvent(initialize());
+		assertThat(invocations.get()).isEqualTo(1);
+	}
+
+	@Test
+	public void customIncrementIsInvokedForEveryKey() {
+		List<String> keys = new ArrayList<>();
+		this.listener = new ProjectGenerationMetricsListener(this.meterRegistry,
+				() -> this.metadata) {
+			@Override
+			protected void increment(String key) {
+				keys.add(key);
+			}
+		};
+		ProjectRequest request = initialize();
+		request.getStyle().add("security");
+		request.getParameters().put("user-agent", "HTTPie/0.9.2");
+		request.resolve(this.metadata);
+		fireProjectFailedEvent(request);
+		assertThat(keys).containsOnly("initializr.requests", "initializr.failures",
+				"initializr.dependency.security", "initializr.type.maven-project",
+				"initializr.packaging.jar", "initializr.java_version.1_8",
+				"initializr.language.java", "initializr.boot_version.2_1_1_RELEASE",
+				"initializr.client_id.httpie");
+		this.metricsAssert.hasValue(0, "initializr.requests",
+				"initializr.dependency.security");
 	}
 
 	@Test
@@ -252,6 +408,11 @@ public class ProjectGenerationMetricsListenerTests {
 				"initializr.dependency.security");
 	}
 
+	private void useMetadataProvider() {
+		this.listener = new ProjectGenerationMetricsListener(this.meterRegistry,
+				() -> this.metadata);
+	}
+
 	private void fireProjectGeneratedEvent(ProjectRequest projectRequest) {
 		this.listener.onGeneratedProject(new ProjectGeneratedEvent(projectRequest));
 	}
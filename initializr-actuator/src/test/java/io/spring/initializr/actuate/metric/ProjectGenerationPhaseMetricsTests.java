@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.ProjectGenerationTimings;
+import io.spring.initializr.generator.ProjectRequest;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectGenerationPhaseMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationPhaseMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectGenerationPhaseMetrics metrics = new ProjectGenerationPhaseMetrics(
+			this.registry);
+
+	@Test
+	public void phaseIsRecordedWithTypeAndLanguage() {
+		ProjectRequest request = createRequest("gradle-project", "kotlin");
+		this.metrics.onPhaseCompleted(request, ProjectGenerationTimings.GENERATE,
+				TimeUnit.MILLISECONDS.toNanos(20));
+		this.metrics.onPhaseCompleted(request, ProjectGenerationTimings.GENERATE,
+				TimeUnit.MILLISECONDS.toNanos(30));
+		Timer timer = this.registry.get("initializr.generation.phase")
+				.tag("phase", "generate").tag("type", "gradle-project")
+				.tag("language", "kotlin").timer();
+		assertThat(timer.count()).isEqualTo(2);
+		assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(50);
+	}
+
+	@Test
+	public void phasesAreRecordedSeparately() {
+		ProjectRequest request = createRequest("maven-project", "java");
+		this.metrics.onPhaseCompleted(request, ProjectGenerationTimings.RESOLVE, 1000);
+		this.metrics.onPhaseCompleted(request, ProjectGenerationTimings.ARCHIVE, 2000);
+		assertThat(this.registry.get("initializr.generation.phase").timers()).hasSize(2);
+		assertThat(this.registry.get("initializr.generation.phase")
+				.tag("phase", "archive").timer().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void missingTypeAndLanguageAreTagged() {
+		this.metrics.onPhaseCompleted(new ProjectRequest(),
+				ProjectGenerationTimings.RESOLVE, 1000);
+		assertThat(this.registry.get("initializr.generation.phase").tag("type", "unknown")
+				.tag("language", "unknown").timer().count()).isEqualTo(1);
+	}
+
+	private ProjectRequest createRequest(String type, String language) {
+		ProjectRequest request = new ProjectRequest();
+		request.setType(type);
+		request.setLanguage(language);
+		return request;
+	}
+
+}
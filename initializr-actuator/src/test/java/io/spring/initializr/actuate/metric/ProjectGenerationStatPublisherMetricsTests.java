@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.actuate.stat.ProjectGenerationStatPublisher;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ProjectGenerationStatPublisherMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationStatPublisherMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectGenerationStatPublisher publisher = mock(
+			ProjectGenerationStatPublisher.class);
+
+	@Test
+	public void metricsReflectPublisherState() {
+		given(this.publisher.getQueueSize()).willReturn(12);
+		given(this.publisher.getPublishedCount()).willReturn(150L);
+		given(this.publisher.getDroppedCount()).willReturn(3L);
+		given(this.publisher.getFailedCount()).willReturn(5L);
+		given(this.publisher.getLastBatchSize()).willReturn(50);
+		given(this.publisher.getSpoolSize()).willReturn(4096L);
+		given(this.publisher.getSpooledCount()).willReturn(20L);
+		given(this.publisher.getReplayedCount()).willReturn(15L);
+		given(this.publisher.getFlushCount()).willReturn(4L);
+		given(this.publisher.getTotalFlushTime(TimeUnit.NANOSECONDS))
+				.willReturn(2000000.0);
+		new ProjectGenerationStatPublisherMetrics(this.publisher).bindTo(this.registry);
+		assertThat(this.registry.get("initializr.stats.queue.size").gauge().value())
+				.isEqualTo(12);
+		assertThat(
+				this.registry.get("initializr.stats.published").functionCounter().count())
+						.isEqualTo(150);
+		assertThat(
+				this.registry.get("initializr.stats.dropped").functionCounter().count())
+						.isEqualTo(3);
+		assertThat(this.registry.get("initializr.stats.failed").functionCounter().count())
+				.isEqualTo(5);
+		assertThat(this.registry.get("initializr.stats.batch.size").gauge().value())
+				.isEqualTo(50);
+		assertThat(this.registry.get("initializr.stats.spool.size").gauge().value())
+				.isEqualTo(4096);
+		assertThat(
+				this.registry.get("initializr.stats.spooled").functionCounter().count())
+						.isEqualTo(20);
+		assertThat(
+				this.registry.get("initializr.stats.replayed").functionCounter().count())
+						.isEqualTo(15);
+		FunctionTimer flush = this.registry.get("initializr.stats.flush").functionTimer();
+		assertThat(flush.count()).isEqualTo(4);
+		assertThat(flush.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+	}
+
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ProjectWorkspaceMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final ProjectWorkspaceManager workspaceManager = mock(
+			ProjectWorkspaceManager.class);
+
+	@Test
+	public void metricsReflectWorkspaceManagerState() {
+		given(this.workspaceManager.getActiveCount()).willReturn(4);
+		given(this.workspaceManager.getDiskUsage()).willReturn(2048L);
+		given(this.workspaceManager.getRejectedCount()).willReturn(2L);
+		given(this.workspaceManager.getSweptCount()).willReturn(12L);
+		new ProjectWorkspaceMetrics(this.workspaceManager).bindTo(this.registry);
+		assertThat(this.registry.get("initializr.generation.workspace.active").gauge()
+				.value()).isEqualTo(4);
+		assertThat(this.registry.get("initializr.generation.workspace.disk.usage").gauge()
+				.value()).isEqualTo(2048);
+		assertThat(this.registry.get("initializr.generation.workspace.rejected")
+				.functionCounter().count()).isEqualTo(2);
+		assertThat(this.registry.get("initializr.generation.workspace.swept")
+				.functionCounter().count()).isEqualTo(12);
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.metric;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.spring.initializr.util.TemplateRenderer;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link TemplateRendererMetrics}.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererMetricsTests {
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+	private final TemplateRenderer templateRenderer = new TemplateRenderer();
+
+	@Test
+	public void metricsForEachTemplate() {
+		new TemplateRendererMetrics(this.templateRenderer).bindTo(this.registry);
+		for (String name : this.templateRenderer.getTemplateNames()) {
+			assertThat(this.registry.get("initializr.template.render")
+					.tag("template", name).functionTimer()).isNotNull();
+			assertThat(this.registry.get("initializr.template.compilation")
+					.tag("template", name).gauge()).isNotNull();
+		}
+	}
+
+	@Test
+	public void metricsReflectRendering() {
+		new TemplateRendererMetrics(this.templateRenderer).bindTo(this.registry);
+		this.templateRenderer.process("gitignore.tmpl", Collections.emptyMap());
+		FunctionTimer timer = this.registry.get("initializr.template.render")
+				.tag("template", "gitignore.tmpl").functionTimer();
+		assertThat(timer.count()).isEqualTo(1);
+		assertThat(timer.totalTime(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+		assertThat(this.registry.get("initializr.template.compilation")
+				.tag("template", "gitignore.tmpl").gauge().value()).isGreaterThan(0);
+	}
+
+}
@@ -56,6 +56,9 @@ public class MainControllerStatsIntegrationTests
 	@Autowired
 	private StatsProperties statsProperties;
 
+	@Autowired
+	private ProjectGenerationStatPublisher statPublisher;
+
 	@Before
 	public void setup() {
 		this.statsMockController.stats.clear();
@@ -67,6 +70,7 @@ public class MainControllerStatsIntegrationTests
 	@Test
 	public void simpleProject() {
 		downloadArchive("/starter.zip?groupId=com.foo&artifactId=bar&dependencies=web");
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -81,6 +85,7 @@ public class MainControllerStatsIntegrationTests
 	@Test
 	public void authorizationHeaderIsSet() {
 		downloadArchive("/starter.zip");
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -96,6 +101,7 @@ public class MainControllerStatsIntegrationTests
 	@Test
 	public void requestIpNotSetByDefault() {
 		downloadArchive("/starter.zip?groupId=com.foo&artifactId=bar&dependencies=web");
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -109,6 +115,7 @@ public class MainControllerStatsIntegrationTests
 		RequestEntity<?> request = RequestEntity.get(new URI(createUrl("/starter.zip")))
 				.header("X-FORWARDED-FOR", "10.0.0.123").build();
 		getRestTemplate().exchange(request, String.class);
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -122,6 +129,7 @@ public class MainControllerStatsIntegrationTests
 		RequestEntity<?> request = RequestEntity.get(new URI(createUrl("/starter.zip")))
 				.header("x-forwarded-for", "foo-bar").build();
 		getRestTemplate().exchange(request, String.class);
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -136,6 +144,7 @@ public class MainControllerStatsIntegrationTests
 		RequestEntity<?> request = RequestEntity.get(new URI(createUrl("/starter.zip")))
 				.header("cf-ipcountry", "XX").build();
 		getRestTemplate().exchange(request, String.class);
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -154,6 +163,7 @@ public class MainControllerStatsIntegrationTests
 		catch (HttpClientErrorException ex) {
 			assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
 		}
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat got generated").hasSize(1);
 		StatsMockController.Content content = this.statsMockController.stats.get(0);
 
@@ -171,6 +181,7 @@ public class MainControllerStatsIntegrationTests
 		this.statsProperties.getElastic()
 				.setUri("http://localhost:" + this.port + "/elastic-error");
 		downloadArchive("/starter.zip");
+		this.statPublisher.flush();
 		assertThat(this.statsMockController.stats).as("No stat should be available")
 				.isEmpty();
 	}
@@ -180,14 +191,16 @@ public class MainControllerStatsIntegrationTests
 
 		private final List<Content> stats = new ArrayList<>();
 
-		@PostMapping("/elastic/test/my-entity")
-		public void handleProjectRequestDocument(RequestEntity<String> input) {
+		@PostMapping("/elastic/test/my-entity/_bulk")
+		public void handleProjectRequestDocuments(RequestEntity<String> input) {
 			String authorization = input.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
-			Content content = new Content(authorization, input.getBody());
-			this.stats.add(content);
+			String[] lines = input.getBody().split("\n");
+			for (int i = 1; i < lines.length; i += 2) {
+				this.stats.add(new Content(authorization, lines[i]));
+			}
 		}
 
-		@PostMapping("/elastic-error/test/my-entity")
+		@PostMapping("/elastic-error/test/my-entity/_bulk")
 		public void handleExpectedError() {
 			throw new IllegalStateException("Expected exception");
 		}
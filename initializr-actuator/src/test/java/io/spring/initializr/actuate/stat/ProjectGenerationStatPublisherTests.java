@@ -16,123 +16,392 @@
 
 package io.spring.initializr.actuate.stat;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.UUID;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
 import io.spring.initializr.actuate.stat.StatsProperties.Elastic;
 import io.spring.initializr.generator.ProjectGeneratedEvent;
 import io.spring.initializr.generator.ProjectRequest;
+import org.junit.After;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import org.springframework.boot.web.client.RestTemplateBuilder;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.retry.policy.SimpleRetryPolicy;
 import org.springframework.retry.support.RetryTemplate;
-import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.util.Base64Utils;
+import org.springframework.util.StreamUtils;
 
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.jsonPath;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
-import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
-import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.assertj.core.api.Assertions.assertThat;
 
 /**
+ * Tests for {@link ProjectGenerationStatPublisher}, using a local HTTP server in place of
+ * Elastic.
+ *
  * @author Stephane Nicoll
  */
 public class ProjectGenerationStatPublisherTests extends AbstractInitializrStatTests {
 
+	private static final String BULK_PATH = "/elastic/initializr/request/_bulk";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final BlockingQueue<BulkRequest> bulkRequests = new LinkedBlockingQueue<>();
+
+	private final List<Consumer<HttpExchange>> responses = Collections
+			.synchronizedList(new ArrayList<>());
+
+	private HttpServer server;
+
+	private StatsProperties properties;
+
 	private RetryTemplate retryTemplate;
 
 	private ProjectGenerationStatPublisher statPublisher;
 
-	private MockRestServiceServer mockServer;
-
 	@Before
-	public void setUp() {
-		StatsProperties properties = createProperties();
-		ProjectRequestDocumentFactory documentFactory = new ProjectRequestDocumentFactory(
-				createProvider(getMetadata()));
+	public void setUp() throws IOException {
+		this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		this.server.createContext("/", this::handle);
+		this.server.start();
+		this.properties = new StatsProperties();
+		Elastic elastic = this.properties.getElastic();
+		elastic.setUri(
+				"http://localhost:" + this.server.getAddress().getPort() + "/elastic");
+		elastic.setUsername("foo");
+		elastic.setPassword("bar");
 		this.retryTemplate = new RetryTemplate();
-		this.statPublisher = new ProjectGenerationStatPublisher(documentFactory,
-				properties, new RestTemplateBuilder(), this.retryTemplate);
-		this.mockServer = MockRestServiceServer
-				.createServer(this.statPublisher.getRestTemplate());
+	}
+
+	@After
+	public void tearDown() {
+		if (this.statPublisher != null) {
+			this.statPublisher.stop();
+		}
+		this.server.stop(0);
 	}
 
 	@Test
-	public void publishSimpleDocument() {
+	public void publishSimpleDocument() throws Exception {
 		ProjectRequest request = createProjectRequest();
 		request.setGroupId("com.example.foo");
 		request.setArtifactId("my-project");
+		createStatPublisher();
+		publish(request);
+		assertThat(this.statPublisher.flush()).isEqualTo(1);
+		BulkRequest bulkRequest = nextBulkRequest();
+		assertThat(bulkRequest.path).isEqualTo(BULK_PATH);
+		assertThat(bulkRequest.contentType).isEqualTo("application/x-ndjson");
+		assertThat(new String(Base64Utils.decodeFromString(
+				bulkRequest.authorization.substring("Basic ".length()))))
+						.isEqualTo("foo:bar");
+		assertThat(bulkRequest.lines).hasSize(2);
+		assertThat(bulkRequest.lines.get(0)).isEqualTo("{\"index\":{}}");
+		JsonNode document = this.objectMapper.readTree(bulkRequest.lines.get(1));
+		assertThat(document.get("groupId").textValue()).isEqualTo("com.example.foo");
+		assertThat(document.get("artifactId").textValue()).isEqualTo("my-project");
+		assertThat(this.statPublisher.getPublishedCount()).isEqualTo(1);
+		assertThat(this.statPublisher.getFlushCount()).isEqualTo(1);
+		assertThat(this.statPublisher.getLastBatchSize()).isEqualTo(1);
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andExpect(jsonPath("$.groupId").value("com.example.foo"))
-				.andExpect(jsonPath("$.artifactId").value("my-project"))
-				.andRespond(withStatus(HttpStatus.CREATED)
-						.body(mockResponse(UUID.randomUUID().toString(), true))
-						.contentType(MediaType.APPLICATION_JSON));
+	@Test
+	public void publishDocumentsInBatches() throws Exception {
+		this.properties.getElastic().setBatchSize(2);
+		createStatPublisher();
+		for (int i = 0; i < 3; i++) {
+			publish(createProjectRequest());
+		}
+		assertThat(this.statPublisher.getQueueSize()).isEqualTo(3);
+		assertThat(this.statPublisher.flush()).isEqualTo(2);
+		assertThat(this.statPublisher.flush()).isEqualTo(1);
+		assertThat(this.statPublisher.flush()).isEqualTo(0);
+		assertThat(nextBulkRequest().lines).hasSize(4);
+		assertThat(nextBulkRequest().lines).hasSize(2);
+		assertThat(this.statPublisher.getPublishedCount()).isEqualTo(3);
+		assertThat(this.statPublisher.getFlushCount()).isEqualTo(2);
+	}
 
-		this.statPublisher.handleEvent(new ProjectGeneratedEvent(request));
-		this.mockServer.verify();
+	@Test
+	public void fullQueueDropsOldestDocument() throws Exception {
+		this.properties.getElastic().setQueueCapacity(2);
+		createStatPublisher();
+		for (int i = 1; i <= 3; i++) {
+			ProjectRequest request = createProjectRequest();
+			request.setArtifactId("project-" + i);
+			publish(request);
+		}
+		assertThat(this.statPublisher.getQueueSize()).isEqualTo(2);
+		assertThat(this.statPublisher.getDroppedCount()).isEqualTo(1);
+		this.statPublisher.flush();
+		BulkRequest bulkRequest = nextBulkRequest();
+		assertThat(this.objectMapper.readTree(bulkRequest.lines.get(1)).get("artifactId")
+				.textValue()).isEqualTo("project-2");
+		assertThat(this.objectMapper.readTree(bulkRequest.lines.get(3)).get("artifactId")
+				.textValue()).isEqualTo("project-3");
 	}
 
 	@Test
-	public void recoverFromError() {
-		ProjectRequest request = createProjectRequest();
+	public void recoverFromError() throws Exception {
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		publish(createProjectRequest());
+		this.statPublisher.flush();
+		assertThat(this.bulkRequests).hasSize(3);
+		assertThat(this.statPublisher.getPublishedCount()).isEqualTo(1);
+		assertThat(this.statPublisher.getFailedCount()).isEqualTo(0);
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+	@Test
+	public void fatalErrorOnlyLogs() throws Exception {
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(2,
+				Collections.singletonMap(Exception.class, true)));
+		for (int i = 0; i < 2; i++) {
+			this.responses.add((exchange) -> respond(exchange, 500, ""));
+		}
+		createStatPublisher();
+		publish(createProjectRequest());
+		assertThat(this.statPublisher.flush()).isEqualTo(1);
+		assertThat(this.bulkRequests).hasSize(2);
+		assertThat(this.statPublisher.getPublishedCount()).isEqualTo(0);
+		assertThat(this.statPublisher.getFailedCount()).isEqualTo(1);
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+	@Test
+	public void fatalErrorSpoolsDocuments() throws Exception {
+		enableSpool();
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(1,
+				Collections.singletonMap(Exception.class, true)));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		publish(createProjectRequest());
+		publish(createProjectRequest());
+		assertThat(this.statPublisher.flush()).isEqualTo(2);
+		assertThat(this.statPublisher.getFailedCount()).isEqualTo(0);
+		assertThat(this.statPublisher.getSpooledCount()).isEqualTo(2);
+		assertThat(this.statPublisher.getSpoolSize()).isGreaterThan(0);
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andRespond(withStatus(HttpStatus.CREATED)
-						.body(mockResponse(UUID.randomUUID().toString(), true))
-						.contentType(MediaType.APPLICATION_JSON));
+	@Test
+	public void spooledDocumentsAreReplayed() throws Exception {
+		enableSpool();
+		this.properties.getSpool().setReplayBatchSize(1);
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(1,
+				Collections.singletonMap(Exception.class, true)));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		for (int i = 1; i <= 2; i++) {
+			ProjectRequest request = createProjectRequest();
+			request.setArtifactId("project-" + i);
+			publish(request);
+		}
+		this.statPublisher.flush();
+		nextBulkRequest();
+		assertThat(this.statPublisher.replay()).isEqualTo(1);
+		BulkRequest first = nextBulkRequest();
+		assertThat(first.lines).hasSize(2);
+		assertThat(this.objectMapper.readTree(first.lines.get(1)).get("artifactId")
+				.textValue()).isEqualTo("project-1");
+		assertThat(this.statPublisher.replay()).isEqualTo(1);
+		assertThat(this.objectMapper.readTree(nextBulkRequest().lines.get(1))
+				.get("artifactId").textValue()).isEqualTo("project-2");
+		assertThat(this.statPublisher.replay()).isEqualTo(0);
+		assertThat(this.statPublisher.getReplayedCount()).isEqualTo(2);
+		assertThat(this.statPublisher.getSpoolSize()).isEqualTo(0);
+	}
 
-		this.statPublisher.handleEvent(new ProjectGeneratedEvent(request));
-		this.mockServer.verify();
+	@Test
+	public void failedReplayKeepsDocuments() throws Exception {
+		enableSpool();
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(1,
+				Collections.singletonMap(Exception.class, true)));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		publish(createProjectRequest());
+		this.statPublisher.flush();
+		assertThat(this.statPublisher.replay()).isEqualTo(0);
+		assertThat(this.statPublisher.replay()).isEqualTo(1);
+		assertThat(this.bulkRequests).hasSize(3);
+		assertThat(this.statPublisher.getReplayedCount()).isEqualTo(1);
 	}
 
 	@Test
-	public void fatalErrorOnlyLogs() {
-		ProjectRequest request = createProjectRequest();
-		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(2,
+	public void replayIsDelayedWhileIndexIsUnavailable() throws Exception {
+		enableSpool();
+		this.properties.getElastic().setFlushInterval(Duration.ofHours(1));
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(1,
 				Collections.singletonMap(Exception.class, true)));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		publish(createProjectRequest());
+		this.statPublisher.flush();
+		assertThat(this.statPublisher.replayIfDue()).isEqualTo(0);
+		assertThat(this.bulkRequests).hasSize(1);
+	}
+
+	@Test
+	public void spooledDocumentsAreReplayedInBackgroundWithoutNewDocuments()
+			throws Exception {
+		enableSpool();
+		this.properties.getElastic().setFlushInterval(Duration.ofMillis(50));
+		this.retryTemplate.setRetryPolicy(new SimpleRetryPolicy(1,
+				Collections.singletonMap(Exception.class, true)));
+		this.responses.add((exchange) -> respond(exchange, 500, ""));
+		createStatPublisher();
+		publish(createProjectRequest());
+		this.statPublisher.flush();
+		nextBulkRequest();
+		this.statPublisher.start();
+		BulkRequest bulkRequest = this.bulkRequests.poll(5, TimeUnit.SECONDS);
+		assertThat(bulkRequest).isNotNull();
+		assertThat(bulkRequest.lines).hasSize(2);
+	}
+
+	@Test
+	public void partialFailureCountsFailedDocuments() throws Exception {
+		this.responses.add((exchange) -> respond(exchange, 200,
+				"{\"took\":3,\"errors\":true,\"items\":["
+						+ "{\"index\":{\"status\":201}},"
+						+ "{\"index\":{\"status\":400,\"error\":{\"type\":\"test\"}}}]}"));
+		createStatPublisher();
+		publish(createProjectRequest());
+		publish(createProjectRequest());
+		this.statPublisher.flush();
+		assertThat(this.statPublisher.getPublishedCount()).isEqualTo(1);
+		assertThat(this.statPublisher.getFailedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void publishInBackgroundAfterFlushInterval() throws Exception {
+		this.properties.getElastic().setFlushInterval(Duration.ofMillis(50));
+		createStatPublisher().start();
+		publish(createProjectRequest());
+		BulkRequest bulkRequest = this.bulkRequests.poll(5, TimeUnit.SECONDS);
+		assertThat(bulkRequest).isNotNull();
+		assertThat(bulkRequest.lines).hasSize(2);
+	}
+
+	@Test
+	public void publishInBackgroundWhenBatchIsFull() throws Exception {
+		this.properties.getElastic().setFlushInterval(Duration.ofHours(1));
+		this.properties.getElastic().setBatchSize(2);
+		createStatPublisher().start();
+		publish(createProjectRequest());
+		publish(createProjectRequest());
+		BulkRequest bulkRequest = this.bulkRequests.poll(5, TimeUnit.SECONDS);
+		assertThat(bulkRequest).isNotNull();
+		assertThat(bulkRequest.lines).hasSize(4);
+	}
+
+	@Test
+	public void stopPublishesPendingDocuments() throws Exception {
+		this.properties.getElastic().setFlushInterval(Duration.ofHours(1));
+		createStatPublisher().start();
+		publish(createProjectRequest());
+		this.statPublisher.stop();
+		assertThat(this.statPublisher.isRunning()).isFalse();
+		assertThat(this.bulkRequests).hasSize(1);
+		assertThat(this.statPublisher.getQueueSize()).isEqualTo(0);
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+	private void enableSpool() throws IOException {
+		StatsProperties.Spool spool = this.properties.getSpool();
+		spool.setEnabled(true);
+		spool.setDirectory(this.temporaryFolder.newFolder().getAbsolutePath());
+	}
 
-		this.mockServer.expect(requestTo("http://example.com/elastic/initializr/request"))
-				.andExpect(method(HttpMethod.POST))
-				.andRespond(withStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+	private ProjectGenerationStatPublisher createStatPublisher() {
+		ProjectRequestDocumentFactory documentFactory = new ProjectRequestDocumentFactory(
+				createProvider(getMetadata()));
+		this.statPublisher = new ProjectGenerationStatPublisher(documentFactory,
+				this.properties, new RestTemplateBuilder(), this.retryTemplate);
+		return this.statPublisher;
+	}
 
+	private void publish(ProjectRequest request) {
 		this.statPublisher.handleEvent(new ProjectGeneratedEvent(request));
-		this.mockServer.verify();
 	}
 
-	private static String mockResponse(String id, boolean created) {
-		return "{\"_index\":\"initializr\",\"_type\":\"request\",\"_id\":\"" + id
-				+ "\",\"_version\":1,\"_shards\""
-				+ ":{\"total\":1,\"successful\":1,\"failed\":0},\"created\":" + created
-				+ "}";
+	private BulkRequest nextBulkRequest() throws InterruptedException {
+		BulkRequest bulkRequest = this.bulkRequests.poll(5, TimeUnit.SECONDS);
+		assertThat(bulkRequest).as("No bulk request received").isNotNull();
+		return bulkRequest;
 	}
 
-	private static StatsProperties createProperties() {
-		StatsProperties properties = new StatsProperties();
-		Elastic elastic = properties.getElastic();
-		elastic.setUri("http://example.com/elastic");
-		elastic.setUsername("foo");
-		elastic.setPassword("bar");
-		return properties;
+	private void handle(HttpExchange exchange) throws IOException {
+		String body = StreamUtils.copyToString(exchange.getRequestBody(),
+				StandardCharsets.UTF_8);
+		this.bulkRequests.add(new BulkRequest(exchange, body));
+		Consumer<HttpExchange> response = (this.responses.isEmpty() ? null
+				: this.responses.remove(0));
+		if (response != null) {
+			response.accept(exchange);
+		}
+		else {
+			respond(exchange, 200, "{\"took\":3,\"errors\":false,\"items\":[]}");
+		}
+	}
+
+	private static void respond(HttpExchange exchange, int status, String body) {
+		try {
+			byte[] content = body.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(status,
+					(content.length > 0) ? content.length : -1);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(content);
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * A bulk request received by the local server.
+	 */
+	private static final class BulkRequest {
+
+		private final String path;
+
+		private final String contentType;
+
+		private final String authorization;
+
+		private final List<String> lines = new ArrayList<>();
+
+		BulkRequest(HttpExchange exchange, String body) {
+			this.path = exchange.getRequestURI().getPath();
+			this.contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+			this.authorization = exchange.getRequestHeaders().getFirst("Authorization");
+			for (String line : body.split("\n")) {
+				if (!line.isEmpty()) {
+					this.lines.add(line);
+				}
+			}
+		}
+
 	}
 
 }
@@ -42,4 +42,13 @@ public class StatsPropertiesTests {
 				.isEqualTo("http://example.com/my-index/foo");
 	}
 
+	@Test
+	public void provideBulkUrl() {
+		this.properties.getElastic().setUri("http://example.com/");
+		this.properties.getElastic().setIndexName("my-index");
+		this.properties.getElastic().setEntityName("foo");
+		assertThat(this.properties.getElastic().getBulkUrl().toString())
+				.isEqualTo("http://example.com/my-index/foo/_bulk");
+	}
+
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.actuate.stat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link StatsSpool}.
+ *
+ * @author Julien Marchand
+ */
+public class StatsSpoolTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private final List<String> replayed = new ArrayList<>();
+
+	private Path directory;
+
+	@Before
+	public void setUp() throws IOException {
+		this.directory = this.temporaryFolder.newFolder().toPath();
+	}
+
+	@Test
+	public void appendAndReplay() throws Exception {
+		StatsSpool spool = new StatsSpool(this.directory, 1024, 1024);
+		assertThat(spool.isEmpty()).isTrue();
+		spool.append(bulk("a", "b", "c"));
+		assertThat(spool.isEmpty()).isFalse();
+		assertThat(spool.getSize()).isEqualTo(bulk("a", "b", "c").size());
+		assertThat(replay(spool, 2)).isEqualTo(2);
+		assertThat(replay(spool, 2)).isEqualTo(1);
+		assertThat(this.replayed).containsExactly(bulkString("a", "b"), bulkString("c"));
+		assertThat(spool.isEmpty()).isTrue();
+		assertThat(spool.getSize()).isEqualTo(0);
+		assertThat(replay(spool, 2)).isEqualTo(0);
+	}
+
+	@Test
+	public void failedReplayKeepsContent() throws Exception {
+		StatsSpool spool = new StatsSpool(this.directory, 1024, 1024);
+		spool.append(bulk("a"));
+		assertThatThrownBy(() -> spool.replay(1, (content, offset, length) -> {
+			throw new IllegalStateException("test");
+		})).hasMessage("test");
+		assertThat(replay(spool, 1)).isEqualTo(1);
+		assertThat(this.replayed).containsExactly(bulkString("a"));
+	}
+
+	@Test
+	public void appendRollsSegments() throws Exception {
+		int length = bulk("a").size();
+		StatsSpool spool = new StatsSpool(this.directory, 1024, length * 2);
+		spool.append(bulk("a"));
+		spool.append(bulk("b"));
+		spool.append(bulk("c"));
+		assertThat(listSegments()).hasSize(2);
+		assertThat(replay(spool, 10)).isEqualTo(2);
+		assertThat(replay(spool, 10)).isEqualTo(1);
+		assertThat(this.replayed).containsExactly(bulkString("a", "b"), bulkString("c"));
+		assertThat(listSegments()).isEmpty();
+	}
+
+	@Test
+	public void appendOverMaxSizeDiscardsOldestSegment() throws Exception {
+		int length = bulk("a").size();
+		StatsSpool spool = new StatsSpool(this.directory, length * 2, length);
+		spool.append(bulk("a"));
+		spool.append(bulk("b"));
+		spool.append(bulk("c"));
+		assertThat(spool.getSize()).isEqualTo(length * 2);
+		assertThat(replay(spool, 10)).isEqualTo(1);
+		assertThat(replay(spool, 10)).isEqualTo(1);
+		assertThat(this.replayed).containsExactly(bulkString("b"), bulkString("c"));
+	}
+
+	@Test
+	public void existingSegmentsAreReplayedOnRestart() throws Exception {
+		StatsSpool spool = new StatsSpool(this.directory, 1024, 1024);
+		spool.append(bulk("a"));
+		StatsSpool restarted = new StatsSpool(this.directory, 1024, 1024);
+		assertThat(restarted.getSize()).isEqualTo(spool.getSize());
+		restarted.append(bulk("b"));
+		assertThat(replay(restarted, 10)).isEqualTo(1);
+		assertThat(replay(restarted, 10)).isEqualTo(1);
+		assertThat(this.replayed).containsExactly(bulkString("a"), bulkString("b"));
+	}
+
+	private int replay(StatsSpool spool, int maxDocuments) throws Exception {
+		return spool.replay(maxDocuments, (content, offset, length) -> this.replayed
+				.add(new String(content, offset, length, StandardCharsets.UTF_8)));
+	}
+
+	private List<Path> listSegments() throws IOException {
+		try (Stream<Path> segments = Files.list(this.directory)) {
+			return segments.collect(Collectors.toList());
+		}
+	}
+
+	private static ByteArrayOutputStream bulk(String... ids) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.write(bulkString(ids).getBytes(StandardCharsets.UTF_8));
+		return out;
+	}
+
+	private static String bulkString(String... ids) {
+		StringBuilder content = new StringBuilder();
+		for (String id : ids) {
+			content.append("{\"index\":{}}\n{\"id\":\"").append(id).append("\"}\n");
+		}
+		return content.toString();
+	}
+
+}
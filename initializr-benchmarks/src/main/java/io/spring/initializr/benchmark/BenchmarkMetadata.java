@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.spring.initializr.generator.ProjectGenerator;
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectRequestResolver;
+import io.spring.initializr.generator.ProjectResourceLocator;
+import io.spring.initializr.generator.archive.DeflatedContent;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.SimpleInitializrMetadataProvider;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+
+/**
+ * Metadata and requests shared by the benchmarks. The metadata defines
+ * {@value #DEPENDENCY_COUNT} dependencies, mixing starters, dependencies with a version
+ * range and dependencies managed by a bom, so that requests with a growing number of
+ * dependencies exercise the same code paths as a production instance.
+ *
+ * @author Julien Marchand
+ */
+final class BenchmarkMetadata {
+
+	/**
+	 * The number of dependencies defined by the metadata.
+	 */
+	static final int DEPENDENCY_COUNT = 20;
+
+	private BenchmarkMetadata() {
+	}
+
+	/**
+	 * Create the {@link InitializrMetadata} to use for the benchmarks.
+	 * @return the metadata
+	 */
+	static InitializrMetadata createMetadata() {
+		Dependency web = Dependency.withId("web");
+		web.getFacets().add("web");
+		List<Dependency> starters = new ArrayList<>();
+		List<Dependency> libraries = new ArrayList<>();
+		for (int i = 1; i < DEPENDENCY_COUNT; i++) {
+			if (i % 2 == 0) {
+				starters.add(Dependency.withId("starter-" + i));
+			}
+			else {
+				Dependency library = Dependency.withId("library-" + i, "org.acme",
+						"acme-library-" + i);
+				if (i % 3 == 0) {
+					library.setVersionRange("2.0.0.RELEASE");
+				}
+				library.setBom("acme-bom");
+				libraries.add(library);
+			}
+		}
+		return InitializrMetadataTestBuilder.withDefaults()
+				.addBom("acme-bom", "org.acme", "acme-bom", "1.0.0")
+				.addDependencyGroup("web", web)
+				.addDependencyGroup("starters", starters.toArray(new Dependency[0]))
+				.addDependencyGroup("libraries", libraries.toArray(new Dependency[0]))
+				.build();
+	}
+
+	/**
+	 * Return the ids of the specified number of dependencies, starting with {@code web}.
+	 * @param count the number of dependencies
+	 * @return the dependency ids
+	 */
+	static List<String> getDependencyIds(int count) {
+		List<String> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			if (i == 0) {
+				ids.add("web");
+			}
+			else {
+				ids.add(((i % 2 == 0) ? "starter-" : "library-") + i);
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Create a {@link ProjectRequest} initialized with the defaults of the specified
+	 * metadata.
+	 * @param metadata the metadata
+	 * @param type the type of the project
+	 * @param dependencyCount the number of dependencies
+	 * @return a new request
+	 */
+	static ProjectRequest createRequest(InitializrMetadata metadata, String type,
+			int dependencyCount) {
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(metadata);
+		request.setType(type);
+		request.getStyle().addAll(getDependencyIds(dependencyCount));
+		return request;
+	}
+
+	/**
+	 * Configure the specified {@link ProjectGenerator} to use the specified metadata. As
+	 * in a running instance, the resources of the project are cached.
+	 * @param generator the generator to configure
+	 * @param metadata the metadata
+	 * @param <T> the type of the generator
+	 * @return the generator
+	 */
+	static <T extends ProjectGenerator> T configure(T generator,
+			InitializrMetadata metadata) {
+		generator.setMetadataProvider(new SimpleInitializrMetadataProvider(metadata));
+		generator.setRequestResolver(new ProjectRequestResolver(new ArrayList<>()));
+		generator.setEventPublisher((event) -> {
+		});
+		generator.setProjectResourceLocator(new CachingProjectResourceLocator());
+		return generator;
+	}
+
+	/**
+	 * A {@link ProjectResourceLocator} that caches resources the same way the
+	 * {@code initializr.project-resources} cache does.
+	 */
+	private static class CachingProjectResourceLocator extends ProjectResourceLocator {
+
+		private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+		@Override
+		public byte[] getBinaryResource(String location) {
+			return get("binary:" + location, () -> super.getBinaryResource(location));
+		}
+
+		@Override
+		public String getTextResource(String location) {
+			return get("text:" + location, () -> super.getTextResource(location));
+		}
+
+		@Override
+		public DeflatedContent getDeflatedResource(String location) {
+			return get("deflated:" + location, () -> super.getDeflatedResource(location));
+		}
+
+		@SuppressWarnings("unchecked")
+		private <T> T get(String key, Supplier<T> resource) {
+			Object value = this.cache.get(key);
+			if (value == null) {
+				value = resource.get();
+				this.cache.putIfAbsent(key, value);
+			}
+			return (T) value;
+		}
+
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.util.Version;
+import io.spring.initializr.web.ui.DependencySearchIndex;
+import io.spring.initializr.web.ui.DependencySearchIndex.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the search of dependencies served by the {@code /ui/dependencies/search}
+ * endpoint.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DependencySearchBenchmark {
+
+	private InitializrMetadata metadata;
+
+	private DependencySearchIndex index;
+
+	private Version bootVersion;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.metadata = BenchmarkMetadata.createMetadata();
+		this.index = new DependencySearchIndex(this.metadata);
+		this.bootVersion = Version
+				.parse(this.metadata.getBootVersions().getDefault().getId());
+	}
+
+	@Benchmark
+	public DependencySearchIndex createIndex() {
+		return new DependencySearchIndex(this.metadata);
+	}
+
+	@Benchmark
+	public List<Match> searchPrefix() {
+		return this.index.search("st", null, 10);
+	}
+
+	@Benchmark
+	public List<Match> searchWithBootVersion() {
+		return this.index.search("starter web", this.bootVersion, 10);
+	}
+
+}
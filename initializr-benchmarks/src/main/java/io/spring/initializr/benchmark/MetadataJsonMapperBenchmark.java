@@ -0,0 +1,92 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.metadata.DependencyMetadata;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.util.Version;
+import io.spring.initializr.web.mapper.DependencyMetadataV21JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV21JsonMapper;
+import io.spring.initializr.web.mapper.InitializrMetadataV2JsonMapper;
+import io.spring.initializr.web.support.DefaultDependencyMetadataProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the JSON representation of the metadata served by the root and
+ * {@code /dependencies} endpoints.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataJsonMapperBenchmark {
+
+	private static final String APP_URL = "https://start.example.com";
+
+	private final InitializrMetadataV2JsonMapper v2Mapper = new InitializrMetadataV2JsonMapper();
+
+	private final InitializrMetadataV21JsonMapper v21Mapper = new InitializrMetadataV21JsonMapper();
+
+	private final DependencyMetadataV21JsonMapper dependencyMapper = new DependencyMetadataV21JsonMapper();
+
+	private final DefaultDependencyMetadataProvider dependencyMetadataProvider = new DefaultDependencyMetadataProvider();
+
+	private InitializrMetadata metadata;
+
+	private Version bootVersion;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.metadata = BenchmarkMetadata.createMetadata();
+		this.bootVersion = Version
+				.parse(this.metadata.getBootVersions().getDefault().getId());
+	}
+
+	@Benchmark
+	public String metadataV2() {
+		return this.v2Mapper.write(this.metadata, APP_URL);
+	}
+
+	@Benchmark
+	public String metadataV21() {
+		return this.v21Mapper.write(this.metadata, APP_URL);
+	}
+
+	@Benchmark
+	public String dependenciesV21() {
+		DependencyMetadata dependencyMetadata = this.dependencyMetadataProvider
+				.get(this.metadata, this.bootVersion);
+		return this.dependencyMapper.write(dependencyMetadata);
+	}
+
+}
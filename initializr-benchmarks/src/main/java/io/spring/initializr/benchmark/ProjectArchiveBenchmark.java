@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.FileSystemProjectSink;
+import io.spring.initializr.generator.InMemoryProjectSink;
+import io.spring.initializr.generator.ProjectGenerator;
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectRequestResolver;
+import io.spring.initializr.generator.archive.ArchiveFormat;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.SimpleInitializrMetadataProvider;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.apache.tools.ant.Project;
+import org.apache.tools.ant.taskdefs.Tar;
+import org.apache.tools.ant.taskdefs.Zip;
+import org.apache.tools.ant.types.TarFileSet;
+import org.apache.tools.ant.types.ZipFileSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Benchmark the creation of a project archive, comparing the Ant tasks that used to
+ * archive a project written to disk with the {@link ArchiveFormat} writers that archive a
+ * project generated in memory.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectArchiveBenchmark {
+
+	/**
+	 * The type of the project to archive.
+	 */
+	@Param({ "maven-project", "gradle-project" })
+	public String type;
+
+	private InMemoryProjectSink project;
+
+	private File workDirectory;
+
+	private File projectDirectory;
+
+	private String wrapperScript;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		ProjectGenerator generator = createProjectGenerator();
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(generator.getMetadataProvider().get());
+		request.setType(this.type);
+		request.getStyle().add("web");
+		request.getStyle().add("data-jpa");
+		this.project = new InMemoryProjectSink();
+		generator.generateProjectStructure(request, this.project);
+		this.workDirectory = Files.createTempDirectory("initializr-benchmark").toFile();
+		this.projectDirectory = new File(this.workDirectory, "project");
+		generator.generateProjectStructure(request,
+				new FileSystemProjectSink(this.projectDirectory));
+		this.wrapperScript = (this.type.startsWith("gradle") ? "gradlew" : "mvnw");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		FileSystemUtils.deleteRecursively(this.workDirectory);
+	}
+
+	@Benchmark
+	public byte[] antZip() throws IOException {
+		File download = new File(this.workDirectory, "project.zip");
+		Zip zip = new Zip();
+		zip.setProject(new Project());
+		zip.setDefaultexcludes(false);
+		ZipFileSet set = new ZipFileSet();
+		set.setDir(this.projectDirectory);
+		set.setFileMode("755");
+		set.setIncludes(this.wrapperScript);
+		set.setDefaultexcludes(false);
+		zip.addFileset(set);
+		set = new ZipFileSet();
+		set.setDir(this.projectDirectory);
+		set.setIncludes("**,");
+		set.setExcludes(this.wrapperScript);
+		set.setDefaultexcludes(false);
+		zip.addFileset(set);
+		zip.setDestFile(download);
+		zip.execute();
+		return readAndDelete(download);
+	}
+
+	@Benchmark
+	public byte[] antTgz() throws IOException {
+		File download = new File(this.workDirectory, "project.tar.gz");
+		Tar tar = new Tar();
+		tar.setProject(new Project());
+		tar.setDefaultexcludes(false);
+		TarFileSet set = tar.createTarFileSet();
+		set.setDir(this.projectDirectory);
+		set.setFileMode("755");
+		set.setIncludes(this.wrapperScript);
+		set.setDefaultexcludes(false);
+		set = tar.createTarFileSet();
+		set.setDir(this.projectDirectory);
+		set.setIncludes("**,");
+		set.setExcludes(this.wrapperScript);
+		set.setDefaultexcludes(false);
+		tar.setDestFile(download);
+		Tar.TarCompressionMethod method = new Tar.TarCompressionMethod();
+		method.setValue("gzip");
+		tar.setCompression(method);
+		tar.execute();
+		return readAndDelete(download);
+	}
+
+	@Benchmark
+	public byte[] zip() throws IOException {
+		return write(ArchiveFormat.ZIP);
+	}
+
+	@Benchmark
+	public byte[] tgz() throws IOException {
+		return write(ArchiveFormat.TAR_GZ);
+	}
+
+	@Benchmark
+	public byte[] tar() throws IOException {
+		return write(ArchiveFormat.TAR);
+	}
+
+	private byte[] write(ArchiveFormat format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(this.project.getEntries(), out);
+		return out.toByteArray();
+	}
+
+	private static byte[] readAndDelete(File download) throws IOException {
+		byte[] content = Files.readAllBytes(download.toPath());
+		download.delete();
+		return content;
+	}
+
+	static ProjectGenerator createProjectGenerator() {
+		Dependency web = Dependency.withId("web");
+		web.getFacets().add("web");
+		InitializrMetadata metadata = InitializrMetadataTestBuilder
+				.withDefaults().addDependencyGroup("web", web).addDependencyGroup("data",
+						"data-jpa", "data-redis", "data-mongodb", "security", "actuator")
+				.build();
+		ProjectGenerator generator = new ProjectGenerator();
+		generator.setMetadataProvider(new SimpleInitializrMetadataProvider(metadata));
+		generator.setRequestResolver(new ProjectRequestResolver(new ArrayList<>()));
+		generator.setEventPublisher((event) -> {
+		});
+		return generator;
+	}
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.InMemoryProjectSink;
+import io.spring.initializr.generator.ProjectGenerator;
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.archive.ArchiveFormat;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the steps of the generation of a project, from the resolution of the request
+ * to the archive served by the {@code /starter.zip} endpoint.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectGenerationBenchmark {
+
+	/**
+	 * The build system of the project.
+	 */
+	@Param({ "maven", "gradle" })
+	public String build;
+
+	/**
+	 * The number of dependencies of the project.
+	 */
+	@Param({ "0", "5", "20" })
+	public int dependencyCount;
+
+	private InitializrMetadata metadata;
+
+	private BenchmarkProjectGenerator generator;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.metadata = BenchmarkMetadata.createMetadata();
+		this.generator = BenchmarkMetadata.configure(new BenchmarkProjectGenerator(),
+				this.metadata);
+	}
+
+	@Benchmark
+	public ProjectRequest resolve() {
+		ProjectRequest request = createRequest("project");
+		request.resolve(this.metadata);
+		return request;
+	}
+
+	@Benchmark
+	public Map<String, Object> resolveModel() {
+		return this.generator.resolveModel(createRequest("project"));
+	}
+
+	@Benchmark
+	public byte[] generateBuild() {
+		ProjectRequest request = createRequest("build");
+		return ("gradle".equals(this.build) ? this.generator.generateGradleBuild(request)
+				: this.generator.generateMavenPom(request));
+	}
+
+	@Benchmark
+	public InMemoryProjectSink generateProjectStructure() {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		this.generator.generateProjectStructure(createRequest("project"), project);
+		return project;
+	}
+
+	@Benchmark
+	public byte[] zip() throws IOException {
+		InMemoryProjectSink project = generateProjectStructure();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ArchiveFormat.ZIP.write(project.getEntries(), out);
+		return out.toByteArray();
+	}
+
+	private ProjectRequest createRequest(String format) {
+		return BenchmarkMetadata.createRequest(this.metadata, this.build + "-" + format,
+				this.dependencyCount);
+	}
+
+	/**
+	 * A {@link ProjectGenerator} that exposes the resolution of the model.
+	 */
+	static class BenchmarkProjectGenerator extends ProjectGenerator {
+
+		@Override
+		public Map<String, Object> resolveModel(ProjectRequest originalRequest) {
+			return super.resolveModel(originalRequest);
+		}
+
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.beans.PropertyDescriptor;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectRequestAccessor;
+import io.spring.initializr.metadata.InitializrMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * Benchmark the access to the properties of a {@link ProjectRequest}, comparing the
+ * {@link BeanWrapperImpl} introspection that used to initialize a request and expose it
+ * in the model with {@link ProjectRequestAccessor}. Run with {@code -prof gc} to compare
+ * the allocations per operation.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProjectRequestBenchmark {
+
+	private InitializrMetadata metadata;
+
+	private ProjectRequest request;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.metadata = ProjectArchiveBenchmark.createProjectGenerator()
+				.getMetadataProvider().get();
+		this.request = new ProjectRequest();
+		this.request.initialize(this.metadata);
+		this.request.getStyle().add("web");
+		this.request.getStyle().add("data-jpa");
+		this.request.resolve(this.metadata);
+	}
+
+	@Benchmark
+	public ProjectRequest beanWrapperInitialize() {
+		ProjectRequest request = new ProjectRequest();
+		BeanWrapperImpl bean = new BeanWrapperImpl(request);
+		this.metadata.defaults().forEach((key, value) -> {
+			if (bean.isWritableProperty(key) && !key.equals("packageName")) {
+				bean.setPropertyValue(key, value);
+			}
+		});
+		return request;
+	}
+
+	@Benchmark
+	public ProjectRequest initialize() {
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(this.metadata);
+		return request;
+	}
+
+	@Benchmark
+	public Map<String, Object> beanWrapperModel() {
+		Map<String, Object> model = new LinkedHashMap<>();
+		BeanWrapperImpl bean = new BeanWrapperImpl(this.request);
+		for (PropertyDescriptor descriptor : bean.getPropertyDescriptors()) {
+			if (bean.isReadableProperty(descriptor.getName())) {
+				model.put(descriptor.getName(),
+						bean.getPropertyValue(descriptor.getName()));
+			}
+		}
+		return model;
+	}
+
+	@Benchmark
+	public Map<String, Object> model() {
+		Map<String, Object> model = new LinkedHashMap<>();
+		ProjectRequestAccessor.addProperties(this.request, model);
+		return model;
+	}
+
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.util.Version;
+import io.spring.initializr.util.VersionParser;
+import io.spring.initializr.util.VersionRange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark the parsing of a {@link Version} and its comparison with the
+ * {@link VersionRange ranges} typically defined by the dependencies of an instance.
+ * Parsing is also measured with several threads as versions are parsed concurrently by
+ * every request.
+ *
+ * @author Julien Marchand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VersionBenchmark {
+
+	private static final String[] RANGES = { "1.5.0.RELEASE", "[1.5.0.RELEASE,2.0.0.M1)",
+			"[2.0.0.RELEASE,2.1.0.M1)", "2.1.0.RELEASE",
+			"[1.5.0.RELEASE,2.2.0.BUILD-SNAPSHOT]", "[2.1.0.M1,2.2.0.M1)" };
+
+	/**
+	 * The version to parse and match.
+	 */
+	@Param({ "2.1.1.RELEASE", "2.2.0.BUILD-SNAPSHOT", "2.1.0.M4" })
+	public String version;
+
+	private Version parsedVersion;
+
+	private VersionRange[] ranges;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		this.parsedVersion = Version.parse(this.version);
+		this.ranges = new VersionRange[RANGES.length];
+		for (int i = 0; i < RANGES.length; i++) {
+			this.ranges[i] = VersionParser.DEFAULT.parseRange(RANGES[i]);
+		}
+	}
+
+	@Benchmark
+	public Version parse() {
+		return Version.parse(this.version);
+	}
+
+	@Benchmark
+	@Threads(4)
+	public Version parseConcurrently() {
+		return Version.parse(this.version);
+	}
+
+	@Benchmark
+	public Version parseUncached() {
+		return VersionParser.DEFAULT.parse(this.version);
+	}
+
+	@Benchmark
+	public void match(Blackhole blackhole) {
+		for (VersionRange range : this.ranges) {
+			blackhole.consume(range.match(this.parsedVersion));
+		}
+	}
+
+	@Benchmark
+	public int compare() {
+		return this.parsedVersion.compareTo(this.ranges[0].getLowerVersion());
+	}
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Path;
+
+import org.springframework.util.StreamUtils;
+
+/**
+ * A {@link ProjectSink} that writes the content of the project in a directory.
+ *
+ * @author Julien Marchand
+ */
+public class FileSystemProjectSink implements ProjectSink {
+
+	private final File rootDirectory;
+
+	public FileSystemProjectSink(File rootDirectory) {
+		this.rootDirectory = rootDirectory;
+	}
+
+	/**
+	 * Return the directory in which the project is written.
+	 * @return the root directory
+	 */
+	public File getRootDirectory() {
+		return this.rootDirectory;
+	}
+
+	@Override
+	public void addDirectory(String path) {
+		resolve(path).mkdirs();
+	}
+
+	@Override
+	public void addFile(String path, byte[] content, int mode) {
+		File target = resolve(path);
+		target.getParentFile().mkdirs();
+		try (OutputStream stream = new FileOutputStream(target)) {
+			StreamUtils.copy(content, stream);
+		}
+		catch (Exception ex) {
+			throw new IllegalStateException("Cannot write file " + target, ex);
+		}
+		if ((mode & 0111) != 0) {
+			target.setExecutable(true);
+		}
+	}
+
+	private File resolve(String path) {
+		Path root = this.rootDirectory.toPath().normalize();
+		Path target = root.resolve(path).normalize();
+		if (!target.startsWith(root)) {
+			throw new IllegalArgumentException(
+					"Path '" + path + "' must not be outside of the project");
+		}
+		return target.toFile();
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.spring.initializr.generator.archive.ArchiveEntry;
+import io.spring.initializr.generator.archive.DeflatedContent;
+
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * A {@link ProjectSink} that keeps the content of the project in memory. Entries are
+ * available in the order they were added, with every directory preceding its content.
+ *
+ * @author Julien Marchand
+ */
+public class InMemoryProjectSink implements ProjectSink {
+
+	private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+	@Override
+	public void addDirectory(String path) {
+		String directory = cleanPath(path);
+		if (StringUtils.hasLength(directory) && !this.entries.containsKey(directory)) {
+			addParentDirectories(directory);
+			this.entries.put(directory, new Entry(directory, null, DIRECTORY_MODE, null));
+		}
+	}
+
+	@Override
+	public void addFile(String path, byte[] content, int mode) {
+		Assert.notNull(content, "Content must not be null");
+		String file = cleanPath(path);
+		Assert.hasLength(file, "Path must not be empty");
+		addParentDirectories(file);
+		this.entries.put(file, new Entry(file, content, mode, null));
+	}
+
+	@Override
+	public void addFile(String path, DeflatedContent content, int mode) {
+		Assert.notNull(content, "Content must not be null");
+		String file = cleanPath(path);
+		Assert.hasLength(file, "Path must not be empty");
+		addParentDirectories(file);
+		this.entries.put(file, new Entry(file, content.getContent(), mode, content));
+	}
+
+	/**
+	 * Return the entries of the project, directories first.
+	 * @return the entries
+	 */
+	public Collection<Entry> getEntries() {
+		return Collections.unmodifiableCollection(this.entries.values());
+	}
+
+	/**
+	 * Return the {@link Entry} at the specified path or {@code null} if no such entry
+	 * exists.
+	 * @param path the path of the entry
+	 * @return the entry or {@code null}
+	 */
+	public Entry getEntry(String path) {
+		return this.entries.get(cleanPath(path));
+	}
+
+	private void addParentDirectories(String path) {
+		int index = path.lastIndexOf('/');
+		if (index > 0) {
+			addDirectory(path.substring(0, index));
+		}
+	}
+
+	private static String cleanPath(String path) {
+		Assert.notNull(path, "Path must not be null");
+		String result = StringUtils.cleanPath(path);
+		while (result.startsWith("/")) {
+			result = result.substring(1);
+		}
+		while (result.endsWith("/")) {
+			result = result.substring(0, result.length() - 1);
+		}
+		if (result.equals("..") || result.startsWith("../")) {
+			throw new IllegalArgumentException(
+					"Path '" + path + "' must not be outside of the project");
+		}
+		return result;
+	}
+
+	/**
+	 * An entry of the project: either a directory or a file with its content.
+	 */
+	public static final class Entry implements ArchiveEntry {
+
+		private final String path;
+
+		private final byte[] content;
+
+		private final int mode;
+
+		private final DeflatedContent deflatedContent;
+
+		Entry(String path, byte[] content, int mode, DeflatedContent deflatedContent) {
+			this.path = path;
+			this.content = content;
+			this.mode = mode;
+			this.deflatedContent = deflatedContent;
+		}
+
+		@Override
+		public String getPath() {
+			return this.path;
+		}
+
+		@Override
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		@Override
+		public int getMode() {
+			return this.mode;
+		}
+
+		@Override
+		public DeflatedContent getDeflatedContent() {
+			return this.deflatedContent;
+		}
+
+	}
+
+}
@@ -16,6 +16,8 @@
 
 package io.spring.initializr.generator;
 
+import java.time.Duration;
+
 /**
  * Event published when an error occurred trying to generate a project.
  *
@@ -26,7 +28,17 @@ public class ProjectFailedEvent extends ProjectRequestEvent {
 	private final Exception cause;
 
 	public ProjectFailedEvent(ProjectRequest projectRequest, Exception cause) {
-		super(projectRequest);
+		this(projectRequest, cause, null);
+	}
+
+	public ProjectFailedEvent(ProjectRequest projectRequest, Exception cause,
+			Duration duration) {
+		this(projectRequest, cause, duration, ProjectGenerationSource.GENERATED);
+	}
+
+	public ProjectFailedEvent(ProjectRequest projectRequest, Exception cause,
+			Duration duration, ProjectGenerationSource source) {
+		super(projectRequest, duration, source);
 		this.cause = cause;
 	}
 
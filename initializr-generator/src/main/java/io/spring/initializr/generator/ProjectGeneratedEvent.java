@@ -16,6 +16,8 @@
 
 package io.spring.initializr.generator;
 
+import java.time.Duration;
+
 /**
  * Event published when a new project has been generated successfully.
  *
@@ -27,4 +29,13 @@ public class ProjectGeneratedEvent extends ProjectRequestEvent {
 		super(projectRequest);
 	}
 
+	public ProjectGeneratedEvent(ProjectRequest projectRequest, Duration duration) {
+		super(projectRequest, duration);
+	}
+
+	public ProjectGeneratedEvent(ProjectRequest projectRequest, Duration duration,
+			ProjectGenerationSource source) {
+		super(projectRequest, duration, source);
+	}
+
 }
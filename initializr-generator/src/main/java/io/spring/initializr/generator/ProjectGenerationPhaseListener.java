@@ -0,0 +1,37 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+/**
+ * Callback interface that is notified when a phase of the generation of a project has
+ * completed.
+ *
+ * @author Julien Marchand
+ * @see ProjectGenerationTimings
+ */
+@FunctionalInterface
+public interface ProjectGenerationPhaseListener {
+
+	/**
+	 * Handle the completion of the specified phase.
+	 * @param request the request of the project being generated
+	 * @param phase the name of the phase
+	 * @param nanos the time spent in the phase, in nanoseconds
+	 */
+	void onPhaseCompleted(ProjectRequest request, String phase, long nanos);
+
+}
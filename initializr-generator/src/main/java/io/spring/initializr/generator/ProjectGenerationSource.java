@@ -0,0 +1,52 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+/**
+ * The source of the project of a {@link ProjectRequestEvent}.
+ *
+ * @author Julien Marchand
+ */
+public enum ProjectGenerationSource {
+
+	/**
+	 * The project has been generated for the request.
+	 */
+	GENERATED("generated"),
+
+	/**
+	 * The project has been served from a cache of previously generated projects.
+	 */
+	CACHE("cache"),
+
+	/**
+	 * The project has been generated for another, identical, request that was handled
+	 * concurrently.
+	 */
+	COALESCED("coalesced");
+
+	private final String id;
+
+	ProjectGenerationSource(String id) {
+		this.id = id;
+	}
+
+	public String getId() {
+		return this.id;
+	}
+
+}
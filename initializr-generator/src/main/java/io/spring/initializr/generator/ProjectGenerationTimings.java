@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The time spent in each phase of the generation of a project. Phases are available in
+ * the order they were first recorded and the time of a phase that is recorded several
+ * times is accumulated.
+ *
+ * @author Julien Marchand
+ * @see ProjectRequest#getTimings()
+ */
+public class ProjectGenerationTimings {
+
+	/**
+	 * Resolution of the request against the metadata, including post-processors.
+	 */
+	public static final String RESOLVE = "resolve";
+
+	/**
+	 * Creation of the model used to render the project.
+	 */
+	public static final String MODEL = "model";
+
+	/**
+	 * Rendering and writing of the content of the project.
+	 */
+	public static final String GENERATE = "generate";
+
+	/**
+	 * Reading of the content of a project that has been generated on disk.
+	 */
+	public static final String READ = "read";
+
+	/**
+	 * Archiving of the content of the project.
+	 */
+	public static final String ARCHIVE = "archive";
+
+	/**
+	 * Transfer of the generated content to the client.
+	 */
+	public static final String UPLOAD = "upload";
+
+	/**
+	 * Deletion of the temporary files of the project.
+	 */
+	public static final String CLEANUP = "cleanup";
+
+	private final Map<String, Long> phases = new LinkedHashMap<>(8);
+
+	/**
+	 * Record the time spent in the specified phase.
+	 * @param phase the name of the phase
+	 * @param nanos the time spent in the phase, in nanoseconds
+	 */
+	public synchronized void record(String phase, long nanos) {
+		this.phases.merge(phase, nanos, Long::sum);
+	}
+
+	/**
+	 * Return the time spent in each phase, in the order the phases were first recorded.
+	 * @return the time spent per phase
+	 */
+	public synchronized Map<String, Duration> getPhases() {
+		if (this.phases.isEmpty()) {
+			return Collections.emptyMap();
+		}
+		Map<String, Duration> phases = new LinkedHashMap<>(this.phases.size());
+		this.phases.forEach((phase, nanos) -> phases.put(phase, Duration.ofNanos(nanos)));
+		return phases;
+	}
+
+}
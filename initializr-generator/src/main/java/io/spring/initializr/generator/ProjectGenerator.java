@@ -16,12 +16,13 @@
 
 package io.spring.initializr.generator;
 
-import java.beans.PropertyDescriptor;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
@@ -44,13 +45,10 @@ import io.spring.initializr.util.VersionProperty;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.Assert;
-import org.springframework.util.FileSystemUtils;
-import org.springframework.util.StreamUtils;
 
 /**
  * Generate a project based on the configured metadata.
@@ -84,13 +82,17 @@ public class ProjectGenerator {
 	@Autowired
 	private ProjectResourceLocator projectResourceLocator = new ProjectResourceLocator();
 
+	@Autowired(required = false)
+	private List<ProjectGenerationPhaseListener> phaseListeners = Collections.emptyList();
+
+	@Autowired(required = false)
+	private ProjectWorkspaceManager workspaceManager;
+
 	@Value("${TMPDIR:.}/initializr")
 	private String tmpdir;
 
 	private File temporaryDirectory;
 
-	private transient Map<String, List<File>> temporaryFiles = new LinkedHashMap<>();
-
 	public InitializrMetadataProvider getMetadataProvider() {
 		return this.metadataProvider;
 	}
@@ -115,6 +117,10 @@ public class ProjectGenerator {
 		this.projectResourceLocator = projectResourceLocator;
 	}
 
+	public void setPhaseListeners(List<ProjectGenerationPhaseListener> phaseListeners) {
+		this.phaseListeners = phaseListeners;
+	}
+
 	public void setTmpdir(String tmpdir) {
 		this.tmpdir = tmpdir;
 	}
@@ -123,8 +129,8 @@ public class ProjectGenerator {
 		this.temporaryDirectory = temporaryDirectory;
 	}
 
-	public void setTemporaryFiles(Map<String, List<File>> temporaryFiles) {
-		this.temporaryFiles = temporaryFiles;
+	public void setWorkspaceManager(ProjectWorkspaceManager workspaceManager) {
+		this.workspaceManager = workspaceManager;
 	}
 
 	/**
@@ -133,18 +139,21 @@ public class ProjectGenerator {
 	 * @return the Maven POM
 	 */
 	public byte[] generateMavenPom(ProjectRequest request) {
+		long start = System.nanoTime();
 		try {
 			Map<String, Object> model = resolveModel(request);
 			if (!isMavenBuild(request)) {
 				throw new InvalidProjectRequestException("Could not generate Maven pom, "
 						+ "invalid project type " + request.getType());
 			}
+			long generateStart = System.nanoTime();
 			byte[] content = doGenerateMavenPom(model);
-			publishProjectGeneratedEvent(request);
+			recordPhase(request, ProjectGenerationTimings.GENERATE, generateStart);
+			publishProjectGeneratedEvent(request, start);
 			return content;
 		}
 		catch (InitializrException ex) {
-			publishProjectFailedEvent(request, ex);
+			publishProjectFailedEvent(request, ex, start);
 			throw ex;
 		}
 	}
@@ -155,6 +164,7 @@ public class ProjectGenerator {
 	 * @return the gradle build
 	 */
 	public byte[] generateGradleBuild(ProjectRequest request) {
+		long start = System.nanoTime();
 		try {
 			Map<String, Object> model = resolveModel(request);
 			if (!isGradleBuild(request)) {
@@ -162,12 +172,14 @@ public class ProjectGenerator {
 						"Could not generate Gradle build, " + "invalid project type "
 								+ request.getType());
 			}
+			long generateStart = System.nanoTime();
 			byte[] content = doGenerateGradleBuild(model);
-			publishProjectGeneratedEvent(request);
+			recordPhase(request, ProjectGenerationTimings.GENERATE, generateStart);
+			publishProjectGeneratedEvent(request, start);
 			return content;
 		}
 		catch (InitializrException ex) {
-			publishProjectFailedEvent(request, ex);
+			publishProjectFailedEvent(request, ex, start);
 			throw ex;
 		}
 	}
@@ -177,89 +189,141 @@ public class ProjectGenerator {
 	 * directory containing the project.
 	 * @param request the project request
 	 * @return the generated project structure
+	 * @see #generateProjectStructure(ProjectRequest, ProjectSink)
 	 */
 	public File generateProjectStructure(ProjectRequest request) {
+		long start = System.nanoTime();
 		try {
 			Map<String, Object> model = resolveModel(request);
+			long generateStart = System.nanoTime();
 			File rootDir = generateProjectStructure(request, model);
-			publishProjectGeneratedEvent(request);
+			recordPhase(request, ProjectGenerationTimings.GENERATE, generateStart);
+			publishProjectGeneratedEvent(request, start);
 			return rootDir;
 		}
 		catch (InitializrException ex) {
-			publishProjectFailedEvent(request, ex);
+			publishProjectFailedEvent(request, ex, start);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Generate a project structure for the specified {@link ProjectRequest} in the
+	 * specified {@link ProjectSink}. Contrary to
+	 * {@link #generateProjectStructure(ProjectRequest)}, nothing is written to disk
+	 * unless the sink does so.
+	 * @param request the project request
+	 * @param sink the sink receiving the content of the project
+	 */
+	public void generateProjectStructure(ProjectRequest request, ProjectSink sink) {
+		long start = System.nanoTime();
+		try {
+			Map<String, Object> model = resolveModel(request);
+			long generateStart = System.nanoTime();
+			generateProjectStructure(request, model, sink);
+			recordPhase(request, ProjectGenerationTimings.GENERATE, generateStart);
+			publishProjectGeneratedEvent(request, start);
+		}
+		catch (InitializrException ex) {
+			publishProjectFailedEvent(request, ex, start);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Record the generation of a project for the specified {@link ProjectRequest} without
+	 * generating it, typically because the project has been generated for an identical
+	 * request and is served from a cache. The request is resolved so that the published
+	 * event describes the same project as the one of an actual generation, with the
+	 * specified {@link ProjectGenerationSource source}.
+	 * @param request the project request
+	 * @param source the source of the project
+	 */
+	public void recordProjectGeneration(ProjectRequest request,
+			ProjectGenerationSource source) {
+		long start = System.nanoTime();
+		try {
+			this.requestResolver.resolve(request, this.metadataProvider.get());
+			recordPhase(request, ProjectGenerationTimings.RESOLVE, start);
+			publishProjectGeneratedEvent(request, start, source);
+		}
+		catch (InitializrException ex) {
+			publishProjectFailedEvent(request, ex, start, source);
 			throw ex;
 		}
 	}
 
 	/**
 	 * Generate a project structure for the specified {@link ProjectRequest} and resolved
-	 * model.
+	 * model in a temporary directory.
 	 * @param request the project request
 	 * @param model the source model
 	 * @return the generated project structure
 	 */
 	protected File generateProjectStructure(ProjectRequest request,
 			Map<String, Object> model) {
-		File rootDir;
+		ProjectWorkspaceManager workspaces = getWorkspaceManager();
+		File rootDir = workspaces.createWorkspace();
 		try {
-			rootDir = File.createTempFile("tmp", "", getTemporaryDirectory());
+			generateProjectStructure(request, model, new FileSystemProjectSink(rootDir));
 		}
-		catch (IOException ex) {
-			throw new IllegalStateException("Cannot create temp dir", ex);
+		catch (RuntimeException ex) {
+			workspaces.release(rootDir);
+			throw ex;
 		}
-		addTempFile(rootDir.getName(), rootDir);
-		rootDir.delete();
-		rootDir.mkdirs();
+		return rootDir;
+	}
 
-		File dir = initializerProjectDir(rootDir, request);
+	/**
+	 * Generate a project structure for the specified {@link ProjectRequest} and resolved
+	 * model in the specified {@link ProjectSink}.
+	 * @param request the project request
+	 * @param model the source model
+	 * @param sink the sink receiving the content of the project
+	 */
+	protected void generateProjectStructure(ProjectRequest request,
+			Map<String, Object> model, ProjectSink sink) {
+		String dir = initializerProjectDir(request);
 
 		if (isGradleBuild(request)) {
-			String gradle = new String(doGenerateGradleBuild(model));
-			writeText(new File(dir, "build.gradle"), gradle);
-			String settings = new String(doGenerateGradleSettings(model));
-			writeText(new File(dir, "settings.gradle"), settings);
-			writeGradleWrapper(dir, Version.safeParse(request.getBootVersion()));
+			sink.addFile(dir + "build.gradle", doGenerateGradleBuild(model));
+			sink.addFile(dir + "settings.gradle", doGenerateGradleSettings(model));
+			writeGradleWrapper(sink, dir, Version.safeParse(request.getBootVersion()));
 		}
 		else {
-			String pom = new String(doGenerateMavenPom(model));
-			writeText(new File(dir, "pom.xml"), pom);
-			writeMavenWrapper(dir);
+			sink.addFile(dir + "pom.xml", doGenerateMavenPom(model));
+			writeMavenWrapper(sink, dir);
 		}
 
-		generateGitIgnore(dir, request);
+		generateGitIgnore(sink, dir, request);
 
 		String applicationName = request.getApplicationName();
 		String language = request.getLanguage();
 
 		String codeLocation = language;
-		File src = new File(new File(dir, "src/main/" + codeLocation),
-				request.getPackageName().replace(".", "/"));
-		src.mkdirs();
+		String packagePath = request.getPackageName().replace(".", "/");
+		String src = dir + "src/main/" + codeLocation + "/" + packagePath + "/";
 		String extension = ("kotlin".equals(language) ? "kt" : language);
-		write(new File(src, applicationName + "." + extension),
-				"Application." + extension, model);
+		write(sink, src + applicationName + "." + extension, "Application." + extension,
+				model);
 
 		if ("war".equals(request.getPackaging())) {
 			String fileName = "ServletInitializer." + extension;
-			write(new File(src, fileName), fileName, model);
+			write(sink, src + fileName, fileName, model);
 		}
 
-		File test = new File(new File(dir, "src/test/" + codeLocation),
-				request.getPackageName().replace(".", "/"));
-		test.mkdirs();
+		String test = dir + "src/test/" + codeLocation + "/" + packagePath + "/";
 		setupTestModel(request, model);
-		write(new File(test, applicationName + "Tests." + extension),
+		write(sink, test + applicationName + "Tests." + extension,
 				"ApplicationTests." + extension, model);
 
-		File resources = new File(dir, "src/main/resources");
-		resources.mkdirs();
-		writeText(new File(resources, "application.properties"), "");
+		String resources = dir + "src/main/resources/";
+		sink.addFile(resources + "application.properties", new byte[0]);
 
 		if (request.hasWebFacet()) {
-			new File(dir, "src/main/resources/templates").mkdirs();
-			new File(dir, "src/main/resources/static").mkdirs();
+			sink.addDirectory(resources + "templates");
+			sink.addDirectory(resources + "static");
 		}
-		return rootDir;
 	}
 
 	/**
@@ -270,17 +334,21 @@ public class ProjectGenerator {
 	 * @return the distribution file
 	 */
 	public File createDistributionFile(File dir, String extension) {
-		File download = new File(getTemporaryDirectory(), dir.getName() + extension);
-		addTempFile(dir.getName(), download);
-		return download;
+		return getWorkspaceManager().createFile(dir, extension);
 	}
 
-	private File getTemporaryDirectory() {
-		if (this.temporaryDirectory == null) {
-			this.temporaryDirectory = new File(this.tmpdir, "initializr");
-			this.temporaryDirectory.mkdirs();
+	/**
+	 * Return the {@link ProjectWorkspaceManager} that manages the temporary files of
+	 * project generation.
+	 * @return the workspace manager
+	 */
+	public synchronized ProjectWorkspaceManager getWorkspaceManager() {
+		if (this.workspaceManager == null) {
+			File directory = (this.temporaryDirectory != null) ? this.temporaryDirectory
+					: new File(this.tmpdir, "initializr");
+			this.workspaceManager = new ProjectWorkspaceManager(directory, -1);
 		}
-		return this.temporaryDirectory;
+		return this.workspaceManager;
 	}
 
 	/**
@@ -289,35 +357,89 @@ public class ProjectGenerator {
 	 * @see #createDistributionFile
 	 */
 	public void cleanTempFiles(File dir) {
-		List<File> tempFiles = this.temporaryFiles.remove(dir.getName());
-		if (!tempFiles.isEmpty()) {
-			tempFiles.forEach((File file) -> {
-				if (file.isDirectory()) {
-					FileSystemUtils.deleteRecursively(file);
-				}
-				else if (file.exists()) {
-					file.delete();
-				}
-			});
+		getWorkspaceManager().release(dir);
+	}
+
+	/**
+	 * Record the time spent in the specified phase of the generation of a project and
+	 * notify the {@link ProjectGenerationPhaseListener listeners}.
+	 * @param request the request of the project being generated
+	 * @param phase the name of the phase
+	 * @param start the value of {@link System#nanoTime()} when the phase started
+	 * @return the value of {@link System#nanoTime()} when the phase completed
+	 * @see ProjectRequest#getTimings()
+	 */
+	public long recordPhase(ProjectRequest request, String phase, long start) {
+		long end = System.nanoTime();
+		long nanos = end - start;
+		request.getTimings().record(phase, nanos);
+		for (ProjectGenerationPhaseListener listener : this.phaseListeners) {
+			listener.onPhaseCompleted(request, phase, nanos);
 		}
+		return end;
 	}
 
-	private void publishProjectGeneratedEvent(ProjectRequest request) {
-		ProjectGeneratedEvent event = new ProjectGeneratedEvent(request);
+	private void publishProjectGeneratedEvent(ProjectRequest request, long start) {
+		publishProjectGeneratedEvent(request, start, ProjectGenerationSource.GENERATED);
+	}
+
+	private void publishProjectGeneratedEvent(ProjectRequest request, long start,
+			ProjectGenerationSource source) {
+		ProjectGeneratedEvent event = new ProjectGeneratedEvent(request,
+				Duration.ofNanos(System.nanoTime() - start), source);
 		this.eventPublisher.publishEvent(event);
 	}
 
-	private void publishProjectFailedEvent(ProjectRequest request, Exception cause) {
-		ProjectFailedEvent event = new ProjectFailedEvent(request, cause);
+	private void publishProjectFailedEvent(ProjectRequest request, Exception cause,
+			long start) {
+		publishProjectFailedEvent(request, cause, start,
+				ProjectGenerationSource.GENERATED);
+	}
+
+	private void publishProjectFailedEvent(ProjectRequest request, Exception cause,
+			long start, ProjectGenerationSource source) {
+		ProjectFailedEvent event = new ProjectFailedEvent(request, cause,
+				Duration.ofNanos(System.nanoTime() - start), source);
 		this.eventPublisher.publishEvent(event);
 	}
 
+	/**
+	 * Generate a {@code .gitignore} file for the specified {@link ProjectRequest}. When
+	 * the project is generated on the file system, delegates to the deprecated
+	 * {@link #generateGitIgnore(File, ProjectRequest)} so that existing overrides keep
+	 * working.
+	 * @param sink the sink receiving the content of the project
+	 * @param dir the path of the root directory of the project, either empty or ending
+	 * with {@code /}
+	 * @param request the request to handle
+	 */
+	@SuppressWarnings("deprecation")
+	protected void generateGitIgnore(ProjectSink sink, String dir,
+			ProjectRequest request) {
+		if (sink instanceof FileSystemProjectSink) {
+			File rootDirectory = ((FileSystemProjectSink) sink).getRootDirectory();
+			generateGitIgnore(new File(rootDirectory, dir), request);
+			return;
+		}
+		write(sink, dir + ".gitignore", "gitignore.tmpl",
+				createGitIgnoreModel(request));
+	}
+
 	/**
 	 * Generate a {@code .gitignore} file for the specified {@link ProjectRequest}.
 	 * @param dir the root directory of the project
 	 * @param request the request to handle
+	 * @deprecated as of 0.7.0 in favor of
+	 * {@link #generateGitIgnore(ProjectSink, String, ProjectRequest)}, only invoked when
+	 * the project is generated on the file system
 	 */
+	@Deprecated
 	protected void generateGitIgnore(File dir, ProjectRequest request) {
+		write(new File(dir, ".gitignore"), "gitignore.tmpl",
+				createGitIgnoreModel(request));
+	}
+
+	private Map<String, Object> createGitIgnoreModel(ProjectRequest request) {
 		Map<String, Object> model = new LinkedHashMap<>();
 		if (isMavenBuild(request)) {
 			model.put("build", "maven");
@@ -326,7 +448,7 @@ public class ProjectGenerator {
 		else {
 			model.put("build", "gradle");
 		}
-		write(new File(dir, ".gitignore"), "gitignore.tmpl", model);
+		return model;
 	}
 
 	/**
@@ -340,7 +462,9 @@ public class ProjectGenerator {
 		Map<String, Object> model = new LinkedHashMap<>();
 		InitializrMetadata metadata = this.metadataProvider.get();
 
+		long start = System.nanoTime();
 		ProjectRequest request = this.requestResolver.resolve(originalRequest, metadata);
+		start = recordPhase(originalRequest, ProjectGenerationTimings.RESOLVE, start);
 
 		// request resolved so we can log what has been requested
 		Version bootVersion = Version.safeParse(request.getBootVersion());
@@ -460,17 +584,12 @@ public class ProjectGenerator {
 		request.getFacets().forEach((facet) -> model.put("facets." + facet, true));
 
 		// Append the project request to the model
-		BeanWrapperImpl bean = new BeanWrapperImpl(request);
-		for (PropertyDescriptor descriptor : bean.getPropertyDescriptors()) {
-			if (bean.isReadableProperty(descriptor.getName())) {
-				model.put(descriptor.getName(),
-						bean.getPropertyValue(descriptor.getName()));
-			}
-		}
+		ProjectRequestAccessor.addProperties(request, model);
 		if (!request.getBoms().isEmpty()) {
 			model.put("hasBoms", true);
 		}
 
+		recordPhase(originalRequest, ProjectGenerationTimings.MODEL, start);
 		return model;
 	}
 
@@ -550,100 +669,79 @@ public class ProjectGenerator {
 	}
 
 	private byte[] doGenerateMavenPom(Map<String, Object> model) {
-		return this.templateRenderer.process("starter-pom.xml", model).getBytes();
+		return render("starter-pom.xml", model);
 	}
 
 	private byte[] doGenerateGradleBuild(Map<String, Object> model) {
-		return this.templateRenderer.process("starter-build.gradle", model).getBytes();
+		return render("starter-build.gradle", model);
 	}
 
 	private byte[] doGenerateGradleSettings(Map<String, Object> model) {
-		return this.templateRenderer.process("starter-settings.gradle", model).getBytes();
+		return render("starter-settings.gradle", model);
 	}
 
-	private void writeGradleWrapper(File dir, Version bootVersion) {
-		String gradlePrefix = (isGradle4Available(bootVersion)) ? "gradle4" : "gradle3";
-		writeTextResource(dir, "gradlew.bat", gradlePrefix + "/gradlew.bat");
-		writeTextResource(dir, "gradlew", gradlePrefix + "/gradlew");
-
-		File wrapperDir = new File(dir, "gradle/wrapper");
-		wrapperDir.mkdirs();
-		writeTextResource(wrapperDir, "gradle-wrapper.properties",
-				gradlePrefix + "/gradle/wrapper/gradle-wrapper.properties");
-		writeBinaryResource(wrapperDir, "gradle-wrapper.jar",
-				gradlePrefix + "/gradle/wrapper/gradle-wrapper.jar");
+	private byte[] render(String templateName, Map<String, Object> model) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+		this.templateRenderer.process(templateName, model, out);
+		return out.toByteArray();
 	}
 
-	private void writeMavenWrapper(File dir) {
-		writeTextResource(dir, "mvnw.cmd", "maven/mvnw.cmd");
-		writeTextResource(dir, "mvnw", "maven/mvnw");
+	private void writeGradleWrapper(ProjectSink sink, String dir, Version bootVersion) {
+		String gradlePrefix = (isGradle4Available(bootVersion)) ? "gradle4" : "gradle3";
+		writeResource(sink, dir + "gradlew.bat", gradlePrefix + "/gradlew.bat",
+				ProjectSink.FILE_MODE);
+		writeResource(sink, dir + "gradlew", gradlePrefix + "/gradlew",
+				ProjectSink.EXECUTABLE_FILE_MODE);
 
-		File wrapperDir = new File(dir, ".mvn/wrapper");
-		wrapperDir.mkdirs();
-		writeTextResource(wrapperDir, "maven-wrapper.properties",
-				"maven/wrapper/maven-wrapper.properties");
-		writeBinaryResource(wrapperDir, "maven-wrapper.jar",
-				"maven/wrapper/maven-wrapper.jar");
+		String wrapperDir = dir + "gradle/wrapper/";
+		writeResource(sink, wrapperDir + "gradle-wrapper.properties",
+				gradlePrefix + "/gradle/wrapper/gradle-wrapper.properties",
+				ProjectSink.FILE_MODE);
+		writeResource(sink, wrapperDir + "gradle-wrapper.jar",
+				gradlePrefix + "/gradle/wrapper/gradle-wrapper.jar",
+				ProjectSink.FILE_MODE);
 	}
 
-	private File writeBinaryResource(File dir, String name, String location) {
-		return doWriteProjectResource(dir, name, location, true);
-	}
+	private void writeMavenWrapper(ProjectSink sink, String dir) {
+		writeResource(sink, dir + "mvnw.cmd", "maven/mvnw.cmd", ProjectSink.FILE_MODE);
+		writeResource(sink, dir + "mvnw", "maven/mvnw", ProjectSink.EXECUTABLE_FILE_MODE);
 
-	private File writeTextResource(File dir, String name, String location) {
-		return doWriteProjectResource(dir, name, location, false);
+		String wrapperDir = dir + ".mvn/wrapper/";
+		writeResource(sink, wrapperDir + "maven-wrapper.properties",
+				"maven/wrapper/maven-wrapper.properties", ProjectSink.FILE_MODE);
+		writeResource(sink, wrapperDir + "maven-wrapper.jar",
+				"maven/wrapper/maven-wrapper.jar", ProjectSink.FILE_MODE);
 	}
 
-	private File doWriteProjectResource(File dir, String name, String location,
-			boolean binary) {
-		File target = new File(dir, name);
-		if (binary) {
-			writeBinary(target, this.projectResourceLocator
-					.getBinaryResource("classpath:project/" + location));
-		}
-		else {
-			writeText(target, this.projectResourceLocator
-					.getTextResource("classpath:project/" + location));
-		}
-		return target;
+	private void writeResource(ProjectSink sink, String path, String location, int mode) {
+		sink.addFile(path, this.projectResourceLocator
+				.getDeflatedResource("classpath:project/" + location), mode);
 	}
 
-	private File initializerProjectDir(File rootDir, ProjectRequest request) {
-		if (request.getBaseDir() != null) {
-			File dir = new File(rootDir, request.getBaseDir());
-			dir.mkdirs();
-			return dir;
-		}
-		else {
-			return rootDir;
-		}
+	private String initializerProjectDir(ProjectRequest request) {
+		return (request.getBaseDir() != null) ? request.getBaseDir() + "/" : "";
 	}
 
 	public void write(File target, String templateName, Map<String, Object> model) {
-		String body = this.templateRenderer.process(templateName, model);
-		writeText(target, body);
-	}
-
-	private void writeText(File target, String body) {
-		try (OutputStream stream = new FileOutputStream(target)) {
-			StreamUtils.copy(body, Charset.forName("UTF-8"), stream);
+		try (OutputStream stream = new BufferedOutputStream(
+				new FileOutputStream(target))) {
+			this.templateRenderer.process(templateName, model, stream);
 		}
-		catch (Exception ex) {
-			throw new IllegalStateException("Cannot write file " + target, ex);
-		}
-	}
-
-	private void writeBinary(File target, byte[] body) {
-		try (OutputStream stream = new FileOutputStream(target)) {
-			StreamUtils.copy(body, stream);
-		}
-		catch (Exception ex) {
+		catch (IOException ex) {
 			throw new IllegalStateException("Cannot write file " + target, ex);
 		}
 	}
 
-	private void addTempFile(String group, File file) {
-		this.temporaryFiles.computeIfAbsent(group, (key) -> new ArrayList<>()).add(file);
+	/**
+	 * Render the specified template and add the result to the {@link ProjectSink}.
+	 * @param sink the sink receiving the content of the project
+	 * @param path the path of the file to add
+	 * @param templateName the name of the template to render
+	 * @param model the model to use
+	 */
+	public void write(ProjectSink sink, String path, String templateName,
+			Map<String, Object> model) {
+		sink.addFile(path, render(templateName, model));
 	}
 
 	private static List<Dependency> filterDependencies(List<Dependency> dependencies,
@@ -26,12 +26,13 @@ import java.util.stream.Collectors;
 import io.spring.initializr.metadata.BillOfMaterials;
 import io.spring.initializr.metadata.DefaultMetadataElement;
 import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyCompatibilityMatrix;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.Repository;
 import io.spring.initializr.metadata.Type;
+import io.spring.initializr.util.Agent;
 import io.spring.initializr.util.Version;
 
-import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.util.StringUtils;
 
 /**
@@ -62,6 +63,12 @@ public class ProjectRequest extends BasicProjectRequest {
 
 	private String build;
 
+	private Agent agent;
+
+	private volatile boolean agentResolved;
+
+	private final ProjectGenerationTimings timings = new ProjectGenerationTimings();
+
 	public List<Dependency> getResolvedDependencies() {
 		return this.resolvedDependencies;
 	}
@@ -94,6 +101,40 @@ public class ProjectRequest extends BasicProjectRequest {
 		return this.parameters;
 	}
 
+	/**
+	 * Return the {@link Agent} that submitted this request, based on the
+	 * {@code user-agent} parameter. The agent is resolved once and then shared by every
+	 * component that handles this request.
+	 * @return the agent or {@code null} if it could not be determined
+	 */
+	public Agent getAgent() {
+		if (!this.agentResolved) {
+			String userAgent = (String) this.parameters.get("user-agent");
+			this.agent = (StringUtils.hasText(userAgent)
+					? Agent.fromUserAgent(userAgent) : null);
+			this.agentResolved = true;
+		}
+		return this.agent;
+	}
+
+	/**
+	 * Set the {@link Agent} that submitted this request, when it has been resolved
+	 * already by the caller. Takes precedence over the {@code user-agent} parameter.
+	 * @param agent the agent or {@code null} if it could not be determined
+	 */
+	public void setAgent(Agent agent) {
+		this.agent = agent;
+		this.agentResolved = true;
+	}
+
+	/**
+	 * Return the time spent in each phase of the generation of the project.
+	 * @return the generation timings
+	 */
+	public ProjectGenerationTimings getTimings() {
+		return this.timings;
+	}
+
 	public Map<String, BillOfMaterials> getBoms() {
 		return this.boms;
 	}
@@ -116,14 +157,11 @@ public class ProjectRequest extends BasicProjectRequest {
 	 * @param metadata the initializr metadata
 	 */
 	public void initialize(InitializrMetadata metadata) {
-		BeanWrapperImpl bean = new BeanWrapperImpl(this);
 		metadata.defaults().forEach((key, value) -> {
-			if (bean.isWritableProperty(key)) {
-				// We want to be able to infer a package name if none has been
-				// explicitly set
-				if (!key.equals("packageName")) {
-					bean.setPropertyValue(key, value);
-				}
+			// We want to be able to infer a package name if none has been
+			// explicitly set
+			if (!key.equals("packageName")) {
+				ProjectRequestAccessor.setProperty(this, key, value);
 			}
 		});
 	}
@@ -137,8 +175,15 @@ public class ProjectRequest extends BasicProjectRequest {
 		String actualBootVersion = (getBootVersion() != null) ? getBootVersion()
 				: metadata.getBootVersions().getDefault().getId();
 		Version requestedVersion = Version.parse(actualBootVersion);
+		DependencyCompatibilityMatrix compatibility = metadata
+				.getDependencyCompatibilityMatrix();
 		this.resolvedDependencies = depIds.stream().map((it) -> {
-			Dependency dependency = metadata.getDependencies().get(it);
+			Dependency dependency = compatibility.getResolvedDependency(it,
+					requestedVersion);
+			if (dependency != null) {
+				return dependency;
+			}
+			dependency = metadata.getDependencies().get(it);
 			if (dependency == null) {
 				throw new InvalidProjectRequestException(
 						"Unknown dependency '" + it + "' check project metadata");
@@ -151,7 +196,7 @@ public class ProjectRequest extends BasicProjectRequest {
 					this.facets.add(facet);
 				}
 			});
-			if (!it.match(requestedVersion)) {
+			if (!compatibility.isCompatible(it.getId(), requestedVersion)) {
 				throw new InvalidProjectRequestException(
 						"Dependency '" + it.getId() + "' is not compatible "
 								+ "with Spring Boot " + requestedVersion);
@@ -191,6 +236,10 @@ public class ProjectRequest extends BasicProjectRequest {
 						+ getLanguage() + "' check project metadata");
 			}
 		}
+		if (getBaseDir() != null && !isRelativePath(getBaseDir())) {
+			throw new InvalidProjectRequestException("Invalid base directory '"
+					+ getBaseDir() + "', it must be relative to the project");
+		}
 
 		if (!StringUtils.hasText(getApplicationName())) {
 			setApplicationName(
@@ -206,6 +255,12 @@ public class ProjectRequest extends BasicProjectRequest {
 		afterResolution(metadata);
 	}
 
+	private static boolean isRelativePath(String path) {
+		String cleanPath = StringUtils.cleanPath(path);
+		return !(cleanPath.startsWith("/") || cleanPath.equals("..")
+				|| cleanPath.startsWith("../"));
+	}
+
 	/**
 	 * Set the repositories that this instance should use based on the
 	 * {@link InitializrMetadata} and the requested Spring Boot {@link Version}.
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.springframework.beans.BeanWrapperImpl;
+
+/**
+ * Typed access to the properties of a {@link ProjectRequest}. The properties are
+ * described once so that initializing a request or exposing it in a model does not
+ * require any introspection.
+ * <p>
+ * Subclasses of {@link ProjectRequest} may define additional properties so their
+ * properties are accessed using a {@link BeanWrapperImpl} instead.
+ *
+ * @author Julien Marchand
+ */
+public final class ProjectRequestAccessor {
+
+	private static final Map<String, Property> properties = createProperties();
+
+	private ProjectRequestAccessor() {
+	}
+
+	/**
+	 * Return the names of the properties of a {@link ProjectRequest}.
+	 * @return the property names
+	 */
+	public static Iterable<String> getPropertyNames() {
+		return Collections.unmodifiableSet(properties.keySet());
+	}
+
+	/**
+	 * Add the readable properties of the specified {@link ProjectRequest} to the
+	 * specified model, replacing any existing value.
+	 * @param request the project request
+	 * @param model the model to update
+	 */
+	public static void addProperties(ProjectRequest request, Map<String, Object> model) {
+		if (request.getClass() != ProjectRequest.class) {
+			BeanWrapperImpl bean = new BeanWrapperImpl(request);
+			for (PropertyDescriptor descriptor : bean.getPropertyDescriptors()) {
+				String name = descriptor.getName();
+				if (!"class".equals(name) && bean.isReadableProperty(name)) {
+					model.put(name, bean.getPropertyValue(name));
+				}
+			}
+			return;
+		}
+		properties.forEach(
+				(name, property) -> model.put(name, property.getter.apply(request)));
+	}
+
+	/**
+	 * Set the property with the specified name if it is writable.
+	 * @param request the project request
+	 * @param name the name of the property
+	 * @param value the value to set
+	 * @return {@code true} if the property has been set
+	 */
+	public static boolean setProperty(ProjectRequest request, String name, Object value) {
+		if (request.getClass() != ProjectRequest.class) {
+			BeanWrapperImpl bean = new BeanWrapperImpl(request);
+			if (bean.isWritableProperty(name)) {
+				bean.setPropertyValue(name, value);
+				return true;
+			}
+			return false;
+		}
+		Property property = properties.get(name);
+		if (property == null || property.setter == null) {
+			return false;
+		}
+		property.setter.accept(request, value);
+		return true;
+	}
+
+	private static Map<String, Property> createProperties() {
+		Map<String, Property> map = new LinkedHashMap<>();
+		list(map, "style", BasicProjectRequest::getStyle, BasicProjectRequest::setStyle);
+		list(map, "dependencies", BasicProjectRequest::getDependencies,
+				BasicProjectRequest::setDependencies);
+		string(map, "name", BasicProjectRequest::getName, BasicProjectRequest::setName);
+		string(map, "type", BasicProjectRequest::getType, BasicProjectRequest::setType);
+		string(map, "description", BasicProjectRequest::getDescription,
+				BasicProjectRequest::setDescription);
+		string(map, "groupId", BasicProjectRequest::getGroupId,
+				BasicProjectRequest::setGroupId);
+		string(map, "artifactId", BasicProjectRequest::getArtifactId,
+				BasicProjectRequest::setArtifactId);
+		string(map, "version", BasicProjectRequest::getVersion,
+				BasicProjectRequest::setVersion);
+		string(map, "bootVersion", BasicProjectRequest::getBootVersion,
+				BasicProjectRequest::setBootVersion);
+		string(map, "packaging", BasicProjectRequest::getPackaging,
+				BasicProjectRequest::setPackaging);
+		string(map, "applicationName", BasicProjectRequest::getApplicationName,
+				BasicProjectRequest::setApplicationName);
+		string(map, "language", BasicProjectRequest::getLanguage,
+				BasicProjectRequest::setLanguage);
+		string(map, "packageName", BasicProjectRequest::getPackageName,
+				BasicProjectRequest::setPackageName);
+		string(map, "javaVersion", BasicProjectRequest::getJavaVersion,
+				BasicProjectRequest::setJavaVersion);
+		string(map, "baseDir", BasicProjectRequest::getBaseDir,
+				BasicProjectRequest::setBaseDir);
+		map.put("resolvedDependencies",
+				new Property(ProjectRequest::getResolvedDependencies, null));
+		list(map, "facets", ProjectRequest::getFacets, ProjectRequest::setFacets);
+		string(map, "build", ProjectRequest::getBuild, ProjectRequest::setBuild);
+		map.put("parameters", new Property(ProjectRequest::getParameters, null));
+		map.put("agent", new Property(ProjectRequest::getAgent, null));
+		map.put("timings", new Property(ProjectRequest::getTimings, null));
+		map.put("boms", new Property(ProjectRequest::getBoms, null));
+		map.put("repositories", new Property(ProjectRequest::getRepositories, null));
+		map.put("buildProperties",
+				new Property(ProjectRequest::getBuildProperties, null));
+		return Collections.unmodifiableMap(map);
+	}
+
+	private static void string(Map<String, Property> map, String name,
+			Function<ProjectRequest, String> getter,
+			BiConsumer<ProjectRequest, String> setter) {
+		map.put(name, new Property(getter::apply, (request, value) -> setter
+				.accept(request, (value != null) ? value.toString() : null)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void list(Map<String, Property> map, String name,
+			Function<ProjectRequest, List<String>> getter,
+			BiConsumer<ProjectRequest, List<String>> setter) {
+		map.put(name, new Property(getter::apply,
+				(request, value) -> setter.accept(request, (List<String>) value)));
+	}
+
+	private static final class Property {
+
+		private final Function<ProjectRequest, Object> getter;
+
+		private final BiConsumer<ProjectRequest, Object> setter;
+
+		Property(Function<ProjectRequest, Object> getter,
+				BiConsumer<ProjectRequest, Object> setter) {
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+	}
+
+}
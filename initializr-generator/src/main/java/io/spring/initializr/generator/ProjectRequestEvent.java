@@ -16,6 +16,8 @@
 
 package io.spring.initializr.generator;
 
+import java.time.Duration;
+
 /**
  * Event published when a {@link ProjectRequest} has been processed.
  *
@@ -29,9 +31,24 @@ public abstract class ProjectRequestEvent {
 
 	private final long timestamp;
 
+	private final Duration duration;
+
+	private final ProjectGenerationSource source;
+
 	protected ProjectRequestEvent(ProjectRequest projectRequest) {
+		this(projectRequest, null);
+	}
+
+	protected ProjectRequestEvent(ProjectRequest projectRequest, Duration duration) {
+		this(projectRequest, duration, ProjectGenerationSource.GENERATED);
+	}
+
+	protected ProjectRequestEvent(ProjectRequest projectRequest, Duration duration,
+			ProjectGenerationSource source) {
 		this.projectRequest = projectRequest;
 		this.timestamp = System.currentTimeMillis();
+		this.duration = duration;
+		this.source = source;
 	}
 
 	/**
@@ -50,4 +67,22 @@ public abstract class ProjectRequestEvent {
 		return this.timestamp;
 	}
 
+	/**
+	 * Return the time it took to process the request or {@code null} if it is unknown.
+	 * @return the duration of the processing of the request, or {@code null}
+	 */
+	public Duration getDuration() {
+		return this.duration;
+	}
+
+	/**
+	 * Return the {@link ProjectGenerationSource source} of the project. The duration of
+	 * a project that has not been {@link ProjectGenerationSource#GENERATED generated}
+	 * for this request does not include the generation of the project.
+	 * @return the source of the project
+	 */
+	public ProjectGenerationSource getSource() {
+		return this.source;
+	}
+
 }
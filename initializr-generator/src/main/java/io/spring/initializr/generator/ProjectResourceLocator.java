@@ -21,6 +21,8 @@ import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.Charset;
 
+import io.spring.initializr.generator.archive.DeflatedContent;
+
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.util.ResourceUtils;
 import org.springframework.util.StreamUtils;
@@ -64,6 +66,16 @@ public class ProjectResourceLocator {
 		}
 	}
 
+	/**
+	 * Return the {@link DeflatedContent} of the resource at the specified location.
+	 * @param location a resource location
+	 * @return the deflated content of the resource
+	 */
+	@Cacheable(cacheNames = "initializr.project-resources", key = "'deflated:' + #p0")
+	public DeflatedContent getDeflatedResource(String location) {
+		return DeflatedContent.of(getBinaryResource(location));
+	}
+
 	private InputStream getInputStream(String location) throws IOException {
 		URL url = ResourceUtils.getURL(location);
 		return url.openStream();
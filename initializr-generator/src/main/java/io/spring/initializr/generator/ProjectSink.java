@@ -0,0 +1,82 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import io.spring.initializr.generator.archive.DeflatedContent;
+
+/**
+ * Receive the content of a generated project. Paths are relative to the root of the
+ * project and use {@code /} as separator.
+ *
+ * @author Julien Marchand
+ * @see InMemoryProjectSink
+ * @see FileSystemProjectSink
+ */
+public interface ProjectSink {
+
+	/**
+	 * The POSIX mode of a regular file.
+	 */
+	int FILE_MODE = 0644;
+
+	/**
+	 * The POSIX mode of an executable file, such as a wrapper script.
+	 */
+	int EXECUTABLE_FILE_MODE = 0755;
+
+	/**
+	 * The POSIX mode of a directory.
+	 */
+	int DIRECTORY_MODE = 0755;
+
+	/**
+	 * Add a directory, creating any parent directory as necessary.
+	 * @param path the path of the directory
+	 */
+	void addDirectory(String path);
+
+	/**
+	 * Add a file with the specified content and POSIX mode, creating any parent directory
+	 * as necessary.
+	 * @param path the path of the file
+	 * @param content the content of the file
+	 * @param mode the POSIX mode of the file
+	 */
+	void addFile(String path, byte[] content, int mode);
+
+	/**
+	 * Add a regular file with the specified content.
+	 * @param path the path of the file
+	 * @param content the content of the file
+	 * @see #FILE_MODE
+	 */
+	default void addFile(String path, byte[] content) {
+		addFile(path, content, FILE_MODE);
+	}
+
+	/**
+	 * Add a file whose content has already been deflated, typically because it is shared
+	 * by many projects. By default, only the uncompressed content is used.
+	 * @param path the path of the file
+	 * @param content the deflated content of the file
+	 * @param mode the POSIX mode of the file
+	 */
+	default void addFile(String path, DeflatedContent content, int mode) {
+		addFile(path, content.getContent(), mode);
+	}
+
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Manage the temporary files of project generation. Each project is generated in its own
+ * workspace, a directory of the root directory that is tracked, together with any file
+ * created for it, until it is {@link #release(File) released}.
+ * <p>
+ * Files of the root directory that do not belong to a live workspace, such as those left
+ * by a previous instance that crashed, are removed by {@link #sweep(Duration)} once they
+ * are old enough. A sweep also measures the disk usage of the root directory: if a quota
+ * is set and that usage exceeds it, new workspaces are refused until enough space has
+ * been reclaimed.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceManager {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ProjectWorkspaceManager.class);
+
+	private final File rootDirectory;
+
+	private final long quota;
+
+	private final ConcurrentMap<String, List<File>> workspaces = new ConcurrentHashMap<>();
+
+	private final AtomicLong diskUsage = new AtomicLong();
+
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	private final AtomicLong sweptCount = new AtomicLong();
+
+	/**
+	 * Create an instance using the specified root directory.
+	 * @param rootDirectory the directory in which workspaces are created
+	 * @param quota the maximum disk usage of the root directory in bytes, or a negative
+	 * value for no quota
+	 */
+	public ProjectWorkspaceManager(File rootDirectory, long quota) {
+		this.rootDirectory = rootDirectory;
+		this.quota = quota;
+	}
+
+	/**
+	 * Return the directory in which workspaces are created.
+	 * @return the root directory
+	 */
+	public File getRootDirectory() {
+		return this.rootDirectory;
+	}
+
+	/**
+	 * Create a new, empty, workspace.
+	 * @return the directory of the workspace
+	 * @throws ProjectWorkspaceQuotaExceededException if the disk quota is exceeded
+	 */
+	public File createWorkspace() {
+		long usage = this.diskUsage.get();
+		if (this.quota >= 0 && usage > this.quota) {
+			this.rejectedCount.incrementAndGet();
+			throw new ProjectWorkspaceQuotaExceededException("Temporary files use "
+					+ usage + " bytes, exceeding the quota of " + this.quota + " bytes");
+		}
+		try {
+			this.rootDirectory.mkdirs();
+			File workspace = Files.createTempDirectory(this.rootDirectory.toPath(), "tmp")
+					.toFile();
+			List<File> files = new CopyOnWriteArrayList<>();
+			files.add(workspace);
+			this.workspaces.put(workspace.getName(), files);
+			return workspace;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot create temp dir", ex);
+		}
+	}
+
+	/**
+	 * Create a file, next to the specified workspace, that is removed with it.
+	 * @param workspace the directory of the workspace
+	 * @param extension the extension of the file
+	 * @return the file
+	 */
+	public File createFile(File workspace, String extension) {
+		File file = new File(this.rootDirectory, workspace.getName() + extension);
+		List<File> files = this.workspaces.get(workspace.getName());
+		if (files == null) {
+			throw new IllegalStateException("No workspace for " + workspace);
+		}
+		files.add(file);
+		return file;
+	}
+
+	/**
+	 * Remove the specified workspace and all the files that were created for it. Does
+	 * nothing if the workspace has already been released.
+	 * @param workspace the directory of the workspace
+	 */
+	public void release(File workspace) {
+		List<File> files = this.workspaces.remove(workspace.getName());
+		if (files != null) {
+			files.forEach(ProjectWorkspaceManager::delete);
+		}
+	}
+
+	/**
+	 * Remove the files of the root directory that do not belong to a live workspace and
+	 * that have not been modified for the specified duration, then measure the disk usage
+	 * of the root directory.
+	 * @param maxAge the minimum age of a file to remove
+	 * @return the number of removed files
+	 */
+	public int sweep(Duration maxAge) {
+		Set<String> live = new HashSet<>();
+		this.workspaces.values()
+				.forEach((files) -> files.forEach((file) -> live.add(file.getName())));
+		long threshold = System.currentTimeMillis() - maxAge.toMillis();
+		int swept = 0;
+		File[] candidates = this.rootDirectory.listFiles();
+		if (candidates != null) {
+			for (File candidate : candidates) {
+				if (!live.contains(candidate.getName())
+						&& candidate.lastModified() < threshold) {
+					delete(candidate);
+					swept++;
+				}
+			}
+		}
+		if (swept > 0) {
+			log.info("Removed " + swept + " orphan temporary files from "
+					+ this.rootDirectory);
+		}
+		this.sweptCount.addAndGet(swept);
+		this.diskUsage.set(measureDiskUsage());
+		return swept;
+	}
+
+	/**
+	 * Return the number of workspaces that have not been released yet.
+	 * @return the number of live workspaces
+	 */
+	public int getActiveCount() {
+		return this.workspaces.size();
+	}
+
+	/**
+	 * Return the disk usage of the root directory in bytes, as measured by the last
+	 * {@link #sweep(Duration) sweep}.
+	 * @return the disk usage
+	 */
+	public long getDiskUsage() {
+		return this.diskUsage.get();
+	}
+
+	/**
+	 * Return the maximum disk usage of the root directory in bytes or a negative value if
+	 * there is no quota.
+	 * @return the quota
+	 */
+	public long getQuota() {
+		return this.quota;
+	}
+
+	/**
+	 * Return the number of workspaces that have been refused because the quota was
+	 * exceeded.
+	 * @return the number of rejected workspaces
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.get();
+	}
+
+	/**
+	 * Return the number of orphan files that have been removed by sweeps.
+	 * @return the number of swept files
+	 */
+	public long getSweptCount() {
+		return this.sweptCount.get();
+	}
+
+	private long measureDiskUsage() {
+		if (!this.rootDirectory.exists()) {
+			return 0;
+		}
+		try (Stream<Path> paths = Files.walk(this.rootDirectory.toPath())) {
+			return paths.mapToLong(ProjectWorkspaceManager::size).sum();
+		}
+		catch (IOException | RuntimeException ex) {
+			// Files can be removed concurrently, keep the previous measure
+			return this.diskUsage.get();
+		}
+	}
+
+	private static long size(Path path) {
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(path,
+					BasicFileAttributes.class);
+			return (attributes.isRegularFile() ? attributes.size() : 0);
+		}
+		catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	private static void delete(File file) {
+		if (file.isDirectory()) {
+			FileSystemUtils.deleteRecursively(file);
+		}
+		else if (file.exists()) {
+			file.delete();
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+/**
+ * An entry of an archive: either a directory or a file with its content.
+ *
+ * @author Julien Marchand
+ */
+public interface ArchiveEntry {
+
+	/**
+	 * Return the path of the entry, using {@code /} as separator. Directories must not
+	 * have a trailing slash.
+	 * @return the path
+	 */
+	String getPath();
+
+	/**
+	 * Return the content of the entry or {@code null} if it is a directory.
+	 * @return the content
+	 */
+	byte[] getContent();
+
+	/**
+	 * Return the POSIX mode of the entry, such as {@code 0644}.
+	 * @return the mode
+	 */
+	int getMode();
+
+	/**
+	 * Return the pre-computed {@link DeflatedContent} of this entry, if any. When
+	 * available, formats that compress each entry individually reuse it rather than
+	 * compressing the content again.
+	 * @return the deflated content or {@code null}
+	 */
+	default DeflatedContent getDeflatedContent() {
+		return null;
+	}
+
+	/**
+	 * Return whether this entry is a directory.
+	 * @return {@code true} if the entry is a directory
+	 */
+	default boolean isDirectory() {
+		return getContent() == null;
+	}
+
+}
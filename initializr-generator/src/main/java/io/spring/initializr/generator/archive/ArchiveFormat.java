@@ -0,0 +1,117 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * The supported archive formats.
+ *
+ * @author Julien Marchand
+ */
+public enum ArchiveFormat {
+
+	/**
+	 * A zip archive.
+	 */
+	ZIP("zip", "application/zip") {
+
+		@Override
+		public ArchiveWriter createWriter(OutputStream out) {
+			return new ZipArchiveWriter(out);
+		}
+
+	},
+
+	/**
+	 * An uncompressed tar archive.
+	 */
+	TAR("tar", "application/x-tar") {
+
+		@Override
+		public ArchiveWriter createWriter(OutputStream out) throws IOException {
+			return new TarArchiveWriter(out, false);
+		}
+
+	},
+
+	/**
+	 * A tar archive compressed with gzip.
+	 */
+	TAR_GZ("tar.gz", "application/x-compress") {
+
+		@Override
+		public ArchiveWriter createWriter(OutputStream out) throws IOException {
+			return new TarArchiveWriter(out, true);
+		}
+
+	};
+
+	private final String extension;
+
+	private final String contentType;
+
+	ArchiveFormat(String extension, String contentType) {
+		this.extension = extension;
+		this.contentType = contentType;
+	}
+
+	/**
+	 * Return the file extension of the format, without the leading dot.
+	 * @return the extension
+	 */
+	public String getExtension() {
+		return this.extension;
+	}
+
+	/**
+	 * Return the content type of the format.
+	 * @return the content type
+	 */
+	public String getContentType() {
+		return this.contentType;
+	}
+
+	/**
+	 * Create an {@link ArchiveWriter} that writes to the specified stream.
+	 * @param out the stream to write to
+	 * @return an archive writer
+	 * @throws IOException if the writer cannot be created
+	 */
+	public abstract ArchiveWriter createWriter(OutputStream out) throws IOException;
+
+	/**
+	 * Write an archive with the specified entries to the specified stream. The stream is
+	 * not closed.
+	 * @param entries the entries of the archive
+	 * @param out the stream to write to
+	 * @throws IOException if the archive cannot be written
+	 */
+	public void write(Iterable<? extends ArchiveEntry> entries, OutputStream out)
+			throws IOException {
+		ArchiveWriter writer = createWriter(out);
+		try {
+			writer.addEntries(entries);
+			writer.finish();
+		}
+		finally {
+			writer.close();
+		}
+	}
+
+}
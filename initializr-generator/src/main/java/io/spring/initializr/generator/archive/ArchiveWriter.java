@@ -0,0 +1,63 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Write the entries of an archive to an underlying stream. Entries are written in the
+ * order they are added, so a directory should be added before its content.
+ *
+ * @author Julien Marchand
+ * @see ArchiveFormat#createWriter(java.io.OutputStream)
+ */
+public interface ArchiveWriter extends Closeable {
+
+	/**
+	 * Add the specified {@link ArchiveEntry}.
+	 * @param entry the entry to add
+	 * @throws IOException if the entry cannot be written
+	 */
+	void addEntry(ArchiveEntry entry) throws IOException;
+
+	/**
+	 * Add the specified entries.
+	 * @param entries the entries to add
+	 * @throws IOException if an entry cannot be written
+	 */
+	default void addEntries(Iterable<? extends ArchiveEntry> entries) throws IOException {
+		for (ArchiveEntry entry : entries) {
+			addEntry(entry);
+		}
+	}
+
+	/**
+	 * Complete the archive. The underlying stream is flushed but not closed.
+	 * @throws IOException if the archive cannot be completed
+	 */
+	void finish() throws IOException;
+
+	/**
+	 * Release the resources held by the writer, such as the native memory of its
+	 * compressor. Safe to call whether or not the archive was completed. The underlying
+	 * stream is not closed.
+	 */
+	@Override
+	void close();
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * The content of a file along with its checksum and its deflated form. Computing it once
+ * for content that is shared by many projects, such as the wrapper scripts, saves the zip
+ * writer from compressing the same bytes again for every archive.
+ *
+ * @author Julien Marchand
+ * @see ArchiveEntry#getDeflatedContent()
+ */
+public final class DeflatedContent {
+
+	private final byte[] content;
+
+	private final long crc;
+
+	private final byte[] compressedContent;
+
+	private DeflatedContent(byte[] content, long crc, byte[] compressedContent) {
+		this.content = content;
+		this.crc = crc;
+		this.compressedContent = compressedContent;
+	}
+
+	/**
+	 * Compute the {@link DeflatedContent} of the specified content.
+	 * @param content the content to deflate
+	 * @return the deflated content
+	 */
+	public static DeflatedContent of(byte[] content) {
+		Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		try {
+			return of(content, deflater, new byte[8192]);
+		}
+		finally {
+			deflater.end();
+		}
+	}
+
+	static DeflatedContent of(byte[] content, Deflater deflater, byte[] buffer) {
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		deflater.reset();
+		deflater.setInput(content);
+		deflater.finish();
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(
+				content.length / 2 + 64);
+		while (!deflater.finished()) {
+			int count = deflater.deflate(buffer);
+			compressed.write(buffer, 0, count);
+		}
+		return new DeflatedContent(content, crc.getValue(), compressed.toByteArray());
+	}
+
+	/**
+	 * Return the uncompressed content. The returned array is shared and must not be
+	 * modified.
+	 * @return the content
+	 */
+	public byte[] getContent() {
+		return this.content;
+	}
+
+	/**
+	 * Return the CRC-32 checksum of the content.
+	 * @return the checksum
+	 */
+	public long getCrc() {
+		return this.crc;
+	}
+
+	/**
+	 * Return the content compressed with the deflate algorithm, without any header. The
+	 * returned array is shared and must not be modified.
+	 * @return the compressed content
+	 */
+	public byte[] getCompressedContent() {
+		return this.compressedContent;
+	}
+
+}
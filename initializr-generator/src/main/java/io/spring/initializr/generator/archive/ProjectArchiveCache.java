@@ -0,0 +1,279 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.metadata.InitializrMetadata;
+
+import org.springframework.util.Assert;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A size-bounded cache of project archives. Archives are identified by a canonical form
+ * of the {@link ProjectRequest} and the {@link InitializrMetadata} they have been
+ * generated with: a {@linkplain InitializrMetadata#isNewerThan(InitializrMetadata)
+ * newer} metadata invalidates every cached archive while archives generated with an
+ * older metadata are not cached. When the cache is full, the least recently used archives
+ * are evicted.
+ * <p>
+ * Only the attributes of the request that are relevant to the generation are part of the
+ * key so the headers of the HTTP request, for instance, are ignored. Dependencies are
+ * sorted so that the order in which they have been requested does not matter.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCache {
+
+	private static final long STALE_METADATA_VERSION = -1;
+
+	private final long maxSize;
+
+	private final Map<String, CachedArchive> archives = new LinkedHashMap<>(16, 0.75f,
+			true);
+
+	private final LongAdder hitCount = new LongAdder();
+
+	private final LongAdder missCount = new LongAdder();
+
+	private final LongAdder putCount = new LongAdder();
+
+	private final LongAdder evictionCount = new LongAdder();
+
+	private InitializrMetadata metadata;
+
+	private long metadataVersion;
+
+	private long size;
+
+	/**
+	 * Create a new instance.
+	 * @param maxSize the maximum size, in bytes, of the cached archives
+	 */
+	public ProjectArchiveCache(long maxSize) {
+		Assert.isTrue(maxSize > 0, "MaxSize must be positive");
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Create the {@link Key} to use for the specified {@link ProjectRequest} and
+	 * {@link ArchiveFormat}. The request must have been initialized with the defaults of
+	 * the specified {@link InitializrMetadata}. Using a metadata that is newer than the
+	 * one used for the previous keys clears the cache. A key for an older metadata never
+	 * matches a cached archive.
+	 * @param request the project request
+	 * @param format the format of the archive
+	 * @param metadata the metadata used to generate the project
+	 * @return the key
+	 */
+	public Key createKey(ProjectRequest request, ArchiveFormat format,
+			InitializrMetadata metadata) {
+		long version;
+		synchronized (this.archives) {
+			if (this.metadata == null || metadata.isNewerThan(this.metadata)) {
+				this.metadata = metadata;
+				this.metadataVersion++;
+				this.evictionCount.add(this.archives.size());
+				this.archives.clear();
+				this.size = 0;
+			}
+			version = (this.metadata != metadata) ? STALE_METADATA_VERSION
+					: this.metadataVersion;
+		}
+		return new Key(version, format, canonicalForm(request));
+	}
+
+	/**
+	 * Return the {@link CachedArchive} for the specified {@link Key} or {@code null} if
+	 * no such archive is cached.
+	 * @param key the key of the archive
+	 * @return the cached archive or {@code null}
+	 */
+	public CachedArchive get(Key key) {
+		CachedArchive archive;
+		synchronized (this.archives) {
+			archive = (key.metadataVersion == this.metadataVersion)
+					? this.archives.get(key.value) : null;
+		}
+		if (archive != null) {
+			this.hitCount.increment();
+		}
+		else {
+			this.missCount.increment();
+		}
+		return archive;
+	}
+
+	/**
+	 * Cache the specified archive content. Archives larger than the maximum size of the
+	 * cache are not retained.
+	 * @param key the key of the archive
+	 * @param content the content of the archive
+	 * @return the {@link CachedArchive}
+	 */
+	public CachedArchive put(Key key, byte[] content) {
+		CachedArchive archive = new CachedArchive(content);
+		if (content.length > this.maxSize) {
+			return archive;
+		}
+		synchronized (this.archives) {
+			if (key.metadataVersion != this.metadataVersion) {
+				return archive;
+			}
+			CachedArchive previous = this.archives.put(key.value, archive);
+			if (previous != null) {
+				this.size -= previous.getContent().length;
+			}
+			this.size += content.length;
+			Iterator<CachedArchive> iterator = this.archives.values().iterator();
+			while (this.size > this.maxSize && iterator.hasNext()) {
+				this.size -= iterator.next().getContent().length;
+				iterator.remove();
+				this.evictionCount.increment();
+			}
+		}
+		this.putCount.increment();
+		return archive;
+	}
+
+	/**
+	 * Return the number of cached archives.
+	 * @return the number of entries
+	 */
+	public int getEntryCount() {
+		synchronized (this.archives) {
+			return this.archives.size();
+		}
+	}
+
+	/**
+	 * Return the size, in bytes, of the cached archives.
+	 * @return the size of the cache
+	 */
+	public long getSize() {
+		synchronized (this.archives) {
+			return this.size;
+		}
+	}
+
+	public long getMaxSize() {
+		return this.maxSize;
+	}
+
+	public long getHitCount() {
+		return this.hitCount.sum();
+	}
+
+	public long getMissCount() {
+		return this.missCount.sum();
+	}
+
+	public long getPutCount() {
+		return this.putCount.sum();
+	}
+
+	public long getEvictionCount() {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * Return the canonical form of the specified {@link ProjectRequest}.
+	 * @param request the project request
+	 * @return a canonical representation of the request
+	 */
+	protected String canonicalForm(ProjectRequest request) {
+		return ProjectRequestCanonicalForm.of(request);
+	}
+
+	/**
+	 * The key of a cached archive.
+	 */
+	public static final class Key {
+
+		private final long metadataVersion;
+
+		private final String value;
+
+		private Key(long metadataVersion, ArchiveFormat format, String canonicalForm) {
+			this.metadataVersion = metadataVersion;
+			this.value = format.name() + "\n" + canonicalForm;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return this.metadataVersion == other.metadataVersion
+					&& this.value.equals(other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.metadataVersion, this.value);
+		}
+
+		@Override
+		public String toString() {
+			return this.metadataVersion + "/" + this.value.replace('\n', ';');
+		}
+
+	}
+
+	/**
+	 * A cached archive.
+	 */
+	public static final class CachedArchive {
+
+		private final byte[] content;
+
+		private final String etag;
+
+		CachedArchive(byte[] content) {
+			this.content = content;
+			this.etag = "\"" + DigestUtils.md5DigestAsHex(content) + "\"";
+		}
+
+		/**
+		 * Return the content of the archive. The returned array is shared and must not be
+		 * modified.
+		 * @return the content
+		 */
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Return a strong entity tag for the content of the archive.
+		 * @return the entity tag
+		 */
+		public String getETag() {
+			return this.etag;
+		}
+
+	}
+
+}
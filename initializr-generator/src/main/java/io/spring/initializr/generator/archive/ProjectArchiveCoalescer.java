@@ -0,0 +1,315 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.metadata.InitializrMetadata;
+
+import org.springframework.util.Assert;
+
+/**
+ * Coalesce the concurrent generation of identical project archives. The first request for
+ * a given {@link Key} generates the archive while identical requests that arrive in the
+ * meantime wait for it and share its content. Nothing is retained once the archive has
+ * been generated: see {@link ProjectArchiveCache} to serve archives that have been
+ * generated previously.
+ * <p>
+ * Requests can either {@linkplain #generate(Key, ArchiveGenerator) block} until the
+ * archive is available or {@linkplain #join(Key) join} its generation and be notified
+ * once it completes, which does not hold a thread while waiting.
+ * <p>
+ * Archives are identified by the canonical form of the {@link ProjectRequest} and the
+ * {@link InitializrMetadata} instance they are generated with, as for the
+ * {@link ProjectArchiveCache}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCoalescer {
+
+	private final ConcurrentMap<Key, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+	private final LongAdder generatedCount = new LongAdder();
+
+	private final LongAdder sharedCount = new LongAdder();
+
+	/**
+	 * Create the {@link Key} to use for the specified {@link ProjectRequest} and
+	 * {@link ArchiveFormat}. The request must have been initialized with the defaults of
+	 * the specified {@link InitializrMetadata}.
+	 * @param request the project request
+	 * @param format the format of the archive
+	 * @param metadata the metadata used to generate the project
+	 * @return the key
+	 */
+	public Key createKey(ProjectRequest request, ArchiveFormat format,
+			InitializrMetadata metadata) {
+		return new Key(metadata, format, ProjectRequestCanonicalForm.of(request));
+	}
+
+	/**
+	 * Join the generation of the archive identified by the specified {@link Key}. If the
+	 * same archive is not being generated already, the returned {@link Flight} is the
+	 * leader and the caller must generate the archive and then either
+	 * {@linkplain Flight#complete(byte[]) complete} or {@linkplain Flight#fail(Throwable)
+	 * fail} it. Otherwise, the content of the archive is shared once available.
+	 * @param key the key of the archive
+	 * @return the flight of the archive
+	 */
+	public Flight join(Key key) {
+		CompletableFuture<byte[]> content = new CompletableFuture<>();
+		CompletableFuture<byte[]> existing = this.inFlight.putIfAbsent(key, content);
+		if (existing != null) {
+			return new Flight(key, existing.thenApply((shared) -> {
+				this.sharedCount.increment();
+				return shared;
+			}), false);
+		}
+		return new Flight(key, content, true);
+	}
+
+	/**
+	 * Generate the archive identified by the specified {@link Key}, unless the same
+	 * archive is being generated already in which case the calling thread waits for its
+	 * content. If the generation fails, every request waiting for it fails with the same
+	 * exception.
+	 * @param key the key of the archive
+	 * @param generator the generator to invoke if the archive is not being generated
+	 * @return the generated archive
+	 * @throws IOException if the archive could not be generated
+	 * @see #join(Key)
+	 */
+	public CoalescedArchive generate(Key key, ArchiveGenerator generator)
+			throws IOException {
+		Flight flight = join(key);
+		if (!flight.isLeader()) {
+			return new CoalescedArchive(await(flight.getContent()), true);
+		}
+		try {
+			byte[] content = generator.generate();
+			flight.complete(content);
+			return new CoalescedArchive(content, false);
+		}
+		catch (IOException | RuntimeException | Error ex) {
+			flight.fail(ex);
+			throw ex;
+		}
+	}
+
+	/**
+	 * Return the number of archives being generated.
+	 * @return the number of generations in flight
+	 */
+	public int getInFlightCount() {
+		return this.inFlight.size();
+	}
+
+	/**
+	 * Return the number of archives that have been generated.
+	 * @return the number of generated archives
+	 */
+	public long getGeneratedCount() {
+		return this.generatedCount.sum();
+	}
+
+	/**
+	 * Return the number of requests that have been served with the content of an archive
+	 * generated for an identical request.
+	 * @return the number of shared archives
+	 */
+	public long getSharedCount() {
+		return this.sharedCount.sum();
+	}
+
+	private byte[] await(CompletableFuture<byte[]> flight) throws IOException {
+		try {
+			return flight.get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for archive", ex);
+		}
+		catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Generate the content of an archive.
+	 */
+	@FunctionalInterface
+	public interface ArchiveGenerator {
+
+		/**
+		 * Generate the content of the archive.
+		 * @return the content of the archive
+		 * @throws IOException if the archive could not be generated
+		 */
+		byte[] generate() throws IOException;
+
+	}
+
+	/**
+	 * The key of an archive. Two keys are equal only if they use the same
+	 * {@link InitializrMetadata} instance.
+	 */
+	public static final class Key {
+
+		private final InitializrMetadata metadata;
+
+		private final String value;
+
+		private Key(InitializrMetadata metadata, ArchiveFormat format,
+				String canonicalForm) {
+			this.metadata = metadata;
+			this.value = format.name() + "\n" + canonicalForm;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (obj == null || getClass() != obj.getClass()) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return this.metadata == other.metadata && this.value.equals(other.value);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(this.metadata) + this.value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return this.value.replace('\n', ';');
+		}
+
+	}
+
+	/**
+	 * The generation of an archive, as seen by a request that has joined it.
+	 */
+	public final class Flight {
+
+		private final Key key;
+
+		private final CompletableFuture<byte[]> content;
+
+		private final boolean leader;
+
+		private Flight(Key key, CompletableFuture<byte[]> content, boolean leader) {
+			this.key = key;
+			this.content = content;
+			this.leader = leader;
+		}
+
+		/**
+		 * Return whether the request that joined this flight must generate the archive.
+		 * @return {@code true} if the archive should be generated by the caller
+		 */
+		public boolean isLeader() {
+			return this.leader;
+		}
+
+		/**
+		 * Return the content of the archive, available once the leader has generated
+		 * it. Completes exceptionally if the leader failed to generate the archive. The
+		 * content may be shared and must not be modified.
+		 * @return the content of the archive
+		 */
+		public CompletableFuture<byte[]> getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Complete this flight with the content of the generated archive.
+		 * @param content the content of the archive
+		 */
+		public void complete(byte[] content) {
+			Assert.state(this.leader, "Only the leader can complete a flight");
+			ProjectArchiveCoalescer.this.inFlight.remove(this.key, this.content);
+			if (this.content.complete(content)) {
+				ProjectArchiveCoalescer.this.generatedCount.increment();
+			}
+		}
+
+		/**
+		 * Fail this flight, and every request waiting for it, with the specified
+		 * exception. Has no effect if the flight has completed already.
+		 * @param ex the reason why the archive could not be generated
+		 */
+		public void fail(Throwable ex) {
+			Assert.state(this.leader, "Only the leader can fail a flight");
+			ProjectArchiveCoalescer.this.inFlight.remove(this.key, this.content);
+			this.content.completeExceptionally(ex);
+		}
+
+	}
+
+	/**
+	 * A generated archive.
+	 */
+	public static final class CoalescedArchive {
+
+		private final byte[] content;
+
+		private final boolean shared;
+
+		CoalescedArchive(byte[] content, boolean shared) {
+			this.content = content;
+			this.shared = shared;
+		}
+
+		/**
+		 * Return the content of the archive. The returned array may be shared and must
+		 * not be modified.
+		 * @return the content
+		 */
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Return whether the archive has been generated for another, identical, request.
+		 * @return {@code true} if the content is shared
+		 */
+		public boolean isShared() {
+			return this.shared;
+		}
+
+	}
+
+}
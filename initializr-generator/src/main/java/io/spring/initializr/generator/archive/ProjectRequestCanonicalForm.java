@@ -0,0 +1,70 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.util.List;
+import java.util.TreeSet;
+
+import io.spring.initializr.generator.ProjectRequest;
+
+/**
+ * Create the canonical form of a {@link ProjectRequest}: only the attributes that are
+ * relevant to the generation are taken into account and dependencies are sorted so that
+ * the order in which they have been requested does not matter.
+ *
+ * @author Julien Marchand
+ */
+final class ProjectRequestCanonicalForm {
+
+	private ProjectRequestCanonicalForm() {
+	}
+
+	/**
+	 * Return the canonical form of the specified {@link ProjectRequest}.
+	 * @param request the project request
+	 * @return a canonical representation of the request
+	 */
+	static String of(ProjectRequest request) {
+		List<String> dependencies = (!request.getStyle().isEmpty() ? request.getStyle()
+				: request.getDependencies());
+		StringBuilder sb = new StringBuilder(256);
+		append(sb, "type", request.getType());
+		append(sb, "language", request.getLanguage());
+		append(sb, "packaging", request.getPackaging());
+		append(sb, "javaVersion", request.getJavaVersion());
+		append(sb, "bootVersion", request.getBootVersion());
+		append(sb, "groupId", request.getGroupId());
+		append(sb, "artifactId", request.getArtifactId());
+		append(sb, "version", request.getVersion());
+		append(sb, "name", request.getName());
+		append(sb, "description", request.getDescription());
+		append(sb, "packageName", request.getPackageName());
+		append(sb, "applicationName", request.getApplicationName());
+		append(sb, "baseDir", request.getBaseDir());
+		append(sb, "dependencies", String.join(",", new TreeSet<>(dependencies)));
+		return sb.toString();
+	}
+
+	private static void append(StringBuilder sb, String name, String value) {
+		sb.append(name).append('=');
+		if (value != null) {
+			sb.append(value.length()).append(':').append(value);
+		}
+		sb.append('\n');
+	}
+
+}
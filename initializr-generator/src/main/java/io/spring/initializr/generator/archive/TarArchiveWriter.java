@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * An {@link ArchiveWriter} for the tar format, optionally compressed with gzip. Entries
+ * use the GNU tar header layout, with a {@code ././@LongLink} entry for paths that do not
+ * fit in the header.
+ *
+ * @author Julien Marchand
+ */
+class TarArchiveWriter implements ArchiveWriter {
+
+	private static final int BLOCK_SIZE = 512;
+
+	private static final int RECORD_SIZE = 20 * BLOCK_SIZE;
+
+	private static final int NAME_LENGTH = 100;
+
+	private static final byte[] GNU_MAGIC = "ustar  \0"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte[] LONG_LINK_NAME = "././@LongLink"
+			.getBytes(StandardCharsets.US_ASCII);
+
+	private static final byte REGULAR_FILE = '0';
+
+	private static final byte DIRECTORY = '5';
+
+	private static final byte GNU_LONG_NAME = 'L';
+
+	private final OutputStream target;
+
+	private final GzipOutputStream gzip;
+
+	private final OutputStream out;
+
+	private final long modificationTime;
+
+	private final byte[] header = new byte[BLOCK_SIZE];
+
+	private long offset;
+
+	TarArchiveWriter(OutputStream out, boolean compress) throws IOException {
+		this.target = out;
+		this.gzip = (compress ? new GzipOutputStream(out) : null);
+		this.out = new BufferedOutputStream(compress ? this.gzip : out, RECORD_SIZE);
+		this.modificationTime = System.currentTimeMillis() / 1000;
+	}
+
+	@Override
+	public void addEntry(ArchiveEntry entry) throws IOException {
+		String path = (entry.isDirectory() ? entry.getPath() + "/" : entry.getPath());
+		byte[] name = path.getBytes(StandardCharsets.UTF_8);
+		if (name.length > NAME_LENGTH) {
+			byte[] longName = Arrays.copyOf(name, name.length + 1);
+			writeHeader(LONG_LINK_NAME, 0644, longName.length, GNU_LONG_NAME);
+			writeContent(longName);
+		}
+		byte[] content = entry.getContent();
+		writeHeader(name, entry.getMode(), (content != null) ? content.length : 0,
+				entry.isDirectory() ? DIRECTORY : REGULAR_FILE);
+		if (content != null) {
+			writeContent(content);
+		}
+	}
+
+	@Override
+	public void finish() throws IOException {
+		Arrays.fill(this.header, (byte) 0);
+		write(this.header, this.header.length);
+		write(this.header, this.header.length);
+		while (this.offset % RECORD_SIZE != 0) {
+			write(this.header, this.header.length);
+		}
+		this.out.flush();
+		if (this.gzip != null) {
+			this.gzip.finish();
+		}
+		this.target.flush();
+	}
+
+	@Override
+	public void close() {
+		if (this.gzip != null) {
+			this.gzip.end();
+		}
+	}
+
+	private void writeHeader(byte[] name, int mode, long size, byte type)
+			throws IOException {
+		byte[] header = this.header;
+		Arrays.fill(header, (byte) 0);
+		System.arraycopy(name, 0, header, 0, Math.min(name.length, NAME_LENGTH));
+		writeOctal(header, 100, 8, mode & 07777);
+		writeOctal(header, 108, 8, 0); // uid
+		writeOctal(header, 116, 8, 0); // gid
+		writeOctal(header, 124, 12, size);
+		writeOctal(header, 136, 12, this.modificationTime);
+		header[156] = type;
+		System.arraycopy(GNU_MAGIC, 0, header, 257, GNU_MAGIC.length);
+		Arrays.fill(header, 148, 156, (byte) ' ');
+		long checksum = 0;
+		for (byte b : header) {
+			checksum += (b & 0xFF);
+		}
+		writeOctal(header, 148, 7, checksum);
+		header[155] = ' ';
+		write(header, header.length);
+	}
+
+	private void writeContent(byte[] content) throws IOException {
+		write(content, content.length);
+		int remainder = content.length % BLOCK_SIZE;
+		if (remainder != 0) {
+			Arrays.fill(this.header, (byte) 0);
+			write(this.header, BLOCK_SIZE - remainder);
+		}
+	}
+
+	private void write(byte[] bytes, int length) throws IOException {
+		this.out.write(bytes, 0, length);
+		this.offset += length;
+	}
+
+	// Zero-padded octal number followed by a NUL character
+	private static void writeOctal(byte[] header, int offset, int length, long value) {
+		String octal = Long.toOctalString(value);
+		int digits = length - 1;
+		if (octal.length() > digits) {
+			throw new IllegalStateException(
+					"Value " + value + " does not fit in a tar header");
+		}
+		int padding = digits - octal.length();
+		for (int i = 0; i < padding; i++) {
+			header[offset + i] = '0';
+		}
+		for (int i = 0; i < octal.length(); i++) {
+			header[offset + padding + i] = (byte) octal.charAt(i);
+		}
+		header[offset + digits] = 0;
+	}
+
+	/**
+	 * A {@link GZIPOutputStream} whose deflater can be released without closing the
+	 * underlying stream.
+	 */
+	private static class GzipOutputStream extends GZIPOutputStream {
+
+		GzipOutputStream(OutputStream out) throws IOException {
+			super(out, 8192);
+		}
+
+		void end() {
+			this.def.end();
+		}
+
+	}
+
+}
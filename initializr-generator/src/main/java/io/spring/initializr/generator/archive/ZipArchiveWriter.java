@@ -0,0 +1,202 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.zip.Deflater;
+
+/**
+ * An {@link ArchiveWriter} for the zip format. The POSIX mode of each entry is stored in
+ * the external attributes of the central directory, the same way the {@code zip} command
+ * line tool does.
+ *
+ * @author Julien Marchand
+ */
+class ZipArchiveWriter implements ArchiveWriter {
+
+	private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+
+	private static final int CENTRAL_DIRECTORY_SIGNATURE = 0x02014b50;
+
+	private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+	private static final int UTF8_FLAG = 1 << 11;
+
+	private static final int STORED = 0;
+
+	private static final int DEFLATED = 8;
+
+	private static final int VERSION_MADE_BY_UNIX = (3 << 8) | 20;
+
+	private static final int UNIX_DIRECTORY_FLAG = 040000;
+
+	private static final int UNIX_FILE_FLAG = 0100000;
+
+	private static final int MS_DOS_DIRECTORY_FLAG = 0x10;
+
+	private static final int MAX_ENTRIES = 0xFFFF;
+
+	private static final byte[] NO_CONTENT = new byte[0];
+
+	private final OutputStream out;
+
+	private final ByteArrayOutputStream centralDirectory = new ByteArrayOutputStream();
+
+	private final int dosTime;
+
+	private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+
+	private final byte[] buffer = new byte[8192];
+
+	private final ByteArrayOutputStream header = new ByteArrayOutputStream(128);
+
+	private long offset;
+
+	private int entries;
+
+	ZipArchiveWriter(OutputStream out) {
+		this.out = out;
+		this.dosTime = toDosTime(System.currentTimeMillis());
+	}
+
+	@Override
+	public void addEntry(ArchiveEntry entry) throws IOException {
+		if (this.entries == MAX_ENTRIES) {
+			throw new IllegalStateException(
+					"Zip archive cannot have more than " + MAX_ENTRIES + " entries");
+		}
+		String path = (entry.isDirectory() ? entry.getPath() + "/" : entry.getPath());
+		byte[] name = path.getBytes(StandardCharsets.UTF_8);
+		byte[] content = (entry.isDirectory() ? NO_CONTENT : entry.getContent());
+		DeflatedContent deflated = getDeflatedContent(entry, content);
+		int method = DEFLATED;
+		byte[] compressed = deflated.getCompressedContent();
+		if (compressed.length >= content.length) {
+			compressed = content;
+			method = STORED;
+		}
+		int versionNeeded = (method == DEFLATED) ? 20 : 10;
+		int unixMode = (entry.isDirectory() ? UNIX_DIRECTORY_FLAG : UNIX_FILE_FLAG)
+				| (entry.getMode() & 07777);
+		int externalAttributes = (unixMode << 16)
+				| (entry.isDirectory() ? MS_DOS_DIRECTORY_FLAG : 0);
+		writeInt(this.centralDirectory, CENTRAL_DIRECTORY_SIGNATURE);
+		writeShort(this.centralDirectory, VERSION_MADE_BY_UNIX);
+		writeEntryFields(this.centralDirectory, versionNeeded, method,
+				(int) deflated.getCrc(), compressed.length, content.length, name.length);
+		writeShort(this.centralDirectory, 0); // comment length
+		writeShort(this.centralDirectory, 0); // disk number start
+		writeShort(this.centralDirectory, 0); // internal attributes
+		writeInt(this.centralDirectory, externalAttributes);
+		writeInt(this.centralDirectory, toUnsignedInt(this.offset));
+		this.centralDirectory.write(name);
+
+		this.header.reset();
+		writeInt(this.header, LOCAL_FILE_HEADER_SIGNATURE);
+		writeEntryFields(this.header, versionNeeded, method, (int) deflated.getCrc(),
+				compressed.length, content.length, name.length);
+		this.header.write(name);
+		write(this.header.toByteArray());
+		write(compressed);
+		this.entries++;
+	}
+
+	@Override
+	public void finish() throws IOException {
+		long centralDirectoryOffset = this.offset;
+		byte[] directory = this.centralDirectory.toByteArray();
+		write(directory);
+		this.header.reset();
+		writeInt(this.header, END_OF_CENTRAL_DIRECTORY_SIGNATURE);
+		writeShort(this.header, 0); // number of this disk
+		writeShort(this.header, 0); // disk with the central directory
+		writeShort(this.header, this.entries);
+		writeShort(this.header, this.entries);
+		writeInt(this.header, directory.length);
+		writeInt(this.header, toUnsignedInt(centralDirectoryOffset));
+		writeShort(this.header, 0); // comment length
+		write(this.header.toByteArray());
+		this.out.flush();
+	}
+
+	@Override
+	public void close() {
+		this.deflater.end();
+	}
+
+	private void writeEntryFields(ByteArrayOutputStream target, int versionNeeded,
+			int method, int crc, int compressedSize, int size, int nameLength) {
+		writeShort(target, versionNeeded);
+		writeShort(target, UTF8_FLAG);
+		writeShort(target, method);
+		writeInt(target, this.dosTime);
+		writeInt(target, crc);
+		writeInt(target, compressedSize);
+		writeInt(target, size);
+		writeShort(target, nameLength);
+		writeShort(target, 0); // extra field length
+	}
+
+	private DeflatedContent getDeflatedContent(ArchiveEntry entry, byte[] content) {
+		DeflatedContent deflated = entry.getDeflatedContent();
+		if (deflated != null && deflated.getContent() == content) {
+			return deflated;
+		}
+		return DeflatedContent.of(content, this.deflater, this.buffer);
+	}
+
+	private void write(byte[] bytes) throws IOException {
+		this.out.write(bytes);
+		this.offset += bytes.length;
+	}
+
+	private static int toUnsignedInt(long value) {
+		if (value > 0xFFFFFFFFL) {
+			throw new IllegalStateException("Zip archive cannot exceed 4GB");
+		}
+		return (int) value;
+	}
+
+	private static void writeShort(ByteArrayOutputStream target, int value) {
+		target.write(value & 0xFF);
+		target.write((value >>> 8) & 0xFF);
+	}
+
+	private static void writeInt(ByteArrayOutputStream target, int value) {
+		writeShort(target, value & 0xFFFF);
+		writeShort(target, (value >>> 16) & 0xFFFF);
+	}
+
+	private static int toDosTime(long time) {
+		LocalDateTime dateTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(time),
+				ZoneId.systemDefault());
+		int year = dateTime.getYear();
+		if (year < 1980) {
+			return (1 << 21) | (1 << 16);
+		}
+		return ((year - 1980) << 25) | (dateTime.getMonthValue() << 21)
+				| (dateTime.getDayOfMonth() << 16) | (dateTime.getHour() << 11)
+				| (dateTime.getMinute() << 5) | (dateTime.getSecond() >> 1);
+	}
+
+}
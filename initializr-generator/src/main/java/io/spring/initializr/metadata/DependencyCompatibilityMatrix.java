@@ -0,0 +1,220 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.metadata;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.spring.initializr.util.Version;
+
+/**
+ * The compatibility of the dependencies of an {@link InitializrMetadata} with Spring Boot
+ * versions. For each Spring Boot version, the compatible dependencies are tracked in a
+ * {@link BitSet}, alongside the dependencies resolved against that version. Known
+ * versions are computed upfront, other versions are computed on demand and a limited
+ * number of them are kept.
+ * <p>
+ * A matrix is only valid for the state of the metadata it was created from and should be
+ * obtained using {@link InitializrMetadata#getDependencyCompatibilityMatrix()}.
+ *
+ * @author Julien Marchand
+ */
+public final class DependencyCompatibilityMatrix {
+
+	private static final int MAX_ADDITIONAL_VERSIONS = 64;
+
+	private final InitializrMetadata metadata;
+
+	private final Dependency[] dependencies;
+
+	private final Map<String, Integer> indexes;
+
+	private final Map<Version, Entry> entries;
+
+	private final Map<Version, Entry> additionalEntries = new ConcurrentHashMap<>();
+
+	DependencyCompatibilityMatrix(InitializrMetadata metadata) {
+		this.metadata = metadata;
+		this.dependencies = metadata.getDependencies().getAll()
+				.toArray(new Dependency[0]);
+		Map<String, Integer> indexes = new HashMap<>();
+		for (int i = 0; i < this.dependencies.length; i++) {
+			indexes.put(this.dependencies[i].getId(), i);
+			for (String alias : this.dependencies[i].getAliases()) {
+				indexes.put(alias, i);
+			}
+		}
+		this.indexes = indexes;
+		Map<Version, Entry> entries = new HashMap<>();
+		for (DefaultMetadataElement bootVersion : metadata.getBootVersions()
+				.getContent()) {
+			Version version = Version.safeParse(bootVersion.getId());
+			if (version != null) {
+				entries.put(version, new Entry(version));
+			}
+		}
+		this.entries = entries;
+	}
+
+	/**
+	 * Return the dependencies of the metadata, in the order of the bits of
+	 * {@link #getCompatibleDependencies(Version)}.
+	 * @return the dependencies
+	 */
+	public List<Dependency> getDependencies() {
+		return Collections.unmodifiableList(Arrays.asList(this.dependencies));
+	}
+
+	/**
+	 * Return the dependencies that are compatible with the specified Spring Boot version.
+	 * The bit at a given index is set if the dependency at that index in
+	 * {@link #getDependencies()} is compatible.
+	 * @param bootVersion the Spring Boot version
+	 * @return a copy of the compatible dependencies
+	 */
+	public BitSet getCompatibleDependencies(Version bootVersion) {
+		return (BitSet) getEntry(bootVersion).compatible.clone();
+	}
+
+	/**
+	 * Specify if the dependency with the specified id or alias is compatible with the
+	 * specified Spring Boot version.
+	 * @param dependencyId the id or alias of a dependency
+	 * @param bootVersion the Spring Boot version
+	 * @return {@code true} if the dependency exists and is compatible with that version
+	 */
+	public boolean isCompatible(String dependencyId, Version bootVersion) {
+		Integer index = this.indexes.get(dependencyId);
+		return (index != null) && getEntry(bootVersion).compatible.get(index);
+	}
+
+	/**
+	 * Return the dependency with the specified id or alias, resolved against the
+	 * specified Spring Boot version, or {@code null} if no such dependency exists or if
+	 * it isn't compatible with that version.
+	 * @param dependencyId the id or alias of a dependency
+	 * @param bootVersion the Spring Boot version
+	 * @return the resolved dependency or {@code null}
+	 * @see Dependency#resolve(Version)
+	 */
+	public Dependency getResolvedDependency(String dependencyId, Version bootVersion) {
+		Integer index = this.indexes.get(dependencyId);
+		return (index != null) ? getEntry(bootVersion).resolved[index] : null;
+	}
+
+	/**
+	 * Return the {@link DependencyMetadata} of the specified Spring Boot version. The
+	 * returned instance is shared and must not be modified.
+	 * @param bootVersion the Spring Boot version
+	 * @return the dependency metadata for that version
+	 */
+	public DependencyMetadata getDependencyMetadata(Version bootVersion) {
+		return getEntry(bootVersion).getDependencyMetadata();
+	}
+
+	private Entry getEntry(Version bootVersion) {
+		Entry entry = this.entries.get(bootVersion);
+		if (entry != null) {
+			return entry;
+		}
+		entry = this.additionalEntries.get(bootVersion);
+		if (entry == null) {
+			entry = new Entry(bootVersion);
+			if (this.additionalEntries.size() < MAX_ADDITIONAL_VERSIONS) {
+				Entry existing = this.additionalEntries.putIfAbsent(bootVersion, entry);
+				return (existing != null) ? existing : entry;
+			}
+		}
+		return entry;
+	}
+
+	private final class Entry {
+
+		private final Version bootVersion;
+
+		private final BitSet compatible;
+
+		private final Dependency[] resolved;
+
+		private volatile DependencyMetadata dependencyMetadata;
+
+		private Entry(Version bootVersion) {
+			this.bootVersion = bootVersion;
+			Dependency[] dependencies = DependencyCompatibilityMatrix.this.dependencies;
+			this.compatible = new BitSet(dependencies.length);
+			this.resolved = new Dependency[dependencies.length];
+			for (int i = 0; i < dependencies.length; i++) {
+				if (dependencies[i].match(bootVersion)) {
+					this.compatible.set(i);
+					this.resolved[i] = dependencies[i].resolve(bootVersion);
+				}
+			}
+		}
+
+		DependencyMetadata getDependencyMetadata() {
+			// Resolving boms may fail for some versions so this is only done on demand
+			DependencyMetadata result = this.dependencyMetadata;
+			if (result == null) {
+				result = createDependencyMetadata();
+				this.dependencyMetadata = result;
+			}
+			return result;
+		}
+
+		private DependencyMetadata createDependencyMetadata() {
+			InitializrConfiguration.Env env = DependencyCompatibilityMatrix.this.metadata
+					.getConfiguration().getEnv();
+			Map<String, Dependency> dependencies = new LinkedHashMap<>();
+			for (int i = this.compatible.nextSetBit(0); i >= 0; i = this.compatible
+					.nextSetBit(i + 1)) {
+				dependencies.put(this.resolved[i].getId(), this.resolved[i]);
+			}
+			Map<String, Repository> repositories = new LinkedHashMap<>();
+			for (Dependency dependency : dependencies.values()) {
+				if (dependency.getRepository() != null) {
+					repositories.put(dependency.getRepository(),
+							env.getRepositories().get(dependency.getRepository()));
+				}
+			}
+			Map<String, BillOfMaterials> boms = new LinkedHashMap<>();
+			for (Dependency dependency : dependencies.values()) {
+				if (dependency.getBom() != null) {
+					boms.put(dependency.getBom(), env.getBoms().get(dependency.getBom())
+							.resolve(this.bootVersion));
+				}
+			}
+			// Each resolved bom may require additional repositories
+			for (BillOfMaterials bom : boms.values()) {
+				for (String id : bom.getRepositories()) {
+					repositories.put(id, env.getRepositories().get(id));
+				}
+			}
+			return new DependencyMetadata(this.bootVersion,
+					Collections.unmodifiableMap(dependencies),
+					Collections.unmodifiableMap(repositories),
+					Collections.unmodifiableMap(boms));
+		}
+
+	}
+
+}
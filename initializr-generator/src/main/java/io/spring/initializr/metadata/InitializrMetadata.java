@@ -19,8 +19,11 @@ package io.spring.initializr.metadata;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.spring.initializr.util.InvalidVersionException;
 import io.spring.initializr.util.Version;
 import io.spring.initializr.util.VersionParser;
 import io.spring.initializr.util.VersionProperty;
@@ -33,6 +36,10 @@ import io.spring.initializr.util.VersionProperty;
  */
 public class InitializrMetadata {
 
+	private static final AtomicLong instanceCounter = new AtomicLong();
+
+	private final long instanceSequence = instanceCounter.incrementAndGet();
+
 	private final InitializrConfiguration configuration;
 
 	private final DependenciesCapability dependencies = new DependenciesCapability();
@@ -68,6 +75,8 @@ public class InitializrMetadata {
 	private final TextCapability packageName = new PackageCapability(this.groupId,
 			this.artifactId);
 
+	private volatile DependencyCompatibilityMatrix dependencyCompatibilityMatrix;
+
 	public InitializrMetadata() {
 		this(new InitializrConfiguration());
 	}
@@ -76,6 +85,17 @@ public class InitializrMetadata {
 		this.configuration = configuration;
 	}
 
+	/**
+	 * Specify if this instance has been created after the specified metadata. As a
+	 * refresh publishes a new instance, this determines which of two snapshots of the
+	 * metadata is the most recent.
+	 * @param other the other metadata instance
+	 * @return {@code true} if this instance is more recent than {@code other}
+	 */
+	public boolean isNewerThan(InitializrMetadata other) {
+		return this.instanceSequence > other.instanceSequence;
+	}
+
 	public InitializrConfiguration getConfiguration() {
 		return this.configuration;
 	}
@@ -128,11 +148,29 @@ public class InitializrMetadata {
 		return this.packageName;
 	}
 
+	/**
+	 * Return the {@link DependencyCompatibilityMatrix} of this instance. The matrix is
+	 * created on first access and reused as long as this instance is not updated using
+	 * {@link #merge(InitializrMetadata)}, {@link #validate()} or
+	 * {@link #updateSpringBootVersions(List)}.
+	 * @return the dependency compatibility matrix
+	 */
+	@JsonIgnore
+	public DependencyCompatibilityMatrix getDependencyCompatibilityMatrix() {
+		DependencyCompatibilityMatrix matrix = this.dependencyCompatibilityMatrix;
+		if (matrix == null) {
+			matrix = new DependencyCompatibilityMatrix(this);
+			this.dependencyCompatibilityMatrix = matrix;
+		}
+		return matrix;
+	}
+
 	/**
 	 * Merge this instance with the specified argument.
 	 * @param other the other instance
 	 */
 	public void merge(InitializrMetadata other) {
+		this.dependencyCompatibilityMatrix = null;
 		this.configuration.merge(other.configuration);
 		this.dependencies.merge(other.dependencies);
 		this.types.merge(other.types);
@@ -152,6 +190,7 @@ public class InitializrMetadata {
 	 * Validate the metadata.
 	 */
 	public void validate() {
+		this.dependencyCompatibilityMatrix = null;
 		this.configuration.validate();
 		this.dependencies.validate();
 
@@ -205,6 +244,14 @@ public class InitializrMetadata {
 				}
 			}
 		}
+		for (DefaultMetadataElement bootVersion : this.bootVersions.getContent()) {
+			try {
+				Version.register(bootVersion.getId());
+			}
+			catch (InvalidVersionException ex) {
+				// Reported when the version is requested
+			}
+		}
 	}
 
 	/**
@@ -215,12 +262,13 @@ public class InitializrMetadata {
 		this.bootVersions.getContent().clear();
 		this.bootVersions.getContent().addAll(versionsMetadata);
 		List<Version> bootVersions = this.bootVersions.getContent().stream()
-				.map((it) -> Version.parse(it.getId())).collect(Collectors.toList());
+				.map((it) -> Version.register(it.getId())).collect(Collectors.toList());
 		VersionParser parser = new VersionParser(bootVersions);
 		this.dependencies.updateVersionRange(parser);
 		this.configuration.getEnv().getBoms().values()
 				.forEach((it) -> it.updateVersionRange(parser));
 		this.configuration.getEnv().getKotlin().updateVersionRange(parser);
+		this.dependencyCompatibilityMatrix = null;
 	}
 
 	/**
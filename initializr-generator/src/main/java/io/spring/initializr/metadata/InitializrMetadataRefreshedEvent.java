@@ -0,0 +1,41 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.metadata;
+
+/**
+ * Event published when an {@link InitializrMetadataProvider} starts serving a new
+ * {@link InitializrMetadata} instance.
+ *
+ * @author Julien Marchand
+ */
+public class InitializrMetadataRefreshedEvent {
+
+	private final InitializrMetadata metadata;
+
+	public InitializrMetadataRefreshedEvent(InitializrMetadata metadata) {
+		this.metadata = metadata;
+	}
+
+	/**
+	 * Return the metadata that is now served.
+	 * @return the refreshed metadata
+	 */
+	public InitializrMetadata getMetadata() {
+		return this.metadata;
+	}
+
+}
@@ -16,8 +16,10 @@
 
 package io.spring.initializr.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Defines the agent that submitted a request.
@@ -50,12 +52,14 @@ public class Agent {
 	}
 
 	/**
-	 * Create an {@link Agent} based on the specified {@code User-Agent} header.
+	 * Create an {@link Agent} based on the specified {@code User-Agent} header. Tools
+	 * such as IDEs and command line clients send a small set of distinct headers so
+	 * their agents are cached and the returned instance may be shared.
 	 * @param userAgent the user agent
 	 * @return an {@link Agent} instance or {@code null}
 	 */
 	public static Agent fromUserAgent(String userAgent) {
-		return UserAgentHandler.parse(userAgent);
+		return UserAgentHandler.resolve(userAgent);
 	}
 
 	/**
@@ -134,34 +138,56 @@ public class Agent {
 
 	private static class UserAgentHandler {
 
-		private static final Pattern TOOL_REGEX = Pattern
-				.compile("([^\\/]*)\\/([^ ]*).*");
+		private static final int MAX_CACHED_USER_AGENTS = 256;
 
-		private static final Pattern STS_REGEX = Pattern.compile("STS (.*)");
+		// Cleared once full, browser and unknown headers are not cached
+		private static final ConcurrentMap<String, Agent> cache = new ConcurrentHashMap<>();
 
-		private static final Pattern NETBEANS_REGEX = Pattern
-				.compile("nb-springboot-plugin\\/(.*)");
+		private static final Map<String, AgentId> AGENTS_BY_NAME = new HashMap<>();
 
-		public static Agent parse(String userAgent) {
-			Matcher matcher = TOOL_REGEX.matcher(userAgent);
-			if (matcher.matches()) {
-				String name = matcher.group(1);
-				for (AgentId id : AgentId.values()) {
-					if (name.equals(id.name)) {
-						String version = matcher.group(2);
-						return new Agent(id, version);
+		private static final String STS_PREFIX = AgentId.STS.name + " ";
+
+		private static final String NETBEANS_PREFIX = "nb-springboot-plugin/";
+
+		static {
+			for (AgentId id : AgentId.values()) {
+				AGENTS_BY_NAME.put(id.name, id);
+			}
+		}
+
+		static Agent resolve(String userAgent) {
+			Agent agent = cache.get(userAgent);
+			if (agent == null) {
+				agent = parse(userAgent);
+				// Browser and unknown headers are virtually unique, don't let them
+				// evict the agents of the tools
+				if (agent != null && agent.getId() != AgentId.BROWSER) {
+					if (cache.size() >= MAX_CACHED_USER_AGENTS) {
+						cache.clear();
 					}
+					cache.putIfAbsent(userAgent, agent);
 				}
 			}
-			matcher = STS_REGEX.matcher(userAgent);
-			if (matcher.matches()) {
-				return new Agent(AgentId.STS, matcher.group(1));
+			return agent;
+		}
+
+		static Agent parse(String userAgent) {
+			int separator = userAgent.indexOf('/');
+			if (separator != -1) {
+				AgentId id = AGENTS_BY_NAME.get(userAgent.substring(0, separator));
+				if (id != null) {
+					int end = userAgent.indexOf(' ', separator + 1);
+					return new Agent(id, userAgent.substring(separator + 1,
+							(end != -1) ? end : userAgent.length()));
+				}
 			}
-			matcher = NETBEANS_REGEX.matcher(userAgent);
-			if (matcher.matches()) {
-				return new Agent(AgentId.NETBEANS, matcher.group(1));
+			if (userAgent.startsWith(STS_PREFIX)) {
+				return new Agent(AgentId.STS, userAgent.substring(STS_PREFIX.length()));
+			}
+			if (userAgent.startsWith(NETBEANS_PREFIX)) {
+				return new Agent(AgentId.NETBEANS,
+						userAgent.substring(NETBEANS_PREFIX.length()));
 			}
-
 			if (userAgent.equals(AgentId.INTELLIJ_IDEA.name)) {
 				return new Agent(AgentId.INTELLIJ_IDEA, null);
 			}
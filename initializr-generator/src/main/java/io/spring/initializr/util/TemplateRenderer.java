@@ -16,11 +16,24 @@
 
 package io.spring.initializr.util;
 
+import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Mustache.Compiler;
@@ -30,11 +43,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.util.ConcurrentReferenceHashMap;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 /**
  * A template renderer backed by Mustache.
+ * <p>
+ * Compiled templates are cached and are never evicted. Use {@link #precompile()} to
+ * compile all the templates available in {@code classpath:/templates/} upfront.
  *
  * @author Dave Syer
  */
@@ -42,11 +59,17 @@ public class TemplateRenderer {
 
 	private static final Logger log = LoggerFactory.getLogger(TemplateRenderer.class);
 
+	private static final String TEMPLATES_LOCATION = "classpath:/templates/";
+
 	private boolean cache = true;
 
 	private final Compiler mustache;
 
-	private final ConcurrentMap<String, Template> templateCaches = new ConcurrentReferenceHashMap<>();
+	private final ConcurrentMap<String, Template> templateCaches = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, TemplateStatistics> statistics = new ConcurrentHashMap<>();
+
+	private volatile boolean precompiled;
 
 	public TemplateRenderer() {
 		this(mustacheCompiler());
@@ -64,10 +87,33 @@ public class TemplateRenderer {
 		this.cache = cache;
 	}
 
+	/**
+	 * Specify if all available templates have been compiled.
+	 * @return {@code true} if {@link #precompile()} has completed
+	 */
+	public boolean isPrecompiled() {
+		return this.precompiled;
+	}
+
 	public String process(String name, Map<String, ?> model) {
+		StringWriter writer = new StringWriter();
+		process(name, model, writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Render the template with the specified name to the specified {@link Writer}. The
+	 * writer is not closed.
+	 * @param name the name of the template
+	 * @param model the model to use
+	 * @param writer the writer to render the template to
+	 */
+	public void process(String name, Map<String, ?> model, Writer writer) {
 		try {
 			Template template = getTemplate(name);
-			return template.execute(model);
+			long start = System.nanoTime();
+			template.execute(model, writer);
+			getStatistics(name).recordRender(System.nanoTime() - start);
 		}
 		catch (Exception ex) {
 			log.error("Cannot render: " + name, ex);
@@ -75,6 +121,24 @@ public class TemplateRenderer {
 		}
 	}
 
+	/**
+	 * Render the template with the specified name to the specified {@link OutputStream},
+	 * using UTF-8. The stream is flushed but not closed.
+	 * @param name the name of the template
+	 * @param model the model to use
+	 * @param out the stream to render the template to
+	 */
+	public void process(String name, Map<String, ?> model, OutputStream out) {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		process(name, model, writer);
+		try {
+			writer.flush();
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot render template", ex);
+		}
+	}
+
 	public Template getTemplate(String name) {
 		if (this.cache) {
 			return this.templateCaches.computeIfAbsent(name, this::loadTemplate);
@@ -82,11 +146,87 @@ public class TemplateRenderer {
 		return loadTemplate(name);
 	}
 
+	/**
+	 * Compile and cache all the templates available in {@code classpath:/templates/}.
+	 * Templates that cannot be compiled are ignored. Does nothing if the cache is
+	 * disabled. Templates are considered precompiled once this method returns, even if
+	 * the available templates could not be listed, as templates that are not compiled
+	 * yet are compiled on demand.
+	 * @return the time it took to compile the templates
+	 */
+	public Duration precompile() {
+		long start = System.nanoTime();
+		try {
+			if (this.cache) {
+				for (String name : getTemplateNames()) {
+					try {
+						getTemplate(name);
+					}
+					catch (Exception ex) {
+						log.warn("Failed to precompile template " + name, ex);
+					}
+				}
+			}
+		}
+		finally {
+			this.precompiled = true;
+		}
+		Duration duration = Duration.ofNanos(System.nanoTime() - start);
+		log.info("Precompiled " + this.templateCaches.size() + " templates in "
+				+ duration.toMillis() + "ms");
+		return duration;
+	}
+
+	/**
+	 * Return the names of the templates available in {@code classpath:/templates/}.
+	 * @return the template names
+	 */
+	public Set<String> getTemplateNames() {
+		Set<String> names = new TreeSet<>();
+		PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+		try {
+			for (Resource root : resolver.getResources("classpath*:/templates/")) {
+				String rootUrl = root.getURL().toExternalForm();
+				for (Resource resource : resolver.getResources(rootUrl + "**")) {
+					String url = resource.getURL().toExternalForm();
+					if (resource.isReadable() && !url.endsWith("/")) {
+						names.add(url.substring(rootUrl.length()));
+					}
+				}
+			}
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot list templates", ex);
+		}
+		return names;
+	}
+
+	/**
+	 * Return the {@link TemplateStatistics} of the template with the specified name.
+	 * @param name the name of the template
+	 * @return the statistics of the template
+	 */
+	public TemplateStatistics getStatistics(String name) {
+		return this.statistics.computeIfAbsent(name, (key) -> new TemplateStatistics());
+	}
+
+	/**
+	 * Return the {@link TemplateStatistics} of the templates that have been compiled or
+	 * rendered so far, by name.
+	 * @return the statistics of the templates
+	 */
+	public Map<String, TemplateStatistics> getStatistics() {
+		return Collections.unmodifiableMap(this.statistics);
+	}
+
 	protected Template loadTemplate(String name) {
 		try {
+			long start = System.nanoTime();
 			Reader template;
 			template = this.mustache.loader.getTemplate(name);
-			return this.mustache.compile(template);
+			Template compiled = this.mustache.compile(template);
+			getStatistics(name).recordCompilation(System.nanoTime() - start);
+			return compiled;
 		}
 		catch (Exception ex) {
 			throw new IllegalStateException("Cannot load template " + name, ex);
@@ -99,10 +239,61 @@ public class TemplateRenderer {
 
 	private static TemplateLoader mustacheTemplateLoader() {
 		ResourceLoader resourceLoader = new DefaultResourceLoader();
-		String prefix = "classpath:/templates/";
-		Charset charset = Charset.forName("UTF-8");
+		String prefix = TEMPLATES_LOCATION;
+		Charset charset = StandardCharsets.UTF_8;
 		return (name) -> new InputStreamReader(
 				resourceLoader.getResource(prefix + name).getInputStream(), charset);
 	}
 
+	/**
+	 * Compilation and rendering statistics of a template.
+	 */
+	public static final class TemplateStatistics {
+
+		private volatile long compilationTime;
+
+		private final LongAdder renderCount = new LongAdder();
+
+		private final LongAdder renderTime = new LongAdder();
+
+		TemplateStatistics() {
+		}
+
+		void recordCompilation(long nanos) {
+			this.compilationTime = nanos;
+		}
+
+		void recordRender(long nanos) {
+			this.renderCount.increment();
+			this.renderTime.add(nanos);
+		}
+
+		/**
+		 * Return the time it took to compile the template the last time it was compiled.
+		 * @param unit the time unit to use
+		 * @return the compilation time
+		 */
+		public double getCompilationTime(TimeUnit unit) {
+			return (double) this.compilationTime / unit.toNanos(1);
+		}
+
+		/**
+		 * Return the number of times the template has been rendered.
+		 * @return the render count
+		 */
+		public long getRenderCount() {
+			return this.renderCount.sum();
+		}
+
+		/**
+		 * Return the total time spent rendering the template.
+		 * @param unit the time unit to use
+		 * @return the total render time
+		 */
+		public double getTotalRenderTime(TimeUnit unit) {
+			return (double) this.renderTime.sum() / unit.toNanos(1);
+		}
+
+	}
+
 }
@@ -21,7 +21,10 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
 /**
@@ -33,7 +36,8 @@ import org.springframework.util.StringUtils;
  * qualifier indicates a final release (a.k.a. GA)
  * <p>
  * The main purpose of parsing a version is to compare it with another version, see
- * {@link Comparable}.
+ * {@link Comparable}. Versions made of known qualifiers and reasonably small numbers are
+ * compared using a single {@code long} that encodes all their components.
  *
  * @author Stephane Nicoll
  */
@@ -45,6 +49,16 @@ public final class Version implements Serializable, Comparable<Version> {
 	private static final VersionParser parser = new VersionParser(
 			Collections.emptyList());
 
+	private static final int MAX_CACHED_VERSIONS = 512;
+
+	// Versions that are known to be parsed repeatedly, never evicted
+	private static final ConcurrentMap<String, Version> registeredVersions = new ConcurrentHashMap<>();
+
+	// Versions parsed from arbitrary input, cleared once full
+	private static final ConcurrentMap<String, Version> parsedVersions = new ConcurrentHashMap<>();
+
+	private static final long NO_SORT_KEY = -1;
+
 	private final Integer major;
 
 	private final Integer minor;
@@ -53,6 +67,8 @@ public final class Version implements Serializable, Comparable<Version> {
 
 	private final Qualifier qualifier;
 
+	private transient volatile long sortKey;
+
 	// For Jackson
 	@SuppressWarnings("unused")
 	private Version() {
@@ -85,13 +101,42 @@ public final class Version implements Serializable, Comparable<Version> {
 	/**
 	 * Parse the string representation of a {@link Version}. Throws an
 	 * {@link InvalidVersionException} if the version could not be parsed.
+	 * <p>
+	 * Parsed versions are cached so the returned instance may be shared.
 	 * @param text the version text
 	 * @return a Version instance for the specified version text
 	 * @throws InvalidVersionException if the version text could not be parsed
 	 * @see VersionParser
+	 * @see #register(String)
 	 */
 	public static Version parse(String text) {
-		return parser.parse(text);
+		Assert.notNull(text, "Text must not be null");
+		Version version = registeredVersions.get(text);
+		if (version != null) {
+			return version;
+		}
+		version = parsedVersions.get(text);
+		if (version == null) {
+			version = parser.parse(text);
+			if (parsedVersions.size() >= MAX_CACHED_VERSIONS) {
+				parsedVersions.clear();
+			}
+			parsedVersions.putIfAbsent(text, version);
+		}
+		return version;
+	}
+
+	/**
+	 * Parse the string representation of a {@link Version} that is known to be parsed
+	 * repeatedly, such as a Spring Boot version of the metadata. Contrary to versions
+	 * that are parsed from arbitrary input, the returned instance remains cached.
+	 * @param text the version text
+	 * @return a Version instance for the specified version text
+	 * @throws InvalidVersionException if the version text could not be parsed
+	 */
+	public static Version register(String text) {
+		Assert.notNull(text, "Text must not be null");
+		return registeredVersions.computeIfAbsent(text, Version::parse);
 	}
 
 	/**
@@ -116,6 +161,11 @@ public final class Version implements Serializable, Comparable<Version> {
 		if (other == null) {
 			return 1;
 		}
+		long sortKey = getSortKey();
+		long otherSortKey = other.getSortKey();
+		if (sortKey != NO_SORT_KEY && otherSortKey != NO_SORT_KEY) {
+			return Long.compare(sortKey, otherSortKey);
+		}
 		int majorDiff = safeCompare(this.major, other.major);
 		if (majorDiff != 0) {
 			return majorDiff;
@@ -131,6 +181,33 @@ public final class Version implements Serializable, Comparable<Version> {
 		return qualifierComparator.compare(this.qualifier, other.qualifier);
 	}
 
+	private long getSortKey() {
+		long sortKey = this.sortKey;
+		if (sortKey == 0) {
+			sortKey = computeSortKey();
+			this.sortKey = sortKey;
+		}
+		return sortKey;
+	}
+
+	// Encode major (15 bits), minor (16 bits), patch (16 bits), qualifier rank (4 bits)
+	// and qualifier version (12 bits) in that order so that keys sort as versions do
+	private long computeSortKey() {
+		int major = (this.major != null) ? this.major : 0;
+		int minor = (this.minor != null) ? this.minor : 0;
+		int patch = (this.patch != null) ? this.patch : 0;
+		int rank = VersionQualifierComparator.getQualifierRank(this.qualifier);
+		int qualifierVersion = (this.qualifier != null && this.qualifier.version != null)
+				? this.qualifier.version : 0;
+		if (major < 0 || major > 0x7FFF || minor < 0 || minor > 0xFFFF || patch < 0
+				|| patch > 0xFFFF || rank < 0 || qualifierVersion < 0
+				|| qualifierVersion > 0xFFF) {
+			return NO_SORT_KEY;
+		}
+		return ((long) major << 48) | ((long) minor << 32) | ((long) patch << 16)
+				| ((long) rank << 12) | qualifierVersion;
+	}
+
 	private static int safeCompare(Integer first, Integer second) {
 		Integer firstIndex = (first != null) ? first : 0;
 		Integer secondIndex = (second != null) ? second : 0;
@@ -205,34 +282,32 @@ public final class Version implements Serializable, Comparable<Version> {
 	}
 
 	/**
-	 * A version qualifier.
+	 * A version qualifier. Qualifiers are immutable so that parsed versions can be
+	 * shared.
 	 */
-	public static class Qualifier implements Serializable {
+	public static final class Qualifier implements Serializable {
+
+		private final String qualifier;
+
+		private final Integer version;
 
 		public Qualifier(String qualifier) {
-			this.qualifier = qualifier;
+			this(qualifier, null);
 		}
 
-		private String qualifier;
-
-		private Integer version;
+		public Qualifier(String qualifier, Integer version) {
+			this.qualifier = qualifier;
+			this.version = version;
+		}
 
 		public String getQualifier() {
 			return this.qualifier;
 		}
 
-		public void setQualifier(String qualifier) {
-			this.qualifier = qualifier;
-		}
-
 		public Integer getVersion() {
 			return this.version;
 		}
 
-		public void setVersion(Integer version) {
-			this.version = version;
-		}
-
 		@Override
 		public boolean equals(Object obj) {
 			if (this == obj) {
@@ -329,6 +404,19 @@ public final class Version implements Serializable, Comparable<Version> {
 					: 0);
 		}
 
+		/**
+		 * Return the rank of the specified qualifier, consistent with the ordering of
+		 * this comparator, or {@code -1} if it is not a known qualifier. The rank is
+		 * never zero.
+		 * @param qualifier the qualifier or {@code null}
+		 * @return the rank of the qualifier
+		 */
+		static int getQualifierRank(Qualifier qualifier) {
+			int index = getQualifierIndex(
+					(qualifier != null) ? qualifier.qualifier : RELEASE);
+			return (index != -1) ? index + 1 : -1;
+		}
+
 	}
 
 }
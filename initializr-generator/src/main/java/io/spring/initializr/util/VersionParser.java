@@ -82,11 +82,9 @@ public class VersionParser {
 		Qualifier qualifier = null;
 		String qualifierId = matcher.group(4);
 		if (StringUtils.hasText(qualifierId)) {
-			qualifier = new Version.Qualifier(qualifierId);
 			String o = matcher.group(5);
-			if (o != null) {
-				qualifier.setVersion(Integer.valueOf(o));
-			}
+			qualifier = new Version.Qualifier(qualifierId,
+					(o != null) ? Integer.valueOf(o) : null);
 		}
 		if ("x".equals(minor) || "x".equals(patch)) {
 			Integer minorInt = ("x".equals(minor) ? null : Integer.parseInt(minor));
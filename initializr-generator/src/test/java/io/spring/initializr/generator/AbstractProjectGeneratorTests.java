@@ -130,7 +130,8 @@ public abstract class AbstractProjectGeneratorTests {
 
 		@Override
 		public boolean matches(ProjectGeneratedEvent event) {
-			return this.request.equals(event.getProjectRequest());
+			return this.request.equals(event.getProjectRequest())
+					&& event.getDuration() != null;
 		}
 
 	}
@@ -150,7 +151,7 @@ public abstract class AbstractProjectGeneratorTests {
 		@Override
 		public boolean matches(ProjectFailedEvent event) {
 			return this.request.equals(event.getProjectRequest())
-					&& this.cause.equals(event.getCause());
+					&& this.cause.equals(event.getCause()) && event.getDuration() != null;
 		}
 
 	}
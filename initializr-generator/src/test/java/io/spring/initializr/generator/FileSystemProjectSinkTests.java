@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link FileSystemProjectSink}.
+ *
+ * @author Julien Marchand
+ */
+public class FileSystemProjectSinkTests {
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void fileIsWrittenInRootDirectory() throws IOException {
+		File root = this.temporaryFolder.newFolder("project");
+		new FileSystemProjectSink(root).addFile("foo/test.txt", new byte[] { 1 },
+				ProjectSink.EXECUTABLE_FILE_MODE);
+		File file = new File(root, "foo/test.txt");
+		assertThat(file).hasBinaryContent(new byte[] { 1 });
+		assertThat(file.canExecute()).isTrue();
+	}
+
+	@Test
+	public void fileOutsideOfRootDirectoryIsRejected() throws IOException {
+		File root = this.temporaryFolder.newFolder("project");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new FileSystemProjectSink(root)
+						.addFile("foo/../../test.txt", new byte[] { 1 },
+								ProjectSink.FILE_MODE))
+				.withMessageContaining("foo/../../test.txt");
+		assertThat(new File(root.getParentFile(), "test.txt")).doesNotExist();
+	}
+
+	@Test
+	public void directoryOutsideOfRootDirectoryIsRejected() throws IOException {
+		File root = this.temporaryFolder.newFolder("project");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> new FileSystemProjectSink(root).addDirectory("../foo"))
+				.withMessageContaining("../foo");
+		assertThat(new File(root.getParentFile(), "foo")).doesNotExist();
+	}
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Tests for {@link InMemoryProjectSink}.
+ *
+ * @author Julien Marchand
+ */
+public class InMemoryProjectSinkTests {
+
+	private final InMemoryProjectSink sink = new InMemoryProjectSink();
+
+	@Test
+	public void pathIsCleaned() {
+		this.sink.addFile("/foo/./bar/../test.txt", new byte[] { 1 },
+				ProjectSink.FILE_MODE);
+		assertThat(this.sink.getEntries().stream().map(InMemoryProjectSink.Entry::getPath)
+				.collect(Collectors.toList())).containsExactly("foo", "foo/test.txt");
+	}
+
+	@Test
+	public void fileOutsideOfProjectIsRejected() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.sink.addFile("../test.txt", new byte[] { 1 },
+						ProjectSink.FILE_MODE))
+				.withMessageContaining("../test.txt");
+		assertThat(this.sink.getEntries()).isEmpty();
+	}
+
+	@Test
+	public void fileEscapingProjectIsRejected() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.sink.addFile("foo/../../test.txt",
+						new byte[] { 1 }, ProjectSink.FILE_MODE))
+				.withMessageContaining("foo/../../test.txt");
+	}
+
+	@Test
+	public void directoryOutsideOfProjectIsRejected() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> this.sink.addDirectory(".."))
+				.withMessageContaining("..");
+	}
+
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.time.Duration;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Tests for {@link ProjectGenerationTimings}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationTimingsTests {
+
+	private final ProjectGenerationTimings timings = new ProjectGenerationTimings();
+
+	@Test
+	public void noPhase() {
+		assertThat(this.timings.getPhases()).isEmpty();
+	}
+
+	@Test
+	public void phasesAreOrdered() {
+		this.timings.record(ProjectGenerationTimings.RESOLVE, 2000);
+		this.timings.record(ProjectGenerationTimings.MODEL, 1000);
+		this.timings.record(ProjectGenerationTimings.GENERATE, 3000);
+		assertThat(this.timings.getPhases()).containsExactly(
+				entry(ProjectGenerationTimings.RESOLVE, Duration.ofNanos(2000)),
+				entry(ProjectGenerationTimings.MODEL, Duration.ofNanos(1000)),
+				entry(ProjectGenerationTimings.GENERATE, Duration.ofNanos(3000)));
+	}
+
+	@Test
+	public void phaseRecordedSeveralTimesIsAccumulated() {
+		this.timings.record(ProjectGenerationTimings.GENERATE, 3000);
+		this.timings.record(ProjectGenerationTimings.CLEANUP, 500);
+		this.timings.record(ProjectGenerationTimings.GENERATE, 1000);
+		assertThat(this.timings.getPhases()).containsExactly(
+				entry(ProjectGenerationTimings.GENERATE, Duration.ofNanos(4000)),
+				entry(ProjectGenerationTimings.CLEANUP, Duration.ofNanos(500)));
+	}
+
+}
@@ -16,13 +16,19 @@
 
 package io.spring.initializr.generator;
 
+import java.io.File;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import io.spring.initializr.metadata.BillOfMaterials;
 import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.test.generator.ProjectAssert;
 import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import io.spring.initializr.util.TemplateRenderer;
 import io.spring.initializr.util.VersionProperty;
 import org.junit.Rule;
 import org.junit.Test;
@@ -33,6 +39,11 @@ import org.springframework.core.io.ClassPathResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
 
 /**
  * Tests for {@link ProjectGenerator}
@@ -57,6 +68,64 @@ public class ProjectGeneratorTests extends AbstractProjectGeneratorTests {
 		verifyProjectSuccessfulEventFor(request);
 	}
 
+	@Test
+	public void projectGenerationRecordsPhases() {
+		List<String> phases = new ArrayList<>();
+		this.projectGenerator.setPhaseListeners(
+				Collections.singletonList((request, phase, nanos) -> phases.add(phase)));
+		ProjectRequest request = createProjectRequest("web");
+		this.projectGenerator.generateProjectStructure(request,
+				new InMemoryProjectSink());
+		assertThat(phases).containsExactly(ProjectGenerationTimings.RESOLVE,
+				ProjectGenerationTimings.MODEL, ProjectGenerationTimings.GENERATE);
+		assertThat(request.getTimings().getPhases()).containsOnlyKeys(
+				ProjectGenerationTimings.RESOLVE, ProjectGenerationTimings.MODEL,
+				ProjectGenerationTimings.GENERATE);
+	}
+
+	@Test
+	public void recordPhaseReturnsEndOfPhase() {
+		ProjectRequest request = createProjectRequest();
+		long start = System.nanoTime();
+		long end = this.projectGenerator.recordPhase(request,
+				ProjectGenerationTimings.ARCHIVE, start);
+		assertThat(end).isGreaterThanOrEqualTo(start);
+		assertThat(request.getTimings().getPhases().get(ProjectGenerationTimings.ARCHIVE)
+				.toNanos()).isEqualTo(end - start);
+	}
+
+	@Test
+	public void cleanTempFilesReleasesWorkspace() {
+		ProjectRequest request = createProjectRequest("web");
+		File dir = this.projectGenerator.generateProjectStructure(request);
+		File archive = this.projectGenerator.createDistributionFile(dir, ".zip");
+		ProjectWorkspaceManager workspaces = this.projectGenerator.getWorkspaceManager();
+		assertThat(workspaces.getActiveCount()).isEqualTo(1);
+		assertThat(archive).hasParent(workspaces.getRootDirectory());
+		this.projectGenerator.cleanTempFiles(dir);
+		assertThat(dir).doesNotExist();
+		assertThat(workspaces.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void failedProjectGenerationReleasesWorkspace() {
+		TemplateRenderer templateRenderer = mock(TemplateRenderer.class);
+		willThrow(new IllegalStateException("test")).given(templateRenderer)
+				.process(anyString(), anyMap(), any(OutputStream.class));
+		this.projectGenerator.setTemplateRenderer(templateRenderer);
+		ProjectRequest request = createProjectRequest("web");
+		try {
+			this.projectGenerator.generateProjectStructure(request);
+			fail("Should have failed to generate project");
+		}
+		catch (IllegalStateException ex) {
+			ProjectWorkspaceManager workspaces = this.projectGenerator
+					.getWorkspaceManager();
+			assertThat(workspaces.getActiveCount()).isEqualTo(0);
+			assertThat(workspaces.getRootDirectory().list()).isEmpty();
+		}
+	}
+
 	@Test
 	public void defaultGradleBuild() {
 		ProjectRequest request = createProjectRequest("web");
@@ -85,6 +154,43 @@ public class ProjectGeneratorTests extends AbstractProjectGeneratorTests {
 		verifyProjectSuccessfulEventFor(request);
 	}
 
+	@Test
+	public void defaultProjectInMemory() {
+		ProjectRequest request = createProjectRequest("web");
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		this.projectGenerator.generateProjectStructure(request, project);
+		assertThat(project.getEntry("pom.xml").getMode())
+				.isEqualTo(ProjectSink.FILE_MODE);
+		assertThat(project.getEntry("mvnw").getMode())
+				.isEqualTo(ProjectSink.EXECUTABLE_FILE_MODE);
+		assertThat(project.getEntry(".mvn/wrapper/maven-wrapper.jar").getContent())
+				.isNotEmpty();
+		assertThat(
+				project.getEntry(".mvn/wrapper/maven-wrapper.jar").getDeflatedContent())
+						.isNotNull();
+		assertThat(
+				project.getEntry("src/main/java/com/example/demo/DemoApplication.java"))
+						.isNotNull();
+		assertThat(project.getEntry("src/main/resources/templates").isDirectory())
+				.isTrue();
+		verifyProjectSuccessfulEventFor(request);
+	}
+
+	@Test
+	public void defaultProjectInMemoryListsDirectoriesFirst() {
+		ProjectRequest request = createProjectRequest();
+		request.setBaseDir("foo-bar/my-project");
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		this.projectGenerator.generateProjectStructure(request, project);
+		List<String> paths = project.getEntries().stream()
+				.map(InMemoryProjectSink.Entry::getPath).collect(Collectors.toList());
+		assertThat(paths).startsWith("foo-bar", "foo-bar/my-project",
+				"foo-bar/my-project/pom.xml");
+		assertThat(paths.indexOf("foo-bar/my-project/src/main/java"))
+				.isLessThan(paths.indexOf(
+						"foo-bar/my-project/src/main/java/com/example/demo/DemoApplication.java"));
+	}
+
 	@Test
 	public void noDependencyAddsRootStarter() {
 		ProjectRequest request = createProjectRequest();
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.junit.Test;
+
+import org.springframework.beans.BeanWrapperImpl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectRequestAccessor}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectRequestAccessorTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder
+			.withDefaults().addDependencyGroup("core", "web", "security").build();
+
+	@Test
+	public void propertiesMatchIntrospection() {
+		BeanWrapperImpl bean = new BeanWrapperImpl(ProjectRequest.class);
+		List<String> expected = new ArrayList<>();
+		for (PropertyDescriptor descriptor : bean.getPropertyDescriptors()) {
+			if (descriptor.getReadMethod() != null
+					&& !descriptor.getName().equals("class")) {
+				expected.add(descriptor.getName());
+			}
+		}
+		assertThat(ProjectRequestAccessor.getPropertyNames())
+				.containsExactlyInAnyOrderElementsOf(expected);
+	}
+
+	@Test
+	public void addPropertiesMatchesBeanWrapper() {
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(this.metadata);
+		request.setStyle(Arrays.asList("web", "security"));
+		request.setBaseDir("my-project");
+		request.resolve(this.metadata);
+		Map<String, Object> model = new LinkedHashMap<>();
+		ProjectRequestAccessor.addProperties(request, model);
+		BeanWrapperImpl bean = new BeanWrapperImpl(request);
+		assertThat(model).isNotEmpty();
+		model.forEach((name, value) -> assertThat(value)
+				.isEqualTo(bean.getPropertyValue(name)));
+	}
+
+	@Test
+	public void addPropertiesReplacesExistingValue() {
+		ProjectRequest request = new ProjectRequest();
+		request.setName("test");
+		Map<String, Object> model = new LinkedHashMap<>();
+		model.put("name", "another");
+		ProjectRequestAccessor.addProperties(request, model);
+		assertThat(model).containsEntry("name", "test");
+	}
+
+	@Test
+	public void addPropertiesWithSubclass() {
+		CustomProjectRequest request = new CustomProjectRequest();
+		request.setName("test");
+		request.setCustom("value");
+		Map<String, Object> model = new LinkedHashMap<>();
+		ProjectRequestAccessor.addProperties(request, model);
+		assertThat(model).containsEntry("name", "test").containsEntry("custom", "value")
+				.doesNotContainKey("class");
+	}
+
+	@Test
+	public void setStringProperty() {
+		ProjectRequest request = new ProjectRequest();
+		assertThat(ProjectRequestAccessor.setProperty(request, "groupId", "org.acme"))
+				.isTrue();
+		assertThat(request.getGroupId()).isEqualTo("org.acme");
+	}
+
+	@Test
+	public void setNullProperty() {
+		ProjectRequest request = new ProjectRequest();
+		request.setType("maven-project");
+		assertThat(ProjectRequestAccessor.setProperty(request, "type", null)).isTrue();
+		assertThat(request.getType()).isNull();
+	}
+
+	@Test
+	public void setReadOnlyProperty() {
+		ProjectRequest request = new ProjectRequest();
+		assertThat(ProjectRequestAccessor.setProperty(request, "boms",
+				new LinkedHashMap<>())).isFalse();
+	}
+
+	@Test
+	public void setUnknownProperty() {
+		ProjectRequest request = new ProjectRequest();
+		assertThat(ProjectRequestAccessor.setProperty(request, "unknown", "value"))
+				.isFalse();
+	}
+
+	@Test
+	public void setPropertyWithSubclass() {
+		CustomProjectRequest request = new CustomProjectRequest();
+		assertThat(ProjectRequestAccessor.setProperty(request, "custom", "value"))
+				.isTrue();
+		assertThat(request.getCustom()).isEqualTo("value");
+	}
+
+	static class CustomProjectRequest extends ProjectRequest {
+
+		private String custom;
+
+		public String getCustom() {
+			return this.custom;
+		}
+
+		public void setCustom(String custom) {
+			this.custom = custom;
+		}
+
+	}
+
+}
@@ -24,6 +24,8 @@ import io.spring.initializr.metadata.Dependency.Mapping;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataBuilder;
 import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import io.spring.initializr.util.Agent;
+import io.spring.initializr.util.Agent.AgentId;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -122,6 +124,24 @@ public class ProjectRequestTests {
 		assertThat(request.getResolvedDependencies()).hasSize(1);
 	}
 
+	@Test
+	public void resolveBaseDirOutsideOfProject() {
+		ProjectRequest request = initProjectRequest();
+		request.setBaseDir("foo/../../bar");
+		this.thrown.expect(InvalidProjectRequestException.class);
+		this.thrown.expectMessage("foo/../../bar");
+		request.resolve(this.metadata);
+	}
+
+	@Test
+	public void resolveAbsoluteBaseDir() {
+		ProjectRequest request = initProjectRequest();
+		request.setBaseDir("/tmp/bar");
+		this.thrown.expect(InvalidProjectRequestException.class);
+		this.thrown.expectMessage("/tmp/bar");
+		request.resolve(this.metadata);
+	}
+
 	@Test
 	public void resolveUnknownDependency() {
 		this.metadata = InitializrMetadataTestBuilder.withDefaults()
@@ -398,6 +418,31 @@ public class ProjectRequestTests {
 				.getConfiguration().getEnv().getRepositories().get("bar-repo"));
 	}
 
+	@Test
+	public void agentFromUserAgent() {
+		ProjectRequest request = initProjectRequest();
+		request.getParameters().put("user-agent", "HTTPie/0.9.2");
+		Agent agent = request.getAgent();
+		assertThat(agent.getId()).isEqualTo(AgentId.HTTPIE);
+		assertThat(agent.getVersion()).isEqualTo("0.9.2");
+		assertThat(request.getAgent()).isSameAs(agent);
+	}
+
+	@Test
+	public void agentSetExplicitly() {
+		ProjectRequest request = initProjectRequest();
+		request.getParameters().put("user-agent", "HTTPie/0.9.2");
+		Agent agent = Agent.fromUserAgent("curl/7.54.0");
+		request.setAgent(agent);
+		assertThat(request.getAgent()).isSameAs(agent);
+	}
+
+	@Test
+	public void agentWithoutUserAgent() {
+		ProjectRequest request = initProjectRequest();
+		assertThat(request.getAgent()).isNull();
+	}
+
 	private ProjectRequest initProjectRequest() {
 		ProjectRequest request = new ProjectRequest();
 		request.initialize(this.metadata);
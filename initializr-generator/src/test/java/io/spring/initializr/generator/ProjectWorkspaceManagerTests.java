@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ProjectWorkspaceManager}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceManagerTests {
+
+	@Rule
+	public final TemporaryFolder folder = new TemporaryFolder();
+
+	private File rootDirectory;
+
+	@Before
+	public void setup() throws IOException {
+		this.rootDirectory = this.folder.newFolder();
+	}
+
+	@Test
+	public void releaseRemovesWorkspaceAndItsFiles() throws IOException {
+		ProjectWorkspaceManager manager = new ProjectWorkspaceManager(this.rootDirectory,
+				-1);
+		File workspace = manager.createWorkspace();
+		assertThat(workspace).isDirectory().hasParent(this.rootDirectory);
+		File archive = manager.createFile(workspace, ".zip");
+		assertThat(archive).hasParent(this.rootDirectory)
+				.hasName(workspace.getName() + ".zip");
+		Files.write(archive.toPath(), new byte[] { 1, 2, 3 });
+		assertThat(manager.getActiveCount()).isEqualTo(1);
+		manager.release(workspace);
+		assertThat(workspace).doesNotExist();
+		assertThat(archive).doesNotExist();
+		assertThat(manager.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void releaseTwiceIsIgnored() {
+		ProjectWorkspaceManager manager = new ProjectWorkspaceManager(this.rootDirectory,
+				-1);
+		File workspace = manager.createWorkspace();
+		manager.release(workspace);
+		manager.release(workspace);
+		assertThat(manager.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void sweepRemovesOldOrphans() throws IOException {
+		ProjectWorkspaceManager manager = new ProjectWorkspaceManager(this.rootDirectory,
+				-1);
+		File orphan = new File(this.rootDirectory, "tmp123");
+		orphan.mkdirs();
+		Files.write(new File(orphan, "pom.xml").toPath(), new byte[] { 1, 2, 3 });
+		orphan.setLastModified(System.currentTimeMillis() - 7200000);
+		File recentOrphan = new File(this.rootDirectory, "tmp456.zip");
+		Files.write(recentOrphan.toPath(), new byte[] { 1, 2 });
+		assertThat(manager.sweep(Duration.ofHours(1))).isEqualTo(1);
+		assertThat(orphan).doesNotExist();
+		assertThat(recentOrphan).exists();
+		assertThat(manager.getSweptCount()).isEqualTo(1);
+		assertThat(manager.getDiskUsage()).isEqualTo(2);
+	}
+
+	@Test
+	public void sweepKeepsLiveWorkspaces() throws IOException {
+		ProjectWorkspaceManager manager = new ProjectWorkspaceManager(this.rootDirectory,
+				-1);
+		File workspace = manager.createWorkspace();
+		File archive = manager.createFile(workspace, ".zip");
+		Files.write(archive.toPath(), new byte[] { 1, 2, 3 });
+		assertThat(manager.sweep(Duration.ZERO.minusSeconds(1))).isEqualTo(0);
+		assertThat(workspace).exists();
+		assertThat(archive).exists();
+		assertThat(manager.getDiskUsage()).isEqualTo(3);
+	}
+
+	@Test
+	public void createWorkspaceWhenQuotaIsExceeded() throws IOException {
+		ProjectWorkspaceManager manager = new ProjectWorkspaceManager(this.rootDirectory,
+				2);
+		manager.createWorkspace();
+		Files.write(new File(this.rootDirectory, "test.zip").toPath(),
+				new byte[] { 1, 2, 3 });
+		manager.sweep(Duration.ofHours(1));
+		assertThatThrownBy(manager::createWorkspace)
+				.isInstanceOf(ProjectWorkspaceQuotaExceededException.class)
+				.hasMessageContaining("quota of 2 bytes");
+		assertThat(manager.getRejectedCount()).isEqualTo(1);
+		assertThat(manager.getActiveCount()).isEqualTo(1);
+	}
+
+}
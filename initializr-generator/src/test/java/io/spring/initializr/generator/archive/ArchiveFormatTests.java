@@ -0,0 +1,244 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import io.spring.initializr.generator.InMemoryProjectSink;
+import io.spring.initializr.generator.ProjectSink;
+import org.apache.tools.tar.TarEntry;
+import org.apache.tools.tar.TarInputStream;
+import org.apache.tools.zip.ZipEntry;
+import org.apache.tools.zip.ZipFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link ArchiveFormat}.
+ *
+ * @author Julien Marchand
+ */
+public class ArchiveFormatTests {
+
+	private static final String LONG_PATH = "demo/src/main/java/com/example/with/a/very/"
+			+ "long/package/name/that/does/not/fit/in/a/tar/header/DemoApplication.java";
+
+	@Rule
+	public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	@Test
+	public void zipArchive() throws IOException {
+		Map<String, ArchivedEntry> entries = readZip(
+				write(ArchiveFormat.ZIP, createProject().getEntries()));
+		assertThat(entries).containsOnlyKeys("demo/", "demo/mvnw", "demo/pom.xml",
+				"demo/lib/", "demo/lib/binary.jar", "demo/src/", "demo/src/main/",
+				"demo/src/main/resources/",
+				"demo/src/main/resources/application.properties");
+		assertThat(entries.get("demo/").mode).isEqualTo(0755);
+		assertThat(entries.get("demo/mvnw").mode).isEqualTo(0755);
+		assertThat(entries.get("demo/mvnw").content).isEqualTo(content("#!/bin/sh"));
+		assertThat(entries.get("demo/pom.xml").mode).isEqualTo(0644);
+		assertThat(entries.get("demo/pom.xml").content).isEqualTo(content("<project/>"));
+		assertThat(entries.get("demo/lib/binary.jar").content).hasSize(10000);
+		assertThat(entries.get("demo/src/main/resources/application.properties").content)
+				.isEmpty();
+	}
+
+	@Test
+	public void zipArchiveWithUnicodeName() throws IOException {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		project.addFile("dému/pom.xml", content("<project/>"));
+		assertThat(readZip(write(ArchiveFormat.ZIP, project.getEntries())))
+				.containsOnlyKeys("dému/", "dému/pom.xml");
+	}
+
+	@Test
+	public void zipArchiveCanBeReadByJdk() throws IOException {
+		File archive = this.temporaryFolder.newFile("archive.zip");
+		Files.write(archive.toPath(),
+				write(ArchiveFormat.ZIP, createProject().getEntries()));
+		try (java.util.zip.ZipFile zip = new java.util.zip.ZipFile(archive)) {
+			assertThat(zip.size()).isEqualTo(9);
+			try (InputStream content = zip
+					.getInputStream(zip.getEntry("demo/lib/binary.jar"))) {
+				assertThat(StreamUtils.copyToByteArray(content)).hasSize(10000);
+			}
+		}
+	}
+
+	@Test
+	public void zipArchiveWithDeflatedContent() throws IOException {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		project.addFile("mvnw", DeflatedContent.of(content("#!/bin/sh")),
+				ProjectSink.EXECUTABLE_FILE_MODE);
+		Map<String, ArchivedEntry> entries = readZip(
+				write(ArchiveFormat.ZIP, project.getEntries()));
+		assertThat(entries.get("mvnw").mode).isEqualTo(0755);
+		assertThat(entries.get("mvnw").content).isEqualTo(content("#!/bin/sh"));
+	}
+
+	@Test
+	public void zipArchiveIgnoresDeflatedContentOfAnotherContent() throws IOException {
+		ArchiveEntry entry = mock(ArchiveEntry.class);
+		given(entry.getPath()).willReturn("test.txt");
+		given(entry.getContent()).willReturn(content("test"));
+		given(entry.getMode()).willReturn(ProjectSink.FILE_MODE);
+		given(entry.getDeflatedContent())
+				.willReturn(DeflatedContent.of(content("another")));
+		Map<String, ArchivedEntry> entries = readZip(
+				write(ArchiveFormat.ZIP, Collections.singletonList(entry)));
+		assertThat(entries.get("test.txt").content).isEqualTo(content("test"));
+	}
+
+	@Test
+	public void emptyZipArchive() throws IOException {
+		assertThat(readZip(write(ArchiveFormat.ZIP, Collections.emptyList()))).isEmpty();
+	}
+
+	@Test
+	public void tarArchive() throws IOException {
+		byte[] archive = write(ArchiveFormat.TAR, createProject().getEntries());
+		assertThat(archive.length % 10240).isEqualTo(0);
+		assertTarEntries(readTar(new ByteArrayInputStream(archive)));
+	}
+
+	@Test
+	public void tarGzArchive() throws IOException {
+		byte[] archive = write(ArchiveFormat.TAR_GZ, createProject().getEntries());
+		assertTarEntries(readTar(new GZIPInputStream(new ByteArrayInputStream(archive))));
+	}
+
+	@Test
+	public void tarArchiveWithLongName() throws IOException {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		project.addFile(LONG_PATH, content("class DemoApplication {}"));
+		Map<String, ArchivedEntry> entries = readTar(
+				new ByteArrayInputStream(write(ArchiveFormat.TAR, project.getEntries())));
+		assertThat(entries).containsKey(LONG_PATH);
+		assertThat(entries.get(LONG_PATH).content)
+				.isEqualTo(content("class DemoApplication {}"));
+	}
+
+	@Test
+	public void formatMetadata() {
+		assertThat(ArchiveFormat.ZIP.getExtension()).isEqualTo("zip");
+		assertThat(ArchiveFormat.ZIP.getContentType()).isEqualTo("application/zip");
+		assertThat(ArchiveFormat.TAR.getExtension()).isEqualTo("tar");
+		assertThat(ArchiveFormat.TAR_GZ.getExtension()).isEqualTo("tar.gz");
+		assertThat(ArchiveFormat.TAR_GZ.getContentType())
+				.isEqualTo("application/x-compress");
+	}
+
+	private void assertTarEntries(Map<String, ArchivedEntry> entries) {
+		assertThat(entries).containsOnlyKeys("demo/", "demo/mvnw", "demo/pom.xml",
+				"demo/lib/", "demo/lib/binary.jar", "demo/src/", "demo/src/main/",
+				"demo/src/main/resources/",
+				"demo/src/main/resources/application.properties");
+		assertThat(entries.get("demo/").mode).isEqualTo(0755);
+		assertThat(entries.get("demo/mvnw").mode).isEqualTo(0755);
+		assertThat(entries.get("demo/mvnw").content).isEqualTo(content("#!/bin/sh"));
+		assertThat(entries.get("demo/pom.xml").mode).isEqualTo(0644);
+		assertThat(entries.get("demo/lib/binary.jar").content).hasSize(10000);
+	}
+
+	private static InMemoryProjectSink createProject() {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		project.addFile("demo/mvnw", content("#!/bin/sh"),
+				ProjectSink.EXECUTABLE_FILE_MODE);
+		project.addFile("demo/pom.xml", content("<project/>"));
+		byte[] binary = new byte[10000];
+		new Random(42).nextBytes(binary);
+		project.addFile("demo/lib/binary.jar", binary);
+		project.addFile("demo/src/main/resources/application.properties", new byte[0]);
+		return project;
+	}
+
+	private static byte[] content(String content) {
+		return content.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] write(ArchiveFormat format,
+			Iterable<? extends ArchiveEntry> entries) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(entries, out);
+		return out.toByteArray();
+	}
+
+	private Map<String, ArchivedEntry> readZip(byte[] archive) throws IOException {
+		File file = this.temporaryFolder.newFile();
+		Files.write(file.toPath(), archive);
+		Map<String, ArchivedEntry> entries = new LinkedHashMap<>();
+		try (ZipFile zip = new ZipFile(file, "UTF-8")) {
+			Enumeration<ZipEntry> zipEntries = zip.getEntries();
+			while (zipEntries.hasMoreElements()) {
+				ZipEntry entry = zipEntries.nextElement();
+				try (InputStream content = zip.getInputStream(entry)) {
+					entries.put(entry.getName(),
+							new ArchivedEntry(entry.getUnixMode() & 0777,
+									StreamUtils.copyToByteArray(content)));
+				}
+			}
+		}
+		return entries;
+	}
+
+	private static Map<String, ArchivedEntry> readTar(InputStream archive)
+			throws IOException {
+		Map<String, ArchivedEntry> entries = new LinkedHashMap<>();
+		try (TarInputStream tar = new TarInputStream(archive, "UTF-8")) {
+			TarEntry entry;
+			while ((entry = tar.getNextEntry()) != null) {
+				entries.put(entry.getName(), new ArchivedEntry(entry.getMode() & 0777,
+						StreamUtils.copyToByteArray(tar)));
+			}
+		}
+		return entries;
+	}
+
+	private static final class ArchivedEntry {
+
+		private final int mode;
+
+		private final byte[] content;
+
+		ArchivedEntry(int mode, byte[] content) {
+			this.mode = mode;
+			this.content = content;
+		}
+
+	}
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.junit.Test;
+
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DeflatedContent}.
+ *
+ * @author Julien Marchand
+ */
+public class DeflatedContentTests {
+
+	@Test
+	public void deflateContent() throws IOException {
+		byte[] content = "#!/bin/sh\necho 'Hello World'\necho 'Hello World'\n"
+				.getBytes(StandardCharsets.UTF_8);
+		DeflatedContent deflated = DeflatedContent.of(content);
+		assertThat(deflated.getContent()).isSameAs(content);
+		CRC32 crc = new CRC32();
+		crc.update(content);
+		assertThat(deflated.getCrc()).isEqualTo(crc.getValue());
+		assertThat(deflated.getCompressedContent().length).isLessThan(content.length);
+		assertThat(inflate(deflated.getCompressedContent())).isEqualTo(content);
+	}
+
+	@Test
+	public void deflateEmptyContent() throws IOException {
+		DeflatedContent deflated = DeflatedContent.of(new byte[0]);
+		assertThat(deflated.getCrc()).isEqualTo(0);
+		assertThat(inflate(deflated.getCompressedContent())).isEmpty();
+	}
+
+	private static byte[] inflate(byte[] compressed) throws IOException {
+		return StreamUtils.copyToByteArray(new InflaterInputStream(
+				new ByteArrayInputStream(compressed), new Inflater(true)));
+	}
+
+}
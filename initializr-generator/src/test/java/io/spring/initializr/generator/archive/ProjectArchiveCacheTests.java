@@ -0,0 +1,223 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.util.Arrays;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.archive.ProjectArchiveCache.CachedArchive;
+import io.spring.initializr.generator.archive.ProjectArchiveCache.Key;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ProjectArchiveCache}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCacheTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder
+			.withDefaults().build();
+
+	private final ProjectArchiveCache cache = new ProjectArchiveCache(1024);
+
+	@Test
+	public void sameRequestHasSameKey() {
+		assertThat(createKey(createRequest("web"), ArchiveFormat.ZIP))
+				.isEqualTo(createKey(createRequest("web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void dependenciesOrderIsIgnored() {
+		assertThat(createKey(createRequest("web", "security"), ArchiveFormat.ZIP))
+				.isEqualTo(
+						createKey(createRequest("security", "web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void duplicateDependenciesAreIgnored() {
+		assertThat(createKey(createRequest("web", "web"), ArchiveFormat.ZIP))
+				.isEqualTo(createKey(createRequest("web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void styleAndDependenciesHaveSameKey() {
+		ProjectRequest request = createRequest();
+		request.setStyle(Arrays.asList("web", "security"));
+		assertThat(createKey(request, ArchiveFormat.ZIP)).isEqualTo(
+				createKey(createRequest("security", "web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void parametersAreIgnored() {
+		ProjectRequest request = createRequest("web");
+		request.getParameters().put("user-agent", "curl/1.2.4");
+		assertThat(createKey(request, ArchiveFormat.ZIP))
+				.isEqualTo(createKey(createRequest("web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void differentFormatHasDifferentKey() {
+		assertThat(createKey(createRequest("web"), ArchiveFormat.ZIP))
+				.isNotEqualTo(createKey(createRequest("web"), ArchiveFormat.TAR_GZ));
+	}
+
+	@Test
+	public void differentDependenciesHaveDifferentKey() {
+		assertThat(createKey(createRequest("web"), ArchiveFormat.ZIP))
+				.isNotEqualTo(createKey(createRequest("security"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void differentBootVersionHasDifferentKey() {
+		ProjectRequest request = createRequest("web");
+		request.setBootVersion("2.0.0.RELEASE");
+		assertThat(createKey(request, ArchiveFormat.ZIP))
+				.isNotEqualTo(createKey(createRequest("web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void attributesAreNotConcatenated() {
+		ProjectRequest request = createRequest();
+		request.setName("a");
+		request.setDescription("bc");
+		ProjectRequest anotherRequest = createRequest();
+		anotherRequest.setName("ab");
+		anotherRequest.setDescription("c");
+		assertThat(createKey(request, ArchiveFormat.ZIP))
+				.isNotEqualTo(createKey(anotherRequest, ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void getMissingArchive() {
+		assertThat(this.cache.get(createKey(createRequest("web"), ArchiveFormat.ZIP)))
+				.isNull();
+		assertThat(this.cache.getMissCount()).isEqualTo(1);
+		assertThat(this.cache.getHitCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void putAndGetArchive() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		CachedArchive archive = this.cache.put(key, new byte[] { 1, 2, 3 });
+		assertThat(this.cache.get(createKey(createRequest("web"), ArchiveFormat.ZIP)))
+				.isSameAs(archive);
+		assertThat(this.cache.getHitCount()).isEqualTo(1);
+		assertThat(this.cache.getPutCount()).isEqualTo(1);
+		assertThat(this.cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.cache.getSize()).isEqualTo(3);
+	}
+
+	@Test
+	public void etagDependsOnContent() {
+		CachedArchive archive = this.cache.put(
+				createKey(createRequest("web"), ArchiveFormat.ZIP), new byte[] { 1 });
+		CachedArchive sameArchive = this.cache.put(
+				createKey(createRequest("security"), ArchiveFormat.ZIP),
+				new byte[] { 1 });
+		CachedArchive anotherArchive = this.cache.put(
+				createKey(createRequest("data-jpa"), ArchiveFormat.ZIP),
+				new byte[] { 2 });
+		assertThat(archive.getETag()).startsWith("\"").endsWith("\"");
+		assertThat(archive.getETag()).isEqualTo(sameArchive.getETag());
+		assertThat(archive.getETag()).isNotEqualTo(anotherArchive.getETag());
+	}
+
+	@Test
+	public void leastRecentlyUsedArchiveIsEvicted() {
+		Key first = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		Key second = createKey(createRequest("security"), ArchiveFormat.ZIP);
+		Key third = createKey(createRequest("data-jpa"), ArchiveFormat.ZIP);
+		this.cache.put(first, new byte[400]);
+		this.cache.put(second, new byte[400]);
+		this.cache.get(first);
+		this.cache.put(third, new byte[400]);
+		assertThat(this.cache.get(first)).isNotNull();
+		assertThat(this.cache.get(second)).isNull();
+		assertThat(this.cache.get(third)).isNotNull();
+		assertThat(this.cache.getSize()).isEqualTo(800);
+		assertThat(this.cache.getEvictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void archiveLargerThanMaxSizeIsNotCached() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		CachedArchive archive = this.cache.put(key, new byte[2048]);
+		assertThat(archive.getContent()).hasSize(2048);
+		assertThat(this.cache.get(key)).isNull();
+		assertThat(this.cache.getSize()).isEqualTo(0);
+	}
+
+	@Test
+	public void metadataChangeClearsCache() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		this.cache.put(key, new byte[] { 1, 2, 3 });
+		InitializrMetadata anotherMetadata = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		Key anotherKey = this.cache.createKey(createRequest("web"), ArchiveFormat.ZIP,
+				anotherMetadata);
+		assertThat(anotherKey).isNotEqualTo(key);
+		assertThat(this.cache.getEntryCount()).isEqualTo(0);
+		assertThat(this.cache.getSize()).isEqualTo(0);
+		assertThat(this.cache.get(anotherKey)).isNull();
+	}
+
+	@Test
+	public void olderMetadataDoesNotClearCache() {
+		InitializrMetadata olderMetadata = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		InitializrMetadata newerMetadata = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		Key key = this.cache.createKey(createRequest("web"), ArchiveFormat.ZIP,
+				newerMetadata);
+		this.cache.put(key, new byte[] { 1, 2, 3 });
+		Key olderKey = this.cache.createKey(createRequest("web"), ArchiveFormat.ZIP,
+				olderMetadata);
+		assertThat(olderKey).isNotEqualTo(key);
+		assertThat(this.cache.get(olderKey)).isNull();
+		this.cache.put(olderKey, new byte[] { 4, 5 });
+		assertThat(this.cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.cache.get(key).getContent())
+				.isEqualTo(new byte[] { 1, 2, 3 });
+		assertThat(this.cache.getEvictionCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void putWithStaleKeyIsIgnored() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		this.cache.createKey(createRequest("web"), ArchiveFormat.ZIP,
+				InitializrMetadataTestBuilder.withDefaults().build());
+		this.cache.put(key, new byte[] { 1, 2, 3 });
+		assertThat(this.cache.getEntryCount()).isEqualTo(0);
+	}
+
+	private Key createKey(ProjectRequest request, ArchiveFormat format) {
+		return this.cache.createKey(request, format, this.metadata);
+	}
+
+	private ProjectRequest createRequest(String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(this.metadata);
+		request.getDependencies().addAll(Arrays.asList(dependencies));
+		return request;
+	}
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.generator.archive;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer.CoalescedArchive;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer.Flight;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer.Key;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ProjectArchiveCoalescer}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectArchiveCoalescerTests {
+
+	private final InitializrMetadata metadata = InitializrMetadataTestBuilder
+			.withDefaults().build();
+
+	private final ProjectArchiveCoalescer coalescer = new ProjectArchiveCoalescer();
+
+	private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+	@After
+	public void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	public void sameRequestHasSameKey() {
+		assertThat(createKey(createRequest("web", "security"), ArchiveFormat.ZIP))
+				.isEqualTo(
+						createKey(createRequest("security", "web"), ArchiveFormat.ZIP));
+	}
+
+	@Test
+	public void differentMetadataHasDifferentKey() {
+		ProjectRequest request = createRequest("web");
+		assertThat(this.coalescer.createKey(request, ArchiveFormat.ZIP, this.metadata))
+				.isNotEqualTo(this.coalescer.createKey(request, ArchiveFormat.ZIP,
+						InitializrMetadataTestBuilder.withDefaults().build()));
+	}
+
+	@Test
+	public void differentFormatHasDifferentKey() {
+		assertThat(createKey(createRequest("web"), ArchiveFormat.ZIP))
+				.isNotEqualTo(createKey(createRequest("web"), ArchiveFormat.TAR_GZ));
+	}
+
+	@Test
+	public void concurrentIdenticalRequestsShareArchive() throws Exception {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger invocations = new AtomicInteger();
+		Future<CoalescedArchive> first = this.executor
+				.submit(() -> this.coalescer.generate(key, () -> {
+					invocations.incrementAndGet();
+					started.countDown();
+					await(release);
+					return new byte[] { 1, 2, 3 };
+				}));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(1);
+		AtomicReference<CoalescedArchive> shared = new AtomicReference<>();
+		Thread waiter = new Thread(() -> {
+			try {
+				shared.set(this.coalescer.generate(
+						createKey(createRequest("web"), ArchiveFormat.ZIP), () -> {
+							invocations.incrementAndGet();
+							return new byte[0];
+						}));
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+		});
+		waiter.start();
+		waitUntilWaiting(waiter);
+		release.countDown();
+		waiter.join(5000);
+		CoalescedArchive generated = first.get(5, TimeUnit.SECONDS);
+		assertThat(invocations).hasValue(1);
+		assertThat(generated.isShared()).isFalse();
+		assertThat(shared.get().isShared()).isTrue();
+		assertThat(shared.get().getContent()).isSameAs(generated.getContent());
+		assertThat(this.coalescer.getGeneratedCount()).isEqualTo(1);
+		assertThat(this.coalescer.getSharedCount()).isEqualTo(1);
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void sequentialRequestsGenerateArchiveEachTime() throws IOException {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		AtomicInteger invocations = new AtomicInteger();
+		this.coalescer.generate(key, () -> new byte[invocations.incrementAndGet()]);
+		this.coalescer.generate(key, () -> new byte[invocations.incrementAndGet()]);
+		assertThat(invocations).hasValue(2);
+		assertThat(this.coalescer.getSharedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void failedGenerationIsNotRetained() throws IOException {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		assertThatThrownBy(() -> this.coalescer.generate(key, () -> {
+			throw new IOException("test");
+		})).isInstanceOf(IOException.class).hasMessage("test");
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(0);
+		assertThat(this.coalescer.generate(key, () -> new byte[] { 1 }).getContent())
+				.containsExactly(1);
+	}
+
+	@Test
+	public void joinedFlightIsNotifiedWithContentOfLeader() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		Flight leader = this.coalescer.join(key);
+		Flight follower = this.coalescer
+				.join(createKey(createRequest("web"), ArchiveFormat.ZIP));
+		assertThat(leader.isLeader()).isTrue();
+		assertThat(follower.isLeader()).isFalse();
+		assertThat(follower.getContent()).isNotDone();
+		byte[] content = new byte[] { 1, 2, 3 };
+		leader.complete(content);
+		assertThat(follower.getContent().getNow(null)).isSameAs(content);
+		assertThat(this.coalescer.getGeneratedCount()).isEqualTo(1);
+		assertThat(this.coalescer.getSharedCount()).isEqualTo(1);
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(0);
+		assertThat(this.coalescer.join(key).isLeader()).isTrue();
+	}
+
+	@Test
+	public void joinedFlightIsNotifiedWithFailureOfLeader() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		Flight leader = this.coalescer.join(key);
+		Flight follower = this.coalescer.join(key);
+		leader.fail(new IOException("test"));
+		assertThat(follower.getContent()).isCompletedExceptionally();
+		assertThatThrownBy(() -> follower.getContent().get())
+				.isInstanceOf(ExecutionException.class)
+				.hasCauseInstanceOf(IOException.class);
+		assertThat(this.coalescer.getSharedCount()).isEqualTo(0);
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void followerCannotCompleteFlight() {
+		Key key = createKey(createRequest("web"), ArchiveFormat.ZIP);
+		this.coalescer.join(key);
+		Flight follower = this.coalescer.join(key);
+		assertThatThrownBy(() -> follower.complete(new byte[0]))
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(this.coalescer.getInFlightCount()).isEqualTo(1);
+	}
+
+	private void await(CountDownLatch latch) throws IOException {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			throw new InterruptedIOException();
+		}
+	}
+
+	private void waitUntilWaiting(Thread thread) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (thread.getState() != Thread.State.WAITING
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(thread.getState()).isEqualTo(Thread.State.WAITING);
+	}
+
+	private Key createKey(ProjectRequest request, ArchiveFormat format) {
+		return this.coalescer.createKey(request, format, this.metadata);
+	}
+
+	private ProjectRequest createRequest(String... dependencies) {
+		ProjectRequest request = new ProjectRequest();
+		request.initialize(this.metadata);
+		request.getDependencies().addAll(Arrays.asList(dependencies));
+		return request;
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.metadata;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import io.spring.initializr.util.Version;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyCompatibilityMatrix}.
+ *
+ * @author Julien Marchand
+ */
+public class DependencyCompatibilityMatrixTests {
+
+	private static final Version V1_5 = Version.parse("1.5.17.RELEASE");
+
+	private static final Version V2_0 = Version.parse("2.0.6.RELEASE");
+
+	private static final Version V2_1 = Version.parse("2.1.0.RELEASE");
+
+	@Test
+	public void compatibleDependencies() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		assertThat(matrix.isCompatible("web", V1_5)).isTrue();
+		assertThat(matrix.isCompatible("web", V2_1)).isTrue();
+		assertThat(matrix.isCompatible("legacy", V1_5)).isTrue();
+		assertThat(matrix.isCompatible("legacy", V2_0)).isFalse();
+		assertThat(matrix.isCompatible("recent", V1_5)).isFalse();
+		assertThat(matrix.isCompatible("recent", V2_1)).isTrue();
+	}
+
+	@Test
+	public void compatibleDependencyWithAlias() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		assertThat(matrix.isCompatible("old", V1_5)).isTrue();
+		assertThat(matrix.isCompatible("old", V2_1)).isFalse();
+		assertThat(matrix.getResolvedDependency("old", V1_5).getId()).isEqualTo("legacy");
+	}
+
+	@Test
+	public void compatibleDependenciesBitmap() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		assertThat(matrix.getDependencies()).extracting(Dependency::getId)
+				.containsExactly("web", "legacy", "recent", "mapped");
+		BitSet compatible = matrix.getCompatibleDependencies(V1_5);
+		assertThat(compatible.stream().toArray()).containsExactly(0, 1, 3);
+		compatible.clear();
+		assertThat(matrix.getCompatibleDependencies(V1_5).cardinality()).isEqualTo(3);
+		assertThat(matrix.getCompatibleDependencies(V2_1).stream().toArray())
+				.containsExactly(0, 2, 3);
+	}
+
+	@Test
+	public void unknownDependencyIsNotCompatible() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		assertThat(matrix.isCompatible("does-not-exist", V2_1)).isFalse();
+		assertThat(matrix.getResolvedDependency("does-not-exist", V2_1)).isNull();
+	}
+
+	@Test
+	public void resolvedDependency() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		Dependency v15 = matrix.getResolvedDependency("mapped", V1_5);
+		assertThat(v15.getArtifactId()).isEqualTo("mapped-legacy");
+		assertThat(v15.getVersion()).isEqualTo("1.0.0");
+		Dependency v21 = matrix.getResolvedDependency("mapped", V2_1);
+		assertThat(v21.getArtifactId()).isEqualTo("mapped");
+		assertThat(v21.getVersion()).isEqualTo("2.0.0");
+		assertThat(matrix.getResolvedDependency("mapped", V2_1)).isSameAs(v21);
+		assertThat(matrix.getResolvedDependency("recent", V1_5)).isNull();
+	}
+
+	@Test
+	public void resolvedDependencyWithUnknownVersion() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		Version version = Version.parse("1.5.2.RELEASE");
+		assertThat(matrix.getResolvedDependency("mapped", version).getArtifactId())
+				.isEqualTo("mapped-legacy");
+		assertThat(matrix.isCompatible("recent", version)).isFalse();
+	}
+
+	@Test
+	public void dependencyMetadata() {
+		DependencyCompatibilityMatrix matrix = createMetadata()
+				.getDependencyCompatibilityMatrix();
+		DependencyMetadata dependencyMetadata = matrix.getDependencyMetadata(V2_1);
+		assertThat(dependencyMetadata.getBootVersion()).isEqualTo(V2_1);
+		assertThat(dependencyMetadata.getDependencies()).containsOnlyKeys("web", "recent",
+				"mapped");
+		assertThat(dependencyMetadata.getBoms()).containsOnlyKeys("recent-bom");
+		assertThat(dependencyMetadata.getRepositories()).containsOnlyKeys("acme");
+		assertThat(matrix.getDependencyMetadata(V2_1)).isSameAs(dependencyMetadata);
+	}
+
+	@Test
+	public void matrixIsReused() {
+		InitializrMetadata metadata = createMetadata();
+		assertThat(metadata.getDependencyCompatibilityMatrix())
+				.isSameAs(metadata.getDependencyCompatibilityMatrix());
+	}
+
+	@Test
+	public void matrixIsRecreatedWhenBootVersionsAreUpdated() {
+		InitializrMetadata metadata = createMetadata();
+		DependencyCompatibilityMatrix matrix = metadata
+				.getDependencyCompatibilityMatrix();
+		DefaultMetadataElement bootVersion = new DefaultMetadataElement();
+		bootVersion.setId("2.1.0.RELEASE");
+		bootVersion.setDefault(true);
+		metadata.updateSpringBootVersions(Arrays.asList(bootVersion));
+		assertThat(metadata.getDependencyCompatibilityMatrix()).isNotSameAs(matrix);
+	}
+
+	private static InitializrMetadata createMetadata() {
+		Dependency web = Dependency.withId("web");
+		Dependency legacy = Dependency.withId("legacy", "org.acme", "legacy", "1.0.0");
+		legacy.setVersionRange("[1.5.0.RELEASE,2.0.0.RELEASE)");
+		legacy.getAliases().add("old");
+		Dependency recent = Dependency.withId("recent", "org.acme", "recent");
+		recent.setVersionRange("2.1.0.RELEASE");
+		recent.setBom("recent-bom");
+		Dependency mapped = Dependency.withId("mapped", "org.acme", "mapped");
+		mapped.getMappings().add(Dependency.Mapping
+				.create("[1.5.0.RELEASE,2.0.0.RELEASE)", null, "mapped-legacy", "1.0.0"));
+		mapped.getMappings()
+				.add(Dependency.Mapping.create("2.0.0.RELEASE", null, null, "2.0.0"));
+		BillOfMaterials bom = BillOfMaterials.create("org.acme", "recent-bom", "1.0.0");
+		bom.getRepositories().add("acme");
+		return InitializrMetadataTestBuilder.withDefaults()
+				.addBootVersion("2.0.6.RELEASE", false)
+				.addBootVersion("2.1.0.RELEASE", false)
+				.addRepository("acme", "Acme", "https://repo.example.com", false)
+				.addBom("recent-bom", bom)
+				.addDependencyGroup("test", web, legacy, recent, mapped).build();
+	}
+
+}
@@ -37,6 +37,17 @@ public class InitializrMetadataTests {
 	@Rule
 	public final ExpectedException thrown = ExpectedException.none();
 
+	@Test
+	public void metadataCreatedLaterIsNewer() {
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		InitializrMetadata refreshed = InitializrMetadataTestBuilder.withDefaults()
+				.build();
+		assertThat(refreshed.isNewerThan(metadata)).isTrue();
+		assertThat(metadata.isNewerThan(refreshed)).isFalse();
+		assertThat(metadata.isNewerThan(metadata)).isFalse();
+	}
+
 	@Test
 	public void invalidBom() {
 		Dependency foo = Dependency.withId("foo", "org.acme", "foo");
@@ -106,6 +106,34 @@ public class AgentTests {
 		assertThat(agent.getVersion()).isNull();
 	}
 
+	@Test
+	public void checkUnknownTool() {
+		Agent agent = Agent.fromUserAgent("Wget/1.20.1 (linux-gnu)");
+		assertThat(agent).isNull();
+	}
+
+	@Test
+	public void checkToolWithoutVersion() {
+		Agent agent = Agent.fromUserAgent("curl/");
+		assertThat(agent.getId()).isEqualTo(Agent.AgentId.CURL);
+		assertThat(agent.getVersion()).isEmpty();
+	}
+
+	@Test
+	public void sameUserAgentReturnsSharedInstance() {
+		assertThat(Agent.fromUserAgent("curl/7.54.0"))
+				.isSameAs(Agent.fromUserAgent("curl/7.54.0"));
+	}
+
+	@Test
+	public void toolUserAgentIsCachedAfterManyBrowserUserAgents() {
+		for (int i = 0; i < 1000; i++) {
+			Agent.fromUserAgent("Mozilla/5.0 (Macintosh) Safari/" + i);
+		}
+		assertThat(Agent.fromUserAgent("curl/7.61.0"))
+				.isSameAs(Agent.fromUserAgent("curl/7.61.0"));
+	}
+
 	@Test
 	public void checkRobot() {
 		Agent agent = Agent.fromUserAgent("Googlebot-Mobile");
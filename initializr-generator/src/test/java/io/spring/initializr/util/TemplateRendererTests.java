@@ -0,0 +1,121 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.util.TemplateRenderer.TemplateStatistics;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link TemplateRenderer}.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererTests {
+
+	private final TemplateRenderer renderer = new TemplateRenderer();
+
+	@Test
+	public void templateNamesIncludeClasspathTemplates() {
+		assertThat(this.renderer.getTemplateNames()).contains("starter-pom.xml",
+				"starter-build.gradle", "Application.java", "cli-capabilities.txt");
+	}
+
+	@Test
+	public void precompileCompilesAllTemplates() {
+		assertThat(this.renderer.isPrecompiled()).isFalse();
+		this.renderer.precompile();
+		assertThat(this.renderer.isPrecompiled()).isTrue();
+		assertThat(this.renderer.getStatistics().keySet())
+				.containsAll(this.renderer.getTemplateNames());
+		TemplateStatistics statistics = this.renderer.getStatistics("starter-pom.xml");
+		assertThat(statistics.getCompilationTime(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+		assertThat(statistics.getRenderCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void precompileWithCacheDisabledDoesNotCompileTemplates() {
+		this.renderer.setCache(false);
+		this.renderer.precompile();
+		assertThat(this.renderer.isPrecompiled()).isTrue();
+		assertThat(this.renderer.getStatistics()).isEmpty();
+	}
+
+	@Test
+	public void precompileFailureStillMarksTemplatesAsPrecompiled() {
+		TemplateRenderer renderer = new TemplateRenderer() {
+			@Override
+			public Set<String> getTemplateNames() {
+				throw new IllegalStateException("Cannot list templates");
+			}
+		};
+		assertThatThrownBy(renderer::precompile)
+				.isInstanceOf(IllegalStateException.class);
+		assertThat(renderer.isPrecompiled()).isTrue();
+	}
+
+	@Test
+	public void templateIsCompiledOnce() {
+		this.renderer.precompile();
+		assertThat(this.renderer.getTemplate("gitignore.tmpl"))
+				.isSameAs(this.renderer.getTemplate("gitignore.tmpl"));
+	}
+
+	@Test
+	public void processRecordsRenderTime() {
+		this.renderer.process("gitignore.tmpl", Collections.emptyMap());
+		this.renderer.process("gitignore.tmpl", Collections.emptyMap());
+		TemplateStatistics statistics = this.renderer.getStatistics("gitignore.tmpl");
+		assertThat(statistics.getRenderCount()).isEqualTo(2);
+		assertThat(statistics.getTotalRenderTime(TimeUnit.NANOSECONDS)).isGreaterThan(0);
+	}
+
+	@Test
+	public void processToWriter() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("groupId", "com.example");
+		model.put("customValue", "test");
+		StringWriter writer = new StringWriter();
+		this.renderer.process("custom.txt", model, writer);
+		assertThat(writer.toString())
+				.isEqualTo(this.renderer.process("custom.txt", model))
+				.contains("com.example");
+	}
+
+	@Test
+	public void processToOutputStreamUsesUtf8() {
+		Map<String, Object> model = new HashMap<>();
+		model.put("groupId", "com.example");
+		model.put("customValue", "caf\u00e9");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.renderer.process("custom.txt", model, out);
+		assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8))
+				.endsWith("caf\u00e9");
+	}
+
+}
@@ -123,6 +123,48 @@ public class VersionTests {
 		assertThat(parse("1.2.0.BUILD-SNAPSHOT")).isLessThan(parse("1.2.0.RELEASE"));
 	}
 
+	@Test
+	public void compareNoQualifierWithRelease() {
+		assertThat(parse("1.2.0")).isEqualByComparingTo(parse("1.2.0.RELEASE"));
+	}
+
+	@Test
+	public void compareUnknownQualifierWithKnownQualifier() {
+		assertThat(parse("1.2.0.Beta1")).isLessThan(parse("1.2.0.M1"));
+		assertThat(parse("1.2.0.RELEASE")).isGreaterThan(parse("1.2.0.Beta1"));
+	}
+
+	@Test
+	public void compareLargeVersions() {
+		assertThat(parse("1.70000.0.RELEASE")).isGreaterThan(parse("1.2.0.RELEASE"));
+		assertThat(parse("1.2.0.M5000")).isGreaterThan(parse("1.2.0.M4"));
+		assertThat(parse("1.2.0.M5000")).isLessThan(parse("1.2.0.RC1"));
+	}
+
+	@Test
+	public void parseReturnsSharedInstance() {
+		assertThat(Version.parse("1.2.3.RELEASE"))
+				.isSameAs(Version.parse("1.2.3.RELEASE"));
+	}
+
+	@Test
+	public void parseKeepsCachingOnceManyVersionsHaveBeenParsed() {
+		for (int i = 0; i < 1000; i++) {
+			Version.parse("1.0." + i + ".RELEASE");
+		}
+		assertThat(Version.parse("1.2.4.RELEASE"))
+				.isSameAs(Version.parse("1.2.4.RELEASE"));
+	}
+
+	@Test
+	public void registeredVersionIsNotEvicted() {
+		Version version = Version.register("1.2.5.RELEASE");
+		for (int i = 0; i < 1000; i++) {
+			Version.parse("2.0." + i + ".RELEASE");
+		}
+		assertThat(Version.parse("1.2.5.RELEASE")).isSameAs(version);
+	}
+
 	private Version parse(String text) {
 		return this.parser.parse(text);
 	}
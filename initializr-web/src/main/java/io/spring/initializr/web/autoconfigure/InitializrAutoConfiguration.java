@@ -16,6 +16,7 @@
 
 package io.spring.initializr.web.autoconfigure;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -28,31 +29,44 @@ import io.spring.initializr.generator.ProjectGenerator;
 import io.spring.initializr.generator.ProjectRequestPostProcessor;
 import io.spring.initializr.generator.ProjectRequestResolver;
 import io.spring.initializr.generator.ProjectResourceLocator;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
 import io.spring.initializr.metadata.DependencyMetadataProvider;
-import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataBuilder;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
 import io.spring.initializr.metadata.InitializrProperties;
 import io.spring.initializr.util.TemplateRenderer;
 import io.spring.initializr.web.project.MainController;
+import io.spring.initializr.web.project.ProjectGenerationLimiter;
+import io.spring.initializr.web.project.ProjectGenerationProperties;
 import io.spring.initializr.web.support.DefaultDependencyMetadataProvider;
 import io.spring.initializr.web.support.DefaultInitializrMetadataProvider;
+import io.spring.initializr.web.support.InitializrMetadataRefreshProperties;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
+import io.spring.initializr.web.support.ProjectWorkspaceSweeper;
+import io.spring.initializr.web.support.TemplateRendererPrecompiler;
 import io.spring.initializr.web.ui.UiController;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
 import org.springframework.boot.autoconfigure.web.client.RestTemplateAutoConfiguration;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.resource.ResourceUrlProvider;
 
 /**
@@ -66,7 +80,8 @@ import org.springframework.web.servlet.resource.ResourceUrlProvider;
  * @author Stephane Nicoll
  */
 @Configuration
-@EnableConfigurationProperties(InitializrProperties.class)
+@EnableConfigurationProperties({ InitializrProperties.class,
+		ProjectGenerationProperties.class, InitializrMetadataRefreshProperties.class })
 @AutoConfigureAfter({ JacksonAutoConfiguration.class,
 		RestTemplateAutoConfiguration.class })
 public class InitializrAutoConfiguration {
@@ -85,6 +100,28 @@ public class InitializrAutoConfiguration {
 		return new ProjectGenerator();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public ProjectWorkspaceManager projectWorkspaceManager(Environment environment,
+			ProjectGenerationProperties generationProperties) {
+		File directory = new File(
+				environment.resolvePlaceholders("${TMPDIR:.}/initializr"), "initializr");
+		DataSize quota = generationProperties.getWorkspace().getQuota();
+		return new ProjectWorkspaceManager(directory,
+				(quota != null) ? quota.toBytes() : -1);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	public ProjectWorkspaceSweeper projectWorkspaceSweeper(
+			ProjectWorkspaceManager workspaceManager,
+			ProjectGenerationProperties generationProperties) {
+		ProjectGenerationProperties.Workspace workspace = generationProperties
+				.getWorkspace();
+		return new ProjectWorkspaceSweeper(workspaceManager, workspace.getSweepInterval(),
+				workspace.getMaxAge());
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public TemplateRenderer templateRenderer(Environment environment) {
@@ -95,6 +132,13 @@ public class InitializrAutoConfiguration {
 		return templateRenderer;
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public TemplateRendererPrecompiler templateRendererPrecompiler(
+			TemplateRenderer templateRenderer) {
+		return new TemplateRendererPrecompiler(templateRenderer);
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public ProjectRequestResolver projectRequestResolver() {
@@ -109,13 +153,32 @@ public class InitializrAutoConfiguration {
 
 	@Bean
 	@ConditionalOnMissingBean(InitializrMetadataProvider.class)
-	public InitializrMetadataProvider initializrMetadataProvider(
-			InitializrProperties properties, ObjectMapper objectMapper,
-			RestTemplateBuilder restTemplateBuilder) {
-		InitializrMetadata metadata = InitializrMetadataBuilder
-				.fromInitializrProperties(properties).build();
-		return new DefaultInitializrMetadataProvider(metadata, objectMapper,
-				restTemplateBuilder.build());
+	public DefaultInitializrMetadataProvider initializrMetadataProvider(
+			InitializrProperties properties,
+			InitializrMetadataRefreshProperties refreshProperties,
+			ObjectMapper objectMapper, RestTemplateBuilder restTemplateBuilder,
+			ApplicationEventPublisher eventPublisher) {
+		RestTemplate restTemplate = restTemplateBuilder
+				.setConnectTimeout(refreshProperties.getTimeout())
+				.setReadTimeout(refreshProperties.getTimeout()).build();
+		DefaultInitializrMetadataProvider metadataProvider = new DefaultInitializrMetadataProvider(
+				() -> InitializrMetadataBuilder.fromInitializrProperties(properties)
+						.build(),
+				objectMapper, restTemplate);
+		metadataProvider.setEventPublisher(eventPublisher);
+		return metadataProvider;
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnBean(DefaultInitializrMetadataProvider.class)
+	@ConditionalOnProperty(prefix = "initializr.metadata.refresh", name = "enabled", matchIfMissing = true)
+	public InitializrMetadataRefresher initializrMetadataRefresher(
+			DefaultInitializrMetadataProvider metadataProvider,
+			InitializrMetadataRefreshProperties refreshProperties) {
+		return new InitializrMetadataRefresher(metadataProvider,
+				refreshProperties.getInterval(), refreshProperties.getJitter(),
+				refreshProperties.getBackoff());
 	}
 
 	@Bean
@@ -124,6 +187,22 @@ public class InitializrAutoConfiguration {
 		return new DefaultDependencyMetadataProvider();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty("initializr.generation.cache.enabled")
+	public ProjectArchiveCache projectArchiveCache(
+			ProjectGenerationProperties generationProperties) {
+		return new ProjectArchiveCache(
+				generationProperties.getCache().getMaxSize().toBytes());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = "initializr.generation", name = "coalesce", matchIfMissing = true)
+	public ProjectArchiveCoalescer projectArchiveCoalescer() {
+		return new ProjectArchiveCoalescer();
+	}
+
 	/**
 	 * Initializr web configuration.
 	 */
@@ -143,9 +222,24 @@ public class InitializrAutoConfiguration {
 				TemplateRenderer templateRenderer,
 				ResourceUrlProvider resourceUrlProvider,
 				ProjectGenerator projectGenerator,
-				DependencyMetadataProvider dependencyMetadataProvider) {
+				DependencyMetadataProvider dependencyMetadataProvider,
+				ProjectGenerationProperties generationProperties,
+				ObjectProvider<ProjectArchiveCache> archiveCache,
+				ProjectGenerationLimiter generationLimiter,
+				ObjectProvider<ProjectArchiveCoalescer> archiveCoalescer) {
 			return new MainController(metadataProvider, templateRenderer,
-					resourceUrlProvider, projectGenerator, dependencyMetadataProvider);
+					resourceUrlProvider, projectGenerator, dependencyMetadataProvider,
+					generationProperties, archiveCache.getIfAvailable(),
+					generationLimiter, archiveCoalescer.getIfAvailable());
+		}
+
+		@Bean
+		@ConditionalOnMissingBean
+		public ProjectGenerationLimiter projectGenerationLimiter(
+				ProjectGenerationProperties generationProperties) {
+			ProjectGenerationProperties.Limit limit = generationProperties.getLimit();
+			return new ProjectGenerationLimiter(limit.getConcurrency(),
+					limit.getQueueCapacity(), limit.getTimeout(), limit.getRetryAfter());
 		}
 
 		@Bean
@@ -170,7 +264,6 @@ public class InitializrAutoConfiguration {
 				cacheManager.createCache("initializr.metadata",
 						config().setExpiryPolicyFactory(
 								CreatedExpiryPolicy.factoryOf(Duration.TEN_MINUTES)));
-				cacheManager.createCache("initializr.dependency-metadata", config());
 				cacheManager.createCache("initializr.project-resources", config());
 			};
 		}
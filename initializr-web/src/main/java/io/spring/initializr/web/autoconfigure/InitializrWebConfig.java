@@ -23,8 +23,8 @@ import javax.servlet.http.HttpServletRequest;
 
 import io.spring.initializr.util.Agent;
 import io.spring.initializr.util.Agent.AgentId;
+import io.spring.initializr.web.support.AgentResolver;
 
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.util.StringUtils;
 import org.springframework.web.HttpMediaTypeNotAcceptableException;
@@ -65,19 +65,17 @@ public class InitializrWebConfig implements WebMvcConfigurer {
 		@Override
 		public List<MediaType> resolveMediaTypes(NativeWebRequest request)
 				throws HttpMediaTypeNotAcceptableException {
-			String path = this.urlPathHelper.getPathWithinApplication(
-					request.getNativeRequest(HttpServletRequest.class));
+			HttpServletRequest servletRequest = request
+					.getNativeRequest(HttpServletRequest.class);
+			String path = this.urlPathHelper.getPathWithinApplication(servletRequest);
 			if (!StringUtils.hasText(path) || !path.equals("/")) { // Only care about "/"
 				return MEDIA_TYPE_ALL_LIST;
 			}
-			String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
-			if (userAgent != null) {
-				Agent agent = Agent.fromUserAgent(userAgent);
-				if (agent != null) {
-					if (AgentId.CURL.equals(agent.getId())
-							|| AgentId.HTTPIE.equals(agent.getId())) {
-						return Collections.singletonList(MediaType.TEXT_PLAIN);
-					}
+			Agent agent = AgentResolver.resolve(servletRequest);
+			if (agent != null) {
+				if (AgentId.CURL.equals(agent.getId())
+						|| AgentId.HTTPIE.equals(agent.getId())) {
+					return Collections.singletonList(MediaType.TEXT_PLAIN);
 				}
 			}
 			return Collections.singletonList(MediaType.APPLICATION_JSON);
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.mapper;
+
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.DefaultMetadataElement;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyCompatibilityMatrix;
+import io.spring.initializr.metadata.InitializrConfiguration.Env;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.Repository;
+import io.spring.initializr.util.Version;
+
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Write the compatibility of the dependencies of an {@link InitializrMetadata} with all
+ * its Spring Boot versions as a single JSON document. The dependencies, boms and
+ * repositories are written once. For each Spring Boot version, the compatible
+ * dependencies are written as a bitmap, alongside the coordinates that differ for that
+ * version only.
+ * <p>
+ * The bitmap is the Base64 encoding of the little-endian representation of a
+ * {@link BitSet}, as returned by {@link BitSet#toByteArray()}: the bit at a given index
+ * is set if the dependency at that index is compatible. A bom that is not available for a
+ * given version is written as {@code null}.
+ *
+ * @author Julien Marchand
+ * @see DependencyCompatibilityMatrix
+ */
+public class DependencyCompatibilityJsonMapper {
+
+	private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+	/**
+	 * Write the compatibility document of the specified metadata.
+	 * @param metadata the metadata
+	 * @return the JSON document
+	 */
+	public String write(InitializrMetadata metadata) {
+		DependencyCompatibilityMatrix matrix = metadata
+				.getDependencyCompatibilityMatrix();
+		Env env = metadata.getConfiguration().getEnv();
+		List<Dependency> dependencies = matrix.getDependencies();
+		Set<String> repositoryIds = new LinkedHashSet<>();
+		Map<String, BillOfMaterials> boms = new LinkedHashMap<>();
+		ArrayNode dependenciesNode = nodeFactory.arrayNode();
+		for (Dependency dependency : dependencies) {
+			dependenciesNode.add(mapDependency(dependency));
+			if (dependency.getRepository() != null) {
+				repositoryIds.add(dependency.getRepository());
+			}
+			BillOfMaterials bom = (dependency.getBom() != null)
+					? env.getBoms().get(dependency.getBom()) : null;
+			if (bom != null) {
+				boms.put(dependency.getBom(), bom);
+				repositoryIds.addAll(bom.getRepositories());
+			}
+		}
+		ObjectNode bootVersions = nodeFactory.objectNode();
+		for (DefaultMetadataElement bootVersion : metadata.getBootVersions()
+				.getContent()) {
+			Version version = Version.safeParse(bootVersion.getId());
+			if (version != null) {
+				bootVersions.set(bootVersion.getId(), mapBootVersion(matrix, dependencies,
+						boms, version, repositoryIds));
+			}
+		}
+		ObjectNode bomsNode = nodeFactory.objectNode();
+		boms.forEach((id, bom) -> bomsNode.set(id, mapBom(bom)));
+		ObjectNode repositoriesNode = nodeFactory.objectNode();
+		for (String id : repositoryIds) {
+			Repository repository = env.getRepositories().get(id);
+			if (repository != null) {
+				repositoriesNode.set(id, mapRepository(repository));
+			}
+		}
+		ObjectNode json = nodeFactory.objectNode();
+		json.set("dependencies", dependenciesNode);
+		json.set("boms", bomsNode);
+		json.set("repositories", repositoriesNode);
+		json.set("bootVersions", bootVersions);
+		return json.toString();
+	}
+
+	private static JsonNode mapBootVersion(DependencyCompatibilityMatrix matrix,
+			List<Dependency> dependencies, Map<String, BillOfMaterials> boms,
+			Version version, Set<String> repositoryIds) {
+		BitSet compatible = matrix.getCompatibleDependencies(version);
+		ObjectNode dependenciesNode = nodeFactory.objectNode();
+		Set<String> bomIds = new LinkedHashSet<>();
+		for (int i = compatible.nextSetBit(0); i >= 0; i = compatible.nextSetBit(i + 1)) {
+			Dependency dependency = dependencies.get(i);
+			Dependency resolved = matrix.getResolvedDependency(dependency.getId(),
+					version);
+			if (resolved != dependency) {
+				ObjectNode override = mapDependencyOverride(dependency, resolved);
+				if (override.size() > 0) {
+					dependenciesNode.set(dependency.getId(), override);
+				}
+			}
+			if (dependency.getBom() != null) {
+				bomIds.add(dependency.getBom());
+			}
+		}
+		ObjectNode bomsNode = nodeFactory.objectNode();
+		for (String id : bomIds) {
+			BillOfMaterials bom = boms.get(id);
+			if (bom != null && !bom.getMappings().isEmpty()) {
+				BillOfMaterials resolved = resolveBom(bom, version);
+				if (resolved != null) {
+					bomsNode.set(id, mapBomOverride(bom, resolved));
+					repositoryIds.addAll(resolved.getRepositories());
+				}
+				else {
+					bomsNode.putNull(id);
+				}
+			}
+		}
+		ObjectNode node = nodeFactory.objectNode();
+		node.put("compatible",
+				Base64.getEncoder().encodeToString(compatible.toByteArray()));
+		if (dependenciesNode.size() > 0) {
+			node.set("dependencies", dependenciesNode);
+		}
+		if (bomsNode.size() > 0) {
+			node.set("boms", bomsNode);
+		}
+		return node;
+	}
+
+	private static BillOfMaterials resolveBom(BillOfMaterials bom, Version version) {
+		try {
+			return bom.resolve(version);
+		}
+		catch (IllegalStateException ex) {
+			// No mapping for that version
+			return null;
+		}
+	}
+
+	private static JsonNode mapDependency(Dependency dependency) {
+		ObjectNode node = nodeFactory.objectNode();
+		node.put("id", dependency.getId());
+		node.put("groupId", dependency.getGroupId());
+		node.put("artifactId", dependency.getArtifactId());
+		if (dependency.getVersion() != null) {
+			node.put("version", dependency.getVersion());
+		}
+		node.put("scope", dependency.getScope());
+		if (dependency.getBom() != null) {
+			node.put("bom", dependency.getBom());
+		}
+		if (dependency.getRepository() != null) {
+			node.put("repository", dependency.getRepository());
+		}
+		return node;
+	}
+
+	private static ObjectNode mapDependencyOverride(Dependency dependency,
+			Dependency resolved) {
+		ObjectNode node = nodeFactory.objectNode();
+		putIfDifferent(node, "groupId", dependency.getGroupId(), resolved.getGroupId());
+		putIfDifferent(node, "artifactId", dependency.getArtifactId(),
+				resolved.getArtifactId());
+		putIfDifferent(node, "version", dependency.getVersion(), resolved.getVersion());
+		return node;
+	}
+
+	private static JsonNode mapBom(BillOfMaterials bom) {
+		ObjectNode node = nodeFactory.objectNode();
+		node.put("groupId", bom.getGroupId());
+		node.put("artifactId", bom.getArtifactId());
+		if (bom.getVersion() != null) {
+			node.put("version", bom.getVersion());
+		}
+		if (!bom.getRepositories().isEmpty()) {
+			node.set("repositories", mapIds(bom.getRepositories()));
+		}
+		return node;
+	}
+
+	private static JsonNode mapBomOverride(BillOfMaterials bom,
+			BillOfMaterials resolved) {
+		ObjectNode node = nodeFactory.objectNode();
+		putIfDifferent(node, "groupId", bom.getGroupId(), resolved.getGroupId());
+		putIfDifferent(node, "artifactId", bom.getArtifactId(), resolved.getArtifactId());
+		putIfDifferent(node, "version", bom.getVersion(), resolved.getVersion());
+		if (!bom.getRepositories().equals(resolved.getRepositories())) {
+			node.set("repositories", mapIds(resolved.getRepositories()));
+		}
+		return node;
+	}
+
+	private static JsonNode mapRepository(Repository repo) {
+		ObjectNode node = nodeFactory.objectNode();
+		node.put("name", repo.getName())
+				.put("url", (repo.getUrl() != null) ? repo.getUrl().toString() : null)
+				.put("snapshotEnabled", repo.isSnapshotsEnabled());
+		return node;
+	}
+
+	private static JsonNode mapIds(List<String> ids) {
+		ArrayNode array = nodeFactory.arrayNode();
+		ids.forEach(array::add);
+		return array;
+	}
+
+	private static void putIfDifferent(ObjectNode node, String name, String value,
+			String resolvedValue) {
+		if (!ObjectUtils.nullSafeEquals(value, resolvedValue)) {
+			node.put(name, resolvedValue);
+		}
+	}
+
+}
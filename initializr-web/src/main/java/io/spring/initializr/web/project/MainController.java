@@ -16,22 +16,44 @@
 
 package io.spring.initializr.web.project;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import com.samskivert.mustache.Mustache;
 import io.spring.initializr.generator.BasicProjectRequest;
 import io.spring.initializr.generator.CommandLineHelpGenerator;
+import io.spring.initializr.generator.InMemoryProjectSink;
+import io.spring.initializr.generator.ProjectGenerationSource;
+import io.spring.initializr.generator.ProjectGenerationTimings;
 import io.spring.initializr.generator.ProjectGenerator;
 import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectSink;
+import io.spring.initializr.generator.ProjectWorkspaceQuotaExceededException;
+import io.spring.initializr.generator.archive.ArchiveFormat;
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.generator.archive.ProjectArchiveCache.CachedArchive;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer.Flight;
 import io.spring.initializr.metadata.DependencyMetadata;
 import io.spring.initializr.metadata.DependencyMetadataProvider;
 import io.spring.initializr.metadata.InitializrMetadata;
@@ -40,32 +62,34 @@ import io.spring.initializr.util.Agent;
 import io.spring.initializr.util.Agent.AgentId;
 import io.spring.initializr.util.TemplateRenderer;
 import io.spring.initializr.util.Version;
+import io.spring.initializr.web.mapper.DependencyCompatibilityJsonMapper;
 import io.spring.initializr.web.mapper.DependencyMetadataV21JsonMapper;
 import io.spring.initializr.web.mapper.InitializrMetadataJsonMapper;
 import io.spring.initializr.web.mapper.InitializrMetadataV21JsonMapper;
 import io.spring.initializr.web.mapper.InitializrMetadataV2JsonMapper;
 import io.spring.initializr.web.mapper.InitializrMetadataVersion;
-import org.apache.tools.ant.Project;
-import org.apache.tools.ant.taskdefs.Tar;
-import org.apache.tools.ant.taskdefs.Zip;
-import org.apache.tools.ant.types.TarFileSet;
-import org.apache.tools.ant.types.ZipFileSet;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.spring.initializr.web.support.AgentResolver;
+import io.spring.initializr.web.support.MetadataContentCache;
+import io.spring.initializr.web.support.MetadataContentCache.Content;
 
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ResponseEntity.BodyBuilder;
 import org.springframework.stereotype.Controller;
 import org.springframework.util.DigestUtils;
-import org.springframework.util.StreamUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.resource.ResourceUrlProvider;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
@@ -79,35 +103,70 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 @Controller
 public class MainController extends AbstractInitializrController {
 
-	private static final Logger log = LoggerFactory.getLogger(MainController.class);
-
 	/**
 	 * HAL JSON content type.
 	 */
 	public static final MediaType HAL_JSON_CONTENT_TYPE = MediaType
 			.parseMediaType("application/hal+json");
 
+	private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
 	private final ProjectGenerator projectGenerator;
 
 	private final DependencyMetadataProvider dependencyMetadataProvider;
 
 	private final CommandLineHelpGenerator commandLineHelpGenerator;
 
+	private final ProjectGenerationProperties generationProperties;
+
+	private final ProjectArchiveCache archiveCache;
+
+	private final ProjectGenerationLimiter generationLimiter;
+
+	private final ProjectArchiveCoalescer archiveCoalescer;
+
+	private final InitializrMetadataJsonMapper v2JsonMapper = new InitializrMetadataV2JsonMapper();
+
+	private final InitializrMetadataJsonMapper v21JsonMapper = new InitializrMetadataV21JsonMapper();
+
+	private final DependencyMetadataV21JsonMapper dependencyMetadataJsonMapper = new DependencyMetadataV21JsonMapper();
+
+	private final MetadataContentCache<String> metadataContentCache = new MetadataContentCache<>(
+			64);
+
+	private final MetadataContentCache<Version> dependenciesContentCache;
+
+	private final DependencyCompatibilityJsonMapper dependencyCompatibilityJsonMapper = new DependencyCompatibilityJsonMapper();
+
+	private final MetadataContentCache<String> compatibilityContentCache = new MetadataContentCache<>(
+			1);
+
 	public MainController(InitializrMetadataProvider metadataProvider,
 			TemplateRenderer templateRenderer, ResourceUrlProvider resourceUrlProvider,
 			ProjectGenerator projectGenerator,
-			DependencyMetadataProvider dependencyMetadataProvider) {
+			DependencyMetadataProvider dependencyMetadataProvider,
+			ProjectGenerationProperties generationProperties,
+			ProjectArchiveCache archiveCache, ProjectGenerationLimiter generationLimiter,
+			ProjectArchiveCoalescer archiveCoalescer) {
 		super(metadataProvider, resourceUrlProvider);
 		this.projectGenerator = projectGenerator;
 		this.dependencyMetadataProvider = dependencyMetadataProvider;
 		this.commandLineHelpGenerator = new CommandLineHelpGenerator(templateRenderer);
+		this.generationProperties = generationProperties;
+		this.archiveCache = archiveCache;
+		this.generationLimiter = generationLimiter;
+		this.archiveCoalescer = archiveCoalescer;
+		this.dependenciesContentCache = new MetadataContentCache<>(32,
+				MainController::getBootVersions);
 	}
 
 	@ModelAttribute
 	public BasicProjectRequest projectRequest(
-			@RequestHeader Map<String, String> headers) {
+			@RequestHeader Map<String, String> headers,
+			HttpServletRequest servletRequest) {
 		ProjectRequest request = new ProjectRequest();
 		request.getParameters().putAll(headers);
+		request.setAgent(AgentResolver.resolve(servletRequest));
 		request.initialize(this.metadataProvider.get());
 		return request;
 	}
@@ -124,30 +183,27 @@ public class MainController extends AbstractInitializrController {
 	}
 
 	@RequestMapping(path = "/", produces = "text/plain")
-	public ResponseEntity<String> serviceCapabilitiesText(
-			@RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent) {
+	public ResponseEntity<String> serviceCapabilitiesText(HttpServletRequest request) {
 		String appUrl = generateAppUrl();
 		InitializrMetadata metadata = this.metadataProvider.get();
 
 		BodyBuilder builder = ResponseEntity.ok().contentType(MediaType.TEXT_PLAIN);
-		if (userAgent != null) {
-			Agent agent = Agent.fromUserAgent(userAgent);
-			if (agent != null) {
-				if (AgentId.CURL.equals(agent.getId())) {
-					String content = this.commandLineHelpGenerator
-							.generateCurlCapabilities(metadata, appUrl);
-					return builder.eTag(createUniqueId(content)).body(content);
-				}
-				if (AgentId.HTTPIE.equals(agent.getId())) {
-					String content = this.commandLineHelpGenerator
-							.generateHttpieCapabilities(metadata, appUrl);
-					return builder.eTag(createUniqueId(content)).body(content);
-				}
-				if (AgentId.SPRING_BOOT_CLI.equals(agent.getId())) {
-					String content = this.commandLineHelpGenerator
-							.generateSpringBootCliCapabilities(metadata, appUrl);
-					return builder.eTag(createUniqueId(content)).body(content);
-				}
+		Agent agent = AgentResolver.resolve(request);
+		if (agent != null) {
+			if (AgentId.CURL.equals(agent.getId())) {
+				String content = this.commandLineHelpGenerator
+						.generateCurlCapabilities(metadata, appUrl);
+				return builder.eTag(createUniqueId(content)).body(content);
+			}
+			if (AgentId.HTTPIE.equals(agent.getId())) {
+				String content = this.commandLineHelpGenerator
+						.generateHttpieCapabilities(metadata, appUrl);
+				return builder.eTag(createUniqueId(content)).body(content);
+			}
+			if (AgentId.SPRING_BOOT_CLI.equals(agent.getId())) {
+				String content = this.commandLineHelpGenerator
+						.generateSpringBootCliCapabilities(metadata, appUrl);
+				return builder.eTag(createUniqueId(content)).body(content);
 			}
 		}
 		String content = this.commandLineHelpGenerator
@@ -156,64 +212,102 @@ public class MainController extends AbstractInitializrController {
 	}
 
 	@RequestMapping(path = "/", produces = "application/hal+json")
-	public ResponseEntity<String> serviceCapabilitiesHal() {
+	public ResponseEntity<byte[]> serviceCapabilitiesHal() {
 		return serviceCapabilitiesFor(InitializrMetadataVersion.V2_1,
 				HAL_JSON_CONTENT_TYPE);
 	}
 
 	@RequestMapping(path = "/", produces = { "application/vnd.initializr.v2.1+json",
 			"application/json" })
-	public ResponseEntity<String> serviceCapabilitiesV21() {
+	public ResponseEntity<byte[]> serviceCapabilitiesV21() {
 		return serviceCapabilitiesFor(InitializrMetadataVersion.V2_1);
 	}
 
 	@RequestMapping(path = "/", produces = "application/vnd.initializr.v2+json")
-	public ResponseEntity<String> serviceCapabilitiesV2() {
+	public ResponseEntity<byte[]> serviceCapabilitiesV2() {
 		return serviceCapabilitiesFor(InitializrMetadataVersion.V2);
 	}
 
-	private ResponseEntity<String> serviceCapabilitiesFor(
+	private ResponseEntity<byte[]> serviceCapabilitiesFor(
 			InitializrMetadataVersion version) {
 		return serviceCapabilitiesFor(version, version.getMediaType());
 	}
 
-	private ResponseEntity<String> serviceCapabilitiesFor(
+	private ResponseEntity<byte[]> serviceCapabilitiesFor(
 			InitializrMetadataVersion version, MediaType contentType) {
 		String appUrl = generateAppUrl();
-		String content = getJsonMapper(version).write(this.metadataProvider.get(),
-				appUrl);
-		return ResponseEntity.ok().contentType(contentType).eTag(createUniqueId(content))
-				.cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS)).body(content);
+		InitializrMetadata metadata = this.metadataProvider.get();
+		Content content = this.metadataContentCache.get(metadata,
+				version.name() + ":" + appUrl,
+				() -> getJsonMapper(version).write(metadata, appUrl));
+		return ResponseEntity.ok()
+				.contentType(new MediaType(contentType, StandardCharsets.UTF_8))
+				.eTag(content.getETag())
+				.cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS))
+				.body(content.getContent());
 	}
 
-	private static InitializrMetadataJsonMapper getJsonMapper(
+	private InitializrMetadataJsonMapper getJsonMapper(
 			InitializrMetadataVersion version) {
 		switch (version) {
 		case V2:
-			return new InitializrMetadataV2JsonMapper();
+			return this.v2JsonMapper;
 		default:
-			return new InitializrMetadataV21JsonMapper();
+			return this.v21JsonMapper;
 		}
 	}
 
 	@RequestMapping(path = "/dependencies", produces = {
 			"application/vnd.initializr.v2.1+json", "application/json" })
-	public ResponseEntity<String> dependenciesV21(
-			@RequestParam(required = false) String bootVersion) {
-		return dependenciesFor(InitializrMetadataVersion.V2_1, bootVersion);
+	public ResponseEntity<byte[]> dependenciesV21(
+			@RequestParam(required = false) String bootVersion,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		return dependenciesFor(InitializrMetadataVersion.V2_1, bootVersion,
+				acceptEncoding);
+	}
+
+	@RequestMapping(path = "/dependencies/compatibility", produces = "application/json")
+	public ResponseEntity<byte[]> dependenciesCompatibility(
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		Content content = this.compatibilityContentCache.get(metadata, "compatibility",
+				() -> this.dependencyCompatibilityJsonMapper.write(metadata));
+		return content.toResponseEntity(
+				ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+						.cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS)),
+				acceptEncoding);
 	}
 
-	private ResponseEntity<String> dependenciesFor(InitializrMetadataVersion version,
-			String bootVersion) {
+	private ResponseEntity<byte[]> dependenciesFor(InitializrMetadataVersion version,
+			String bootVersion, String acceptEncoding) {
 		InitializrMetadata metadata = this.metadataProvider.get();
-		Version v = (bootVersion != null) ? Version.parse(bootVersion)
-				: Version.parse(metadata.getBootVersions().getDefault().getId());
+		Version version = Version.parse((bootVersion != null) ? bootVersion
+				: metadata.getBootVersions().getDefault().getId());
+		Content content = this.dependenciesContentCache.get(metadata, version,
+				() -> renderDependencies(metadata, version));
+		return content.toResponseEntity(
+				ResponseEntity.ok()
+						.contentType(new MediaType(version.getMediaType(),
+								StandardCharsets.UTF_8))
+						.cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS)),
+				acceptEncoding);
+	}
+
+	private static Set<Version> getBootVersions(InitializrMetadata metadata) {
+		Set<Version> versions = new HashSet<>();
+		metadata.getBootVersions().getContent().forEach((bootVersion) -> {
+			Version version = Version.safeParse(bootVersion.getId());
+			if (version != null) {
+				versions.add(version);
+			}
+		});
+		return versions;
+	}
+
+	private String renderDependencies(InitializrMetadata metadata, Version bootVersion) {
 		DependencyMetadata dependencyMetadata = this.dependencyMetadataProvider
-				.get(metadata, v);
-		String content = new DependencyMetadataV21JsonMapper().write(dependencyMetadata);
-		return ResponseEntity.ok().contentType(version.getMediaType())
-				.eTag(createUniqueId(content))
-				.cacheControl(CacheControl.maxAge(7, TimeUnit.DAYS)).body(content);
+				.get(metadata, bootVersion);
+		return this.dependencyMetadataJsonMapper.write(dependencyMetadata);
 	}
 
 	@ModelAttribute("linkTo")
@@ -246,85 +340,278 @@ public class MainController extends AbstractInitializrController {
 
 	@RequestMapping(path = { "/pom", "/pom.xml" })
 	@ResponseBody
-	public ResponseEntity<byte[]> pom(BasicProjectRequest request) {
+	public DeferredResult<ResponseEntity<byte[]>> pom(BasicProjectRequest request) {
 		request.setType("maven-build");
-		byte[] mavenPom = this.projectGenerator
-				.generateMavenPom((ProjectRequest) request);
-		return createResponseEntity(mavenPom, "application/octet-stream", "pom.xml");
+		return this.generationLimiter.submit(() -> {
+			byte[] mavenPom = this.projectGenerator
+					.generateMavenPom((ProjectRequest) request);
+			return createResponseEntity((ProjectRequest) request, mavenPom,
+					"application/octet-stream", "pom.xml");
+		});
 	}
 
 	@RequestMapping(path = { "/build", "/build.gradle" })
 	@ResponseBody
-	public ResponseEntity<byte[]> gradle(BasicProjectRequest request) {
+	public DeferredResult<ResponseEntity<byte[]>> gradle(BasicProjectRequest request) {
 		request.setType("gradle-build");
-		byte[] gradleBuild = this.projectGenerator
-				.generateGradleBuild((ProjectRequest) request);
-		return createResponseEntity(gradleBuild, "application/octet-stream",
-				"build.gradle");
+		return this.generationLimiter.submit(() -> {
+			byte[] gradleBuild = this.projectGenerator
+					.generateGradleBuild((ProjectRequest) request);
+			return createResponseEntity((ProjectRequest) request, gradleBuild,
+					"application/octet-stream", "build.gradle");
+		});
 	}
 
 	@RequestMapping("/starter.zip")
 	@ResponseBody
-	public ResponseEntity<byte[]> springZip(BasicProjectRequest basicRequest)
-			throws IOException {
-		ProjectRequest request = (ProjectRequest) basicRequest;
-		File dir = this.projectGenerator.generateProjectStructure(request);
-
-		File download = this.projectGenerator.createDistributionFile(dir, ".zip");
-
-		String wrapperScript = getWrapperScript(request);
-		new File(dir, wrapperScript).setExecutable(true);
-		Zip zip = new Zip();
-		zip.setProject(new Project());
-		zip.setDefaultexcludes(false);
-		ZipFileSet set = new ZipFileSet();
-		set.setDir(dir);
-		set.setFileMode("755");
-		set.setIncludes(wrapperScript);
-		set.setDefaultexcludes(false);
-		zip.addFileset(set);
-		set = new ZipFileSet();
-		set.setDir(dir);
-		set.setIncludes("**,");
-		set.setExcludes(wrapperScript);
-		set.setDefaultexcludes(false);
-		zip.addFileset(set);
-		zip.setDestFile(download.getCanonicalFile());
-		zip.execute();
-		return upload(download, dir, generateFileName(request, "zip"), "application/zip");
+	public DeferredResult<ResponseEntity<StreamingResponseBody>> springZip(
+			BasicProjectRequest basicRequest, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		return download((ProjectRequest) basicRequest, ArchiveFormat.ZIP,
+				new ServletWebRequest(request, response));
 	}
 
 	@RequestMapping(path = "/starter.tgz", produces = "application/x-compress")
 	@ResponseBody
-	public ResponseEntity<byte[]> springTgz(BasicProjectRequest basicRequest)
+	public DeferredResult<ResponseEntity<StreamingResponseBody>> springTgz(
+			BasicProjectRequest basicRequest, HttpServletRequest request,
+			HttpServletResponse response) throws IOException {
+		return download((ProjectRequest) basicRequest, ArchiveFormat.TAR_GZ,
+				new ServletWebRequest(request, response));
+	}
+
+	@ExceptionHandler
+	public void projectGenerationRejected(HttpServletResponse response,
+			ProjectGenerationRejectedException ex) throws IOException {
+		sendServiceUnavailable(response, ex.getRetryAfter(), ex.getMessage());
+	}
+
+	@ExceptionHandler
+	public void workspaceQuotaExceeded(HttpServletResponse response,
+			ProjectWorkspaceQuotaExceededException ex) throws IOException {
+		sendServiceUnavailable(response,
+				this.generationProperties.getLimit().getRetryAfter(), ex.getMessage());
+	}
+
+	private void sendServiceUnavailable(HttpServletResponse response, Duration retryAfter,
+			String message) throws IOException {
+		response.setHeader(HttpHeaders.RETRY_AFTER,
+				String.valueOf(Math.max(1, retryAfter.getSeconds())));
+		response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), message);
+	}
+
+	private DeferredResult<ResponseEntity<StreamingResponseBody>> download(
+			ProjectRequest request, ArchiveFormat format, ServletWebRequest webRequest)
 			throws IOException {
-		ProjectRequest request = (ProjectRequest) basicRequest;
+		InitializrMetadata metadata = this.metadataProvider.get();
+		ProjectArchiveCache.Key cacheKey = (this.archiveCache != null)
+				? this.archiveCache.createKey(request, format, metadata) : null;
+		if (cacheKey != null) {
+			CachedArchive archive = this.archiveCache.get(cacheKey);
+			if (archive != null) {
+				// Nothing to generate so no need to wait for a generation slot
+				this.projectGenerator.recordProjectGeneration(request,
+						ProjectGenerationSource.CACHE);
+				writeCachedArchive(request, format, archive, webRequest);
+				return null;
+			}
+		}
+		if (this.archiveCoalescer == null) {
+			return this.generationLimiter
+					.submit(() -> createArchiveResponse(request, format, cacheKey));
+		}
+		Flight flight = this.archiveCoalescer.join(
+				this.archiveCoalescer.createKey(request, format, metadata));
+		if (!flight.isLeader()) {
+			// Only the request that generates the archive needs a generation slot
+			return awaitArchive(request, format, flight);
+		}
+		try {
+			return this.generationLimiter.submit(
+					() -> createSharedArchiveResponse(request, format, cacheKey, flight),
+					() -> flight.fail(new ProjectGenerationRejectedException(
+							"Timed out waiting for a project generation slot",
+							this.generationProperties.getLimit().getRetryAfter())));
+		}
+		catch (ProjectGenerationRejectedException ex) {
+			flight.fail(ex);
+			throw ex;
+		}
+	}
+
+	private ResponseEntity<StreamingResponseBody> createArchiveResponse(
+			ProjectRequest request, ArchiveFormat format,
+			ProjectArchiveCache.Key cacheKey) throws IOException {
+		if (cacheKey == null) {
+			return createStreamingArchiveResponse(request, format);
+		}
+		CachedArchive archive = this.archiveCache.put(cacheKey,
+				createArchive(request, format));
+		return createArchiveResponse(request, format, archive.getContent(),
+				archive.getETag());
+	}
+
+	private ResponseEntity<StreamingResponseBody> createSharedArchiveResponse(
+			ProjectRequest request, ArchiveFormat format,
+			ProjectArchiveCache.Key cacheKey, Flight flight) throws IOException {
+		byte[] content;
+		CachedArchive archive;
+		try {
+			content = createArchive(request, format);
+			archive = (cacheKey != null) ? this.archiveCache.put(cacheKey, content)
+					: null;
+		}
+		catch (IOException | RuntimeException | Error ex) {
+			flight.fail(ex);
+			throw ex;
+		}
+		// Release identical requests before the archive is transferred to this client
+		flight.complete(content);
+		return createArchiveResponse(request, format, content,
+				(archive != null) ? archive.getETag() : null);
+	}
+
+	private DeferredResult<ResponseEntity<StreamingResponseBody>> awaitArchive(
+			ProjectRequest request, ArchiveFormat format, Flight flight) {
+		DeferredResult<ResponseEntity<StreamingResponseBody>> result;
+		result = new DeferredResult<>();
+		flight.getContent().whenComplete((content, ex) -> {
+			if (ex != null) {
+				result.setErrorResult((ex instanceof CompletionException
+						&& ex.getCause() != null) ? ex.getCause() : ex);
+				return;
+			}
+			this.projectGenerator.recordProjectGeneration(request,
+					ProjectGenerationSource.COALESCED);
+			result.setResult(createArchiveResponse(request, format, content, null));
+		});
+		return result;
+	}
+
+	private void writeCachedArchive(ProjectRequest request, ArchiveFormat format,
+			CachedArchive archive, ServletWebRequest webRequest) throws IOException {
+		if (webRequest.checkNotModified(archive.getETag())) {
+			return;
+		}
+		HttpServletResponse response = webRequest.getResponse();
+		String fileName = generateFileName(request, format.getExtension());
+		response.setContentType(format.getContentType());
+		response.setHeader("Content-Disposition",
+				"attachment; filename=\"" + fileName + "\"");
+		if (this.generationProperties.isServerTiming()) {
+			response.setHeader(SERVER_TIMING_HEADER, getServerTiming(request));
+		}
+		response.setContentLength(archive.getContent().length);
+		writeArchive(request, archive.getContent(), response.getOutputStream());
+	}
+
+	private ResponseEntity<StreamingResponseBody> createStreamingArchiveResponse(
+			ProjectRequest request, ArchiveFormat format) throws IOException {
+		InMemoryProjectSink project = generateProject(request);
+		// The archive is streamed to the client so archiving includes the upload
+		return createDownloadResponseEntity(request, format).body((out) -> {
+			long start = System.nanoTime();
+			format.write(project.getEntries(), out);
+			this.projectGenerator.recordPhase(request, ProjectGenerationTimings.ARCHIVE,
+					start);
+		});
+	}
+
+	private ResponseEntity<StreamingResponseBody> createArchiveResponse(
+			ProjectRequest request, ArchiveFormat format, byte[] content,
+			String eTag) {
+		BodyBuilder builder = createDownloadResponseEntity(request, format)
+				.contentLength(content.length);
+		if (eTag != null) {
+			builder.eTag(eTag);
+		}
+		return builder.body((out) -> writeArchive(request, content, out));
+	}
+
+	private void writeArchive(ProjectRequest request, byte[] content, OutputStream out)
+			throws IOException {
+		long start = System.nanoTime();
+		out.write(content);
+		this.projectGenerator.recordPhase(request, ProjectGenerationTimings.UPLOAD,
+				start);
+	}
+
+	private byte[] createArchive(ProjectRequest request, ArchiveFormat format)
+			throws IOException {
+		InMemoryProjectSink project = generateProject(request);
+		long start = System.nanoTime();
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		format.write(project.getEntries(), out);
+		this.projectGenerator.recordPhase(request, ProjectGenerationTimings.ARCHIVE,
+				start);
+		return out.toByteArray();
+	}
+
+	private BodyBuilder createDownloadResponseEntity(ProjectRequest request,
+			ArchiveFormat format) {
+		String fileName = generateFileName(request, format.getExtension());
+		BodyBuilder builder = ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType(format.getContentType()))
+				.header("Content-Disposition",
+						"attachment; filename=\"" + fileName + "\"");
+		if (this.generationProperties.isServerTiming()) {
+			builder.header(SERVER_TIMING_HEADER, getServerTiming(request));
+		}
+		return builder;
+	}
+
+	private InMemoryProjectSink generateProject(ProjectRequest request)
+			throws IOException {
+		if (this.generationProperties.isInMemory()) {
+			InMemoryProjectSink project = new InMemoryProjectSink();
+			this.projectGenerator.generateProjectStructure(request, project);
+			return project;
+		}
 		File dir = this.projectGenerator.generateProjectStructure(request);
+		long start = System.nanoTime();
+		try {
+			InMemoryProjectSink project = readProject(dir, getWrapperScript(request));
+			start = this.projectGenerator.recordPhase(request,
+					ProjectGenerationTimings.READ, start);
+			return project;
+		}
+		finally {
+			this.projectGenerator.cleanTempFiles(dir);
+			this.projectGenerator.recordPhase(request, ProjectGenerationTimings.CLEANUP,
+					start);
+		}
+	}
+
+	private InMemoryProjectSink readProject(File dir, String wrapperScript)
+			throws IOException {
+		InMemoryProjectSink project = new InMemoryProjectSink();
+		Path root = dir.toPath();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path directory,
+					BasicFileAttributes attributes) {
+				project.addDirectory(getRelativePath(directory));
+				return FileVisitResult.CONTINUE;
+			}
 
-		File download = this.projectGenerator.createDistributionFile(dir, ".tar.gz");
-
-		String wrapperScript = getWrapperScript(request);
-		new File(dir, wrapperScript).setExecutable(true);
-		Tar zip = new Tar();
-		zip.setProject(new Project());
-		zip.setDefaultexcludes(false);
-		TarFileSet set = zip.createTarFileSet();
-		set.setDir(dir);
-		set.setFileMode("755");
-		set.setIncludes(wrapperScript);
-		set.setDefaultexcludes(false);
-		set = zip.createTarFileSet();
-		set.setDir(dir);
-		set.setIncludes("**,");
-		set.setExcludes(wrapperScript);
-		set.setDefaultexcludes(false);
-		zip.setDestFile(download.getCanonicalFile());
-		Tar.TarCompressionMethod method = new Tar.TarCompressionMethod();
-		method.setValue("gzip");
-		zip.setCompression(method);
-		zip.execute();
-		return upload(download, dir, generateFileName(request, "tar.gz"),
-				"application/x-compress");
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+					throws IOException {
+				String path = getRelativePath(file);
+				boolean executable = path.equals(wrapperScript)
+						|| Files.isExecutable(file);
+				project.addFile(path, Files.readAllBytes(file), executable
+						? ProjectSink.EXECUTABLE_FILE_MODE : ProjectSink.FILE_MODE);
+				return FileVisitResult.CONTINUE;
+			}
+
+			private String getRelativePath(Path path) {
+				return StringUtils.cleanPath(root.relativize(path).toString());
+			}
+
+		});
+		return project;
 	}
 
 	private static String generateFileName(ProjectRequest request, String extension) {
@@ -343,21 +630,33 @@ public class MainController extends AbstractInitializrController {
 				: script;
 	}
 
-	private ResponseEntity<byte[]> upload(File download, File dir, String fileName,
-			String contentType) throws IOException {
-		byte[] bytes = StreamUtils.copyToByteArray(new FileInputStream(download));
-		log.info("Uploading: {} ({} bytes)", download, bytes.length);
-		ResponseEntity<byte[]> result = createResponseEntity(bytes, contentType,
-				fileName);
-		this.projectGenerator.cleanTempFiles(dir);
-		return result;
+	private ResponseEntity<byte[]> createResponseEntity(ProjectRequest request,
+			byte[] content, String contentType, String fileName) {
+		String contentDispositionValue = "attachment; filename=\"" + fileName + "\"";
+		BodyBuilder builder = ResponseEntity.ok().header("Content-Type", contentType)
+				.header("Content-Disposition", contentDispositionValue);
+		if (this.generationProperties.isServerTiming()) {
+			builder.header(SERVER_TIMING_HEADER, getServerTiming(request));
+		}
+		return builder.body(content);
 	}
 
-	private ResponseEntity<byte[]> createResponseEntity(byte[] content,
-			String contentType, String fileName) {
-		String contentDispositionValue = "attachment; filename=\"" + fileName + "\"";
-		return ResponseEntity.ok().header("Content-Type", contentType)
-				.header("Content-Disposition", contentDispositionValue).body(content);
+	/**
+	 * Return the value of the {@code Server-Timing} header for the phases of the
+	 * specified request that have completed, with durations in milliseconds.
+	 * @param request the project request
+	 * @return the value of the {@code Server-Timing} header
+	 */
+	private static String getServerTiming(ProjectRequest request) {
+		StringBuilder value = new StringBuilder();
+		request.getTimings().getPhases().forEach((phase, duration) -> {
+			if (value.length() > 0) {
+				value.append(", ");
+			}
+			value.append(phase).append(";dur=")
+					.append(String.format(Locale.ROOT, "%.3f", duration.toNanos() / 1e6));
+		});
+		return value.toString();
 	}
 
 	private String createUniqueId(String content) {
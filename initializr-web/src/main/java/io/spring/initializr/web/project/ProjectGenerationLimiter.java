@@ -0,0 +1,279 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.async.DeferredResult;
+
+/**
+ * Limit the number of projects that are generated concurrently. Projects are generated
+ * asynchronously by a dedicated pool of threads so that a burst of generation requests
+ * does not starve the other endpoints of the service.
+ * <p>
+ * Requests that cannot be handled immediately wait in a queue of limited capacity. When
+ * the queue is full, or when a request has waited for a slot longer than the timeout,
+ * requests are rejected with a {@link ProjectGenerationRejectedException}. Once a task
+ * has started, it runs to completion regardless of the timeout.
+ * <p>
+ * Tasks produce the result of the request rather than writing to the response, so that
+ * the response is only written by the web server.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationLimiter implements DisposableBean {
+
+	private static final int QUEUED = 0;
+
+	private static final int RUNNING = 1;
+
+	private static final int DONE = 2;
+
+	private final int concurrency;
+
+	private final int queueCapacity;
+
+	private final long timeout;
+
+	private final Duration retryAfter;
+
+	private final ThreadPoolTaskExecutor executor;
+
+	private final ScheduledThreadPoolExecutor expirations;
+
+	private final AtomicInteger pending = new AtomicInteger();
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LongAdder rejectedCount = new LongAdder();
+
+	private final LongAdder completedCount = new LongAdder();
+
+	/**
+	 * Create a new instance.
+	 * @param concurrency the maximum number of projects generated concurrently
+	 * @param queueCapacity the maximum number of requests waiting for a slot
+	 * @param timeout the maximum time a request waits for a slot
+	 * @param retryAfter the time after which clients of rejected requests are advised to
+	 * try again
+	 */
+	public ProjectGenerationLimiter(int concurrency, int queueCapacity, Duration timeout,
+			Duration retryAfter) {
+		this.concurrency = concurrency;
+		this.queueCapacity = queueCapacity;
+		this.timeout = timeout.toMillis();
+		this.retryAfter = retryAfter;
+		this.executor = new ThreadPoolTaskExecutor();
+		this.executor.setCorePoolSize(concurrency);
+		this.executor.setMaxPoolSize(concurrency);
+		this.executor.setThreadNamePrefix("initializr-generation-");
+		this.executor.initialize();
+		this.expirations = new ScheduledThreadPoolExecutor(1, (task) -> {
+			Thread thread = new Thread(task, "initializr-generation-timeout");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.expirations.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * Submit the specified project generation task. The task is rejected if the maximum
+	 * number of concurrent generations is reached and the queue is full.
+	 * @param task the task that generates the project
+	 * @param <T> the type of the result of the task
+	 * @return a deferred result to return from a controller method
+	 * @throws ProjectGenerationRejectedException if the task is rejected
+	 */
+	public <T> DeferredResult<T> submit(Callable<T> task) {
+		return submit(task, null);
+	}
+
+	/**
+	 * Submit the specified project generation task, invoking the specified callback if
+	 * the task is discarded before it had a chance to run, because it waited for a slot
+	 * longer than the timeout or because the request completed in the meantime. The task
+	 * is rejected if the maximum number of concurrent generations is reached and the
+	 * queue is full.
+	 * @param task the task that generates the project
+	 * @param discardCallback the callback to invoke if the task is discarded or
+	 * {@code null}
+	 * @param <T> the type of the result of the task
+	 * @return a deferred result to return from a controller method
+	 * @throws ProjectGenerationRejectedException if the task is rejected
+	 */
+	public <T> DeferredResult<T> submit(Callable<T> task, Runnable discardCallback) {
+		if (this.pending.incrementAndGet() > this.concurrency + this.queueCapacity) {
+			this.pending.decrementAndGet();
+			this.rejectedCount.increment();
+			throw new ProjectGenerationRejectedException(
+					"Too many concurrent project generation requests", this.retryAfter);
+		}
+		DeferredResult<T> result = new DeferredResult<>();
+		LimitedTask<T> limitedTask = new LimitedTask<>(task, result, discardCallback);
+		result.onCompletion(limitedTask::discard);
+		limitedTask.expiration = this.expirations.schedule(limitedTask::expire,
+				this.timeout, TimeUnit.MILLISECONDS);
+		this.executor.execute(limitedTask);
+		return result;
+	}
+
+	/**
+	 * Return the maximum number of projects that are generated concurrently.
+	 * @return the concurrency limit
+	 */
+	public int getConcurrency() {
+		return this.concurrency;
+	}
+
+	/**
+	 * Return the maximum number of requests that wait for a generation slot.
+	 * @return the queue capacity
+	 */
+	public int getQueueCapacity() {
+		return this.queueCapacity;
+	}
+
+	/**
+	 * Return the number of projects that are being generated.
+	 * @return the number of active generations
+	 */
+	public int getActiveCount() {
+		return this.active.get();
+	}
+
+	/**
+	 * Return the number of requests that wait for a generation slot.
+	 * @return the number of queued requests
+	 */
+	public int getQueuedCount() {
+		return Math.max(0, this.pending.get() - this.active.get());
+	}
+
+	/**
+	 * Return the number of requests that have been rejected, either because the queue
+	 * was full or because they waited for a slot longer than the timeout.
+	 * @return the number of rejected requests
+	 */
+	public long getRejectedCount() {
+		return this.rejectedCount.sum();
+	}
+
+	/**
+	 * Return the number of generations that have completed, successfully or not.
+	 * @return the number of completed generations
+	 */
+	public long getCompletedCount() {
+		return this.completedCount.sum();
+	}
+
+	@Override
+	public void destroy() {
+		this.expirations.shutdownNow();
+		this.executor.shutdown();
+	}
+
+	/**
+	 * A task that holds a slot until it completes. A task that is discarded before it
+	 * starts, because it waited too long or because the request completed, releases its
+	 * slot and is not run.
+	 */
+	private final class LimitedTask<T> implements Runnable {
+
+		private final Callable<T> task;
+
+		private final DeferredResult<T> result;
+
+		private final Runnable discardCallback;
+
+		private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+		private volatile ScheduledFuture<?> expiration;
+
+		LimitedTask(Callable<T> task, DeferredResult<T> result,
+				Runnable discardCallback) {
+			this.task = task;
+			this.result = result;
+			this.discardCallback = discardCallback;
+		}
+
+		@Override
+		public void run() {
+			if (!this.state.compareAndSet(QUEUED, RUNNING)) {
+				return;
+			}
+			this.expiration.cancel(false);
+			ProjectGenerationLimiter.this.active.incrementAndGet();
+			T value = null;
+			Exception failure = null;
+			try {
+				value = this.task.call();
+			}
+			catch (Exception ex) {
+				failure = ex;
+			}
+			finally {
+				// Release the slot before the request is resumed
+				this.state.set(DONE);
+				ProjectGenerationLimiter.this.active.decrementAndGet();
+				ProjectGenerationLimiter.this.pending.decrementAndGet();
+				ProjectGenerationLimiter.this.completedCount.increment();
+			}
+			if (failure != null) {
+				this.result.setErrorResult(failure);
+			}
+			else {
+				this.result.setResult(value);
+			}
+		}
+
+		void expire() {
+			if (release()) {
+				ProjectGenerationLimiter.this.rejectedCount.increment();
+				this.result.setErrorResult(new ProjectGenerationRejectedException(
+						"Timed out waiting for a project generation slot",
+						ProjectGenerationLimiter.this.retryAfter));
+			}
+		}
+
+		void discard() {
+			if (release()) {
+				this.expiration.cancel(false);
+			}
+		}
+
+		private boolean release() {
+			if (!this.state.compareAndSet(QUEUED, DONE)) {
+				return false;
+			}
+			ProjectGenerationLimiter.this.pending.decrementAndGet();
+			if (this.discardCallback != null) {
+				this.discardCallback.run();
+			}
+			return true;
+		}
+
+	}
+
+}
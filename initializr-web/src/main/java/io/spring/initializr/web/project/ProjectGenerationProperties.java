@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Project generation properties.
+ *
+ * @author Julien Marchand
+ */
+@ConfigurationProperties("initializr.generation")
+public class ProjectGenerationProperties {
+
+	/**
+	 * Whether to generate project archives in memory. When disabled, each project is
+	 * written to a temporary directory before being archived.
+	 */
+	private boolean inMemory = true;
+
+	/**
+	 * Whether to add a "Server-Timing" header to project generation responses with the
+	 * time spent in each phase of the generation.
+	 */
+	private boolean serverTiming;
+
+	/**
+	 * Whether identical project archives requested concurrently should be generated only
+	 * once, the content being shared with every request.
+	 */
+	private boolean coalesce = true;
+
+	private final Cache cache = new Cache();
+
+	private final Limit limit = new Limit();
+
+	private final Workspace workspace = new Workspace();
+
+	public boolean isInMemory() {
+		return this.inMemory;
+	}
+
+	public void setInMemory(boolean inMemory) {
+		this.inMemory = inMemory;
+	}
+
+	public boolean isServerTiming() {
+		return this.serverTiming;
+	}
+
+	public void setServerTiming(boolean serverTiming) {
+		this.serverTiming = serverTiming;
+	}
+
+	public boolean isCoalesce() {
+		return this.coalesce;
+	}
+
+	public void setCoalesce(boolean coalesce) {
+		this.coalesce = coalesce;
+	}
+
+	public Cache getCache() {
+		return this.cache;
+	}
+
+	public Limit getLimit() {
+		return this.limit;
+	}
+
+	public Workspace getWorkspace() {
+		return this.workspace;
+	}
+
+	/**
+	 * Project archives cache properties.
+	 */
+	public static class Cache {
+
+		/**
+		 * Whether to cache generated project archives. Identical requests are then served
+		 * from the cache and can be validated using their ETag.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Maximum size of the cached archives. Least recently used archives are evicted
+		 * when this size is exceeded.
+		 */
+		private DataSize maxSize = DataSize.ofMegabytes(64);
+
+		public boolean isEnabled() {
+			return this.enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public DataSize getMaxSize() {
+			return this.maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+	}
+
+	/**
+	 * Project generation concurrency properties.
+	 */
+	public static class Limit {
+
+		/**
+		 * Maximum number of projects that are generated concurrently.
+		 */
+		private int concurrency = Runtime.getRuntime().availableProcessors() * 2;
+
+		/**
+		 * Maximum number of generation requests waiting for a generation slot. Further
+		 * requests are rejected with a 503 status.
+		 */
+		private int queueCapacity = 100;
+
+		/**
+		 * Maximum time a request waits for a generation slot. A project that is being
+		 * generated is not subject to this timeout.
+		 */
+		private Duration timeout = Duration.ofSeconds(30);
+
+		/**
+		 * Time after which clients of rejected requests are advised to try again, using
+		 * the "Retry-After" header.
+		 */
+		private Duration retryAfter = Duration.ofSeconds(5);
+
+		public int getConcurrency() {
+			return this.concurrency;
+		}
+
+		public void setConcurrency(int concurrency) {
+			this.concurrency = concurrency;
+		}
+
+		public int getQueueCapacity() {
+			return this.queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public Duration getTimeout() {
+			return this.timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+
+		public Duration getRetryAfter() {
+			return this.retryAfter;
+		}
+
+		public void setRetryAfter(Duration retryAfter) {
+			this.retryAfter = retryAfter;
+		}
+
+	}
+
+	/**
+	 * Temporary files properties.
+	 */
+	public static class Workspace {
+
+		/**
+		 * Maximum disk usage of the temporary files of project generation. Projects that
+		 * require temporary files are rejected with a 503 status when it is exceeded.
+		 */
+		private DataSize quota;
+
+		/**
+		 * Interval between two sweeps of the temporary files, that remove orphan files
+		 * and measure their disk usage.
+		 */
+		private Duration sweepInterval = Duration.ofMinutes(1);
+
+		/**
+		 * Minimum age of an orphan temporary file, such as one left by a crashed
+		 * instance, before it is removed.
+		 */
+		private Duration maxAge = Duration.ofHours(1);
+
+		public DataSize getQuota() {
+			return this.quota;
+		}
+
+		public void setQuota(DataSize quota) {
+			this.quota = quota;
+		}
+
+		public Duration getSweepInterval() {
+			return this.sweepInterval;
+		}
+
+		public void setSweepInterval(Duration sweepInterval) {
+			this.sweepInterval = sweepInterval;
+		}
+
+		public Duration getMaxAge() {
+			return this.maxAge;
+		}
+
+		public void setMaxAge(Duration maxAge) {
+			this.maxAge = maxAge;
+		}
+
+	}
+
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a project generation request is rejected as the service is saturated.
+ *
+ * @author Julien Marchand
+ * @see ProjectGenerationLimiter
+ */
+@SuppressWarnings("serial")
+public class ProjectGenerationRejectedException extends RuntimeException {
+
+	private final Duration retryAfter;
+
+	public ProjectGenerationRejectedException(String message, Duration retryAfter) {
+		super(message);
+		this.retryAfter = retryAfter;
+	}
+
+	/**
+	 * Return the time after which the client can try again.
+	 * @return the retry delay
+	 */
+	public Duration getRetryAfter() {
+		return this.retryAfter;
+	}
+
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import javax.servlet.http.HttpServletRequest;
+
+import io.spring.initializr.util.Agent;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolve the {@link Agent} of an {@link HttpServletRequest} from its {@code User-Agent}
+ * header. The agent is stored as a request attribute so that it is only resolved once per
+ * request.
+ *
+ * @author Julien Marchand
+ */
+public final class AgentResolver {
+
+	private static final String AGENT_ATTRIBUTE = AgentResolver.class.getName()
+			+ ".agent";
+
+	private static final Object NO_AGENT = new Object();
+
+	private AgentResolver() {
+	}
+
+	/**
+	 * Return the {@link Agent} that submitted the specified request.
+	 * @param request the request
+	 * @return the agent or {@code null} if it could not be determined
+	 */
+	public static Agent resolve(HttpServletRequest request) {
+		Object agent = request.getAttribute(AGENT_ATTRIBUTE);
+		if (agent == null) {
+			String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+			agent = StringUtils.hasText(userAgent) ? Agent.fromUserAgent(userAgent)
+					: null;
+			request.setAttribute(AGENT_ATTRIBUTE, (agent != null) ? agent : NO_AGENT);
+		}
+		return (agent != NO_AGENT) ? (Agent) agent : null;
+	}
+
+}
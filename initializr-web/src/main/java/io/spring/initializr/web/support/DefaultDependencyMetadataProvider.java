@@ -16,60 +16,25 @@
 
 package io.spring.initializr.web.support;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-
-import io.spring.initializr.metadata.BillOfMaterials;
-import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyCompatibilityMatrix;
 import io.spring.initializr.metadata.DependencyMetadata;
 import io.spring.initializr.metadata.DependencyMetadataProvider;
 import io.spring.initializr.metadata.InitializrMetadata;
-import io.spring.initializr.metadata.Repository;
 import io.spring.initializr.util.Version;
 
-import org.springframework.cache.annotation.Cacheable;
-
 /**
- * A default {@link DependencyMetadataProvider} implementation.
+ * A default {@link DependencyMetadataProvider} implementation. The dependency metadata is
+ * resolved once per version and metadata instance, see
+ * {@link DependencyCompatibilityMatrix}.
  *
  * @author Stephane Nicoll
  */
 public class DefaultDependencyMetadataProvider implements DependencyMetadataProvider {
 
 	@Override
-	@Cacheable(cacheNames = "initializr.dependency-metadata", key = "#p1")
 	public DependencyMetadata get(InitializrMetadata metadata, Version bootVersion) {
-		Map<String, Dependency> dependencies = new LinkedHashMap<>();
-		for (Dependency dependency : metadata.getDependencies().getAll()) {
-			if (dependency.match(bootVersion)) {
-				dependencies.put(dependency.getId(), dependency.resolve(bootVersion));
-			}
-		}
-
-		Map<String, Repository> repositories = new LinkedHashMap<>();
-		for (Dependency dependency : dependencies.values()) {
-			if (dependency.getRepository() != null) {
-				repositories.put(dependency.getRepository(), metadata.getConfiguration()
-						.getEnv().getRepositories().get(dependency.getRepository()));
-			}
-		}
-
-		Map<String, BillOfMaterials> boms = new LinkedHashMap<>();
-		for (Dependency dependency : dependencies.values()) {
-			if (dependency.getBom() != null) {
-				boms.put(dependency.getBom(), metadata.getConfiguration().getEnv()
-						.getBoms().get(dependency.getBom()).resolve(bootVersion));
-			}
-		}
-		// Each resolved bom may require additional repositories
-		for (BillOfMaterials bom : boms.values()) {
-			for (String id : bom.getRepositories()) {
-				repositories.put(id,
-						metadata.getConfiguration().getEnv().getRepositories().get(id));
-			}
-		}
-
-		return new DependencyMetadata(bootVersion, dependencies, repositories, boms);
+		return metadata.getDependencyCompatibilityMatrix()
+				.getDependencyMetadata(bootVersion);
 	}
 
 }
@@ -17,21 +17,35 @@
 package io.spring.initializr.web.support;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.spring.initializr.metadata.DefaultMetadataElement;
 import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.metadata.InitializrMetadataRefreshedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
 /**
  * A default {@link InitializrMetadataProvider} that is able to refresh the metadata with
  * the status of the main spring.io site.
+ * <p>
+ * The metadata is never updated in place: a refresh builds a new metadata, using the
+ * specified factory, that is updated and then published once it is complete. Callers
+ * holding a previous instance can keep using it safely.
+ * <p>
+ * By default, the metadata is refreshed whenever it is requested, which is typically
+ * throttled by the {@code initializr.metadata} cache. Refreshing can also be handled in
+ * the background, see {@link InitializrMetadataRefresher}. When an
+ * {@link ApplicationEventPublisher} is set, an {@link InitializrMetadataRefreshedEvent}
+ * is published each time a new metadata replaces the current one.
  *
  * @author Stephane Nicoll
  */
@@ -40,26 +54,113 @@ public class DefaultInitializrMetadataProvider implements InitializrMetadataProv
 	private static final Logger log = LoggerFactory
 			.getLogger(DefaultInitializrMetadataProvider.class);
 
-	private final InitializrMetadata metadata;
+	private final Supplier<InitializrMetadata> metadataFactory;
 
 	private final ObjectMapper objectMapper;
 
 	private final RestTemplate restTemplate;
 
-	public DefaultInitializrMetadataProvider(InitializrMetadata metadata,
-			ObjectMapper objectMapper, RestTemplate restTemplate) {
-		this.metadata = metadata;
+	private final Object monitor = new Object();
+
+	private volatile InitializrMetadata metadata;
+
+	private volatile boolean refreshOnAccess = true;
+
+	private ApplicationEventPublisher eventPublisher;
+
+	/**
+	 * Create a new instance.
+	 * @param metadataFactory the factory of the metadata, invoked for the initial
+	 * metadata and then on each refresh. Each invocation must return a new instance
+	 * @param objectMapper the object mapper to use to read the Spring Boot metadata
+	 * @param restTemplate the rest template to use to fetch the Spring Boot metadata
+	 */
+	public DefaultInitializrMetadataProvider(
+			Supplier<InitializrMetadata> metadataFactory, ObjectMapper objectMapper,
+			RestTemplate restTemplate) {
+		this.metadataFactory = metadataFactory;
+		this.metadata = metadataFactory.get();
 		this.objectMapper = objectMapper;
 		this.restTemplate = restTemplate;
 	}
 
 	@Override
-	@Cacheable(value = "initializr.metadata", key = "'metadata'")
+	@Cacheable(value = "initializr.metadata", key = "'metadata'", condition = "#root.target.refreshOnAccess")
 	public InitializrMetadata get() {
-		updateInitializrMetadata(this.metadata);
+		if (this.refreshOnAccess) {
+			try {
+				refresh();
+			}
+			catch (RuntimeException ex) {
+				log.warn("Failed to refresh metadata", ex);
+			}
+		}
 		return this.metadata;
 	}
 
+	/**
+	 * Specify if the metadata should be refreshed when it is requested. Disable this when
+	 * the metadata is refreshed by other means, {@link #get()} then always returns the
+	 * last refreshed metadata without blocking.
+	 * @param refreshOnAccess whether to refresh the metadata when it is requested
+	 */
+	public void setRefreshOnAccess(boolean refreshOnAccess) {
+		this.refreshOnAccess = refreshOnAccess;
+	}
+
+	public boolean isRefreshOnAccess() {
+		return this.refreshOnAccess;
+	}
+
+	public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
+
+	/**
+	 * Refresh the metadata. A new metadata is built and updated, and replaces the current
+	 * metadata unless they define the same Spring Boot versions. If the update fails, the
+	 * current metadata is kept.
+	 * @return {@code true} if the metadata has changed
+	 */
+	public boolean refresh() {
+		synchronized (this.monitor) {
+			InitializrMetadata snapshot = this.metadataFactory.get();
+			updateInitializrMetadata(snapshot);
+			if (hasSameBootVersions(this.metadata, snapshot)) {
+				return false;
+			}
+			// Compute the compatibility of dependencies before the snapshot is used
+			snapshot.getDependencyCompatibilityMatrix();
+			this.metadata = snapshot;
+			if (this.eventPublisher != null) {
+				this.eventPublisher
+						.publishEvent(new InitializrMetadataRefreshedEvent(snapshot));
+			}
+			return true;
+		}
+	}
+
+	private static boolean hasSameBootVersions(InitializrMetadata first,
+			InitializrMetadata second) {
+		List<DefaultMetadataElement> firstVersions = first.getBootVersions()
+				.getContent();
+		List<DefaultMetadataElement> secondVersions = second.getBootVersions()
+				.getContent();
+		if (firstVersions.size() != secondVersions.size()) {
+			return false;
+		}
+		for (int i = 0; i < firstVersions.size(); i++) {
+			DefaultMetadataElement firstVersion = firstVersions.get(i);
+			DefaultMetadataElement secondVersion = secondVersions.get(i);
+			if (!Objects.equals(firstVersion.getId(), secondVersion.getId())
+					|| !Objects.equals(firstVersion.getName(), secondVersion.getName())
+					|| firstVersion.isDefault() != secondVersion.isDefault()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	protected void updateInitializrMetadata(InitializrMetadata metadata) {
 		List<DefaultMetadataElement> bootVersions = fetchBootVersions();
 		if (bootVersions != null && !bootVersions.isEmpty()) {
@@ -72,7 +173,8 @@ public class DefaultInitializrMetadataProvider implements InitializrMetadataProv
 	}
 
 	protected List<DefaultMetadataElement> fetchBootVersions() {
-		String url = this.metadata.getConfiguration().getEnv().getSpringBootMetadataUrl();
+		String url = this.metadata.getConfiguration().getEnv()
+				.getSpringBootMetadataUrl();
 		if (StringUtils.hasText(url)) {
 			try {
 				log.info("Fetching boot metadata from {}", url);
@@ -80,7 +182,8 @@ public class DefaultInitializrMetadataProvider implements InitializrMetadataProv
 						url).getBootVersions();
 			}
 			catch (Exception ex) {
-				log.warn("Failed to fetch spring boot metadata", ex);
+				throw new IllegalStateException(
+						"Failed to fetch spring boot metadata from " + url, ex);
 			}
 		}
 		return null;
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Metadata refresh properties.
+ *
+ * @author Julien Marchand
+ */
+@ConfigurationProperties("initializr.metadata.refresh")
+public class InitializrMetadataRefreshProperties {
+
+	/**
+	 * Whether to refresh the metadata in the background. When disabled, the metadata is
+	 * refreshed when it is requested.
+	 */
+	private boolean enabled = true;
+
+	/**
+	 * Interval between two refreshes of the metadata.
+	 */
+	private Duration interval = Duration.ofMinutes(10);
+
+	/**
+	 * Maximum random delay added to the refresh interval, so that several instances do
+	 * not refresh at the same time.
+	 */
+	private Duration jitter = Duration.ofMinutes(1);
+
+	/**
+	 * Connect and read timeout of the requests fetching the metadata.
+	 */
+	private Duration timeout = Duration.ofSeconds(10);
+
+	/**
+	 * Delay before retrying a failed refresh. The delay doubles on each consecutive
+	 * failure, up to the refresh interval.
+	 */
+	private Duration backoff = Duration.ofSeconds(30);
+
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Duration getInterval() {
+		return this.interval;
+	}
+
+	public void setInterval(Duration interval) {
+		this.interval = interval;
+	}
+
+	public Duration getJitter() {
+		return this.jitter;
+	}
+
+	public void setJitter(Duration jitter) {
+		this.jitter = jitter;
+	}
+
+	public Duration getTimeout() {
+		return this.timeout;
+	}
+
+	public void setTimeout(Duration timeout) {
+		this.timeout = timeout;
+	}
+
+	public Duration getBackoff() {
+		return this.backoff;
+	}
+
+	public void setBackoff(Duration backoff) {
+		this.backoff = backoff;
+	}
+
+}
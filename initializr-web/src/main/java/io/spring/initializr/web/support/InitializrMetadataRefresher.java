@@ -0,0 +1,163 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Refresh the metadata of a {@link DefaultInitializrMetadataProvider} in the background.
+ * While running, the provider no longer refreshes the metadata when it is requested and
+ * keeps serving the last refreshed metadata, including when a refresh fails.
+ * <p>
+ * A refresh happens on startup and then at a fixed interval, delayed by a random jitter.
+ * A failed refresh is retried sooner, with an exponential backoff capped by the interval.
+ *
+ * @author Julien Marchand
+ */
+public class InitializrMetadataRefresher implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(InitializrMetadataRefresher.class);
+
+	private final DefaultInitializrMetadataProvider metadataProvider;
+
+	private final Duration interval;
+
+	private final Duration jitter;
+
+	private final Duration backoff;
+
+	private final Object monitor = new Object();
+
+	private final AtomicLong failureCount = new AtomicLong();
+
+	private volatile Instant lastRefreshTime;
+
+	private int consecutiveFailures;
+
+	private ScheduledExecutorService executor;
+
+	public InitializrMetadataRefresher(DefaultInitializrMetadataProvider metadataProvider,
+			Duration interval, Duration jitter, Duration backoff) {
+		this.metadataProvider = metadataProvider;
+		this.interval = interval;
+		this.jitter = jitter;
+		this.backoff = backoff;
+	}
+
+	/**
+	 * Return the time of the last successful refresh or {@code null} if the metadata has
+	 * not been refreshed yet.
+	 * @return the time of the last refresh
+	 */
+	public Instant getLastRefreshTime() {
+		return this.lastRefreshTime;
+	}
+
+	/**
+	 * Return the number of refreshes that have failed.
+	 * @return the number of failures
+	 */
+	public long getFailureCount() {
+		return this.failureCount.get();
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.executor == null) {
+				this.metadataProvider.setRefreshOnAccess(false);
+				this.executor = Executors.newSingleThreadScheduledExecutor((task) -> {
+					Thread thread = new Thread(task, "initializr-metadata-refresh");
+					thread.setDaemon(true);
+					return thread;
+				});
+				schedule(this.executor, Duration.ZERO);
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.monitor) {
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+				this.executor = null;
+				this.metadataProvider.setRefreshOnAccess(true);
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (this.monitor) {
+			return this.executor != null;
+		}
+	}
+
+	/**
+	 * Refresh the metadata and return the delay before the next refresh.
+	 * @return the delay before the next refresh
+	 */
+	Duration refresh() {
+		try {
+			this.metadataProvider.refresh();
+			this.lastRefreshTime = Instant.now();
+			this.consecutiveFailures = 0;
+			return this.interval.plusMillis(randomJitter());
+		}
+		catch (RuntimeException ex) {
+			this.failureCount.incrementAndGet();
+			this.consecutiveFailures++;
+			Duration delay = backoffDelay(this.consecutiveFailures);
+			log.warn("Failed to refresh metadata, retrying in " + delay, ex);
+			return delay;
+		}
+	}
+
+	private long randomJitter() {
+		long bound = this.jitter.toMillis();
+		return (bound > 0) ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+	}
+
+	private Duration backoffDelay(int failures) {
+		Duration delay = this.backoff.multipliedBy(1L << Math.min(failures - 1, 20));
+		return (delay.compareTo(this.interval) < 0) ? delay : this.interval;
+	}
+
+	private void schedule(ScheduledExecutorService executor, Duration delay) {
+		synchronized (this.monitor) {
+			// Ignore a refresh that completes after the refresher has been stopped
+			if (this.executor == executor) {
+				executor.schedule(() -> schedule(executor, refresh()), delay.toMillis(),
+						TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+}
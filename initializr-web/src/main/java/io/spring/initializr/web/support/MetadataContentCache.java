@@ -0,0 +1,277 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.ResponseEntity.BodyBuilder;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * Cache content rendered from an {@link InitializrMetadata} instance, along with its
+ * ETag. Content is only reused for the metadata instance it was rendered from: as soon as
+ * content for a {@linkplain InitializrMetadata#isNewerThan(InitializrMetadata) newer}
+ * instance is requested, such as a refreshed metadata, the cache is cleared. Content for
+ * an older instance, requested by a client that started before a refresh, is rendered
+ * without being cached.
+ * <p>
+ * Content for keys that are known to be requested, such as the content for each Spring
+ * Boot version of the metadata, is always cached once rendered. Content for other keys is
+ * only cached up to a maximum number of entries, so that arbitrary keys cannot take the
+ * place of known ones. Content is also available compressed with gzip, for clients that
+ * accept it: it is compressed the first time it is requested.
+ *
+ * @param <K> the type of the keys identifying the content
+ * @author Julien Marchand
+ */
+public class MetadataContentCache<K> {
+
+	private final int maxEntries;
+
+	private final Function<InitializrMetadata, Set<K>> knownKeys;
+
+	private final Object monitor = new Object();
+
+	private volatile Entries<K> entries = new Entries<>(null, Collections.emptySet());
+
+	/**
+	 * Create a new instance.
+	 * @param maxEntries the maximum number of entries for a given metadata. Additional
+	 * content is rendered on each request
+	 */
+	public MetadataContentCache(int maxEntries) {
+		this(maxEntries, (metadata) -> Collections.emptySet());
+	}
+
+	/**
+	 * Create a new instance with keys that are known to be requested for a given
+	 * metadata. Content for a known key is always cached, even if it exceeds the maximum
+	 * number of entries.
+	 * @param maxEntries the maximum number of entries for keys that are not known.
+	 * Additional content is rendered on each request
+	 * @param knownKeys the function providing the known keys of a given metadata
+	 */
+	public MetadataContentCache(int maxEntries,
+			Function<InitializrMetadata, Set<K>> knownKeys) {
+		this.maxEntries = maxEntries;
+		this.knownKeys = knownKeys;
+	}
+
+	/**
+	 * Return the content for the specified metadata and key, rendering it if necessary.
+	 * @param metadata the metadata the content is rendered from
+	 * @param key the key identifying the content
+	 * @param renderer the renderer of the content
+	 * @return the content
+	 */
+	public Content get(InitializrMetadata metadata, K key, Supplier<String> renderer) {
+		Entries<K> current = getEntries(metadata);
+		if (current == null) {
+			// Stale metadata, content for the current metadata must not be replaced
+			return new Content(renderer.get().getBytes(StandardCharsets.UTF_8));
+		}
+		Content content = current.contents.get(key);
+		if (content != null) {
+			return content;
+		}
+		if (current.knownKeys.contains(key)) {
+			return current.contents.computeIfAbsent(key, (k) -> render(renderer));
+		}
+		content = render(renderer);
+		if (current.unknownCount.get() < this.maxEntries) {
+			Content existing = current.contents.putIfAbsent(key, content);
+			if (existing != null) {
+				return existing;
+			}
+			current.unknownCount.incrementAndGet();
+		}
+		return content;
+	}
+
+	private Content render(Supplier<String> renderer) {
+		return new Content(renderer.get().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Return the number of entries for the current metadata.
+	 * @return the number of entries
+	 */
+	public int getEntryCount() {
+		return this.entries.contents.size();
+	}
+
+	private Entries<K> getEntries(InitializrMetadata metadata) {
+		Entries<K> current = this.entries;
+		if (current.metadata == metadata) {
+			return current;
+		}
+		if (!current.isOlderThan(metadata)) {
+			return null;
+		}
+		// Content is rendered lazily so the new entries are published right away
+		Entries<K> candidate = new Entries<>(metadata, this.knownKeys.apply(metadata));
+		synchronized (this.monitor) {
+			current = this.entries;
+			if (current.metadata == metadata) {
+				return current;
+			}
+			if (current.isOlderThan(metadata)) {
+				this.entries = candidate;
+				return candidate;
+			}
+			return null;
+		}
+	}
+
+	private static final class Entries<K> {
+
+		private final InitializrMetadata metadata;
+
+		private final Set<K> knownKeys;
+
+		private final Map<K, Content> contents = new ConcurrentHashMap<>();
+
+		private final AtomicInteger unknownCount = new AtomicInteger();
+
+		private Entries(InitializrMetadata metadata, Set<K> knownKeys) {
+			this.metadata = metadata;
+			this.knownKeys = knownKeys;
+		}
+
+		private boolean isOlderThan(InitializrMetadata metadata) {
+			return this.metadata == null || metadata.isNewerThan(this.metadata);
+		}
+
+	}
+
+	/**
+	 * Content rendered from a metadata, encoded in UTF-8.
+	 */
+	public static final class Content {
+
+		private final byte[] content;
+
+		private final String eTag;
+
+		private volatile byte[] gzipContent;
+
+		Content(byte[] content) {
+			this.content = content;
+			StringBuilder builder = new StringBuilder();
+			DigestUtils.appendMd5DigestAsHex(content, builder);
+			this.eTag = builder.toString();
+		}
+
+		/**
+		 * Return the content, encoded in UTF-8. The returned array must not be modified.
+		 * @return the content
+		 */
+		public byte[] getContent() {
+			return this.content;
+		}
+
+		/**
+		 * Return the unquoted ETag of the content.
+		 * @return the ETag
+		 */
+		public String getETag() {
+			return this.eTag;
+		}
+
+		/**
+		 * Return the content, compressed with gzip. The content is compressed on first
+		 * access. The returned array must not be modified.
+		 * @return the compressed content
+		 */
+		public byte[] getGzipContent() {
+			byte[] gzipContent = this.gzipContent;
+			if (gzipContent == null) {
+				gzipContent = gzip(this.content);
+				this.gzipContent = gzipContent;
+			}
+			return gzipContent;
+		}
+
+		/**
+		 * Return the unquoted ETag of the compressed content.
+		 * @return the ETag of the compressed content
+		 */
+		public String getGzipETag() {
+			return this.eTag + "-gzip";
+		}
+
+		/**
+		 * Complete the specified {@link BodyBuilder} with this content, compressed if the
+		 * specified {@code Accept-Encoding} header value allows it, and its ETag.
+		 * @param builder the builder of the response
+		 * @param acceptEncoding the value of the {@code Accept-Encoding} header or
+		 * {@code null}
+		 * @return the response entity
+		 */
+		public ResponseEntity<byte[]> toResponseEntity(BodyBuilder builder,
+				String acceptEncoding) {
+			builder.varyBy(HttpHeaders.ACCEPT_ENCODING);
+			if (acceptsGzip(acceptEncoding)) {
+				return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+						.eTag(getGzipETag()).body(getGzipContent());
+			}
+			return builder.eTag(this.eTag).body(this.content);
+		}
+
+		private static boolean acceptsGzip(String acceptEncoding) {
+			if (acceptEncoding == null) {
+				return false;
+			}
+			for (String coding : StringUtils
+					.commaDelimitedListToStringArray(acceptEncoding)) {
+				String[] parts = StringUtils.tokenizeToStringArray(coding, ";");
+				if (parts.length > 0 && "gzip".equalsIgnoreCase(parts[0])) {
+					return !(parts.length > 1 && parts[1].matches("q=0(\\.0*)?"));
+				}
+			}
+			return false;
+		}
+
+		private static byte[] gzip(byte[] content) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4);
+			try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+				gzip.write(content);
+			}
+			catch (IOException ex) {
+				throw new IllegalStateException("Cannot compress content", ex);
+			}
+			return out.toByteArray();
+		}
+
+	}
+
+}
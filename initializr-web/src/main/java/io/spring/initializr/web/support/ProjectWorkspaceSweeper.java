@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Sweep the temporary files of a {@link ProjectWorkspaceManager} in the background. A
+ * sweep happens on startup, removing the files left by a previous instance, and then at a
+ * fixed interval.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceSweeper implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(ProjectWorkspaceSweeper.class);
+
+	private final ProjectWorkspaceManager workspaceManager;
+
+	private final Duration interval;
+
+	private final Duration maxAge;
+
+	private final Object monitor = new Object();
+
+	private ScheduledExecutorService executor;
+
+	public ProjectWorkspaceSweeper(ProjectWorkspaceManager workspaceManager,
+			Duration interval, Duration maxAge) {
+		this.workspaceManager = workspaceManager;
+		this.interval = interval;
+		this.maxAge = maxAge;
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.executor == null) {
+				this.executor = Executors.newSingleThreadScheduledExecutor((task) -> {
+					Thread thread = new Thread(task, "initializr-workspace-sweep");
+					thread.setDaemon(true);
+					return thread;
+				});
+				this.executor.scheduleWithFixedDelay(this::sweep, 0,
+						this.interval.toMillis(), TimeUnit.MILLISECONDS);
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.monitor) {
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+				this.executor = null;
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (this.monitor) {
+			return this.executor != null;
+		}
+	}
+
+	void sweep() {
+		try {
+			this.workspaceManager.sweep(this.maxAge);
+		}
+		catch (RuntimeException ex) {
+			// Keep sweeping at the next interval
+			log.warn("Failed to sweep temporary files", ex);
+		}
+	}
+
+}
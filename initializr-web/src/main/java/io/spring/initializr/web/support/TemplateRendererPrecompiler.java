@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.spring.initializr.util.TemplateRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * Precompile the templates of a {@link TemplateRenderer} in the background on startup.
+ * The application starts accepting requests in the meantime, templates that are not
+ * compiled yet being compiled on demand, and {@link TemplateRenderer#isPrecompiled()}
+ * can be used as a readiness signal.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererPrecompiler implements SmartLifecycle {
+
+	private static final Logger log = LoggerFactory
+			.getLogger(TemplateRendererPrecompiler.class);
+
+	private final TemplateRenderer templateRenderer;
+
+	private final Object monitor = new Object();
+
+	private ExecutorService executor;
+
+	public TemplateRendererPrecompiler(TemplateRenderer templateRenderer) {
+		this.templateRenderer = templateRenderer;
+	}
+
+	@Override
+	public void start() {
+		synchronized (this.monitor) {
+			if (this.executor == null) {
+				this.executor = Executors.newSingleThreadExecutor((task) -> {
+					Thread thread = new Thread(task, "initializr-template-precompile");
+					thread.setDaemon(true);
+					return thread;
+				});
+				this.executor.execute(this::precompile);
+				this.executor.shutdown();
+			}
+		}
+	}
+
+	@Override
+	public void stop() {
+		synchronized (this.monitor) {
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+				this.executor = null;
+			}
+		}
+	}
+
+	@Override
+	public boolean isRunning() {
+		synchronized (this.monitor) {
+			return this.executor != null;
+		}
+	}
+
+	void precompile() {
+		try {
+			this.templateRenderer.precompile();
+		}
+		catch (RuntimeException ex) {
+			// Templates are still compiled on demand
+			log.warn("Failed to precompile templates", ex);
+		}
+	}
+
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyCompatibilityMatrix;
+import io.spring.initializr.metadata.DependencyGroup;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.util.Version;
+
+/**
+ * An inverted index of the dependencies of an {@link InitializrMetadata} instance. The
+ * name, description, keywords, aliases and group name of each dependency are split in
+ * lower case terms. A dependency matches a query if each term of the query is a prefix of
+ * one of its terms. Matches are ranked by {@link Dependency#getWeight() weight}, then by
+ * relevance, a term of the name being more relevant than a term of the description.
+ * <p>
+ * An index is only valid for the metadata it was created from.
+ *
+ * @author Julien Marchand
+ */
+public final class DependencySearchIndex {
+
+	private static final int NAME_BOOST = 4;
+
+	private static final int KEYWORD_BOOST = 3;
+
+	private static final int GROUP_BOOST = 2;
+
+	private static final int DESCRIPTION_BOOST = 1;
+
+	private final InitializrMetadata metadata;
+
+	private final Match[] matches;
+
+	private final String[] terms;
+
+	private final int[][] postings;
+
+	private final int[][] boosts;
+
+	/**
+	 * Create an index for the dependencies of the specified metadata.
+	 * @param metadata the metadata
+	 */
+	public DependencySearchIndex(InitializrMetadata metadata) {
+		this.metadata = metadata;
+		List<Match> matches = new ArrayList<>();
+		Map<String, Map<Integer, Integer>> index = new TreeMap<>();
+		for (DependencyGroup group : metadata.getDependencies().getContent()) {
+			for (Dependency dependency : group.getContent()) {
+				int id = matches.size();
+				matches.add(new Match(group.getName(), dependency));
+				addTerms(index, id, dependency.getName(), NAME_BOOST);
+				dependency.getKeywords().forEach(
+						(keyword) -> addTerms(index, id, keyword, KEYWORD_BOOST));
+				dependency.getAliases()
+						.forEach((alias) -> addTerms(index, id, alias, KEYWORD_BOOST));
+				addTerms(index, id, group.getName(), GROUP_BOOST);
+				addTerms(index, id, dependency.getDescription(), DESCRIPTION_BOOST);
+			}
+		}
+		this.matches = matches.toArray(new Match[0]);
+		this.terms = index.keySet().toArray(new String[0]);
+		this.postings = new int[this.terms.length][];
+		this.boosts = new int[this.terms.length][];
+		for (int i = 0; i < this.terms.length; i++) {
+			Map<Integer, Integer> entries = index.get(this.terms[i]);
+			this.postings[i] = new int[entries.size()];
+			this.boosts[i] = new int[entries.size()];
+			int j = 0;
+			for (Map.Entry<Integer, Integer> entry : entries.entrySet()) {
+				this.postings[i][j] = entry.getKey();
+				this.boosts[i][j] = entry.getValue();
+				j++;
+			}
+		}
+	}
+
+	/**
+	 * Return the metadata this index was created from.
+	 * @return the metadata
+	 */
+	public InitializrMetadata getMetadata() {
+		return this.metadata;
+	}
+
+	/**
+	 * Search the dependencies matching the specified query.
+	 * @param query the query
+	 * @param bootVersion the Spring Boot version the dependencies must be compatible with
+	 * or {@code null} to search all dependencies
+	 * @param limit the maximum number of matches
+	 * @return the best matches, in ranking order
+	 */
+	public List<Match> search(String query, Version bootVersion, int limit) {
+		List<String> tokens = tokenize(query);
+		if (tokens.isEmpty() || limit <= 0) {
+			return Collections.emptyList();
+		}
+		// matched[i] is the number of tokens matched by the dependency at index i
+		int[] matched = new int[this.matches.length];
+		int[] scores = new int[this.matches.length];
+		for (int i = 0; i < tokens.size(); i++) {
+			String token = tokens.get(i);
+			int start = Arrays.binarySearch(this.terms, token);
+			for (int t = (start >= 0) ? start : -start - 1; t < this.terms.length
+					&& this.terms[t].startsWith(token); t++) {
+				int[] postings = this.postings[t];
+				for (int p = 0; p < postings.length; p++) {
+					int id = postings[p];
+					if (matched[id] == i) {
+						matched[id] = i + 1;
+					}
+					if (matched[id] == i + 1) {
+						scores[id] += (this.terms[t].length() == token.length())
+								? this.boosts[t][p] * 2 : this.boosts[t][p];
+					}
+				}
+			}
+		}
+		DependencyCompatibilityMatrix compatibility = (bootVersion != null)
+				? this.metadata.getDependencyCompatibilityMatrix() : null;
+		int[] top = new int[Math.min(limit, this.matches.length)];
+		int count = 0;
+		for (int id = 0; id < this.matches.length; id++) {
+			if (matched[id] == tokens.size() && (compatibility == null || compatibility
+					.isCompatible(this.matches[id].dependency.getId(), bootVersion))) {
+				count = insert(top, count, id, scores);
+			}
+		}
+		List<Match> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(this.matches[top[i]]);
+		}
+		return result;
+	}
+
+	private int insert(int[] top, int count, int id, int[] scores) {
+		int position = count;
+		while (position > 0 && ranksBefore(id, top[position - 1], scores)) {
+			position--;
+		}
+		if (position >= top.length) {
+			return count;
+		}
+		int last = Math.min(count, top.length - 1);
+		System.arraycopy(top, position, top, position + 1, last - position);
+		top[position] = id;
+		return Math.min(count + 1, top.length);
+	}
+
+	private boolean ranksBefore(int id, int other, int[] scores) {
+		int weight = this.matches[id].dependency.getWeight();
+		int otherWeight = this.matches[other].dependency.getWeight();
+		if (weight != otherWeight) {
+			return weight > otherWeight;
+		}
+		// Dependencies are visited in order so ties keep the order of the metadata
+		return scores[id] > scores[other];
+	}
+
+	private static void addTerms(Map<String, Map<Integer, Integer>> index, int id,
+			String text, int boost) {
+		for (String term : tokenize(text)) {
+			index.computeIfAbsent(term, (key) -> new LinkedHashMap<>()).merge(id, boost,
+					Math::max);
+		}
+	}
+
+	private static List<String> tokenize(String text) {
+		if (text == null) {
+			return Collections.emptyList();
+		}
+		List<String> tokens = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean letterOrDigit = (i < text.length())
+					&& Character.isLetterOrDigit(text.charAt(i));
+			if (letterOrDigit && start < 0) {
+				start = i;
+			}
+			else if (!letterOrDigit && start >= 0) {
+				tokens.add(text.substring(start, i).toLowerCase(Locale.ENGLISH));
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	/**
+	 * A dependency matching a query, along with the name of its group.
+	 */
+	public static final class Match {
+
+		private final String group;
+
+		private final Dependency dependency;
+
+		private Match(String group, Dependency dependency) {
+			this.group = group;
+			this.dependency = dependency;
+		}
+
+		public String getGroup() {
+			return this.group;
+		}
+
+		public Dependency getDependency() {
+			return this.dependency;
+		}
+
+	}
+
+}
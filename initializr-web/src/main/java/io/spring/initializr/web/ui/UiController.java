@@ -16,24 +16,30 @@
 
 package io.spring.initializr.web.ui;
 
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.DependencyCompatibilityMatrix;
 import io.spring.initializr.metadata.DependencyGroup;
+import io.spring.initializr.metadata.InitializrMetadata;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
 import io.spring.initializr.util.Version;
+import io.spring.initializr.web.support.MetadataContentCache;
+import io.spring.initializr.web.support.MetadataContentCache.Content;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.DigestUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -47,21 +53,77 @@ public class UiController {
 
 	protected final InitializrMetadataProvider metadataProvider;
 
+	private final MetadataContentCache<String> dependenciesContentCache;
+
+	private volatile DependencySearchIndex searchIndex;
+
 	public UiController(InitializrMetadataProvider metadataProvider) {
 		this.metadataProvider = metadataProvider;
+		this.dependenciesContentCache = new MetadataContentCache<>(32,
+				UiController::getVersionKeys);
 	}
 
 	@GetMapping(path = "/ui/dependencies", produces = "application/json")
-	public ResponseEntity<String> dependencies(
-			@RequestParam(required = false) String version) {
-		List<DependencyGroup> dependencyGroups = this.metadataProvider.get()
-				.getDependencies().getContent();
+	public ResponseEntity<byte[]> dependencies(
+			@RequestParam(required = false) String version,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		String key = (StringUtils.isEmpty(version) ? ""
+				: Version.parse(version).toString());
+		Content content = this.dependenciesContentCache.get(metadata, key,
+				() -> renderDependencies(metadata, key));
+		return content.toResponseEntity(
+				ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8),
+				acceptEncoding);
+	}
+
+	@GetMapping(path = "/ui/dependencies/search", produces = "application/json")
+	public ResponseEntity<String> searchDependencies(
+			@RequestParam(name = "q", required = false) String query,
+			@RequestParam(required = false) String bootVersion,
+			@RequestParam(defaultValue = "10") int limit) {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		Version version = (StringUtils.isEmpty(bootVersion) ? null
+				: Version.parse(bootVersion));
+		List<DependencyItem> content = new ArrayList<>();
+		getSearchIndex(metadata).search(query, version, limit).forEach((match) -> content
+				.add(new DependencyItem(match.getGroup(), match.getDependency())));
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8)
+				.body(writeDependencies(content));
+	}
+
+	private DependencySearchIndex getSearchIndex(InitializrMetadata metadata) {
+		DependencySearchIndex index = this.searchIndex;
+		if (index == null || index.getMetadata() != metadata) {
+			index = new DependencySearchIndex(metadata);
+			this.searchIndex = index;
+		}
+		return index;
+	}
+
+	// Keys are normalized versions so that equivalent versions share the same content
+	private static Set<String> getVersionKeys(InitializrMetadata metadata) {
+		Set<String> keys = new HashSet<>();
+		keys.add("");
+		metadata.getBootVersions().getContent().forEach((bootVersion) -> {
+			Version version = Version.safeParse(bootVersion.getId());
+			if (version != null) {
+				keys.add(version.toString());
+			}
+		});
+		return keys;
+	}
+
+	private String renderDependencies(InitializrMetadata metadata, String version) {
+		List<DependencyGroup> dependencyGroups = metadata.getDependencies().getContent();
+		DependencyCompatibilityMatrix compatibility = metadata
+				.getDependencyCompatibilityMatrix();
 		List<DependencyItem> content = new ArrayList<>();
 		Version requestedVersion = (StringUtils.isEmpty(version) ? null
 				: Version.parse(version));
 		dependencyGroups.forEach((group) -> group.getContent().forEach((dependency) -> {
 			if (requestedVersion != null && dependency.getVersionRange() != null) {
-				if (dependency.match(requestedVersion)) {
+				if (compatibility.isCompatible(dependency.getId(), requestedVersion)) {
 					content.add(new DependencyItem(group.getName(), dependency));
 				}
 			}
@@ -69,9 +131,7 @@ public class UiController {
 				content.add(new DependencyItem(group.getName(), dependency));
 			}
 		}));
-		String json = writeDependencies(content);
-		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
-				.eTag(createUniqueId(json)).body(json);
+		return writeDependencies(content);
 	}
 
 	private static String writeDependencies(List<DependencyItem> items) {
@@ -103,13 +163,6 @@ public class UiController {
 		return node;
 	}
 
-	private String createUniqueId(String content) {
-		StringBuilder builder = new StringBuilder();
-		DigestUtils.appendMd5DigestAsHex(content.getBytes(StandardCharsets.UTF_8),
-				builder);
-		return builder.toString();
-	}
-
 	private static class DependencyItem {
 
 		private final String group;
@@ -16,6 +16,7 @@
 
 package io.spring.initializr.web;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -23,7 +24,11 @@ import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -38,6 +43,10 @@ import io.spring.initializr.web.support.DefaultInitializrMetadataProvider;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Expand;
 import org.apache.tools.ant.taskdefs.Untar;
+import org.apache.tools.tar.TarEntry;
+import org.apache.tools.tar.TarInputStream;
+import org.apache.tools.zip.ZipEntry;
+import org.apache.tools.zip.ZipFile;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Before;
@@ -250,6 +259,46 @@ public abstract class AbstractInitializrIntegrationTests {
 		expand.execute();
 	}
 
+	/**
+	 * Return the POSIX mode of each entry of the specified zip archive.
+	 * @param content the source content
+	 * @return the mode of each entry, keyed by entry name
+	 */
+	protected Map<String, Integer> zipEntryModes(byte[] content) {
+		try (ZipFile zip = new ZipFile(writeArchive(content))) {
+			Map<String, Integer> modes = new LinkedHashMap<>();
+			Enumeration<ZipEntry> entries = zip.getEntries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				modes.put(entry.getName(), entry.getUnixMode() & 0777);
+			}
+			return modes;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot read zip archive", ex);
+		}
+	}
+
+	/**
+	 * Return the POSIX mode of each entry of the specified TGZ archive.
+	 * @param content the source content
+	 * @return the mode of each entry, keyed by entry name
+	 */
+	protected Map<String, Integer> tgzEntryModes(byte[] content) {
+		try (TarInputStream tar = new TarInputStream(
+				new GZIPInputStream(new ByteArrayInputStream(content)))) {
+			Map<String, Integer> modes = new LinkedHashMap<>();
+			TarEntry entry;
+			while ((entry = tar.getNextEntry()) != null) {
+				modes.put(entry.getName(), entry.getMode() & 0777);
+			}
+			return modes;
+		}
+		catch (IOException ex) {
+			throw new IllegalStateException("Cannot read tgz archive", ex);
+		}
+	}
+
 	protected File writeArchive(byte[] body) throws IOException {
 		File archiveFile = this.folder.newFile();
 		try (FileOutputStream stream = new FileOutputStream(archiveFile)) {
@@ -300,9 +349,10 @@ public abstract class AbstractInitializrIntegrationTests {
 		@Bean
 		public InitializrMetadataProvider initializrMetadataProvider(
 				InitializrProperties properties) {
-			return new DefaultInitializrMetadataProvider(InitializrMetadataBuilder
-					.fromInitializrProperties(properties).build(), new ObjectMapper(),
-					new RestTemplate()) {
+			return new DefaultInitializrMetadataProvider(
+					() -> InitializrMetadataBuilder.fromInitializrProperties(properties)
+							.build(),
+					new ObjectMapper(), new RestTemplate()) {
 				@Override
 				protected void updateInitializrMetadata(InitializrMetadata metadata) {
 					// Disable metadata fetching from spring.io
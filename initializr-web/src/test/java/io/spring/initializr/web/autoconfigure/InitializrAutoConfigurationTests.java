@@ -19,10 +19,16 @@ package io.spring.initializr.web.autoconfigure;
 import io.spring.initializr.generator.ProjectGenerator;
 import io.spring.initializr.generator.ProjectRequestResolver;
 import io.spring.initializr.generator.ProjectResourceLocator;
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
 import io.spring.initializr.metadata.DependencyMetadataProvider;
 import io.spring.initializr.metadata.InitializrMetadataProvider;
 import io.spring.initializr.util.TemplateRenderer;
 import io.spring.initializr.web.project.MainController;
+import io.spring.initializr.web.support.DefaultInitializrMetadataProvider;
+import io.spring.initializr.web.support.InitializrMetadataRefresher;
+import io.spring.initializr.web.support.ProjectWorkspaceSweeper;
+import io.spring.initializr.web.support.TemplateRendererPrecompiler;
 import io.spring.initializr.web.ui.UiController;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -40,6 +46,7 @@ import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
 import org.springframework.boot.web.client.RestTemplateCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.ResponseErrorHandler;
 import org.springframework.web.client.RestTemplate;
 
@@ -80,6 +87,15 @@ public class InitializrAutoConfigurationTests {
 				(context) -> assertThat(context).hasSingleBean(TemplateRenderer.class));
 	}
 
+	@Test
+	public void autoConfigRegistersTemplateRendererPrecompiler() {
+		this.contextRunner.run((context) -> {
+			assertThat(context).hasSingleBean(TemplateRendererPrecompiler.class);
+			assertThat(context.getBean(TemplateRendererPrecompiler.class).isRunning())
+					.isTrue();
+		});
+	}
+
 	@Test
 	public void autoConfigWhenTemplateRendererBeanPresentDoesNotRegisterTemplateRenderer() {
 		this.contextRunner
@@ -139,6 +155,64 @@ public class InitializrAutoConfigurationTests {
 				});
 	}
 
+	@Test
+	public void autoConfigRegistersInitializrMetadataRefresher() {
+		this.contextRunner.run((context) -> {
+			assertThat(context).hasSingleBean(InitializrMetadataRefresher.class);
+			assertThat(context.getBean(DefaultInitializrMetadataProvider.class)
+					.isRefreshOnAccess()).isFalse();
+		});
+	}
+
+	@Test
+	public void autoConfigWhenMetadataRefreshDisabledDoesNotRegisterInitializrMetadataRefresher() {
+		this.contextRunner.withPropertyValues("initializr.metadata.refresh.enabled=false")
+				.run((context) -> {
+					assertThat(context)
+							.doesNotHaveBean(InitializrMetadataRefresher.class);
+					assertThat(context.getBean(DefaultInitializrMetadataProvider.class)
+							.isRefreshOnAccess()).isTrue();
+				});
+	}
+
+	@Test
+	public void autoConfigWhenInitializrMetadataProviderBeanPresentDoesNotRegisterInitializrMetadataRefresher() {
+		this.contextRunner
+				.withUserConfiguration(
+						CustomInitializrMetadataProviderConfiguration.class)
+				.run((context) -> assertThat(context)
+						.doesNotHaveBean(InitializrMetadataRefresher.class));
+	}
+
+	@Test
+	public void autoConfigRegistersProjectWorkspaceManager() {
+		this.contextRunner.withPropertyValues("initializr.generation.workspace.quota=2GB")
+				.run((context) -> {
+					assertThat(context).hasSingleBean(ProjectWorkspaceManager.class)
+							.hasSingleBean(ProjectWorkspaceSweeper.class);
+					ProjectWorkspaceManager workspaceManager = context
+							.getBean(ProjectWorkspaceManager.class);
+					assertThat(workspaceManager.getQuota())
+							.isEqualTo(DataSize.ofGigabytes(2).toBytes());
+					assertThat(
+							context.getBean(ProjectGenerator.class).getWorkspaceManager())
+									.isSameAs(workspaceManager);
+				});
+	}
+
+	@Test
+	public void autoConfigRegistersProjectArchiveCoalescer() {
+		this.contextRunner.run((context) -> assertThat(context)
+				.hasSingleBean(ProjectArchiveCoalescer.class));
+	}
+
+	@Test
+	public void autoConfigWhenCoalescingDisabledDoesNotRegisterProjectArchiveCoalescer() {
+		this.contextRunner.withPropertyValues("initializr.generation.coalesce=false")
+				.run((context) -> assertThat(context)
+						.doesNotHaveBean(ProjectArchiveCoalescer.class));
+	}
+
 	@Test
 	public void autoConfigRegistersDependencyMetadataProvider() {
 		this.contextRunner.run((context) -> assertThat(context)
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.mapper;
+
+import java.util.Base64;
+import java.util.BitSet;
+
+import io.spring.initializr.metadata.BillOfMaterials;
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencyCompatibilityJsonMapper}.
+ *
+ * @author Julien Marchand
+ */
+public class DependencyCompatibilityJsonMapperTests {
+
+	private final DependencyCompatibilityJsonMapper mapper = new DependencyCompatibilityJsonMapper();
+
+	@Test
+	public void dependenciesAreWrittenOnce() throws Exception {
+		JSONObject content = new JSONObject(this.mapper.write(createMetadata()));
+		assertThat(content.getJSONArray("dependencies").length()).isEqualTo(3);
+		JSONObject mapped = content.getJSONArray("dependencies").getJSONObject(1);
+		assertThat(mapped.getString("id")).isEqualTo("mapped");
+		assertThat(mapped.getString("artifactId")).isEqualTo("mapped");
+		assertThat(mapped.getString("bom")).isEqualTo("acme-bom");
+		assertThat(content.getJSONObject("boms").getJSONObject("acme-bom").has("version"))
+				.isFalse();
+		assertThat(content.getJSONObject("repositories").keys())
+				.containsOnly("acme-legacy", "acme");
+		assertThat(content.getJSONObject("bootVersions").keys()).containsOnly(
+				"1.5.17.RELEASE", "2.0.3.RELEASE", "2.1.1.RELEASE",
+				"2.2.0.BUILD-SNAPSHOT");
+	}
+
+	@Test
+	public void compatibleDependencies() throws Exception {
+		JSONObject content = new JSONObject(this.mapper.write(createMetadata()));
+		assertThat(compatible(content, "1.5.17.RELEASE").stream().toArray())
+				.containsExactly(0, 1);
+		assertThat(compatible(content, "2.1.1.RELEASE").stream().toArray())
+				.containsExactly(0, 1, 2);
+	}
+
+	@Test
+	public void overridesAreWrittenForEachVersion() throws Exception {
+		JSONObject content = new JSONObject(this.mapper.write(createMetadata()));
+		JSONObject v15 = content.getJSONObject("bootVersions")
+				.getJSONObject("1.5.17.RELEASE");
+		JSONObject mapped = v15.getJSONObject("dependencies").getJSONObject("mapped");
+		assertThat(mapped.keys()).containsOnly("artifactId", "version");
+		assertThat(mapped.getString("artifactId")).isEqualTo("mapped-legacy");
+		assertThat(mapped.getString("version")).isEqualTo("1.0.0");
+		assertThat(
+				v15.getJSONObject("boms").getJSONObject("acme-bom").getString("version"))
+						.isEqualTo("1.0.0");
+		assertThat(v15.getJSONObject("boms").getJSONObject("acme-bom")
+				.getJSONArray("repositories").getString(0)).isEqualTo("acme-legacy");
+		JSONObject v21 = content.getJSONObject("bootVersions")
+				.getJSONObject("2.1.1.RELEASE");
+		assertThat(v21.has("dependencies")).isFalse();
+		assertThat(v21.getJSONObject("boms").isNull("acme-bom")).isTrue();
+	}
+
+	private static BitSet compatible(JSONObject content, String bootVersion)
+			throws Exception {
+		String bitmap = content.getJSONObject("bootVersions").getJSONObject(bootVersion)
+				.getString("compatible");
+		return BitSet.valueOf(Base64.getDecoder().decode(bitmap));
+	}
+
+	private static InitializrMetadata createMetadata() {
+		Dependency web = Dependency.withId("web");
+		Dependency mapped = Dependency.withId("mapped", "org.acme", "mapped");
+		mapped.setBom("acme-bom");
+		mapped.getMappings().add(Dependency.Mapping
+				.create("[1.5.0.RELEASE,2.0.0.RELEASE)", null, "mapped-legacy", "1.0.0"));
+		Dependency recent = Dependency.withId("recent", "org.acme", "recent");
+		recent.setVersionRange("2.1.0.RELEASE");
+		recent.setRepository("acme");
+		BillOfMaterials bom = BillOfMaterials.create("org.acme", "acme-bom");
+		bom.getMappings().add(BillOfMaterials.Mapping
+				.create("[1.5.0.RELEASE,2.0.0.RELEASE)", "1.0.0", "acme-legacy"));
+		return InitializrMetadataTestBuilder.withDefaults()
+				.addRepository("acme", "Acme", "https://repo.example.com", false)
+				.addRepository("acme-legacy", "Acme Legacy", "https://legacy.example.com",
+						false)
+				.addBom("acme-bom", bom).addDependencyGroup("test", web, mapped, recent)
+				.build();
+	}
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import io.spring.initializr.generator.archive.ProjectArchiveCache;
+import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for project generation with a cache of project archives.
+ *
+ * @author Julien Marchand
+ */
+@ActiveProfiles("test-default")
+@TestPropertySource(properties = "initializr.generation.cache.enabled=true")
+public class MainControllerArchiveCacheIntegrationTests
+		extends AbstractInitializrControllerIntegrationTests {
+
+	@Autowired
+	private ProjectArchiveCache archiveCache;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	public void identicalRequestsAreServedFromCache() {
+		ResponseEntity<byte[]> first = download("/starter.zip?style=web&style=jpa", null);
+		ResponseEntity<byte[]> second = download("/starter.zip?style=jpa&style=web",
+				null);
+		assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(first.getHeaders().getETag()).isNotNull();
+		assertThat(second.getHeaders().getETag()).isEqualTo(first.getHeaders().getETag());
+		assertThat(second.getBody()).isEqualTo(first.getBody());
+		assertThat(second.getHeaders().getContentLength())
+				.isEqualTo(first.getBody().length);
+		assertThat(this.archiveCache.getHitCount()).isGreaterThanOrEqualTo(1);
+		zipProjectAssert(second.getBody()).isMavenProject().pomAssert()
+				.hasSpringBootStarterDependency("web")
+				.hasSpringBootStarterDependency("data-jpa");
+	}
+
+	@Test
+	public void zipAndTgzAreCachedSeparately() {
+		ResponseEntity<byte[]> zip = download("/starter.zip?artifactId=cache-format",
+				null);
+		ResponseEntity<byte[]> tgz = download("/starter.tgz?artifactId=cache-format",
+				null);
+		assertThat(tgz.getHeaders().getETag()).isNotEqualTo(zip.getHeaders().getETag());
+		tgzProjectAssert(tgz.getBody()).isMavenProject();
+	}
+
+	@Test
+	public void matchingETagReturnsNotModified() {
+		String etag = download("/starter.zip?artifactId=cache-etag", null).getHeaders()
+				.getETag();
+		ResponseEntity<byte[]> response = download("/starter.zip?artifactId=cache-etag",
+				etag);
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+		assertThat(response.getBody()).isNull();
+	}
+
+	@Test
+	public void differentETagReturnsArchive() {
+		ResponseEntity<byte[]> response = download("/starter.tgz?artifactId=cache-etag",
+				"\"another\"");
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		tgzProjectAssert(response.getBody()).isMavenProject();
+	}
+
+	@Test
+	public void cachedArchiveIsServedWithoutGenerationSlot() throws Exception {
+		String etag = download("/starter.zip?artifactId=cache-slot", null).getHeaders()
+				.getETag();
+		this.mockMvc.perform(get("/starter.zip?artifactId=cache-slot"))
+				.andExpect(request().asyncNotStarted()).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, etag));
+		this.mockMvc
+				.perform(get("/starter.zip?artifactId=cache-slot")
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(request().asyncNotStarted())
+				.andExpect(status().isNotModified());
+	}
+
+	private ResponseEntity<byte[]> download(String context, String ifNoneMatch) {
+		HttpHeaders headers = new HttpHeaders();
+		if (ifNoneMatch != null) {
+			headers.setIfNoneMatch(ifNoneMatch);
+		}
+		return getRestTemplate().exchange(createUrl(context), HttpMethod.GET,
+				new HttpEntity<Void>(headers), byte[].class);
+	}
+
+}
@@ -16,6 +16,10 @@
 
 package io.spring.initializr.web.project;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
 import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -23,11 +27,18 @@ import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.StreamUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * @author Stephane Nicoll
@@ -36,6 +47,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 public class MainControllerDependenciesTests
 		extends AbstractInitializrControllerIntegrationTests {
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Test
 	public void noBootVersion() throws JSONException {
 		ResponseEntity<String> response = execute("/dependencies", String.class, null,
@@ -55,6 +69,48 @@ public class MainControllerDependenciesTests
 		validateDependenciesOutput("2.2.1", response.getBody());
 	}
 
+	@Test
+	public void dependenciesNotModified() throws Exception {
+		String eTag = this.mockMvc.perform(get("/dependencies"))
+				.andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+		this.mockMvc.perform(get("/dependencies").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void dependenciesCompressed() throws Exception {
+		MockHttpServletResponse response = this.mockMvc
+				.perform(get("/dependencies?bootVersion=2.2.1.RELEASE")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andReturn().getResponse();
+		GZIPInputStream in = new GZIPInputStream(
+				new ByteArrayInputStream(response.getContentAsByteArray()));
+		validateDependenciesOutput("2.2.1",
+				StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void dependenciesCompatibility() throws JSONException {
+		ResponseEntity<String> response = execute("/dependencies/compatibility",
+				String.class, null, "application/json");
+		assertThat(response.getHeaders().getFirst("Content-Type"))
+				.isEqualTo("application/json;charset=UTF-8");
+		assertThat(response.getHeaders().getETag()).isNotNull();
+		JSONObject content = new JSONObject(response.getBody());
+		assertThat(content.getJSONArray("dependencies").length()).isEqualTo(8);
+		JSONObject bootVersions = content.getJSONObject("bootVersions");
+		assertThat(bootVersions.keys()).containsOnly("2.2.0.BUILD-SNAPSHOT",
+				"2.1.4.RELEASE", "1.5.17.RELEASE");
+		JSONObject myApiBom = bootVersions.getJSONObject("2.1.4.RELEASE")
+				.getJSONObject("boms").getJSONObject("my-api-bom");
+		assertThat(myApiBom.getString("version")).isEqualTo("1.0.0.RELEASE");
+		assertThat(bootVersions.getJSONObject("2.2.0.BUILD-SNAPSHOT")
+				.getJSONObject("boms").isNull("my-api-bom")).isTrue();
+	}
+
 	protected void validateDependenciesOutput(String version, String actual)
 			throws JSONException {
 		JSONObject expected = readJsonFrom(
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import io.spring.initializr.generator.ProjectRequest;
+import io.spring.initializr.generator.ProjectRequestPostProcessor;
+import io.spring.initializr.generator.archive.ArchiveFormat;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer;
+import io.spring.initializr.generator.archive.ProjectArchiveCoalescer.Flight;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataProvider;
+import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
+import io.spring.initializr.web.project.MainControllerGenerationLimitIntegrationTests.SlowGenerationConfiguration;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for project generation when the service is saturated.
+ *
+ * @author Julien Marchand
+ */
+@ActiveProfiles("test-default")
+@TestPropertySource(properties = { "initializr.generation.limit.concurrency=1",
+		"initializr.generation.limit.queue-capacity=0",
+		"initializr.generation.limit.timeout=200ms",
+		"initializr.generation.limit.retry-after=7s" })
+@Import(SlowGenerationConfiguration.class)
+public class MainControllerGenerationLimitIntegrationTests
+		extends AbstractInitializrControllerIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProjectGenerationLimiter generationLimiter;
+
+	@Autowired
+	private ProjectArchiveCoalescer archiveCoalescer;
+
+	@Autowired
+	private InitializrMetadataProvider metadataProvider;
+
+	@Test
+	public void generationIsRejectedWhenSaturated() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		DeferredResult<Object> blocked = occupySlot(latch);
+		try {
+			this.mockMvc.perform(get("/starter.zip"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "7"));
+			this.mockMvc.perform(get("/pom.xml"))
+					.andExpect(status().isServiceUnavailable());
+			assertThat(this.generationLimiter.getRejectedCount()).isEqualTo(2);
+		}
+		finally {
+			latch.countDown();
+			await(blocked);
+		}
+	}
+
+	@Test
+	public void metadataIsAvailableWhenSaturated() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		DeferredResult<Object> blocked = occupySlot(latch);
+		try {
+			this.mockMvc.perform(get("/dependencies")).andExpect(status().isOk());
+		}
+		finally {
+			latch.countDown();
+			await(blocked);
+		}
+	}
+
+	@Test
+	public void generationIsAcceptedOnceSlotIsReleased() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		DeferredResult<Object> blocked = occupySlot(latch);
+		latch.countDown();
+		await(blocked);
+		downloadZip("/starter.zip").isJavaProject();
+	}
+
+	@Test
+	public void identicalRequestWaitsWithoutGenerationSlot() throws Exception {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		ProjectRequest projectRequest = new ProjectRequest();
+		projectRequest.initialize(metadata);
+		Flight leader = this.archiveCoalescer.join(this.archiveCoalescer
+				.createKey(projectRequest, ArchiveFormat.ZIP, metadata));
+		CountDownLatch latch = new CountDownLatch(1);
+		DeferredResult<Object> blocked = occupySlot(latch);
+		try {
+			MvcResult result = this.mockMvc.perform(get("/starter.zip"))
+					.andExpect(request().asyncStarted()).andReturn();
+			assertThat(this.generationLimiter.getRejectedCount()).isEqualTo(0);
+			leader.complete(new byte[] { 1, 2, 3 });
+			dispatch(result).andExpect(status().isOk())
+					.andExpect(content().bytes(new byte[] { 1, 2, 3 }));
+		}
+		finally {
+			latch.countDown();
+			await(blocked);
+		}
+	}
+
+	@Test
+	public void identicalRequestIsRejectedWhenGenerationIsRejected() throws Exception {
+		InitializrMetadata metadata = this.metadataProvider.get();
+		ProjectRequest projectRequest = new ProjectRequest();
+		projectRequest.initialize(metadata);
+		Flight leader = this.archiveCoalescer.join(this.archiveCoalescer
+				.createKey(projectRequest, ArchiveFormat.ZIP, metadata));
+		MvcResult result = this.mockMvc.perform(get("/starter.zip"))
+				.andExpect(request().asyncStarted()).andReturn();
+		leader.fail(new ProjectGenerationRejectedException("test",
+				Duration.ofSeconds(7)));
+		this.mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isServiceUnavailable())
+				.andExpect(header().string("Retry-After", "7"));
+	}
+
+	@Test
+	public void generationTakingLongerThanTimeoutCompletes() throws Exception {
+		MvcResult result = this.mockMvc.perform(get("/starter.zip?artifactId=slow"))
+				.andExpect(request().asyncStarted()).andReturn();
+		dispatch(result).andExpect(status().isOk())
+				.andExpect(header().string("Content-Type", "application/zip"));
+		assertThat(this.generationLimiter.getRejectedCount()).isEqualTo(0);
+	}
+
+	private ResultActions dispatch(MvcResult result) throws Exception {
+		ResultActions actions;
+		do {
+			actions = this.mockMvc.perform(asyncDispatch(result));
+			result = actions.andReturn();
+		}
+		while (result.getRequest().isAsyncStarted());
+		return actions;
+	}
+
+	private DeferredResult<Object> occupySlot(CountDownLatch latch) throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		DeferredResult<Object> result = this.generationLimiter.submit(() -> {
+			started.countDown();
+			latch.await(5, TimeUnit.SECONDS);
+			return "done";
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		return result;
+	}
+
+	private void await(DeferredResult<?> result) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!result.hasResult() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(result.hasResult()).isTrue();
+	}
+
+	@Configuration
+	static class SlowGenerationConfiguration {
+
+		@Bean
+		ProjectRequestPostProcessor slowGenerationPostProcessor() {
+			return new ProjectRequestPostProcessor() {
+				@Override
+				public void postProcessBeforeResolution(ProjectRequest request,
+						InitializrMetadata metadata) {
+					if ("slow".equals(request.getArtifactId())) {
+						try {
+							// Longer than the timeout to wait for a generation slot
+							Thread.sleep(500);
+						}
+						catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+						}
+					}
+				}
+			};
+		}
+
+	}
+
+}
@@ -18,6 +18,8 @@ package io.spring.initializr.web.project;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Map;
 
 import io.spring.initializr.metadata.Dependency;
 import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
@@ -30,8 +32,10 @@ import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.web.client.HttpClientErrorException;
@@ -64,6 +68,45 @@ public class MainControllerIntegrationTests
 				.hasDependency("org.acme", "foo", "1.3.5");
 	}
 
+	@Test
+	public void zipProjectHasExecutableWrapperScript() {
+		Map<String, Integer> modes = zipEntryModes(downloadArchive("/starter.zip"));
+		assertThat(modes).containsEntry("mvnw", 0755).containsEntry("mvnw.cmd", 0644)
+				.containsEntry("pom.xml", 0644).containsEntry("src/", 0755);
+	}
+
+	@Test
+	public void zipProjectIsServedAsAttachment() {
+		ResponseEntity<byte[]> response = execute("/starter.zip?artifactId=my-app",
+				byte[].class, null, (String[]) null);
+		assertThat(response.getHeaders().getContentType())
+				.isEqualTo(MediaType.parseMediaType("application/zip"));
+		assertThat(response.getHeaders().getFirst("Content-Disposition"))
+				.isEqualTo("attachment; filename=\"my-app.zip\"");
+		assertThat(response.getHeaders().containsKey("Server-Timing")).isFalse();
+		zipProjectAssert(response.getBody()).isMavenProject();
+	}
+
+	@Test
+	public void tgzProjectIsServedAsAttachment() {
+		ResponseEntity<byte[]> response = execute("/starter.tgz?artifactId=my-app",
+				byte[].class, null, (String[]) null);
+		assertThat(response.getHeaders().getContentType())
+				.isEqualTo(MediaType.parseMediaType("application/x-compress"));
+		assertThat(response.getHeaders().getFirst("Content-Disposition"))
+				.isEqualTo("attachment; filename=\"my-app.tar.gz\"");
+		tgzProjectAssert(response.getBody()).isMavenProject();
+	}
+
+	@Test
+	public void tgzProjectHasExecutableWrapperScript() {
+		Map<String, Integer> modes = tgzEntryModes(
+				downloadArchive("/starter.tgz?type=gradle-project&baseDir=demo"));
+		assertThat(modes).containsEntry("demo/gradlew", 0755)
+				.containsEntry("demo/gradlew.bat", 0644)
+				.containsEntry("demo/build.gradle", 0644).containsEntry("demo/", 0755);
+	}
+
 	@Test
 	public void dependencyInRange() {
 		Dependency biz = Dependency.create("org.acme", "biz", "1.3.5", "runtime");
@@ -207,6 +250,35 @@ public class MainControllerIntegrationTests
 		validateCurrentMetadata(response.getBody());
 	}
 
+	@Test
+	public void metadataWithMatchingETagReturnsNotModified() {
+		ResponseEntity<String> response = invokeHome(null,
+				"application/vnd.initializr.v2.1+json");
+		String etag = response.getHeaders().getETag();
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(Collections.singletonList(
+				MediaType.parseMediaType("application/vnd.initializr.v2.1+json")));
+		headers.setIfNoneMatch(etag);
+		ResponseEntity<String> notModified = getRestTemplate()
+				.exchange(new RequestEntity<Void>(headers, HttpMethod.GET,
+						URI.create(createUrl("/"))), String.class);
+		assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+		assertThat(notModified.getHeaders().getETag()).isEqualTo(etag);
+		assertThat(notModified.getBody()).isNull();
+	}
+
+	@Test
+	public void metadataVersionsHaveDistinctETags() {
+		String v21 = invokeHome(null, "application/vnd.initializr.v2.1+json").getHeaders()
+				.getETag();
+		String v2 = invokeHome(null, "application/vnd.initializr.v2+json").getHeaders()
+				.getETag();
+		assertThat(v21).isNotNull();
+		assertThat(v2).isNotNull().isNotEqualTo(v21);
+		assertThat(invokeHome(null, "application/vnd.initializr.v2.1+json").getHeaders()
+				.getETag()).isEqualTo(v21);
+	}
+
 	@Test
 	public void metadataWithUnknownAcceptHeader() {
 		try {
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
+import org.junit.Test;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for project generation with a {@code Server-Timing} header.
+ *
+ * @author Julien Marchand
+ */
+@ActiveProfiles("test-default")
+@TestPropertySource(properties = "initializr.generation.server-timing=true")
+public class MainControllerServerTimingIntegrationTests
+		extends AbstractInitializrControllerIntegrationTests {
+
+	private static final String PHASE = "[a-z]+;dur=\\d+\\.\\d{3}";
+
+	@Test
+	public void zipProjectHasServerTiming() {
+		ResponseEntity<byte[]> response = getRestTemplate()
+				.getForEntity(createUrl("/starter.zip?style=web"), byte[].class);
+		String serverTiming = response.getHeaders().getFirst("Server-Timing");
+		assertThat(serverTiming).matches(PHASE + "(, " + PHASE + ")*");
+		assertThat(serverTiming).startsWith("resolve;dur=").contains(", model;dur=")
+				.contains(", generate;dur=");
+		zipProjectAssert(response.getBody()).isMavenProject();
+	}
+
+	@Test
+	public void pomHasServerTiming() {
+		ResponseEntity<String> response = getRestTemplate()
+				.getForEntity(createUrl("/pom.xml?style=web"), String.class);
+		assertThat(response.getHeaders().getFirst("Server-Timing"))
+				.startsWith("resolve;dur=").contains(", model;dur=")
+				.contains(", generate;dur=");
+	}
+
+}
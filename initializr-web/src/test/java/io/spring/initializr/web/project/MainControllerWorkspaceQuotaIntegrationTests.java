@@ -0,0 +1,84 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Duration;
+
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
+import org.junit.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for project generation when temporary files exceed their quota.
+ *
+ * @author Julien Marchand
+ */
+@ActiveProfiles("test-default")
+@TestPropertySource(properties = { "initializr.generation.in-memory=false",
+		"initializr.generation.workspace.quota=16B",
+		"initializr.generation.limit.retry-after=7s" })
+public class MainControllerWorkspaceQuotaIntegrationTests
+		extends AbstractInitializrControllerIntegrationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ProjectWorkspaceManager workspaceManager;
+
+	@Test
+	public void generationIsRejectedWhenQuotaIsExceeded() throws Exception {
+		File rootDirectory = this.workspaceManager.getRootDirectory();
+		rootDirectory.mkdirs();
+		File file = new File(rootDirectory, "test-quota.zip");
+		Files.write(file.toPath(), new byte[32]);
+		try {
+			this.workspaceManager.sweep(Duration.ofDays(1));
+			this.mockMvc.perform(asyncDispatch(generate()))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "7"));
+			assertThat(this.workspaceManager.getRejectedCount()).isEqualTo(1);
+		}
+		finally {
+			file.delete();
+			this.workspaceManager.sweep(Duration.ofDays(1));
+		}
+		this.mockMvc.perform(asyncDispatch(generate())).andExpect(status().isOk());
+		assertThat(this.workspaceManager.getActiveCount()).isEqualTo(0);
+	}
+
+	private MvcResult generate() throws Exception {
+		return this.mockMvc.perform(get("/starter.zip"))
+				.andExpect(request().asyncStarted()).andReturn();
+	}
+
+}
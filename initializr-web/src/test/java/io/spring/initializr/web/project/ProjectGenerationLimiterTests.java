@@ -0,0 +1,201 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.project;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link ProjectGenerationLimiter}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectGenerationLimiterTests {
+
+	private final ProjectGenerationLimiter limiter = new ProjectGenerationLimiter(1, 1,
+			Duration.ofSeconds(10), Duration.ofSeconds(3));
+
+	@After
+	public void destroy() {
+		this.limiter.destroy();
+	}
+
+	@Test
+	public void taskRunsOnDedicatedThread() throws Exception {
+		DeferredResult<String> result = this.limiter
+				.submit(() -> Thread.currentThread().getName());
+		assertThat(await(result)).asString().startsWith("initializr-generation-");
+		assertThat(this.limiter.getCompletedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void taskFailureIsSetAsErrorResult() throws Exception {
+		IllegalStateException failure = new IllegalStateException("test");
+		DeferredResult<String> result = this.limiter.submit(() -> {
+			throw failure;
+		});
+		assertThat(await(result)).isSameAs(failure);
+		assertThat(this.limiter.getCompletedCount()).isEqualTo(1);
+		assertThat(this.limiter.getActiveCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void taskIsRejectedWhenQueueIsFull() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		DeferredResult<Object> active = occupySlot(this.limiter, latch);
+		DeferredResult<String> queued = this.limiter.submit(() -> "test");
+		assertThat(this.limiter.getActiveCount()).isEqualTo(1);
+		assertThat(this.limiter.getQueuedCount()).isEqualTo(1);
+		assertThatThrownBy(() -> this.limiter.submit(() -> "rejected"))
+				.isInstanceOf(ProjectGenerationRejectedException.class)
+				.satisfies((ex) -> assertThat(
+						((ProjectGenerationRejectedException) ex).getRetryAfter())
+								.isEqualTo(Duration.ofSeconds(3)));
+		assertThat(this.limiter.getRejectedCount()).isEqualTo(1);
+		latch.countDown();
+		await(active);
+		assertThat(await(queued)).isEqualTo("test");
+		assertThat(this.limiter.getActiveCount()).isEqualTo(0);
+		assertThat(this.limiter.getQueuedCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void completedTaskReleasesSlot() throws Exception {
+		for (int i = 0; i < 5; i++) {
+			assertThat(await(this.limiter.submit(() -> "test"))).isEqualTo("test");
+		}
+		assertThat(this.limiter.getRejectedCount()).isEqualTo(0);
+		assertThat(this.limiter.getCompletedCount()).isEqualTo(5);
+	}
+
+	@Test
+	public void taskWaitingForSlotLongerThanTimeoutIsRejected() throws Exception {
+		ProjectGenerationLimiter limiter = new ProjectGenerationLimiter(1, 1,
+				Duration.ofMillis(100), Duration.ofSeconds(3));
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			AtomicInteger discarded = new AtomicInteger();
+			DeferredResult<Object> active = occupySlot(limiter, latch);
+			DeferredResult<String> queued = limiter.submit(() -> "test",
+					discarded::incrementAndGet);
+			assertThat(await(queued))
+					.isInstanceOf(ProjectGenerationRejectedException.class);
+			assertThat(discarded).hasValue(1);
+			assertThat(limiter.getRejectedCount()).isEqualTo(1);
+			assertThat(limiter.getQueuedCount()).isEqualTo(0);
+			latch.countDown();
+			await(active);
+			assertThat(limiter.getCompletedCount()).isEqualTo(1);
+		}
+		finally {
+			limiter.destroy();
+		}
+	}
+
+	@Test
+	public void runningTaskIsNotSubjectToTimeout() throws Exception {
+		ProjectGenerationLimiter limiter = new ProjectGenerationLimiter(1, 1,
+				Duration.ofMillis(50), Duration.ofSeconds(3));
+		try {
+			DeferredResult<String> result = limiter.submit(() -> {
+				Thread.sleep(200);
+				return "test";
+			});
+			assertThat(await(result)).isEqualTo("test");
+			assertThat(limiter.getRejectedCount()).isEqualTo(0);
+		}
+		finally {
+			limiter.destroy();
+		}
+	}
+
+	@Test
+	public void discardedTaskReleasesSlotAndDoesNotRun() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicInteger invocations = new AtomicInteger();
+		DeferredResult<Object> active = occupySlot(this.limiter, latch);
+		DeferredResult<Integer> queued = this.limiter
+				.submit(invocations::incrementAndGet);
+		assertThat(this.limiter.getQueuedCount()).isEqualTo(1);
+		getCompletionCallback(queued).run();
+		assertThat(this.limiter.getQueuedCount()).isEqualTo(0);
+		latch.countDown();
+		await(active);
+		assertThat(invocations).hasValue(0);
+		assertThat(this.limiter.getCompletedCount()).isEqualTo(1);
+	}
+
+	@Test
+	public void discardedTaskInvokesDiscardCallback() throws Exception {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicInteger discarded = new AtomicInteger();
+		DeferredResult<Object> active = occupySlot(this.limiter, latch);
+		DeferredResult<String> queued = this.limiter.submit(() -> "test",
+				discarded::incrementAndGet);
+		getCompletionCallback(queued).run();
+		assertThat(discarded).hasValue(1);
+		latch.countDown();
+		await(active);
+	}
+
+	@Test
+	public void completedTaskDoesNotInvokeDiscardCallback() throws Exception {
+		AtomicInteger discarded = new AtomicInteger();
+		DeferredResult<String> result = this.limiter.submit(() -> "test",
+				discarded::incrementAndGet);
+		assertThat(await(result)).isEqualTo("test");
+		getCompletionCallback(result).run();
+		assertThat(discarded).hasValue(0);
+	}
+
+	private static DeferredResult<Object> occupySlot(ProjectGenerationLimiter limiter,
+			CountDownLatch latch) throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		DeferredResult<Object> result = limiter.submit(() -> {
+			started.countDown();
+			latch.await(5, TimeUnit.SECONDS);
+			return "done";
+		});
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		return result;
+	}
+
+	private static Runnable getCompletionCallback(DeferredResult<?> result) {
+		return (Runnable) ReflectionTestUtils.getField(result, "completionCallback");
+	}
+
+	private static Object await(DeferredResult<?> result) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!result.hasResult() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(result.hasResult()).isTrue();
+		return result.getResult();
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import io.spring.initializr.util.Agent;
+import io.spring.initializr.util.Agent.AgentId;
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link AgentResolver}.
+ *
+ * @author Julien Marchand
+ */
+public class AgentResolverTests {
+
+	@Test
+	public void resolveAgent() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.USER_AGENT, "curl/7.54.0");
+		Agent agent = AgentResolver.resolve(request);
+		assertThat(agent.getId()).isEqualTo(AgentId.CURL);
+		assertThat(agent.getVersion()).isEqualTo("7.54.0");
+	}
+
+	@Test
+	public void resolveAgentIsStoredOnRequest() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.USER_AGENT, "curl/7.54.0");
+		Agent agent = AgentResolver.resolve(request);
+		request.removeHeader(HttpHeaders.USER_AGENT);
+		assertThat(AgentResolver.resolve(request)).isSameAs(agent);
+	}
+
+	@Test
+	public void resolveUnknownAgent() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.addHeader(HttpHeaders.USER_AGENT, "Googlebot-Mobile");
+		assertThat(AgentResolver.resolve(request)).isNull();
+		request.removeHeader(HttpHeaders.USER_AGENT);
+		request.addHeader(HttpHeaders.USER_AGENT, "curl/7.54.0");
+		assertThat(AgentResolver.resolve(request)).isNull();
+	}
+
+	@Test
+	public void resolveWithoutUserAgent() {
+		assertThat(AgentResolver.resolve(new MockHttpServletRequest())).isNull();
+	}
+
+}
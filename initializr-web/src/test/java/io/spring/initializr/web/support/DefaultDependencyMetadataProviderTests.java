@@ -52,6 +52,19 @@ public class DefaultDependencyMetadataProviderTests {
 		assertThat(dependencyMetadata.getDependencies().get("second")).isSameAs(second);
 	}
 
+	@Test
+	public void dependencyMetadataIsSpecificToMetadata() {
+		InitializrMetadata metadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", "first").build();
+		InitializrMetadata anotherMetadata = InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("test", "first", "second").build();
+		Version version = Version.parse("2.1.1.RELEASE");
+		DependencyMetadata dependencyMetadata = this.provider.get(metadata, version);
+		assertThat(this.provider.get(metadata, version)).isSameAs(dependencyMetadata);
+		assertThat(this.provider.get(anotherMetadata, version).getDependencies())
+				.containsOnlyKeys("first", "second");
+	}
+
 	@Test
 	public void resolveDependencies() {
 		Dependency first = Dependency.withId("first", "org.foo", "first");
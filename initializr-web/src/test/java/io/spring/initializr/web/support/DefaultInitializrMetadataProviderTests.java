@@ -21,10 +21,13 @@ import java.util.List;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.spring.initializr.metadata.DefaultMetadataElement;
 import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.metadata.InitializrMetadataRefreshedEvent;
 import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -34,6 +37,11 @@ import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
@@ -57,13 +65,11 @@ public class DefaultInitializrMetadataProviderTests {
 
 	@Test
 	public void bootVersionsAreReplaced() {
-		InitializrMetadata metadata = new InitializrMetadataTestBuilder()
-				.addBootVersion("0.0.9.RELEASE", true)
-				.addBootVersion("0.0.8.RELEASE", false).build();
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		InitializrMetadata metadata = createMetadata();
 		assertThat(metadata.getBootVersions().getDefault().getId())
 				.isEqualTo("0.0.9.RELEASE");
-		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
-				metadata, objectMapper, this.restTemplate);
 		expectJson(metadata.getConfiguration().getEnv().getSpringBootMetadataUrl(),
 				"metadata/sagan/spring-boot.json");
 
@@ -80,13 +86,9 @@ public class DefaultInitializrMetadataProviderTests {
 
 	@Test
 	public void defaultBootVersionIsAlwaysSet() {
-		InitializrMetadata metadata = new InitializrMetadataTestBuilder()
-				.addBootVersion("0.0.9.RELEASE", true)
-				.addBootVersion("0.0.8.RELEASE", false).build();
-		assertThat(metadata.getBootVersions().getDefault().getId())
-				.isEqualTo("0.0.9.RELEASE");
 		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
-				metadata, objectMapper, this.restTemplate);
+				this::createMetadata, objectMapper, this.restTemplate);
+		InitializrMetadata metadata = createMetadata();
 		expectJson(metadata.getConfiguration().getEnv().getSpringBootMetadataUrl(),
 				"metadata/sagan/spring-boot-no-default.json");
 
@@ -101,6 +103,138 @@ public class DefaultInitializrMetadataProviderTests {
 		assertBootVersion(updatedBootVersions.get(3), "1.2.5", false);
 	}
 
+	@Test
+	public void refreshDoesNotUpdateMetadataInPlace() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		provider.setRefreshOnAccess(false);
+		InitializrMetadata metadata = provider.get();
+		expectJson(metadata.getConfiguration().getEnv().getSpringBootMetadataUrl(),
+				"metadata/sagan/spring-boot.json");
+
+		assertThat(provider.refresh()).isTrue();
+		InitializrMetadata updatedMetadata = provider.get();
+		assertThat(updatedMetadata).isNotSameAs(metadata);
+		assertThat(updatedMetadata.getBootVersions().getDefault().getId())
+				.isEqualTo("1.4.0.RELEASE");
+		assertThat(metadata.getBootVersions().getContent()).hasSize(2);
+		assertThat(metadata.getBootVersions().getDefault().getId())
+				.isEqualTo("0.0.9.RELEASE");
+		assertThat(updatedMetadata.isNewerThan(metadata)).isTrue();
+	}
+
+	@Test
+	public void refreshWithSameBootVersionsKeepsMetadata() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		provider.setRefreshOnAccess(false);
+		InitializrMetadata metadata = provider.get();
+		String url = metadata.getConfiguration().getEnv().getSpringBootMetadataUrl();
+		expectJson(url, "metadata/sagan/spring-boot.json");
+		expectJson(url, "metadata/sagan/spring-boot.json");
+
+		assertThat(provider.refresh()).isTrue();
+		InitializrMetadata updatedMetadata = provider.get();
+		assertThat(provider.refresh()).isFalse();
+		assertThat(provider.get()).isSameAs(updatedMetadata);
+		this.mockServer.verify();
+	}
+
+	@Test
+	public void refreshPublishesEventWhenMetadataChanges() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+		provider.setEventPublisher(eventPublisher);
+		provider.setRefreshOnAccess(false);
+		String url = provider.get().getConfiguration().getEnv()
+				.getSpringBootMetadataUrl();
+		expectJson(url, "metadata/sagan/spring-boot.json");
+		expectJson(url, "metadata/sagan/spring-boot.json");
+
+		assertThat(provider.refresh()).isTrue();
+		assertThat(provider.refresh()).isFalse();
+		ArgumentCaptor<InitializrMetadataRefreshedEvent> event = ArgumentCaptor
+				.forClass(InitializrMetadataRefreshedEvent.class);
+		verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+		verify(eventPublisher).publishEvent(event.capture());
+		assertThat(event.getValue().getMetadata()).isSameAs(provider.get());
+	}
+
+	@Test
+	public void refreshWithoutBootVersionsUrlKeepsMetadata() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				() -> {
+					InitializrMetadata metadata = createMetadata();
+					metadata.getConfiguration().getEnv().setSpringBootMetadataUrl(null);
+					return metadata;
+				}, objectMapper, this.restTemplate);
+		provider.setRefreshOnAccess(false);
+		InitializrMetadata metadata = provider.get();
+		assertThat(provider.refresh()).isFalse();
+		assertThat(provider.get()).isSameAs(metadata);
+	}
+
+	@Test
+	public void refreshFailureKeepsMetadata() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		String url = createMetadata().getConfiguration().getEnv()
+				.getSpringBootMetadataUrl();
+		expectJson(url, "metadata/sagan/spring-boot.json");
+		this.mockServer.expect(requestTo(url))
+				.andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+
+		InitializrMetadata updatedMetadata = provider.get();
+		assertThat(updatedMetadata.getBootVersions().getContent()).hasSize(4);
+		assertThat(provider.get()).isSameAs(updatedMetadata);
+		this.mockServer.verify();
+	}
+
+	@Test
+	public void refreshFailureIsPropagated() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		String url = createMetadata().getConfiguration().getEnv()
+				.getSpringBootMetadataUrl();
+		this.mockServer.expect(requestTo(url))
+				.andRespond(withStatus(HttpStatus.SERVICE_UNAVAILABLE));
+		assertThatIllegalStateException().isThrownBy(provider::refresh)
+				.withMessageContaining(url);
+	}
+
+	@Test
+	public void getWithoutRefreshOnAccessDoesNotFetchMetadata() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				this::createMetadata, objectMapper, this.restTemplate);
+		provider.setRefreshOnAccess(false);
+		assertThat(provider.get()).isSameAs(provider.get());
+		assertThat(provider.get().getBootVersions().getDefault().getId())
+				.isEqualTo("0.0.9.RELEASE");
+		this.mockServer.verify();
+	}
+
+	@Test
+	public void refreshKeepsTypeOfMetadata() {
+		DefaultInitializrMetadataProvider provider = new DefaultInitializrMetadataProvider(
+				() -> {
+					InitializrMetadata metadata = new CustomInitializrMetadata();
+					metadata.merge(createMetadata());
+					return metadata;
+				}, objectMapper, this.restTemplate);
+		provider.setRefreshOnAccess(false);
+		expectJson(provider.get().getConfiguration().getEnv().getSpringBootMetadataUrl(),
+				"metadata/sagan/spring-boot.json");
+		assertThat(provider.refresh()).isTrue();
+		assertThat(provider.get()).isInstanceOf(CustomInitializrMetadata.class);
+		assertThat(provider.get().getBootVersions().getContent()).hasSize(4);
+	}
+
+	private InitializrMetadata createMetadata() {
+		return new InitializrMetadataTestBuilder().addBootVersion("0.0.9.RELEASE", true)
+				.addBootVersion("0.0.8.RELEASE", false).build();
+	}
+
 	private static void assertBootVersion(DefaultMetadataElement actual, String name,
 			boolean defaultVersion) {
 		assertThat(actual.getName()).isEqualTo(name);
@@ -115,4 +249,8 @@ public class DefaultInitializrMetadataProviderTests {
 						.body(new ClassPathResource(bodyPath)).headers(httpHeaders));
 	}
 
+	static class CustomInitializrMetadata extends InitializrMetadata {
+
+	}
+
 }
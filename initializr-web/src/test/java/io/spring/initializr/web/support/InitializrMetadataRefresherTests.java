@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link InitializrMetadataRefresher}.
+ *
+ * @author Julien Marchand
+ */
+public class InitializrMetadataRefresherTests {
+
+	private final DefaultInitializrMetadataProvider metadataProvider = mock(
+			DefaultInitializrMetadataProvider.class);
+
+	@Test
+	public void refreshSchedulesNextRefreshWithJitter() {
+		InitializrMetadataRefresher refresher = new InitializrMetadataRefresher(
+				this.metadataProvider, Duration.ofMinutes(10), Duration.ofMinutes(1),
+				Duration.ofSeconds(30));
+		Instant start = Instant.now();
+		Duration delay = refresher.refresh();
+		assertThat(delay).isBetween(Duration.ofMinutes(10), Duration.ofMinutes(11));
+		assertThat(refresher.getLastRefreshTime()).isBetween(start, Instant.now());
+		assertThat(refresher.getFailureCount()).isEqualTo(0);
+		verify(this.metadataProvider).refresh();
+	}
+
+	@Test
+	public void refreshWithoutJitter() {
+		InitializrMetadataRefresher refresher = new InitializrMetadataRefresher(
+				this.metadataProvider, Duration.ofMinutes(10), Duration.ZERO,
+				Duration.ofSeconds(30));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofMinutes(10));
+	}
+
+	@Test
+	public void refreshFailureBacksOff() {
+		given(this.metadataProvider.refresh())
+				.willThrow(new IllegalStateException("test"));
+		InitializrMetadataRefresher refresher = new InitializrMetadataRefresher(
+				this.metadataProvider, Duration.ofMinutes(1), Duration.ZERO,
+				Duration.ofSeconds(10));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofSeconds(20));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofSeconds(40));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(refresher.getFailureCount()).isEqualTo(4);
+		assertThat(refresher.getLastRefreshTime()).isNull();
+	}
+
+	@Test
+	public void refreshAfterFailureResetsBackoff() {
+		given(this.metadataProvider.refresh())
+				.willThrow(new IllegalStateException("test")).willReturn(true)
+				.willThrow(new IllegalStateException("test"));
+		InitializrMetadataRefresher refresher = new InitializrMetadataRefresher(
+				this.metadataProvider, Duration.ofMinutes(1), Duration.ZERO,
+				Duration.ofSeconds(10));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofMinutes(1));
+		assertThat(refresher.refresh()).isEqualTo(Duration.ofSeconds(10));
+		assertThat(refresher.getFailureCount()).isEqualTo(2);
+		assertThat(refresher.getLastRefreshTime()).isNotNull();
+	}
+
+	@Test
+	public void startRefreshesInBackground() {
+		InitializrMetadataRefresher refresher = new InitializrMetadataRefresher(
+				this.metadataProvider, Duration.ofMinutes(10), Duration.ZERO,
+				Duration.ofSeconds(30));
+		refresher.start();
+		try {
+			assertThat(refresher.isRunning()).isTrue();
+			verify(this.metadataProvider).setRefreshOnAccess(false);
+			verify(this.metadataProvider, timeout(5000)).refresh();
+		}
+		finally {
+			refresher.stop();
+		}
+		assertThat(refresher.isRunning()).isFalse();
+		verify(this.metadataProvider).setRefreshOnAccess(true);
+	}
+
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import io.spring.initializr.web.support.MetadataContentCache.Content;
+import org.junit.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Tests for {@link MetadataContentCache}.
+ *
+ * @author Julien Marchand
+ */
+public class MetadataContentCacheTests {
+
+	private final AtomicInteger renderCount = new AtomicInteger();
+
+	@Test
+	public void contentIsRenderedOnce() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		InitializrMetadata metadata = createMetadata();
+		Content first = cache.get(metadata, "test", () -> render("content"));
+		Content second = cache.get(metadata, "test", () -> render("content"));
+		assertThat(second).isSameAs(first);
+		assertThat(first.getContent())
+				.isEqualTo("content".getBytes(StandardCharsets.UTF_8));
+		assertThat(first.getETag()).isEqualTo("9a0364b9e99bb480dd25e1f0284c8555");
+		assertThat(this.renderCount).hasValue(1);
+	}
+
+	@Test
+	public void contentIsRenderedPerKey() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		InitializrMetadata metadata = createMetadata();
+		Content first = cache.get(metadata, "one", () -> render("one"));
+		Content second = cache.get(metadata, "two", () -> render("two"));
+		assertThat(first.getETag()).isNotEqualTo(second.getETag());
+		assertThat(cache.getEntryCount()).isEqualTo(2);
+		assertThat(this.renderCount).hasValue(2);
+	}
+
+	@Test
+	public void contentIsRenderedAgainForAnotherMetadata() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		cache.get(createMetadata(), "one", () -> render("one"));
+		cache.get(createMetadata(), "two", () -> render("two"));
+		Content content = cache.get(createMetadata(), "one", () -> render("updated"));
+		assertThat(content.getContent())
+				.isEqualTo("updated".getBytes(StandardCharsets.UTF_8));
+		assertThat(cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.renderCount).hasValue(3);
+	}
+
+	@Test
+	public void contentIsNotCachedForOlderMetadata() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		InitializrMetadata older = createMetadata();
+		InitializrMetadata metadata = createMetadata();
+		Content content = cache.get(metadata, "one", () -> render("one"));
+		Content stale = cache.get(older, "one", () -> render("stale"));
+		assertThat(stale.getContent())
+				.isEqualTo("stale".getBytes(StandardCharsets.UTF_8));
+		assertThat(cache.get(metadata, "one", () -> render("one"))).isSameAs(content);
+		assertThat(cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.renderCount).hasValue(2);
+	}
+
+	@Test
+	public void knownKeysAreNotResolvedForOlderMetadata() {
+		AtomicInteger resolveCount = new AtomicInteger();
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16,
+				(metadata) -> {
+					resolveCount.incrementAndGet();
+					return Collections.singleton("one");
+				});
+		InitializrMetadata older = createMetadata();
+		InitializrMetadata metadata = createMetadata();
+		cache.get(metadata, "one", () -> render("one"));
+		cache.get(older, "one", () -> render("stale"));
+		cache.get(metadata, "one", () -> render("one"));
+		assertThat(resolveCount).hasValue(1);
+		assertThat(this.renderCount).hasValue(2);
+	}
+
+	@Test
+	public void contentIsNotCachedWhenMaxEntriesIsReached() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(1);
+		InitializrMetadata metadata = createMetadata();
+		cache.get(metadata, "one", () -> render("one"));
+		cache.get(metadata, "two", () -> render("two"));
+		cache.get(metadata, "two", () -> render("two"));
+		assertThat(cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.renderCount).hasValue(3);
+	}
+
+	@Test
+	public void contentForKnownKeysIsCachedWhenMaxEntriesIsReached() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(1,
+				(metadata) -> new HashSet<>(Arrays.asList("one", "two")));
+		InitializrMetadata metadata = createMetadata();
+		cache.get(metadata, "unknown", () -> render("unknown"));
+		cache.get(metadata, "another", () -> render("another"));
+		Content content = cache.get(metadata, "two", () -> render("two"));
+		assertThat(cache.get(metadata, "two", () -> render("two"))).isSameAs(content);
+		cache.get(metadata, "one", () -> render("one"));
+		assertThat(cache.getEntryCount()).isEqualTo(3);
+		assertThat(this.renderCount).hasValue(4);
+	}
+
+	@Test
+	public void contentForKnownKeyIsRenderedLazily() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16,
+				(metadata) -> Collections.singleton("one"));
+		InitializrMetadata metadata = createMetadata();
+		cache.get(metadata, "two", () -> render("two"));
+		assertThat(cache.getEntryCount()).isEqualTo(1);
+		assertThat(this.renderCount).hasValue(1);
+	}
+
+	@Test
+	public void contentForKnownKeyThatCannotBeRenderedIsNotCached() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16,
+				(metadata) -> Collections.singleton("test"));
+		InitializrMetadata metadata = createMetadata();
+		assertThatThrownBy(() -> cache.get(metadata, "test", () -> {
+			throw new IllegalStateException("Test");
+		})).isInstanceOf(IllegalStateException.class);
+		Content content = cache.get(metadata, "test", () -> render("test"));
+		assertThat(content.getContent())
+				.isEqualTo("test".getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void gzipContent() throws IOException {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		Content content = cache.get(createMetadata(), "test", () -> render("content"));
+		GZIPInputStream in = new GZIPInputStream(
+				new ByteArrayInputStream(content.getGzipContent()));
+		assertThat(StreamUtils.copyToByteArray(in)).isEqualTo(content.getContent());
+		assertThat(content.getGzipETag()).isNotEqualTo(content.getETag());
+	}
+
+	@Test
+	public void gzipContentIsCompressedOnce() {
+		MetadataContentCache<String> cache = new MetadataContentCache<>(16);
+		Content content = cache.get(createMetadata(), "test", () -> render("content"));
+		assertThat(content.getGzipContent()).isSameAs(content.getGzipContent());
+	}
+
+	@Test
+	public void responseEntityWithoutAcceptEncoding() {
+		Content content = new MetadataContentCache<String>(16).get(createMetadata(),
+				"test", () -> render("content"));
+		ResponseEntity<byte[]> entity = content.toResponseEntity(ResponseEntity.ok(),
+				null);
+		assertThat(entity.getBody()).isSameAs(content.getContent());
+		assertThat(entity.getHeaders().getETag())
+				.isEqualTo("\"" + content.getETag() + "\"");
+		assertThat(entity.getHeaders().getVary())
+				.containsExactly(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(entity.getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING))
+				.isFalse();
+	}
+
+	@Test
+	public void responseEntityWithGzipAcceptEncoding() {
+		Content content = new MetadataContentCache<String>(16).get(createMetadata(),
+				"test", () -> render("content"));
+		ResponseEntity<byte[]> entity = content.toResponseEntity(ResponseEntity.ok(),
+				"deflate, GZIP;q=0.8");
+		assertThat(entity.getBody()).isSameAs(content.getGzipContent());
+		assertThat(entity.getHeaders().getETag())
+				.isEqualTo("\"" + content.getGzipETag() + "\"");
+		assertThat(entity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))
+				.isEqualTo("gzip");
+	}
+
+	@Test
+	public void responseEntityWithGzipExcluded() {
+		Content content = new MetadataContentCache<String>(16).get(createMetadata(),
+				"test", () -> render("content"));
+		ResponseEntity<byte[]> entity = content.toResponseEntity(ResponseEntity.ok(),
+				"gzip;q=0, identity");
+		assertThat(entity.getBody()).isSameAs(content.getContent());
+	}
+
+	private String render(String content) {
+		this.renderCount.incrementAndGet();
+		return content;
+	}
+
+	private static InitializrMetadata createMetadata() {
+		return InitializrMetadataTestBuilder.withDefaults().build();
+	}
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+
+import io.spring.initializr.generator.ProjectWorkspaceManager;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link ProjectWorkspaceSweeper}.
+ *
+ * @author Julien Marchand
+ */
+public class ProjectWorkspaceSweeperTests {
+
+	private final ProjectWorkspaceManager workspaceManager = mock(
+			ProjectWorkspaceManager.class);
+
+	@Test
+	public void startSweepsImmediately() {
+		ProjectWorkspaceSweeper sweeper = new ProjectWorkspaceSweeper(
+				this.workspaceManager, Duration.ofHours(1), Duration.ofMinutes(30));
+		sweeper.start();
+		try {
+			assertThat(sweeper.isRunning()).isTrue();
+			verify(this.workspaceManager, timeout(5000)).sweep(Duration.ofMinutes(30));
+		}
+		finally {
+			sweeper.stop();
+		}
+		assertThat(sweeper.isRunning()).isFalse();
+	}
+
+	@Test
+	public void sweepFailureIsIgnored() {
+		given(this.workspaceManager.sweep(Duration.ofMinutes(30)))
+				.willThrow(new IllegalStateException("test"));
+		ProjectWorkspaceSweeper sweeper = new ProjectWorkspaceSweeper(
+				this.workspaceManager, Duration.ofHours(1), Duration.ofMinutes(30));
+		sweeper.sweep();
+		verify(this.workspaceManager).sweep(Duration.ofMinutes(30));
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.support;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import io.spring.initializr.util.TemplateRenderer;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link TemplateRendererPrecompiler}.
+ *
+ * @author Julien Marchand
+ */
+public class TemplateRendererPrecompilerTests {
+
+	private final TemplateRenderer templateRenderer = mock(TemplateRenderer.class);
+
+	@Test
+	public void startPrecompilesInTheBackground() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		given(this.templateRenderer.precompile()).willAnswer((invocation) -> {
+			latch.await();
+			return Duration.ZERO;
+		});
+		TemplateRendererPrecompiler precompiler = new TemplateRendererPrecompiler(
+				this.templateRenderer);
+		precompiler.start();
+		try {
+			assertThat(precompiler.isRunning()).isTrue();
+			verify(this.templateRenderer, timeout(5000)).precompile();
+		}
+		finally {
+			latch.countDown();
+			precompiler.stop();
+		}
+		assertThat(precompiler.isRunning()).isFalse();
+	}
+
+	@Test
+	public void precompileFailureIsIgnored() {
+		given(this.templateRenderer.precompile())
+				.willThrow(new IllegalStateException("test"));
+		TemplateRendererPrecompiler precompiler = new TemplateRendererPrecompiler(
+				this.templateRenderer);
+		precompiler.precompile();
+		verify(this.templateRenderer).precompile();
+	}
+
+}
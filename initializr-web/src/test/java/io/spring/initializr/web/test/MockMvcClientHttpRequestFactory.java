@@ -36,6 +36,7 @@ import org.springframework.mock.http.client.MockClientHttpResponse;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.restdocs.snippet.Snippet;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.util.Assert;
@@ -43,6 +44,7 @@ import org.springframework.util.Assert;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.document;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.preprocessResponse;
 import static org.springframework.restdocs.operation.preprocess.Preprocessors.prettyPrint;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.request;
 
 /**
@@ -108,6 +110,13 @@ public class MockMvcClientHttpRequestFactory implements ClientHttpRequestFactory
 			throws Exception {
 		ResultActions actions = MockMvcClientHttpRequestFactory.this.mockMvc
 				.perform(requestBuilder);
+		MvcResult result = actions.andReturn();
+		// A deferred result may resolve to a body that is itself written asynchronously
+		while (result.getRequest().isAsyncStarted()) {
+			actions = MockMvcClientHttpRequestFactory.this.mockMvc
+					.perform(asyncDispatch(result));
+			result = actions.andReturn();
+		}
 		List<Snippet> snippets = new ArrayList<>();
 		for (String field : this.fields) {
 			snippets.add(new ResponseFieldSnippet(field));
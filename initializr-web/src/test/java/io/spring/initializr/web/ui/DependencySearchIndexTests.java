@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.spring.initializr.web.ui;
+
+import java.util.List;
+
+import io.spring.initializr.metadata.Dependency;
+import io.spring.initializr.metadata.InitializrMetadata;
+import io.spring.initializr.test.metadata.InitializrMetadataTestBuilder;
+import io.spring.initializr.util.Version;
+import io.spring.initializr.web.ui.DependencySearchIndex.Match;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link DependencySearchIndex}.
+ *
+ * @author Julien Marchand
+ */
+public class DependencySearchIndexTests {
+
+	private final DependencySearchIndex index = new DependencySearchIndex(
+			createMetadata());
+
+	@Test
+	public void searchByNamePrefix() {
+		assertThat(ids(this.index.search("sec", null, 10))).containsExactly("security");
+	}
+
+	@Test
+	public void searchIsCaseInsensitive() {
+		assertThat(ids(this.index.search("SECURITY", null, 10)))
+				.containsExactly("security");
+	}
+
+	@Test
+	public void searchByDescription() {
+		assertThat(ids(this.index.search("restful", null, 10))).containsExactly("web");
+	}
+
+	@Test
+	public void searchByKeyword() {
+		assertThat(ids(this.index.search("orm", null, 10))).containsExactly("data-jpa");
+	}
+
+	@Test
+	public void searchByAlias() {
+		assertThat(ids(this.index.search("jpa", null, 10))).containsExactly("data-jpa");
+	}
+
+	@Test
+	public void searchByGroup() {
+		assertThat(ids(this.index.search("sql", null, 10))).containsExactly("data-jpa",
+				"jdbc");
+	}
+
+	@Test
+	public void searchRequiresAllTokens() {
+		assertThat(ids(this.index.search("spring data", null, 10)))
+				.containsExactly("data-jpa");
+		assertThat(ids(this.index.search("spring unknown", null, 10))).isEmpty();
+	}
+
+	@Test
+	public void searchRankedByWeight() {
+		assertThat(ids(this.index.search("w", null, 10))).containsExactly("webflux",
+				"web");
+	}
+
+	@Test
+	public void searchRankedByRelevanceWithSameWeight() {
+		assertThat(ids(this.index.search("jdbc", null, 10))).containsExactly("jdbc",
+				"data-jpa");
+	}
+
+	@Test
+	public void searchWithLimit() {
+		assertThat(ids(this.index.search("s", null, 2))).hasSize(2);
+		assertThat(ids(this.index.search("s", null, 0))).isEmpty();
+	}
+
+	@Test
+	public void searchWithBootVersion() {
+		assertThat(ids(this.index.search("w", Version.parse("1.5.17.RELEASE"), 10)))
+				.containsExactly("web");
+	}
+
+	@Test
+	public void searchWithBlankQuery() {
+		assertThat(this.index.search(" ", null, 10)).isEmpty();
+		assertThat(this.index.search(null, null, 10)).isEmpty();
+	}
+
+	@Test
+	public void searchProvidesGroup() {
+		List<Match> matches = this.index.search("jdbc", null, 10);
+		assertThat(matches.get(0).getGroup()).isEqualTo("SQL");
+	}
+
+	private static String[] ids(List<Match> matches) {
+		return matches.stream().map((match) -> match.getDependency().getId())
+				.toArray(String[]::new);
+	}
+
+	private static InitializrMetadata createMetadata() {
+		Dependency web = Dependency.withId("web");
+		web.setName("Web");
+		web.setDescription("Build RESTful applications");
+		Dependency webflux = Dependency.withId("webflux");
+		webflux.setName("Reactive Web");
+		webflux.setVersionRange("2.0.0.RELEASE");
+		webflux.setWeight(10);
+		Dependency security = Dependency.withId("security");
+		security.setName("Security");
+		security.setDescription("Secure your application");
+		Dependency jpa = Dependency.withId("data-jpa");
+		jpa.setName("Spring Data JPA");
+		jpa.setDescription("Persist data using JDBC");
+		jpa.getKeywords().add("orm");
+		jpa.getAliases().add("jpa");
+		Dependency jdbc = Dependency.withId("jdbc");
+		jdbc.setName("JDBC");
+		return InitializrMetadataTestBuilder.withDefaults()
+				.addDependencyGroup("Web", web, webflux)
+				.addDependencyGroup("Core", security).addDependencyGroup("SQL", jpa, jdbc)
+				.build();
+	}
+
+}
@@ -16,16 +16,31 @@
 
 package io.spring.initializr.web.ui;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
 import io.spring.initializr.web.AbstractInitializrControllerIntegrationTests;
+import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.skyscreamer.jsonassert.JSONAssert;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * @author Stephane Nicoll
@@ -34,6 +49,9 @@ import org.springframework.test.context.ActiveProfiles;
 public class UiControllerIntegrationTests
 		extends AbstractInitializrControllerIntegrationTests {
 
+	@Autowired
+	private MockMvc mockMvc;
+
 	@Test
 	public void dependenciesNoVersion() throws JSONException {
 		ResponseEntity<String> response = execute("/ui/dependencies", String.class, null);
@@ -49,6 +67,57 @@ public class UiControllerIntegrationTests
 		validateDependenciesOutput("1.1.2", response.getBody());
 	}
 
+	@Test
+	public void dependenciesNotModified() throws Exception {
+		String eTag = this.mockMvc.perform(get("/ui/dependencies"))
+				.andExpect(status().isOk()).andReturn().getResponse()
+				.getHeader(HttpHeaders.ETAG);
+		this.mockMvc
+				.perform(get("/ui/dependencies").header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void dependenciesCompressed() throws Exception {
+		MockHttpServletResponse response = this.mockMvc
+				.perform(get("/ui/dependencies?version=1.1.2.RELEASE")
+						.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn().getResponse();
+		GZIPInputStream in = new GZIPInputStream(
+				new ByteArrayInputStream(response.getContentAsByteArray()));
+		validateDependenciesOutput("1.1.2",
+				StreamUtils.copyToString(in, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void searchDependencies() throws JSONException {
+		ResponseEntity<String> response = execute("/ui/dependencies/search?q=web",
+				String.class, null);
+		validateContentType(response, MediaType.APPLICATION_JSON);
+		JSONArray dependencies = new JSONObject(response.getBody())
+				.getJSONArray("dependencies");
+		assertThat(dependencies.length()).isEqualTo(1);
+		assertThat(dependencies.getJSONObject(0).getString("id")).isEqualTo("web");
+		assertThat(dependencies.getJSONObject(0).getString("group")).isEqualTo("Core");
+	}
+
+	@Test
+	public void searchDependenciesWithBootVersion() throws JSONException {
+		ResponseEntity<String> response = execute(
+				"/ui/dependencies/search?q=biz&bootVersion=2.1.4.RELEASE", String.class,
+				null);
+		assertThat(
+				new JSONObject(response.getBody()).getJSONArray("dependencies").length())
+						.isEqualTo(0);
+		response = execute("/ui/dependencies/search?q=biz", String.class, null);
+		assertThat(
+				new JSONObject(response.getBody()).getJSONArray("dependencies").length())
+						.isEqualTo(1);
+	}
+
 	protected void validateDependenciesOutput(String version, String actual)
 			throws JSONException {
 		JSONObject expected = readJsonFrom(